@@ -0,0 +1,70 @@
+package com.app.network_graph_api;
+
+import com.app.network_graph_api.model.api.GraphRs;
+import com.app.network_graph_api.model.db.UserDto;
+import com.app.network_graph_api.repo.UserRepository;
+import com.app.network_graph_api.service.GraphService;
+import com.app.network_graph_api.utils.EdgeListReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Импорт списка рёбер из командной строки; после импорта приложение завершается:
+ * <pre>
+ * java -jar network-graph-api.jar --spring.main.web-application-type=none \
+ *     --graph.import.file=edges.csv --graph.import.user=login [--graph.import.format=BINARY]
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty("graph.import.file")
+public class GraphImportRunner implements ApplicationRunner {
+    Logger logger = LoggerFactory.getLogger(GraphImportRunner.class);
+
+    @Autowired
+    private GraphService graphService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${graph.import.file}")
+    private String file;
+
+    @Value("${graph.import.user}")
+    private String login;
+
+    @Value("${graph.import.format:CSV}")
+    private EdgeListReader.Format format;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            UserDto user = userRepository.findByLogin(login);
+            if (user == null) {
+                throw new IllegalArgumentException("User not found: " + login);
+            }
+            long start = System.nanoTime();
+            GraphRs rs = graphService.importGraph(user, Path.of(file), format);
+            logger.info("Imported {} as graph {}: {} nodes, {} edges in {} ms", file, rs.getId(), rs.getNodeCount(),
+                    rs.getEdgeCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Import of {} failed: {}", file, e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -4,12 +4,16 @@ import com.app.network_graph_api.model.api.NetworkGraph;
 import com.app.network_graph_api.utils.NetworkGraphDeserializer;
 import com.app.network_graph_api.utils.NetworkGraphSerializer;
 import com.google.gson.GsonBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.gson.GsonBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @EnableAspectJAutoProxy
@@ -25,4 +29,18 @@ public class AppConfig {
 
         return builder;
     }
+
+    /**
+     * Пул для параллельных поисков по графу; по умолчанию по потоку на ядро
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService graphSearchExecutor(@Value("${graph.search.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "graph-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
@@ -1,22 +1,48 @@
 package com.app.network_graph_api.controller;
 
 import com.app.network_graph_api.controller.aop.Authorized;
+import com.app.network_graph_api.model.api.GraphAnalyticsRs;
+import com.app.network_graph_api.model.api.GraphComponentsRs;
+import com.app.network_graph_api.model.api.GraphFlowRs;
 import com.app.network_graph_api.model.api.GraphListRs;
+import com.app.network_graph_api.model.api.GraphMatrixRow;
+import com.app.network_graph_api.model.api.GraphMatrixRq;
+import com.app.network_graph_api.model.api.GraphMstRs;
+import com.app.network_graph_api.model.api.GraphMutationRq;
+import com.app.network_graph_api.model.api.GraphMutationRs;
+import com.app.network_graph_api.model.api.GraphOracleRs;
+import com.app.network_graph_api.model.api.GraphPathBenchmarkRs;
 import com.app.network_graph_api.model.api.GraphPathRs;
+import com.app.network_graph_api.model.api.GraphPathsRq;
+import com.app.network_graph_api.model.api.GraphPathsRs;
+import com.app.network_graph_api.model.api.GraphReachNode;
 import com.app.network_graph_api.model.api.GraphRq;
 import com.app.network_graph_api.model.api.GraphRs;
+import com.app.network_graph_api.model.api.GraphWeightsRq;
+import com.app.network_graph_api.model.api.GraphWeightsRs;
+import com.app.network_graph_api.model.api.QueryAbortedRs;
 import com.app.network_graph_api.service.GraphService;
+import com.app.network_graph_api.utils.NetworkNodeReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("/graph")
@@ -42,6 +68,43 @@ public class GraphController extends ApiController {
         return decide(rs);
     }
 
+    @PostMapping(value = "/stream", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Authorized
+    @Operation(summary = "Потоковое создание графа", description = "Создает граф из большого тела запроса, не загружая его в память целиком: узлы читаются по одному и сохраняются частями. Тело - узлы в формате NDJSON (по узлу на строку) или JSON (массив узлов либо объект с networkNodes; формулы в объекте должны предшествовать networkNodes). Граф в ответе не возвращается", responses = {
+            @ApiResponse(responseCode = "200", description = "Граф успешно создан", content = @Content(schema = @Schema(implementation = GraphRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный формат тела, формулы или граф без узлов"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    public ResponseEntity<GraphRs> ingestGraph(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "Формула веса ребра; по умолчанию из тела запроса или w") @RequestParam(required = false) String edgeWeightFormula,
+            @Parameter(description = "Формула значения узла; по умолчанию из тела запроса или sum") @RequestParam(required = false) String nodeValueFormula,
+            HttpServletRequest request) throws IOException {
+        logger.info("/graph/stream post endpoint called");
+        NetworkNodeReader.Format format = request.getContentType() != null
+                && MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? NetworkNodeReader.Format.NDJSON : NetworkNodeReader.Format.JSON;
+        Reader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        GraphRs rs = graphService.ingestGraph(token, body, format, edgeWeightFormula, nodeValueFormula);
+        return decide(rs);
+    }
+
+    @PostMapping("/import")
+    @Authorized
+    @Operation(summary = "Импорт графа из списка рёбер", description = "Создает граф из списка рёбер в формате CSV (строки src,dst,weight или src,dst с весом 1) или в двоичном формате (GEL1). Файл разбирается через отображение в память без создания объектов на ребро. Граф в ответе не возвращается", responses = {
+            @ApiResponse(responseCode = "200", description = "Граф успешно создан", content = @Content(schema = @Schema(implementation = GraphRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неизвестный формат, ошибка в данных или граф без узлов"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован")
+    })
+    public ResponseEntity<GraphRs> importGraph(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "Формат списка рёбер (CSV, BINARY)") @RequestParam(defaultValue = "CSV") String format,
+            HttpServletRequest request) throws IOException {
+        logger.info("/graph/import post endpoint called");
+        GraphRs rs = graphService.importGraph(token, request.getInputStream(), format);
+        return decide(rs);
+    }
+
     @GetMapping
     @Authorized
     @Operation(summary = "Получение списка графов пользователя", description = "Возвращает список всех графов, созданных пользователем", responses = {
@@ -57,16 +120,51 @@ public class GraphController extends ApiController {
 
     @GetMapping("/{graphId}")
     @Authorized
-    @Operation(summary = "Получение графа по ID", description = "Возвращает граф с указанным ID в новом формате с networkNodes", responses = {
+    @Operation(summary = "Получение графа по ID", description = "Возвращает граф с указанным ID в новом формате с networkNodes; по параметру version - одну из прошлых версий", responses = {
             @ApiResponse(responseCode = "200", description = "Граф успешно получен", content = @Content(schema = @Schema(implementation = GraphRs.class))),
             @ApiResponse(responseCode = "401", description = "Не авторизован"),
-            @ApiResponse(responseCode = "404", description = "Граф не найден")
+            @ApiResponse(responseCode = "404", description = "Граф или версия не найдены")
     })
     public ResponseEntity<GraphRs> getUserGraph(
             @Parameter(description = "Токен авторизации") @RequestParam String token,
-            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId) {
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Версия графа; по умолчанию текущая. Прошлая версия доступна, пока журнал изменений не свёрнут") @RequestParam(required = false) Long version) {
         logger.info("/graph/{graphId} get endpoint called");
-        GraphRs rs = graphService.userGraph(token, graphId);
+        GraphRs rs = graphService.userGraph(token, graphId, version);
+        return decide(rs);
+    }
+
+    @PatchMapping("/{graphId}/weights")
+    @Authorized
+    @Operation(summary = "Изменение весов рёбер графа", description = "Меняет веса соединений сохранённого графа без повторной загрузки; кэшированные кратчайшие пути пересчитываются только в затронутой части графа. При формуле веса ребра, отличной от w, веса пересчитываются по параметрам узлов: документ графа читается целиком, и время запроса пропорционально размеру графа", responses = {
+            @ApiResponse(responseCode = "200", description = "Веса изменены", content = @Content(schema = @Schema(implementation = GraphWeightsRs.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой список изменений или вес"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф, узел или соединение не найдены")
+    })
+    public ResponseEntity<GraphWeightsRs> updateUserGraphWeights(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Новые веса рёбер", required = true) @RequestBody GraphWeightsRq rq) {
+        logger.info("/graph/{graphId}/weights patch endpoint called");
+        GraphWeightsRs rs = graphService.updateUserGraphWeights(token, graphId, rq);
+        return decide(rs);
+    }
+
+    @PatchMapping("/{graphId}")
+    @Authorized
+    @Operation(summary = "Изменение графа", description = "Добавляет и удаляет узлы и соединения, меняет веса. Все операции запроса применяются вместе и дают одну новую версию графа; в БД сохраняются только сами операции, документ графа периодически пересобирается. При формуле веса ребра, отличной от w, граф собирается заново по узлам документа, и время запроса пропорционально размеру графа", responses = {
+            @ApiResponse(responseCode = "200", description = "Граф изменён", content = @Content(schema = @Schema(implementation = GraphMutationRs.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой список операций, не заполнены поля операции, узел уже существует"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф, узел или соединение не найдены")
+    })
+    public ResponseEntity<GraphMutationRs> mutateUserGraph(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Операции изменения", required = true) @RequestBody GraphMutationRq rq) {
+        logger.info("/graph/{graphId} patch endpoint called");
+        GraphMutationRs rs = graphService.mutateUserGraph(token, graphId, rq);
         return decide(rs);
     }
 
@@ -74,16 +172,213 @@ public class GraphController extends ApiController {
     @Authorized
     @Operation(summary = "Вычисление кратчайшего пути в графе", description = "Находит кратчайший путь между двумя указанными узлами в графе", responses = {
             @ApiResponse(responseCode = "200", description = "Путь успешно вычислен", content = @Content(schema = @Schema(implementation = GraphPathRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неизвестный алгоритм или арифметика, веса не подходят для выбранной арифметики, в графе есть цикл отрицательного веса"),
             @ApiResponse(responseCode = "401", description = "Не авторизован"),
-            @ApiResponse(responseCode = "404", description = "Граф не найден")
+            @ApiResponse(responseCode = "404", description = "Граф, версия или узел не найдены, путь не существует"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
     })
     public ResponseEntity<GraphPathRs> calculateUserGraphPath(
             @Parameter(description = "Токен авторизации") @RequestParam String token,
             @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
             @Parameter(description = "Имя начального узла") @RequestParam String n1,
-            @Parameter(description = "Имя конечного узла") @RequestParam String n2) {
+            @Parameter(description = "Имя конечного узла") @RequestParam String n2,
+            @Parameter(description = "Алгоритм поиска (ORACLE, DIJKSTRA, DELTA, ALT, CH, TRACE, BFS, ZERO_ONE_BFS, DAG, BELLMAN_FORD, AUTO); по умолчанию ORACLE, пока матрица расстояний не построена - DIJKSTRA. AUTO выбирает алгоритм по статистике графа") @RequestParam(required = false) String algorithm,
+            @Parameter(description = "Арифметика поиска (DOUBLE, FIXED, EXACT); FIXED и EXACT - поиск Дейкстрой в long с фиксированной точкой или BigDecimal. Итоговый вес всегда точный") @RequestParam(required = false) String numeric,
+            @Parameter(description = "Версия графа; по умолчанию текущая") @RequestParam(required = false) Long version) {
         logger.info("/graph/{graphId}/path get endpoint called");
-        GraphPathRs rs = graphService.userGraphPath(token, graphId, n1, n2);
+        GraphPathRs rs = graphService.userGraphPath(token, graphId, n1, n2, algorithm, numeric, version);
+        return decide(rs);
+    }
+
+    @PostMapping("/{graphId}/paths")
+    @Authorized
+    @Operation(summary = "Пакетный поиск кратчайших путей", description = "Находит кратчайшие пути для списка пар узлов за один запрос; результаты возвращаются в порядке пар", responses = {
+            @ApiResponse(responseCode = "200", description = "Пути вычислены", content = @Content(schema = @Schema(implementation = GraphPathsRs.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой список пар, неизвестный алгоритм"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или версия не найдены"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphPathsRs> calculateUserGraphPaths(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Пары узлов", required = true) @RequestBody GraphPathsRq rq) {
+        logger.info("/graph/{graphId}/paths post endpoint called");
+        GraphPathsRs rs = graphService.userGraphPaths(token, graphId, rq);
+        return decide(rs);
+    }
+
+    @GetMapping("/{graphId}/path/benchmark")
+    @Authorized
+    @Operation(summary = "Сравнение скорости алгоритмов поиска пути", description = "Выполняет поиск пути между двумя узлами несколькими алгоритмами и возвращает время каждого", responses = {
+            @ApiResponse(responseCode = "200", description = "Замеры выполнены", content = @Content(schema = @Schema(implementation = GraphPathBenchmarkRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неизвестный алгоритм"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или узел не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphPathBenchmarkRs> benchmarkUserGraphPath(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Имя начального узла") @RequestParam String n1,
+            @Parameter(description = "Имя конечного узла") @RequestParam String n2,
+            @Parameter(description = "Алгоритмы для сравнения (по умолчанию DIJKSTRA, ALT, CH)") @RequestParam(required = false) List<String> algorithms,
+            @Parameter(description = "Количество замеряемых запусков") @RequestParam(defaultValue = "10") int runs) {
+        logger.info("/graph/{graphId}/path/benchmark get endpoint called");
+        GraphPathBenchmarkRs rs = graphService.userGraphPathBenchmark(token, graphId, n1, n2, algorithms, runs);
+        return decide(rs);
+    }
+
+    @PostMapping(value = "/{graphId}/matrix", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Authorized
+    @Operation(summary = "Матрица кратчайших расстояний", description = "Вычисляет веса кратчайших путей между всеми парами начальных и конечных узлов. Строки матрицы передаются в формате NDJSON по мере вычисления и могут приходить не по порядку", responses = {
+            @ApiResponse(responseCode = "200", description = "Строки матрицы", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = GraphMatrixRow.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой список узлов, слишком большая матрица или цикл отрицательного веса"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или узел не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> calculateUserGraphMatrix(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Начальные и конечные узлы", required = true) @RequestBody GraphMatrixRq rq) {
+        logger.info("/graph/{graphId}/matrix post endpoint called");
+        StreamingResponseBody body = graphService.userGraphMatrix(token, graphId, rq);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/{graphId}/reach", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Authorized
+    @Operation(summary = "Узлы в пределах расстояния", description = "Находит узлы, достижимые из начального не дальше заданного расстояния и/или числа рёбер. Поиск останавливается на границе, узлы передаются в формате NDJSON по мере обработки", responses = {
+            @ApiResponse(responseCode = "200", description = "Достижимые узлы", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = GraphReachNode.class))),
+            @ApiResponse(responseCode = "400", description = "Не задано ни одно ограничение, отрицательное ограничение или отрицательные веса при ограничении расстояния"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или узел не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> calculateUserGraphReach(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Начальный узел") @RequestParam String from,
+            @Parameter(description = "Наибольшее расстояние от начального узла") @RequestParam(required = false) Double maxWeight,
+            @Parameter(description = "Наибольшее число рёбер от начального узла") @RequestParam(required = false) Integer maxHops) {
+        logger.info("/graph/{graphId}/reach get endpoint called");
+        StreamingResponseBody body = graphService.userGraphReach(token, graphId, from, maxWeight, maxHops);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{graphId}/oracle")
+    @Authorized
+    @Operation(summary = "Состояние матрицы расстояний", description = "Возвращает состояние фонового построения матрицы кратчайших расстояний графа и занимаемую ею память", responses = {
+            @ApiResponse(responseCode = "200", description = "Состояние получено", content = @Content(schema = @Schema(implementation = GraphOracleRs.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphOracleRs> getUserGraphOracle(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId) {
+        logger.info("/graph/{graphId}/oracle get endpoint called");
+        GraphOracleRs rs = graphService.userGraphOracle(token, graphId);
+        return decide(rs);
+    }
+
+    @GetMapping("/{graphId}/components")
+    @Authorized
+    @Operation(summary = "Компоненты связности графа", description = "Возвращает компоненты сильной связности графа и рёбра между ними (конденсацию графа)", responses = {
+            @ApiResponse(responseCode = "200", description = "Компоненты получены", content = @Content(schema = @Schema(implementation = GraphComponentsRs.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphComponentsRs> getUserGraphComponents(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Максимальное количество возвращаемых компонент") @RequestParam(defaultValue = "100") int limit) {
+        logger.info("/graph/{graphId}/components get endpoint called");
+        GraphComponentsRs rs = graphService.userGraphComponents(token, graphId, limit);
+        return decide(rs);
+    }
+
+    @GetMapping("/{graphId}/mst")
+    @Authorized
+    @Operation(summary = "Минимальный остовный лес графа", description = "Возвращает рёбра минимального остовного леса (направление рёбер не учитывается) и их суммарный вес", responses = {
+            @ApiResponse(responseCode = "200", description = "Остовный лес построен", content = @Content(schema = @Schema(implementation = GraphMstRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неизвестный алгоритм"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphMstRs> getUserGraphMst(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Алгоритм (BORUVKA, KRUSKAL); по умолчанию выбирается по размеру графа") @RequestParam(required = false) String algorithm) {
+        logger.info("/graph/{graphId}/mst get endpoint called");
+        GraphMstRs rs = graphService.userGraphMst(token, graphId, algorithm);
+        return decide(rs);
+    }
+
+    @GetMapping("/{graphId}/flow")
+    @Authorized
+    @Operation(summary = "Максимальный поток между узлами", description = "Вычисляет максимальный поток между двумя узлами, считая параметры узлов пропускными способностями рёбер; возвращает потоки по рёбрам и минимальный разрез", responses = {
+            @ApiResponse(responseCode = "200", description = "Поток вычислен", content = @Content(schema = @Schema(implementation = GraphFlowRs.class))),
+            @ApiResponse(responseCode = "400", description = "Совпадающие узлы или отрицательные пропускные способности"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или узел не найден"),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных запросов пользователя", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class))),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен или истёк срок выполнения запроса", content = @Content(schema = @Schema(implementation = QueryAbortedRs.class)))
+    })
+    public ResponseEntity<GraphFlowRs> getUserGraphFlow(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Имя узла-источника") @RequestParam String from,
+            @Parameter(description = "Имя узла-стока") @RequestParam String to) {
+        logger.info("/graph/{graphId}/flow get endpoint called");
+        GraphFlowRs rs = graphService.userGraphFlow(token, graphId, from, to);
+        return decide(rs);
+    }
+
+    @PostMapping("/{graphId}/analytics")
+    @Authorized
+    @Operation(summary = "Запуск расчёта метрики важности узлов", description = "Запускает в фоне расчёт PageRank, центральности по посредничеству или близости; ход выполнения доступен по идентификатору задачи", responses = {
+            @ApiResponse(responseCode = "200", description = "Задача запущена", content = @Content(schema = @Schema(implementation = GraphAnalyticsRs.class))),
+            @ApiResponse(responseCode = "400", description = "Неизвестная метрика или отрицательные веса рёбер"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф не найден")
+    })
+    public ResponseEntity<GraphAnalyticsRs> startUserGraphAnalytics(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Метрика (PAGERANK, BETWEENNESS, CLOSENESS)") @RequestParam String metric,
+            @Parameter(description = "Число источников выборки для BETWEENNESS и CLOSENESS; 0 - по умолчанию") @RequestParam(defaultValue = "0") int samples,
+            @Parameter(description = "Записать значения в value узлов графа той версии, по которой они посчитаны; если граф за время расчёта изменился, значения не записываются") @RequestParam(defaultValue = "false") boolean writeBack) {
+        logger.info("/graph/{graphId}/analytics post endpoint called");
+        GraphAnalyticsRs rs = graphService.startUserGraphAnalytics(token, graphId, metric, samples, writeBack);
+        return decide(rs);
+    }
+
+    @GetMapping("/{graphId}/analytics/{jobId}")
+    @Authorized
+    @Operation(summary = "Состояние расчёта метрики", description = "Возвращает ход выполнения и время расчёта, после завершения - узлы с наибольшими значениями метрики", responses = {
+            @ApiResponse(responseCode = "200", description = "Состояние получено", content = @Content(schema = @Schema(implementation = GraphAnalyticsRs.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован"),
+            @ApiResponse(responseCode = "404", description = "Граф или задача не найдены")
+    })
+    public ResponseEntity<GraphAnalyticsRs> getUserGraphAnalytics(
+            @Parameter(description = "Токен авторизации") @RequestParam String token,
+            @Parameter(description = "ID графа") @PathVariable("graphId") Integer graphId,
+            @Parameter(description = "Идентификатор задачи") @PathVariable("jobId") String jobId,
+            @Parameter(description = "Количество узлов с наибольшими значениями") @RequestParam(defaultValue = "100") int limit) {
+        logger.info("/graph/{graphId}/analytics/{jobId} get endpoint called");
+        GraphAnalyticsRs rs = graphService.userGraphAnalytics(token, graphId, jobId, limit);
         return decide(rs);
     }
 }
@@ -1,9 +1,12 @@
 package com.app.network_graph_api.controller.aop;
 
 import com.app.network_graph_api.controller.AuthController;
+import com.app.network_graph_api.exception.BadRequestException;
 import com.app.network_graph_api.exception.NotFoundException;
+import com.app.network_graph_api.exception.QueryAbortedException;
 import com.app.network_graph_api.exception.UnauthorizedException;
 import com.app.network_graph_api.model.api.ApiResponse;
+import com.app.network_graph_api.model.api.QueryAbortedRs;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -23,6 +26,16 @@ import static com.app.network_graph_api.model.api.Error.internalError;
 public class GlobalControllerExceptionHandler {
     Logger logger = LoggerFactory.getLogger(GlobalControllerExceptionHandler.class);
 
+    @ExceptionHandler(value = QueryAbortedException.class)
+    public ResponseEntity<QueryAbortedRs> queryAbortedHandler(HttpServletRequest req, QueryAbortedException e) {
+        logger.warn("{} {}: {}", req.getMethod(), req.getRequestURI(), e.getMessage());
+
+        QueryAbortedRs rs = errorRs(QueryAbortedRs.class, error(e.getMessage(), e.getStatus()));
+        rs.setElapsedMillis(e.getElapsedMillis());
+        rs.setSettledNodes(e.getSettledNodes());
+        return decide(rs);
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ApiResponse> errorHandler(HttpServletRequest req, Exception e) {
         logger.error(e.getMessage(), e);
@@ -31,6 +44,8 @@ public class GlobalControllerExceptionHandler {
             return decide(errorRs(ApiResponse.class, error(e.getMessage(), HttpStatus.UNAUTHORIZED.value())));
         } else if (e instanceof NotFoundException) {
             return decide(errorRs(ApiResponse.class, error(e.getMessage(), HttpStatus.NOT_FOUND.value())));
+        } else if (e instanceof BadRequestException) {
+            return decide(errorRs(ApiResponse.class, error(e.getMessage(), HttpStatus.BAD_REQUEST.value())));
         }
 
         return decide(errorRs(ApiResponse.class, internalError(e.getMessage())));
@@ -0,0 +1,33 @@
+package com.app.network_graph_api.exception;
+
+/**
+ * Запрос прерван ограничителем: истёк срок, запрос отменён или превышен лимит одновременных запросов.
+ * Несёт код ответа и статистику выполненной к моменту прерывания работы.
+ */
+public class QueryAbortedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final long elapsedMillis;
+    private final long settledNodes;
+
+    public QueryAbortedException(String message, int status, long elapsedMillis, long settledNodes) {
+        super(message);
+        this.status = status;
+        this.elapsedMillis = elapsedMillis;
+        this.settledNodes = settledNodes;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getSettledNodes() {
+        return settledNodes;
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Поток по ребру графа")
+public class FlowEdge {
+
+    @Schema(description = "Имя начального узла ребра")
+    private String from;
+
+    @Schema(description = "Имя конечного узла ребра")
+    private String to;
+
+    @Schema(description = "Пропускная способность ребра")
+    private BigDecimal capacity;
+
+    @Schema(description = "Поток по ребру")
+    private BigDecimal flow;
+
+    public FlowEdge() {
+    }
+
+    public FlowEdge(String from, String to, BigDecimal capacity, BigDecimal flow) {
+        this.from = from;
+        this.to = to;
+        this.capacity = capacity;
+        this.flow = flow;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public BigDecimal getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(BigDecimal capacity) {
+        this.capacity = capacity;
+    }
+
+    public BigDecimal getFlow() {
+        return flow;
+    }
+
+    public void setFlow(BigDecimal flow) {
+        this.flow = flow;
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Задача расчёта метрики важности узлов графа")
+public class GraphAnalyticsRs extends ApiResponse {
+
+    @Schema(description = "Идентификатор задачи")
+    private String jobId;
+
+    @Schema(description = "Метрика: PAGERANK, BETWEENNESS, CLOSENESS")
+    private String metric;
+
+    @Schema(description = "Состояние задачи: RUNNING, DONE, FAILED")
+    private String status;
+
+    @Schema(description = "Доля выполненной работы от 0 до 1")
+    private double progress;
+
+    @Schema(description = "Время выполнения, мс")
+    private long elapsedMillis;
+
+    @Schema(description = "Записаны ли значения в value узлов графа")
+    private boolean writtenBack;
+
+    @Schema(description = "Причина ошибки")
+    private String error;
+
+    @Schema(description = "Узлы с наибольшими значениями метрики (после завершения)")
+    private List<NodeScore> scores;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isWrittenBack() {
+        return writtenBack;
+    }
+
+    public void setWrittenBack(boolean writtenBack) {
+        this.writtenBack = writtenBack;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<NodeScore> getScores() {
+        return scores;
+    }
+
+    public void setScores(List<NodeScore> scores) {
+        this.scores = scores;
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Проблема во входных данных графа, обнаруженная при построении")
+public class GraphBuildIssue {
+
+    public enum Type {
+        DANGLING_REFERENCE, COUNT_MISMATCH, DUPLICATE_NODE
+    }
+
+    @Schema(description = "Тип проблемы: DANGLING_REFERENCE - соединение с несуществующим узлом (ребро не создаётся), COUNT_MISMATCH - число параметров не совпадает с числом соединений (недостающие веса равны нулю), DUPLICATE_NODE - повторное имя узла (соединения ведут к первому узлу с этим именем)")
+    private Type type;
+
+    @Schema(description = "Имя узла, в описании которого найдена проблема")
+    private String node;
+
+    @Schema(description = "Индекс соединения в connectedNodes (для DANGLING_REFERENCE)")
+    private Integer index;
+
+    @Schema(description = "Имя несуществующего узла (для DANGLING_REFERENCE)")
+    private String reference;
+
+    @Schema(description = "Число соединений и число параметров (для COUNT_MISMATCH)")
+    private String detail;
+
+    public GraphBuildIssue() {
+    }
+
+    public GraphBuildIssue(Type type, String node, Integer index, String reference, String detail) {
+        this.type = type;
+        this.node = node;
+        this.index = index;
+        this.reference = reference;
+        this.detail = detail;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Компонента сильной связности графа")
+public class GraphComponent {
+
+    @Schema(description = "Номер компоненты; рёбра конденсации ведут только в компоненты с меньшими номерами")
+    private int id;
+
+    @Schema(description = "Количество узлов в компоненте")
+    private int size;
+
+    @Schema(description = "Имена узлов компоненты")
+    private List<String> nodes;
+
+    @Schema(description = "Номера компонент, в которые ведут рёбра из этой компоненты")
+    private List<Integer> successors;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<String> nodes) {
+        this.nodes = nodes;
+    }
+
+    public List<Integer> getSuccessors() {
+        return successors;
+    }
+
+    public void setSuccessors(List<Integer> successors) {
+        this.successors = successors;
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Структура связности графа")
+public class GraphComponentsRs extends ApiResponse {
+
+    @Schema(description = "Количество компонент сильной связности")
+    private int componentCount;
+
+    @Schema(description = "Количество компонент слабой связности")
+    private int weakComponentCount;
+
+    @Schema(description = "Размер наибольшей компоненты сильной связности")
+    private int largestComponentSize;
+
+    @Schema(description = "Отвечает ли индекс достижимости точно, без поиска")
+    private boolean exactReachability;
+
+    @Schema(description = "Компоненты сильной связности по убыванию размера")
+    private List<GraphComponent> components;
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public int getWeakComponentCount() {
+        return weakComponentCount;
+    }
+
+    public void setWeakComponentCount(int weakComponentCount) {
+        this.weakComponentCount = weakComponentCount;
+    }
+
+    public int getLargestComponentSize() {
+        return largestComponentSize;
+    }
+
+    public void setLargestComponentSize(int largestComponentSize) {
+        this.largestComponentSize = largestComponentSize;
+    }
+
+    public boolean isExactReachability() {
+        return exactReachability;
+    }
+
+    public void setExactReachability(boolean exactReachability) {
+        this.exactReachability = exactReachability;
+    }
+
+    public List<GraphComponent> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<GraphComponent> components) {
+        this.components = components;
+    }
+}
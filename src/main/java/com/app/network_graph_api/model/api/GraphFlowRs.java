@@ -0,0 +1,76 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Максимальный поток и минимальный разрез между двумя узлами")
+public class GraphFlowRs extends ApiResponse {
+
+    @Schema(description = "Величина максимального потока; равна пропускной способности минимального разреза")
+    private BigDecimal flowValue;
+
+    @Schema(description = "Рёбра с ненулевым потоком")
+    private List<FlowEdge> edges;
+
+    @Schema(description = "Рёбра минимального разреза")
+    private List<FlowEdge> cutEdges;
+
+    @Schema(description = "Узлы на стороне источника в минимальном разрезе")
+    private List<String> sourceSide;
+
+    @Schema(description = "Количество узлов на стороне стока")
+    private int sinkSideSize;
+
+    @Schema(description = "Время расчёта, мс")
+    private long elapsedMillis;
+
+    public BigDecimal getFlowValue() {
+        return flowValue;
+    }
+
+    public void setFlowValue(BigDecimal flowValue) {
+        this.flowValue = flowValue;
+    }
+
+    public List<FlowEdge> getEdges() {
+        return edges;
+    }
+
+    public void setEdges(List<FlowEdge> edges) {
+        this.edges = edges;
+    }
+
+    public List<FlowEdge> getCutEdges() {
+        return cutEdges;
+    }
+
+    public void setCutEdges(List<FlowEdge> cutEdges) {
+        this.cutEdges = cutEdges;
+    }
+
+    public List<String> getSourceSide() {
+        return sourceSide;
+    }
+
+    public void setSourceSide(List<String> sourceSide) {
+        this.sourceSide = sourceSide;
+    }
+
+    public int getSinkSideSize() {
+        return sinkSideSize;
+    }
+
+    public void setSinkSideSize(int sinkSideSize) {
+        this.sinkSideSize = sinkSideSize;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Строка матрицы кратчайших расстояний; строки передаются по мере готовности, по одной на строку NDJSON")
+public class GraphMatrixRow {
+
+    @Schema(description = "Номер строки (индекс начального узла в запросе)")
+    private int index;
+
+    @Schema(description = "Имя начального узла")
+    private String source;
+
+    @Schema(description = "Веса кратчайших путей до каждого конечного узла в порядке запроса (null, если путь не найден)")
+    private List<Double> weights;
+
+    @Schema(description = "Пути до каждого конечного узла (только если запрошены)")
+    private List<List<String>> paths;
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public List<Double> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(List<Double> weights) {
+        this.weights = weights;
+    }
+
+    public List<List<String>> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<List<String>> paths) {
+        this.paths = paths;
+    }
+}
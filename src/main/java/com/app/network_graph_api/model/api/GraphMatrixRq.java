@@ -0,0 +1,42 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Запрос на построение матрицы кратчайших расстояний")
+public class GraphMatrixRq extends ApiRequest {
+
+    @Schema(description = "Имена начальных узлов (строки матрицы)", required = true)
+    private List<String> sources;
+
+    @Schema(description = "Имена конечных узлов (столбцы матрицы); по умолчанию совпадают с начальными")
+    private List<String> targets;
+
+    @Schema(description = "Возвращать ли сами пути помимо весов")
+    private boolean includePaths;
+
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<String> targets) {
+        this.targets = targets;
+    }
+
+    public boolean isIncludePaths() {
+        return includePaths;
+    }
+
+    public void setIncludePaths(boolean includePaths) {
+        this.includePaths = includePaths;
+    }
+}
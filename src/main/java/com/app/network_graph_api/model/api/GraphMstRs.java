@@ -0,0 +1,65 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Минимальный остовный лес графа (направление рёбер не учитывается)")
+public class GraphMstRs extends ApiResponse {
+
+    @Schema(description = "Использованный алгоритм: BORUVKA или KRUSKAL")
+    private String algorithm;
+
+    @Schema(description = "Суммарный вес рёбер леса")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Количество деревьев в лесу; 1 - граф связен")
+    private int treeCount;
+
+    @Schema(description = "Время построения, мс")
+    private long elapsedMillis;
+
+    @Schema(description = "Рёбра леса")
+    private List<MstEdge> edges;
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public BigDecimal getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(BigDecimal totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public int getTreeCount() {
+        return treeCount;
+    }
+
+    public void setTreeCount(int treeCount) {
+        this.treeCount = treeCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<MstEdge> getEdges() {
+        return edges;
+    }
+
+    public void setEdges(List<MstEdge> edges) {
+        this.edges = edges;
+    }
+}
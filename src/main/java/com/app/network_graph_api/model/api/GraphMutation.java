@@ -0,0 +1,79 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Операция изменения графа")
+public class GraphMutation {
+
+    public enum Type {
+        ADD_NODE, REMOVE_NODE, ADD_EDGE, REMOVE_EDGE, SET_WEIGHT
+    }
+
+    @Schema(description = "Тип операции: ADD_NODE - новый узел без соединений (прежние ссылки на это имя удаляются), REMOVE_NODE - удаление узла вместе с входящими соединениями, ADD_EDGE - новое соединение n1 -> n2 с параметром weight, REMOVE_EDGE - удаление всех соединений n1 -> n2, SET_WEIGHT - новый параметр всех соединений n1 -> n2", required = true)
+    private Type type;
+
+    @Schema(description = "Имя узла (для ADD_NODE и REMOVE_NODE)")
+    private String node;
+
+    @Schema(description = "Имя узла, из которого выходит соединение (для операций с соединениями)")
+    private String n1;
+
+    @Schema(description = "Имя узла, в который ведёт соединение (для операций с соединениями)")
+    private String n2;
+
+    @Schema(description = "Параметр соединения (для ADD_EDGE и SET_WEIGHT); вес ребра считается по формуле графа")
+    private BigDecimal weight;
+
+    public GraphMutation() {
+    }
+
+    public GraphMutation(Type type, String node, String n1, String n2, BigDecimal weight) {
+        this.type = type;
+        this.node = node;
+        this.n1 = n1;
+        this.n2 = n2;
+        this.weight = weight;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public String getN1() {
+        return n1;
+    }
+
+    public void setN1(String n1) {
+        this.n1 = n1;
+    }
+
+    public String getN2() {
+        return n2;
+    }
+
+    public void setN2(String n2) {
+        this.n2 = n2;
+    }
+
+    public BigDecimal getWeight() {
+        return weight;
+    }
+
+    public void setWeight(BigDecimal weight) {
+        this.weight = weight;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Запрос на изменение графа; операции применяются по порядку и все вместе дают одну новую версию")
+public class GraphMutationRq extends ApiRequest {
+
+    @Schema(description = "Операции изменения", required = true)
+    private List<GraphMutation> operations;
+
+    public List<GraphMutation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<GraphMutation> operations) {
+        this.operations = operations;
+    }
+}
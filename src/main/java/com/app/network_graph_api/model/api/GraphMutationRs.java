@@ -0,0 +1,51 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат изменения графа")
+public class GraphMutationRs extends ApiResponse {
+
+    @Schema(description = "Новая версия графа")
+    private long version;
+
+    @Schema(description = "Число узлов после изменения")
+    private int nodeCount;
+
+    @Schema(description = "Число рёбер после изменения")
+    private int edgeCount;
+
+    @Schema(description = "Журнал изменений свёрнут в полную копию графа")
+    private boolean compacted;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public void setEdgeCount(int edgeCount) {
+        this.edgeCount = edgeCount;
+    }
+
+    public boolean isCompacted() {
+        return compacted;
+    }
+
+    public void setCompacted(boolean compacted) {
+        this.compacted = compacted;
+    }
+}
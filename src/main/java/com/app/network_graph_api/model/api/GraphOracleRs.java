@@ -0,0 +1,62 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Состояние матрицы кратчайших расстояний графа")
+public class GraphOracleRs extends ApiResponse {
+
+    @Schema(description = "Состояние построения: DISABLED, BUILDING, READY, FAILED")
+    private String status;
+
+    @Schema(description = "Количество узлов графа")
+    private int nodeCount;
+
+    @Schema(description = "Объём памяти, занимаемый матрицей, в байтах")
+    private long memoryBytes;
+
+    @Schema(description = "Время построения матрицы, мс")
+    private Long buildMillis;
+
+    @Schema(description = "Причина ошибки построения")
+    private String error;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public void setMemoryBytes(long memoryBytes) {
+        this.memoryBytes = memoryBytes;
+    }
+
+    public Long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public void setBuildMillis(Long buildMillis) {
+        this.buildMillis = buildMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Сравнение времени поиска пути разными алгоритмами")
+public class GraphPathBenchmarkRs extends ApiResponse {
+
+    @Schema(description = "Результаты по алгоритмам")
+    private List<PathBenchmark> results;
+
+    public List<PathBenchmark> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PathBenchmark> results) {
+        this.results = results;
+    }
+}
@@ -1,6 +1,8 @@
 package com.app.network_graph_api.model.api;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 @Schema(description = "Ответ с информацией о кратчайшем пути в графе")
@@ -9,8 +11,17 @@ public class GraphPathRs extends ApiResponse {
     @Schema(description = "Список имен узлов, составляющих кратчайший путь")
     private List<String> path;
 
-    @Schema(description = "Общий вес пути")
-    private int totalWeight;
+    @Schema(description = "Общий вес пути, точная десятичная сумма весов рёбер")
+    private BigDecimal totalWeight;
+
+    @Schema(description = "Арифметика поиска: DOUBLE, FIXED или EXACT")
+    private String numericMode;
+
+    @Schema(description = "Алгоритм, выполнивший поиск; для AUTO - выбранный планировщиком")
+    private String algorithm;
+
+    @Schema(description = "Количество узлов, обработанных алгоритмом поиска")
+    private int settledNodes;
 
     public List<String> getPath() {
         return path;
@@ -20,11 +31,35 @@ public class GraphPathRs extends ApiResponse {
         this.path = path;
     }
 
-    public int getTotalWeight() {
+    public BigDecimal getTotalWeight() {
         return totalWeight;
     }
 
-    public void setTotalWeight(int totalWeight) {
+    public void setTotalWeight(BigDecimal totalWeight) {
         this.totalWeight = totalWeight;
     }
+
+    public String getNumericMode() {
+        return numericMode;
+    }
+
+    public void setNumericMode(String numericMode) {
+        this.numericMode = numericMode;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+
+    public void setSettledNodes(int settledNodes) {
+        this.settledNodes = settledNodes;
+    }
 }
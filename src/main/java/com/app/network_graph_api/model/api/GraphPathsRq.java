@@ -0,0 +1,68 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Запрос на пакетный поиск кратчайших путей")
+public class GraphPathsRq extends ApiRequest {
+
+    @Schema(description = "Пары узлов (начальный, конечный)", required = true)
+    private List<NodePair> pairs;
+
+    @Schema(description = "Алгоритм поиска; по умолчанию как в одиночном запросе пути")
+    private String algorithm;
+
+    @Schema(description = "Версия графа; по умолчанию текущая")
+    private Long version;
+
+    public List<NodePair> getPairs() {
+        return pairs;
+    }
+
+    public void setPairs(List<NodePair> pairs) {
+        this.pairs = pairs;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Schema(description = "Пара узлов")
+    public static class NodePair {
+
+        @Schema(description = "Имя начального узла", required = true)
+        private String n1;
+
+        @Schema(description = "Имя конечного узла", required = true)
+        private String n2;
+
+        public String getN1() {
+            return n1;
+        }
+
+        public void setN1(String n1) {
+            this.n1 = n1;
+        }
+
+        public String getN2() {
+            return n2;
+        }
+
+        public void setN2(String n2) {
+            this.n2 = n2;
+        }
+    }
+}
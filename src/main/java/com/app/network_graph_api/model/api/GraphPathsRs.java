@@ -0,0 +1,20 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ответ пакетного поиска кратчайших путей")
+public class GraphPathsRs extends ApiResponse {
+
+    @Schema(description = "Результаты в порядке пар запроса; для ненайденного узла или пути successful = false")
+    private List<GraphPathRs> results;
+
+    public List<GraphPathRs> getResults() {
+        return results;
+    }
+
+    public void setResults(List<GraphPathRs> results) {
+        this.results = results;
+    }
+}
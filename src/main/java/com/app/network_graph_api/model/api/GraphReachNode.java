@@ -0,0 +1,40 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Узел, достижимый в заданных пределах; узлы передаются по мере обработки, по одному на строку NDJSON")
+public class GraphReachNode {
+
+    @Schema(description = "Имя узла")
+    private String node;
+
+    @Schema(description = "Расстояние от начального узла")
+    private double distance;
+
+    @Schema(description = "Число рёбер в найденном пути")
+    private int hops;
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public int getHops() {
+        return hops;
+    }
+
+    public void setHops(int hops) {
+        this.hops = hops;
+    }
+}
@@ -10,6 +10,12 @@ public class GraphRq extends ApiRequest {
     @Schema(description = "Список узлов сети в новом формате", required = true)
     private List<NetworkNode> networkNodes;
 
+    @Schema(description = "Формула веса ребра, например w или p0 + p1 * 2: переменные w (параметр ребра), i (индекс соединения), p0..pN или p[k], n, sum, avg; функции min, max, pow, abs, sqrt, exp, log. По умолчанию w")
+    private String edgeWeightFormula;
+
+    @Schema(description = "Формула значения узла над его параметрами (те же переменные, кроме w и i); по умолчанию sum")
+    private String nodeValueFormula;
+
     public List<NetworkNode> getNetworkNodes() {
         return networkNodes;
     }
@@ -17,4 +23,20 @@ public class GraphRq extends ApiRequest {
     public void setNetworkNodes(List<NetworkNode> networkNodes) {
         this.networkNodes = networkNodes;
     }
+
+    public String getEdgeWeightFormula() {
+        return edgeWeightFormula;
+    }
+
+    public void setEdgeWeightFormula(String edgeWeightFormula) {
+        this.edgeWeightFormula = edgeWeightFormula;
+    }
+
+    public String getNodeValueFormula() {
+        return nodeValueFormula;
+    }
+
+    public void setNodeValueFormula(String nodeValueFormula) {
+        this.nodeValueFormula = nodeValueFormula;
+    }
 }
@@ -2,15 +2,37 @@ package com.app.network_graph_api.model.api;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.List;
+
 @Schema(description = "Ответ с информацией о графе")
 public class GraphRs extends ApiResponse {
 
+    public static final int MAX_ISSUES = 100;
+
     @Schema(description = "Идентификатор графа")
     private Integer id;
 
+    @Schema(description = "Версия графа: 0 при создании, увеличивается на единицу при каждом изменении")
+    private Long version;
+
     @Schema(description = "Граф сети в новом формате с networkNodes")
     private NetworkGraph graph;
 
+    @Schema(description = "Число узлов графа")
+    private Integer nodeCount;
+
+    @Schema(description = "Число рёбер графа (соединения с несуществующими узлами не учитываются)")
+    private Integer edgeCount;
+
+    @Schema(description = "Проблемы входных данных, обнаруженные при построении графа (не больше " + GraphRs.MAX_ISSUES + ")")
+    private List<GraphBuildIssue> issues;
+
+    @Schema(description = "Общее число проблем входных данных")
+    private int issueCount;
+
+    @Schema(description = "Цикл отрицательного веса, если он есть в графе: узлы в порядке обхода, первый повторён в конце. Поиск путей в таком графе недоступен")
+    private List<String> negativeCycle;
+
     public Integer getId() {
         return id;
     }
@@ -19,6 +41,14 @@ public class GraphRs extends ApiResponse {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public NetworkGraph getGraph() {
         return graph;
     }
@@ -26,4 +56,44 @@ public class GraphRs extends ApiResponse {
     public void setGraph(NetworkGraph graph) {
         this.graph = graph;
     }
+
+    public Integer getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(Integer nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public Integer getEdgeCount() {
+        return edgeCount;
+    }
+
+    public void setEdgeCount(Integer edgeCount) {
+        this.edgeCount = edgeCount;
+    }
+
+    public List<GraphBuildIssue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Сохраняет не больше {@value #MAX_ISSUES} проблем и их общее число
+     */
+    public void setIssues(List<GraphBuildIssue> issues) {
+        this.issues = issues.size() > MAX_ISSUES ? List.copyOf(issues.subList(0, MAX_ISSUES)) : issues;
+        this.issueCount = issues.size();
+    }
+
+    public int getIssueCount() {
+        return issueCount;
+    }
+
+    public List<String> getNegativeCycle() {
+        return negativeCycle;
+    }
+
+    public void setNegativeCycle(List<String> negativeCycle) {
+        this.negativeCycle = negativeCycle;
+    }
 }
@@ -0,0 +1,58 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Запрос на изменение весов рёбер графа")
+public class GraphWeightsRq extends ApiRequest {
+
+    @Schema(description = "Новые веса рёбер", required = true)
+    private List<EdgeWeight> updates;
+
+    public List<EdgeWeight> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<EdgeWeight> updates) {
+        this.updates = updates;
+    }
+
+    @Schema(description = "Новый вес соединения; применяется ко всем соединениям между узлами в этом направлении")
+    public static class EdgeWeight {
+
+        @Schema(description = "Имя узла, из которого выходит соединение", required = true)
+        private String n1;
+
+        @Schema(description = "Имя узла, в который ведёт соединение", required = true)
+        private String n2;
+
+        @Schema(description = "Новый вес", required = true)
+        private BigDecimal weight;
+
+        public String getN1() {
+            return n1;
+        }
+
+        public void setN1(String n1) {
+            this.n1 = n1;
+        }
+
+        public String getN2() {
+            return n2;
+        }
+
+        public void setN2(String n2) {
+            this.n2 = n2;
+        }
+
+        public BigDecimal getWeight() {
+            return weight;
+        }
+
+        public void setWeight(BigDecimal weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат изменения весов рёбер")
+public class GraphWeightsRs extends ApiResponse {
+
+    @Schema(description = "Новая версия графа")
+    private long version;
+
+    @Schema(description = "Количество изменённых рёбер")
+    private int updatedEdges;
+
+    @Schema(description = "Количество восстановленных деревьев кратчайших путей из кэша")
+    private int repairedTrees;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getUpdatedEdges() {
+        return updatedEdges;
+    }
+
+    public void setUpdatedEdges(int updatedEdges) {
+        this.updatedEdges = updatedEdges;
+    }
+
+    public int getRepairedTrees() {
+        return repairedTrees;
+    }
+
+    public void setRepairedTrees(int repairedTrees) {
+        this.repairedTrees = repairedTrees;
+    }
+}
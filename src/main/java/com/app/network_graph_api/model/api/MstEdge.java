@@ -0,0 +1,51 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Ребро минимального остовного леса")
+public class MstEdge {
+
+    @Schema(description = "Имя начального узла ребра")
+    private String from;
+
+    @Schema(description = "Имя конечного узла ребра")
+    private String to;
+
+    @Schema(description = "Вес ребра")
+    private BigDecimal weight;
+
+    public MstEdge() {
+    }
+
+    public MstEdge(String from, String to, BigDecimal weight) {
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public BigDecimal getWeight() {
+        return weight;
+    }
+
+    public void setWeight(BigDecimal weight) {
+        this.weight = weight;
+    }
+}
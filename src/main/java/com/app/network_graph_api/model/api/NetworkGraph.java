@@ -13,6 +13,12 @@ public class NetworkGraph {
     @Schema(description = "Узлы графа в новом формате", required = true)
     private List<NetworkNode> networkNodes;
 
+    @Schema(description = "Формула веса ребра над параметрами узла; по умолчанию w - параметр ребра")
+    private String edgeWeightFormula;
+
+    @Schema(description = "Формула значения узла над его параметрами; по умолчанию sum - сумма параметров")
+    private String nodeValueFormula;
+
     public Map<NetworkGraphNode, List<NetworkGraphEdge>> getNodes() {
         return nodes;
     }
@@ -28,4 +34,20 @@ public class NetworkGraph {
     public void setNetworkNodes(List<NetworkNode> networkNodes) {
         this.networkNodes = networkNodes;
     }
+
+    public String getEdgeWeightFormula() {
+        return edgeWeightFormula;
+    }
+
+    public void setEdgeWeightFormula(String edgeWeightFormula) {
+        this.edgeWeightFormula = edgeWeightFormula;
+    }
+
+    public String getNodeValueFormula() {
+        return nodeValueFormula;
+    }
+
+    public void setNodeValueFormula(String nodeValueFormula) {
+        this.nodeValueFormula = nodeValueFormula;
+    }
 }
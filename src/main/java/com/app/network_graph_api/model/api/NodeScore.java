@@ -0,0 +1,37 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Значение метрики для узла")
+public class NodeScore {
+
+    @Schema(description = "Имя узла")
+    private String name;
+
+    @Schema(description = "Значение метрики")
+    private double value;
+
+    public NodeScore() {
+    }
+
+    public NodeScore(String name, double value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Замер времени поиска пути одним алгоритмом")
+public class PathBenchmark {
+
+    @Schema(description = "Алгоритм поиска")
+    private String algorithm;
+
+    @Schema(description = "Количество замеренных запусков")
+    private int runs;
+
+    @Schema(description = "Среднее время поиска, мкс")
+    private long averageMicros;
+
+    @Schema(description = "Минимальное время поиска, мкс")
+    private long minMicros;
+
+    @Schema(description = "Количество узлов, обработанных алгоритмом поиска")
+    private int settledNodes;
+
+    @Schema(description = "Длина найденного пути (null, если путь не найден)")
+    private Double distance;
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public long getAverageMicros() {
+        return averageMicros;
+    }
+
+    public void setAverageMicros(long averageMicros) {
+        this.averageMicros = averageMicros;
+    }
+
+    public long getMinMicros() {
+        return minMicros;
+    }
+
+    public void setMinMicros(long minMicros) {
+        this.minMicros = minMicros;
+    }
+
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+
+    public void setSettledNodes(int settledNodes) {
+        this.settledNodes = settledNodes;
+    }
+
+    public Double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.network_graph_api.model.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Ответ на прерванный запрос со статистикой выполненной работы")
+public class QueryAbortedRs extends ApiResponse {
+
+    @Schema(description = "Время выполнения до прерывания, мс")
+    private long elapsedMillis;
+
+    @Schema(description = "Примерное количество узлов, обработанных до прерывания")
+    private long settledNodes;
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getSettledNodes() {
+        return settledNodes;
+    }
+
+    public void setSettledNodes(long settledNodes) {
+        this.settledNodes = settledNodes;
+    }
+}
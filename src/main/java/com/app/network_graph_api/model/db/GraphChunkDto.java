@@ -0,0 +1,60 @@
+package com.app.network_graph_api.model.db;
+
+import jakarta.persistence.*;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Часть JSON большого графа: документ хранится последовательными кусками текста,
+ * чтобы не собирать его целиком в одну строку ни при записи, ни при чтении
+ */
+@Entity
+@Table(indexes = @Index(columnList = "graph_id, seq"))
+public class GraphChunkDto {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private Integer seq;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String json;
+
+    @ManyToOne
+    @JoinColumn(name = "graph_id", referencedColumnName = "id")
+    GraphDto graph;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Integer seq) {
+        this.seq = seq;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public void setJson(String json) {
+        this.json = json;
+    }
+
+    public GraphDto getGraph() {
+        return graph;
+    }
+
+    public void setGraph(GraphDto graph) {
+        this.graph = graph;
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.network_graph_api.model.db;
+
+import jakarta.persistence.*;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Изменение графа: операции, переводящие граф из версии {@code version - 1} в {@code version}.
+ * Полная копия графа хранится на версии {@link GraphDto#getSnapshotVersion()}, более новые версии
+ * получаются применением изменений по порядку
+ */
+@Entity
+@Table(indexes = @Index(columnList = "graph_id, version"))
+public class GraphDeltaDto {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String json;
+
+    @ManyToOne
+    @JoinColumn(name = "graph_id", referencedColumnName = "id")
+    GraphDto graph;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public void setJson(String json) {
+        this.json = json;
+    }
+
+    public GraphDto getGraph() {
+        return graph;
+    }
+
+    public void setGraph(GraphDto graph) {
+        this.graph = graph;
+    }
+}
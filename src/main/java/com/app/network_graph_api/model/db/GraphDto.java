@@ -1,10 +1,16 @@
 package com.app.network_graph_api.model.db;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import static jakarta.persistence.GenerationType.IDENTITY;
 
+/**
+ * Сохранённый граф. UPDATE пишет только изменённые колонки, поэтому повышение версии
+ * или запись формулы не переписывают документ в json
+ */
 @Entity
+@DynamicUpdate
 public class GraphDto {
 
     @Id
@@ -14,6 +20,30 @@ public class GraphDto {
     @Column(nullable = false, columnDefinition="TEXT")
     private String json;
 
+    @Column
+    private Long version = 0L;
+
+    /**
+     * Число частей {@link GraphChunkDto}, в которых хранится JSON большого графа; json при этом пустой.
+     * null - JSON хранится целиком в поле json
+     */
+    @Column
+    private Integer chunks;
+
+    /**
+     * Версия, на которой сохранена полная копия графа; более поздние версии - изменения {@link GraphDeltaDto}.
+     * null - копия соответствует текущей версии
+     */
+    @Column
+    private Long snapshotVersion;
+
+    /**
+     * Формула веса ребра из документа графа ({@code w} - по умолчанию), чтобы не читать документ ради неё.
+     * null - граф сохранён до появления колонки, формула берётся из документа
+     */
+    @Column(columnDefinition = "TEXT")
+    private String edgeWeightFormula;
+
     @ManyToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     UserDto user;
@@ -34,6 +64,42 @@ public class GraphDto {
         this.json = json;
     }
 
+    public long getVersion() {
+        return version != null ? version : 0L;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(Integer chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion != null ? snapshotVersion : getVersion();
+    }
+
+    public void setSnapshotVersion(Long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public String getEdgeWeightFormula() {
+        return edgeWeightFormula;
+    }
+
+    public void setEdgeWeightFormula(String edgeWeightFormula) {
+        this.edgeWeightFormula = edgeWeightFormula;
+    }
+
+    public boolean isChunked() {
+        return chunks != null;
+    }
+
     public UserDto getUser() {
         return user;
     }
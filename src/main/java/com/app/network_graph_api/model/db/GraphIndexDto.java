@@ -0,0 +1,70 @@
+package com.app.network_graph_api.model.db;
+
+import jakarta.persistence.*;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Предрасчитанный индекс графа (ориентиры ALT и т.п.), сериализованный в бинарный вид
+ */
+@Entity
+public class GraphIndexDto {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String kind;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    @ManyToOne
+    @JoinColumn(name = "graph_id", referencedColumnName = "id")
+    GraphDto graph;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public GraphDto getGraph() {
+        return graph;
+    }
+
+    public void setGraph(GraphDto graph) {
+        this.graph = graph;
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.network_graph_api.repo;
+
+import com.app.network_graph_api.model.db.GraphChunkDto;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface GraphChunkRepository extends CrudRepository<GraphChunkDto, Integer> {
+
+    /**
+     * Части читаются по одной, чтобы в памяти не было всего документа
+     */
+    @Query("select c.json from GraphChunkDto c where c.graph.id = :graphId and c.seq = :seq")
+    Optional<String> findJson(@Param("graphId") Integer graphId, @Param("seq") Integer seq);
+
+    /**
+     * Удаление одним запросом, без загрузки частей
+     */
+    @Modifying
+    @Query("delete from GraphChunkDto c where c.graph.id = :graphId")
+    void deleteByGraphId(@Param("graphId") Integer graphId);
+}
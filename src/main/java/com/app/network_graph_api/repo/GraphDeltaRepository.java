@@ -0,0 +1,24 @@
+package com.app.network_graph_api.repo;
+
+import com.app.network_graph_api.model.db.GraphDeltaDto;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface GraphDeltaRepository extends CrudRepository<GraphDeltaDto, Integer> {
+
+    /**
+     * Изменения, переводящие граф из версии {@code after} в версию {@code upTo}, в порядке применения
+     */
+    @Query("select d from GraphDeltaDto d where d.graph.id = :graphId and d.version > :after and d.version <= :upTo"
+            + " order by d.version")
+    List<GraphDeltaDto> findRange(@Param("graphId") Integer graphId, @Param("after") Long after,
+            @Param("upTo") Long upTo);
+
+    @Modifying
+    @Query("delete from GraphDeltaDto d where d.graph.id = :graphId")
+    void deleteByGraphId(@Param("graphId") Integer graphId);
+}
@@ -0,0 +1,14 @@
+package com.app.network_graph_api.repo;
+
+import com.app.network_graph_api.model.db.GraphIndexDto;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface GraphIndexRepository extends CrudRepository<GraphIndexDto, Integer> {
+
+    List<GraphIndexDto> findByGraphId(Integer graphId);
+
+    Optional<GraphIndexDto> findByGraphIdAndKind(Integer graphId, String kind);
+}
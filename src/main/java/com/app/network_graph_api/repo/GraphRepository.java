@@ -1,7 +1,58 @@
 package com.app.network_graph_api.repo;
 
 import com.app.network_graph_api.model.db.GraphDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface GraphRepository extends CrudRepository<GraphDto, Integer> {
+
+    /**
+     * Метаданные графа без загрузки JSON
+     */
+    @Query("select g.id as id, g.version as version, g.user.id as userId from GraphDto g where g.id = :id")
+    Optional<GraphMeta> findMetaById(@Param("id") Integer id);
+
+    /**
+     * Заголовок графа с блокировкой строки до конца транзакции, чтобы изменения не перетирали друг друга.
+     * Документ графа не загружается
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g.id as id, g.version as version, g.snapshotVersion as snapshotVersion,"
+            + " g.edgeWeightFormula as edgeWeightFormula, g.user.id as userId from GraphDto g where g.id = :id")
+    Optional<GraphHeader> findHeaderForUpdateById(@Param("id") Integer id);
+
+    /**
+     * Повышает версию графа на единицу, запоминая версию полной копии, если она ещё не задана.
+     * Меняются только две колонки, документ графа не переписывается
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update GraphDto g set g.snapshotVersion = coalesce(g.snapshotVersion, g.version, 0),"
+            + " g.version = coalesce(g.version, 0) + 1 where g.id = :id")
+    int incrementVersion(@Param("id") Integer id);
+
+    interface GraphMeta {
+        Integer getId();
+
+        Long getVersion();
+
+        Integer getUserId();
+    }
+
+    interface GraphHeader {
+        Integer getId();
+
+        Long getVersion();
+
+        Long getSnapshotVersion();
+
+        String getEdgeWeightFormula();
+
+        Integer getUserId();
+    }
 }
@@ -0,0 +1,130 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.utils.CompiledGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU-кэш скомпилированных графов по ключу (graphId, version).
+ * Ограничен числом записей и суммарным объёмом графов вместе с прикреплёнными индексами.
+ * Индексы достраиваются после помещения графа в кэш, поэтому объём записи пересчитывается
+ * при каждом обращении к ней и по {@link #reweigh(int, long)}.
+ */
+@Component
+public class CompiledGraphCache {
+    Logger logger = LoggerFactory.getLogger(CompiledGraphCache.class);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public CompiledGraphCache(@Value("${graph.cache.max-entries:64}") int maxEntries,
+            @Value("${graph.cache.max-bytes:268435456}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public CompiledGraph get(int graphId, long version, Supplier<CompiledGraph> loader) {
+        Key key = new Key(graphId, version);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                weigh(key, entry);
+                return entry.graph;
+            }
+        }
+
+        // Компилируем вне блокировки, чтобы не задерживать запросы к другим графам
+        CompiledGraph graph = loader.get();
+        put(key, graph);
+        return graph;
+    }
+
+    public synchronized CompiledGraph getIfPresent(int graphId, long version) {
+        Entry entry = entries.get(new Key(graphId, version));
+        return entry != null ? entry.graph : null;
+    }
+
+    public void put(int graphId, long version, CompiledGraph graph) {
+        put(new Key(graphId, version), graph);
+    }
+
+    /**
+     * Пересчитывает объём записи после прикрепления к графу нового индекса и при необходимости вытесняет
+     * другие записи
+     */
+    public synchronized void reweigh(int graphId, long version) {
+        Key key = new Key(graphId, version);
+        // Обращение через get сделало бы запись самой свежей - перебираем без изменения порядка
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (entry.getKey().equals(key)) {
+                weigh(key, entry.getValue());
+                return;
+            }
+        }
+    }
+
+    public synchronized void invalidate(int graphId) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().graphId() == graphId) {
+                bytes -= entry.getValue().bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized void put(Key key, CompiledGraph graph) {
+        Entry entry = new Entry(graph);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        weigh(key, entry);
+    }
+
+    private void weigh(Key key, Entry entry) {
+        long weight = entry.graph.memoryFootprint();
+        bytes += weight - entry.bytes;
+        entry.bytes = weight;
+        evict(key);
+    }
+
+    private void evict(Key keep) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            bytes -= eldest.getValue().bytes;
+            iterator.remove();
+            logger.debug("Compiled graph {} v{} evicted from cache", eldest.getKey().graphId(), eldest.getKey().version());
+        }
+    }
+
+    private record Key(int graphId, long version) {
+    }
+
+    /**
+     * Граф и объём, с которым он учтён в сумме кэша
+     */
+    private static final class Entry {
+
+        private final CompiledGraph graph;
+        private long bytes;
+
+        Entry(CompiledGraph graph) {
+            this.graph = graph;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.DistanceOracle;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Фоновое построение матриц расстояний для графов не больше {@code graph.oracle.max-nodes} узлов.
+ * Готовая матрица прикрепляется к скомпилированному графу как индекс и живёт вместе с ним в кэше,
+ * занимая часть его объёма.
+ */
+@Service
+public class DistanceOracleService {
+    Logger logger = LoggerFactory.getLogger(DistanceOracleService.class);
+
+    public enum Status {
+        DISABLED, BUILDING, READY, FAILED
+    }
+
+    public record Build(Status status, long version, int nodeCount, long memoryBytes, Long buildMillis, String error) {
+    }
+
+    private final CompiledGraphCache compiledGraphCache;
+    private final int maxNodes;
+    private final ForkJoinPool pool;
+    // Построения идут по одному, параллельность - внутри построения
+    private final ExecutorService scheduler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-oracle");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, Build> builds = new ConcurrentHashMap<>();
+
+    public DistanceOracleService(@Autowired CompiledGraphCache compiledGraphCache,
+            @Value("${graph.oracle.max-nodes:1000}") int maxNodes,
+            @Value("${graph.oracle.parallelism:0}") int parallelism) {
+        this.compiledGraphCache = compiledGraphCache;
+        this.maxNodes = maxNodes;
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Ставит построение матрицы в очередь, если граф подходит по размеру и весам
+     */
+    public void schedule(int graphId, long version, CompiledGraph graph) {
+        if (graph.nodeCount() > maxNodes || graph.minWeight() < 0) {
+            builds.put(graphId, new Build(Status.DISABLED, version, graph.nodeCount(), 0, null, null));
+            return;
+        }
+        if (graph.index(DistanceOracle.class) != null) {
+            return;
+        }
+
+        builds.put(graphId, new Build(Status.BUILDING, version, graph.nodeCount(), 0, null, null));
+        scheduler.submit(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                DistanceOracle oracle = DistanceOracle.build(graph, pool);
+                graph.attachIndex(DistanceOracle.class, oracle);
+                // Матрица занимает 12·n² байт - запись кэша пересчитывается, чтобы граница объёма её учитывала
+                compiledGraphCache.reweigh(graphId, version);
+                long elapsed = System.currentTimeMillis() - start;
+                update(graphId, new Build(Status.READY, version, graph.nodeCount(), oracle.memoryFootprint(), elapsed, null));
+                logger.info("Graph {} distance oracle built in {} ms", graphId, elapsed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Graph {} distance oracle build failed", graphId, e);
+                update(graphId, new Build(Status.FAILED, version, graph.nodeCount(), 0, null, e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * @return состояние построения для графа или null, если построение не запускалось
+     */
+    public Build status(int graphId) {
+        return builds.get(graphId);
+    }
+
+    public void forget(int graphId) {
+        builds.remove(graphId);
+    }
+
+    // Не перезаписываем состояние более новой версии графа
+    private void update(int graphId, Build build) {
+        builds.compute(graphId, (id, current) ->
+                current == null || current.version() <= build.version() ? build : current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdownNow();
+        }
+    }
+}
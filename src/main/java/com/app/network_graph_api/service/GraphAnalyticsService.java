@@ -0,0 +1,260 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.exception.QueryAbortedException;
+import com.app.network_graph_api.repo.GraphRepository;
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.GraphAnalytics;
+import com.app.network_graph_api.utils.QueryBudget;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Фоновые задачи расчёта метрик важности узлов. Задачи выполняются по одной,
+ * параллельность - внутри расчёта. Хранятся последние {@code graph.analytics.max-jobs} задач.
+ * Расчёт дольше {@code graph.analytics.timeout-ms} прерывается при очередном обновлении прогресса.
+ */
+@Service
+public class GraphAnalyticsService {
+    Logger logger = LoggerFactory.getLogger(GraphAnalyticsService.class);
+
+    public enum Metric {
+        PAGERANK, BETWEENNESS, CLOSENESS
+    }
+
+    public enum Status {
+        RUNNING, DONE, FAILED
+    }
+
+    private static final double PAGERANK_DAMPING = 0.85;
+    private static final int PAGERANK_MAX_ITERATIONS = 100;
+    private static final double PAGERANK_TOLERANCE = 1e-9;
+    private static final int DEFAULT_CLOSENESS_SAMPLES = 256;
+
+    private final GraphRepository graphRepository;
+    private final GraphIndexService graphIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxJobs;
+    private final long timeoutMillis;
+    private final ForkJoinPool pool;
+    private final ExecutorService scheduler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-analytics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+
+    public GraphAnalyticsService(@Autowired GraphRepository graphRepository,
+            @Autowired GraphIndexService graphIndexService,
+            @Autowired TransactionTemplate transactionTemplate,
+            @Value("${graph.analytics.max-jobs:100}") int maxJobs,
+            @Value("${graph.analytics.parallelism:0}") int parallelism,
+            @Value("${graph.analytics.timeout-ms:600000}") long timeoutMillis) {
+        this.graphRepository = graphRepository;
+        this.graphIndexService = graphIndexService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxJobs = maxJobs;
+        this.timeoutMillis = timeoutMillis;
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Ставит расчёт в очередь
+     *
+     * @param version версия графа, по которой скомпилирован {@code graph}
+     * @param samples число источников для BETWEENNESS/CLOSENESS; 0 - по умолчанию
+     *                (все узлы для BETWEENNESS, {@value #DEFAULT_CLOSENESS_SAMPLES} для CLOSENESS)
+     */
+    public Job submit(int graphId, long version, CompiledGraph graph, Metric metric, int samples, boolean writeBack) {
+        if (metric != Metric.PAGERANK && graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Centrality requires non-negative weights");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), graphId, metric, writeBack);
+        register(job);
+
+        scheduler.submit(() -> {
+            long start = System.currentTimeMillis();
+            QueryBudget budget = new QueryBudget(timeoutMillis);
+            // Прогресс обновляется из рабочих потоков пула, там же проверяется срок
+            DoubleConsumer progress = value -> {
+                job.setProgress(value);
+                budget.check();
+            };
+            try {
+                double[] values = switch (metric) {
+                    case PAGERANK -> GraphAnalytics.pageRank(graph, PAGERANK_DAMPING, PAGERANK_MAX_ITERATIONS,
+                            PAGERANK_TOLERANCE, pool, progress);
+                    case BETWEENNESS -> GraphAnalytics.betweenness(graph, samples, graphId, pool, progress);
+                    case CLOSENESS -> GraphAnalytics.closeness(graph, samples > 0 ? samples : DEFAULT_CLOSENESS_SAMPLES,
+                            graphId, pool, progress);
+                };
+                job.graph = graph;
+                job.values = values;
+                if (writeBack) {
+                    job.writtenBack = writeBack(graphId, version, graph, values);
+                    if (!job.writtenBack) {
+                        logger.warn("Graph {} changed during {} calculation, values are not written", graphId, metric);
+                    }
+                }
+                job.elapsedMillis = System.currentTimeMillis() - start;
+                job.status = Status.DONE;
+                logger.info("Graph {} {} calculated in {} ms", graphId, metric, job.elapsedMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.fail("Interrupted", System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                QueryAbortedException aborted = aborted(e);
+                if (aborted != null) {
+                    logger.warn("Graph {} {} calculation aborted: {}", graphId, metric, aborted.getMessage());
+                    job.fail(aborted.getMessage(), System.currentTimeMillis() - start);
+                    return;
+                }
+                logger.error("Graph {} {} calculation failed", graphId, metric, e);
+                job.fail(e.getMessage(), System.currentTimeMillis() - start);
+            }
+        });
+        return job;
+    }
+
+    private static QueryAbortedException aborted(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryAbortedException aborted) {
+                return aborted;
+            }
+        }
+        return null;
+    }
+
+    public synchronized Job job(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private synchronized void register(Job job) {
+        jobs.put(job.id, job);
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > maxJobs && iterator.hasNext()) {
+            if (iterator.next().status != Status.RUNNING) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Сохраняет значения метрики как значения узлов графа той версии, по которой они посчитаны.
+     * Документ графа не переписывается, поэтому журнал изменений и прошлые версии сохраняются
+     *
+     * @return false, если граф удалён или изменился во время расчёта
+     */
+    private boolean writeBack(int graphId, long version, CompiledGraph graph, double[] values) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            GraphRepository.GraphMeta meta = graphRepository.findMetaById(graphId).orElse(null);
+            long current = meta != null && meta.getVersion() != null ? meta.getVersion() : 0L;
+            if (meta == null || current != version) {
+                return false;
+            }
+            // Изменение графа после проверки не портит значения: они привязаны к версии расчёта
+            graphIndexService.saveNodeValues(graphId, version, graph, values);
+            return true;
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdownNow();
+        }
+    }
+
+    public static final class Job {
+
+        private final String id;
+        private final int graphId;
+        private final Metric metric;
+        private final boolean writeBack;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile Status status = Status.RUNNING;
+        private volatile double progress;
+        private volatile long elapsedMillis;
+        private volatile boolean writtenBack;
+        private volatile String error;
+        private volatile CompiledGraph graph;
+        private volatile double[] values;
+
+        private Job(String id, int graphId, Metric metric, boolean writeBack) {
+            this.id = id;
+            this.graphId = graphId;
+            this.metric = metric;
+            this.writeBack = writeBack;
+        }
+
+        private void setProgress(double progress) {
+            this.progress = progress;
+        }
+
+        private void fail(String error, long elapsedMillis) {
+            this.error = error;
+            this.elapsedMillis = elapsedMillis;
+            this.status = Status.FAILED;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getGraphId() {
+            return graphId;
+        }
+
+        public Metric getMetric() {
+            return metric;
+        }
+
+        public boolean isWriteBack() {
+            return writeBack;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public double getProgress() {
+            return progress;
+        }
+
+        /**
+         * @return время выполнения; для выполняющейся задачи - с момента постановки в очередь
+         */
+        public long getElapsedMillis() {
+            return status == Status.RUNNING ? System.currentTimeMillis() - startedAt : elapsedMillis;
+        }
+
+        public boolean isWrittenBack() {
+            return writtenBack;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public CompiledGraph getGraph() {
+            return graph;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+    }
+}
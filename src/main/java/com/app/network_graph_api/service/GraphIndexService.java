@@ -0,0 +1,194 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.model.db.GraphDto;
+import com.app.network_graph_api.model.db.GraphIndexDto;
+import com.app.network_graph_api.repo.GraphIndexRepository;
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.ContractionHierarchy;
+import com.app.network_graph_api.utils.GraphStatistics;
+import com.app.network_graph_api.utils.JohnsonPotentials;
+import com.app.network_graph_api.utils.Landmarks;
+import com.app.network_graph_api.utils.ShortestPathAlgorithm;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Построение и хранение предрасчитанных индексов графа рядом с {@link GraphDto}
+ */
+@Service
+public class GraphIndexService {
+    Logger logger = LoggerFactory.getLogger(GraphIndexService.class);
+
+    public static final String LANDMARKS = "landmarks";
+    public static final String CONTRACTION_HIERARCHY = "ch";
+    public static final String STATISTICS = "stats";
+    public static final String JOHNSON_POTENTIALS = "johnson";
+    public static final String NODE_VALUES = "values";
+
+    private final GraphIndexRepository graphIndexRepository;
+    private final int landmarkCount;
+    private final boolean contractionEnabled;
+    private final List<IndexKind<?>> kinds = new ArrayList<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public GraphIndexService(@Autowired GraphIndexRepository graphIndexRepository,
+            @Value("${graph.alt.landmarks:" + Landmarks.DEFAULT_COUNT + "}") int landmarkCount,
+            @Value("${graph.ch.enabled:true}") boolean contractionEnabled) {
+        this.graphIndexRepository = graphIndexRepository;
+        this.landmarkCount = landmarkCount;
+        this.contractionEnabled = contractionEnabled;
+
+        // Статистика нужна планировщику AUTO и остальным индексам не мешает - считается первой
+        kinds.add(new IndexKind<>(STATISTICS, GraphStatistics.class,
+                GraphStatistics::compute, GraphStatistics::toBytes, GraphStatistics::fromBytes));
+        kinds.add(new IndexKind<>(LANDMARKS, Landmarks.class,
+                graph -> Landmarks.build(graph, landmarkCount), Landmarks::toBytes, Landmarks::fromBytes));
+        kinds.add(new IndexKind<>(JOHNSON_POTENTIALS, JohnsonPotentials.class,
+                JohnsonPotentials::compute, JohnsonPotentials::toBytes, JohnsonPotentials::fromBytes));
+        if (contractionEnabled) {
+            kinds.add(new IndexKind<>(CONTRACTION_HIERARCHY, ContractionHierarchy.class,
+                    ContractionHierarchy::build, ContractionHierarchy::toBytes, ContractionHierarchy::fromBytes));
+        }
+    }
+
+    /**
+     * Строит все индексы графа, сохраняет их в БД и прикрепляет к скомпилированному графу
+     */
+    public void buildIndexes(GraphDto graphDto, CompiledGraph graph) {
+        for (IndexKind<?> kind : kinds) {
+            build(graphDto, graph, kind);
+        }
+    }
+
+    /**
+     * Прикрепляет к графу сохранённые индексы текущей версии; отсутствующие строит и сохраняет
+     */
+    public void loadIndexes(GraphDto graphDto, CompiledGraph graph) {
+        Map<String, GraphIndexDto> stored = new HashMap<>();
+        for (GraphIndexDto indexDto : graphIndexRepository.findByGraphId(graphDto.getId())) {
+            if (indexDto.getVersion() == graphDto.getVersion()) {
+                stored.put(indexDto.getKind(), indexDto);
+            }
+        }
+
+        for (IndexKind<?> kind : kinds) {
+            GraphIndexDto indexDto = stored.get(kind.name());
+            if (indexDto == null || !kind.attach(indexDto.getData(), graph)) {
+                // Граф создан до появления индекса или изменился - строим один раз и сохраняем
+                build(graphDto, graph, kind);
+            }
+        }
+    }
+
+    /**
+     * Строит в памяти индекс, нужный алгоритму, если его нет. Прошлые версии и изменённые графы
+     * компилируются без индексов из БД, и без этого алгоритм построил бы индекс с настройками по умолчанию
+     */
+    public void prepare(CompiledGraph graph, ShortestPathAlgorithm algorithm) {
+        if (algorithm == ShortestPathAlgorithm.ALT) {
+            graph.index(Landmarks.class, g -> Landmarks.build(g, landmarkCount));
+        } else if (algorithm == ShortestPathAlgorithm.CH) {
+            // Выключенная иерархия не строится и по запросу: CH выполняется Дейкстрой
+            graph.index(ContractionHierarchy.class,
+                    contractionEnabled ? ContractionHierarchy::build : ContractionHierarchy::unavailable);
+        }
+    }
+
+    /**
+     * Сохраняет рассчитанные значения узлов графа версии {@code version}. Документ графа и журнал
+     * изменений не затрагиваются; значения показываются только в той версии, для которой посчитаны
+     */
+    public void saveNodeValues(int graphId, long version, CompiledGraph graph, double[] values) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * graph.nodeCount());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(graph.nodeCount());
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                out.writeUTF(graph.name(node));
+                out.writeDouble(values[node]);
+            }
+            out.flush();
+            save(entityManager.getReference(GraphDto.class, graphId), NODE_VALUES, version, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сохранённые значения узлов графа версии {@code version}; пусто, если для неё значения не считались
+     */
+    public Map<String, BigDecimal> nodeValues(int graphId, long version) {
+        GraphIndexDto indexDto = graphIndexRepository.findByGraphIdAndKind(graphId, NODE_VALUES).orElse(null);
+        if (indexDto == null || indexDto.getVersion() != version) {
+            return Map.of();
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(indexDto.getData()));
+            int count = in.readInt();
+            Map<String, BigDecimal> values = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                values.put(in.readUTF(), BigDecimal.valueOf(in.readDouble()));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> void build(GraphDto graphDto, CompiledGraph graph, IndexKind<T> kind) {
+        long start = System.currentTimeMillis();
+        T index = kind.builder().apply(graph);
+        graph.attachIndex(kind.type(), index);
+        save(graphDto, kind.name(), kind.toBytes().apply(index));
+        logger.info("Graph {} index '{}' built in {} ms", graphDto.getId(), kind.name(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void save(GraphDto graphDto, String kind, byte[] data) {
+        save(graphDto, kind, graphDto.getVersion(), data);
+    }
+
+    private void save(GraphDto graphDto, String kind, long version, byte[] data) {
+        GraphIndexDto indexDto = graphIndexRepository.findByGraphIdAndKind(graphDto.getId(), kind)
+                .orElseGet(GraphIndexDto::new);
+        indexDto.setGraph(graphDto);
+        indexDto.setKind(kind);
+        indexDto.setVersion(version);
+        indexDto.setData(data);
+        graphIndexRepository.save(indexDto);
+    }
+
+    private record IndexKind<T>(String name, Class<T> type, Function<CompiledGraph, T> builder,
+            Function<T, byte[]> toBytes, BiFunction<byte[], CompiledGraph, T> fromBytes) {
+
+        boolean attach(byte[] data, CompiledGraph graph) {
+            T index = fromBytes.apply(data, graph);
+            if (index == null) {
+                return false;
+            }
+            graph.attachIndex(type, index);
+            return true;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.app.network_graph_api.service;
 
+import com.app.network_graph_api.exception.BadRequestException;
+import com.app.network_graph_api.exception.InternalServerException;
 import com.app.network_graph_api.exception.NotFoundException;
+import com.app.network_graph_api.exception.QueryAbortedException;
 import com.app.network_graph_api.model.api.*;
 import com.app.network_graph_api.model.db.GraphDto;
 import com.app.network_graph_api.model.db.UserDto;
@@ -8,50 +11,284 @@ import com.app.network_graph_api.repo.GraphRepository;
 import com.app.network_graph_api.repo.KeyRepository;
 import com.app.network_graph_api.repo.TokenRepository;
 import com.app.network_graph_api.repo.UserRepository;
+import com.app.network_graph_api.utils.BatchPathSearch;
+import com.app.network_graph_api.utils.BoundedSearch;
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.DecimalDijkstra;
+import com.app.network_graph_api.utils.DeltaStepping;
+import com.app.network_graph_api.utils.DistanceOracle;
+import com.app.network_graph_api.utils.EdgeListReader;
+import com.app.network_graph_api.utils.FixedPointWeights;
+import com.app.network_graph_api.utils.GraphMutator;
 import com.app.network_graph_api.utils.GsonUtils;
+import com.app.network_graph_api.utils.JohnsonPotentials;
+import com.app.network_graph_api.utils.MaxFlow;
+import com.app.network_graph_api.utils.MinimumSpanningForest;
 import com.app.network_graph_api.utils.NetworkGraphUtils;
+import com.app.network_graph_api.utils.NetworkNodeReader;
+import com.app.network_graph_api.utils.NumericMode;
+import com.app.network_graph_api.utils.Pair;
+import com.app.network_graph_api.utils.QueryBudget;
+import com.app.network_graph_api.utils.ReachabilityIndex;
+import com.app.network_graph_api.utils.ShortestPath;
 import com.app.network_graph_api.utils.ShortestPathAlgorithm;
+import com.app.network_graph_api.utils.ShortestPathTree;
+import com.app.network_graph_api.utils.VersionedGraph;
+import com.app.network_graph_api.utils.WeightFormula;
 import com.google.gson.Gson;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.app.network_graph_api.model.api.ApiResponse.errorRs;
+import static com.app.network_graph_api.model.api.Error.error;
 
 @Service
 public class GraphService extends AuthorizedService {
+    Logger logger = LoggerFactory.getLogger(GraphService.class);
+
+    private static final int MAX_BENCHMARK_RUNS = 1000;
 
     private final GraphRepository graphRepository;
+    private final CompiledGraphCache compiledGraphCache;
+    private final GraphIndexService graphIndexService;
+    private final GraphStorageService graphStorageService;
+    private final GraphVersionStore graphVersionStore;
+    private final DistanceOracleService distanceOracleService;
+    private final ShortestPathTreeCache shortestPathTreeCache;
+    private final GraphAnalyticsService graphAnalyticsService;
+    private final QueryGovernor queryGovernor;
+    private final ExecutorService graphSearchExecutor;
+    private final long maxMatrixCells;
+    private final int maxBatchPairs;
+    private final int maxBatchParallelism;
+    private final int deltaMinNodes;
+    private final int deltaMinEdges;
+    private final int mstParallelMinEdges;
+    private final int compactEvery;
 
     public GraphService(@Autowired KeyRepository keyRepository,
             @Autowired UserRepository userRepository,
             @Autowired TokenRepository tokenRepository,
-            @Autowired GraphRepository graphRepository) {
+            @Autowired GraphRepository graphRepository,
+            @Autowired CompiledGraphCache compiledGraphCache,
+            @Autowired GraphIndexService graphIndexService,
+            @Autowired GraphStorageService graphStorageService,
+            @Autowired GraphVersionStore graphVersionStore,
+            @Autowired DistanceOracleService distanceOracleService,
+            @Autowired ShortestPathTreeCache shortestPathTreeCache,
+            @Autowired GraphAnalyticsService graphAnalyticsService,
+            @Autowired QueryGovernor queryGovernor,
+            @Autowired @Qualifier("graphSearchExecutor") ExecutorService graphSearchExecutor,
+            @Value("${graph.matrix.max-cells:1000000}") long maxMatrixCells,
+            @Value("${graph.batch.max-pairs:10000}") int maxBatchPairs,
+            @Value("${graph.batch.max-parallel:0}") int maxBatchParallelism,
+            @Value("${graph.delta.min-nodes:200000}") int deltaMinNodes,
+            @Value("${graph.delta.min-edges:1000000}") int deltaMinEdges,
+            @Value("${graph.mst.parallel-min-edges:100000}") int mstParallelMinEdges,
+            @Value("${graph.mutation.compact-every:100}") int compactEvery) {
         super(keyRepository, userRepository, tokenRepository);
         this.graphRepository = graphRepository;
+        this.compiledGraphCache = compiledGraphCache;
+        this.graphIndexService = graphIndexService;
+        this.graphStorageService = graphStorageService;
+        this.graphVersionStore = graphVersionStore;
+        this.distanceOracleService = distanceOracleService;
+        this.shortestPathTreeCache = shortestPathTreeCache;
+        this.graphAnalyticsService = graphAnalyticsService;
+        this.queryGovernor = queryGovernor;
+        this.graphSearchExecutor = graphSearchExecutor;
+        this.maxMatrixCells = maxMatrixCells;
+        this.maxBatchPairs = maxBatchPairs;
+        this.maxBatchParallelism = maxBatchParallelism > 0 ? maxBatchParallelism
+                : Runtime.getRuntime().availableProcessors();
+        this.deltaMinNodes = deltaMinNodes;
+        this.deltaMinEdges = deltaMinEdges;
+        this.mstParallelMinEdges = mstParallelMinEdges;
+        this.compactEvery = compactEvery;
     }
 
     @Transactional
     public GraphRs createGraph(String token, GraphRq rq) {
-        NetworkGraph graph = NetworkGraphUtils.buildGraph(rq.getNetworkNodes());
+        WeightFormula edgeFormula;
+        WeightFormula nodeFormula;
+        try {
+            edgeFormula = WeightFormula.edge(rq.getEdgeWeightFormula());
+            nodeFormula = WeightFormula.node(rq.getNodeValueFormula());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        NetworkGraphUtils.BuildResult built;
+        try {
+            built = NetworkGraphUtils.build(rq.getNetworkNodes(), edgeFormula, nodeFormula);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        NetworkGraph graph = built.getGraph();
 
         graph.setNetworkNodes(rq.getNetworkNodes());
 
-        Gson gson = GsonUtils.gson();
-        String graphJson = gson.toJson(graph);
+        GraphDto graphDto = new GraphDto();
+        graphStorageService.write(graphDto, graph);
+        graphDto.setUser(findTokenUser(token));
+
+        graphRepository.save(graphDto);
 
+        GraphRs rs = registerGraph(graphDto, built.compile(), built.getIssues());
+        rs.setGraph(graph);
+        return rs;
+    }
+
+    /**
+     * Потоковое создание графа: узлы читаются из тела запроса по одному и сразу дописываются
+     * в хранилище частями, в памяти остаётся только скомпилированный граф.
+     * Граф в ответе не возвращается - только идентификатор, размеры и проблемы входных данных.
+     */
+    @Transactional
+    public GraphRs ingestGraph(String token, Reader body, NetworkNodeReader.Format format,
+            String edgeWeightFormula, String nodeValueFormula) {
         GraphDto graphDto = new GraphDto();
-        graphDto.setJson(graphJson);
+        graphDto.setJson("");
+        graphDto.setChunks(0);
         graphDto.setUser(findTokenUser(token));
+        // Части ссылаются на граф, поэтому запись создаётся до чтения тела
+        graphRepository.save(graphDto);
 
+        GraphStorageService.Ingested ingested;
+        try {
+            ingested = graphStorageService.ingest(graphDto, body, format, edgeWeightFormula, nodeValueFormula);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read request body: " + e.getMessage());
+        }
         graphRepository.save(graphDto);
+        logger.info("Graph {} ingested: {} nodes in {} chunks", graphDto.getId(),
+                ingested.result().getGraph().nodeCount(), graphDto.getChunks());
+
+        return registerGraph(graphDto, ingested.result().getGraph(), ingested.result().getIssues());
+    }
+
+    /**
+     * Импорт списка рёбер из тела запроса: тело сохраняется во временный файл, который разбирается
+     * через отображение в память
+     */
+    @Transactional
+    public GraphRs importGraph(String token, InputStream body, String format) {
+        EdgeListReader.Format edgeListFormat;
+        try {
+            edgeListFormat = EdgeListReader.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown import format: " + format);
+        }
+        UserDto user = findTokenUser(token);
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("graph-import-", ".tmp");
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            return importGraph(user, file, edgeListFormat);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read request body: " + e.getMessage());
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete import file {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Создаёт граф пользователя из файла со списком рёбер; граф хранится частями, как после потоковой загрузки
+     */
+    @Transactional
+    public GraphRs importGraph(UserDto user, Path file, EdgeListReader.Format format) throws IOException {
+        CompiledGraph compiled;
+        try {
+            compiled = EdgeListReader.read(file, format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        if (compiled.nodeCount() == 0) {
+            throw new BadRequestException("Graph has no nodes");
+        }
+
+        GraphDto graphDto = new GraphDto();
+        graphDto.setJson("");
+        graphDto.setChunks(0);
+        graphDto.setUser(user);
+        graphRepository.save(graphDto);
+        graphStorageService.write(graphDto, compiled);
+        graphRepository.save(graphDto);
+        logger.info("Graph {} imported from {}: {} nodes, {} edges", graphDto.getId(), format,
+                compiled.nodeCount(), compiled.edgeCount());
+
+        return registerGraph(graphDto, compiled, List.of());
+    }
+
+    /**
+     * Строит индексы сохранённого графа, кладёт его в кэш и собирает ответ о создании
+     */
+    private GraphRs registerGraph(GraphDto graphDto, CompiledGraph compiled, List<GraphBuildIssue> issues) {
+        compiled.index(ReachabilityIndex.class, ReachabilityIndex::build);
+        graphIndexService.buildIndexes(graphDto, compiled);
+        compiledGraphCache.put(graphDto.getId(), graphDto.getVersion(), compiled);
+        distanceOracleService.schedule(graphDto.getId(), graphDto.getVersion(), compiled);
 
         GraphRs rs = new GraphRs();
-        rs.setGraph(graph);
+        if (!issues.isEmpty()) {
+            logger.warn("Graph {} built with {} input issues", graphDto.getId(), issues.size());
+            rs.setIssues(issues);
+        }
+        JohnsonPotentials potentials = compiled.index(JohnsonPotentials.class, JohnsonPotentials::compute);
+        if (potentials.hasNegativeCycle()) {
+            // Граф сохраняется: поток, остов и метрики для него определены, поиск путей - нет
+            logger.warn("Graph {} {}", graphDto.getId(), potentials.describeNegativeCycle(compiled));
+            rs.setNegativeCycle(compiled.names(potentials.negativeCycle()));
+        }
+        rs.setNodeCount(compiled.nodeCount());
+        rs.setEdgeCount(compiled.edgeCount());
         rs.setSuccessful(true);
         rs.setId(graphDto.getId());
+        rs.setVersion(graphDto.getVersion());
         return rs;
     }
 
@@ -59,10 +296,10 @@ public class GraphService extends AuthorizedService {
         UserDto user = findTokenUser(token);
 
         Map<Integer, NetworkGraph> graphMap = new HashMap<>();
-        Gson gson = GsonUtils.gson();
 
         for (GraphDto graphDto : user.getGraphs()) {
-            NetworkGraph graph = gson.fromJson(graphDto.getJson(), NetworkGraph.class);
+            NetworkGraph graph = graphStorageService.read(graphDto);
+            applyNodeValues(graphDto.getId(), graphDto.getVersion(), graph);
 
             // Если у нас нет networkNodes, создаем их из старого формата на лету
             // НЕ сохраняем в БД, чтобы избежать блокирующих операций
@@ -80,7 +317,11 @@ public class GraphService extends AuthorizedService {
         return rs;
     }
 
-    public GraphRs userGraph(String token, Integer graphId) {
+    /**
+     * Граф пользователя в текущей или указанной версии. Прошлая версия восстанавливается по журналу изменений
+     * и доступна, пока журнал не свёрнут в полную копию
+     */
+    public GraphRs userGraph(String token, Integer graphId, Long version) {
         UserDto user = findTokenUser(token);
         GraphDto graphDto = graphRepository.findById(graphId)
                 .orElseThrow(() -> new NotFoundException("Graph not found"));
@@ -89,7 +330,26 @@ public class GraphService extends AuthorizedService {
             throw new NotFoundException("Graph not found");
         }
 
-        NetworkGraph graph = GsonUtils.gson().fromJson(graphDto.getJson(), NetworkGraph.class);
+        if (version != null && version != graphDto.getVersion()) {
+            NetworkGraph graph;
+            try {
+                graph = graphStorageService.read(graphDto, version);
+            } catch (IllegalArgumentException e) {
+                throw new NotFoundException(e.getMessage());
+            }
+            applyNodeValues(graphDto.getId(), version, graph);
+            if (graph.getNetworkNodes() == null) {
+                graph.setNetworkNodes(NetworkGraphUtils.convertToNetworkNodes(graph));
+            }
+            GraphRs rs = new GraphRs();
+            rs.setId(graphDto.getId());
+            rs.setVersion(version);
+            rs.setGraph(graph);
+            rs.setSuccessful(true);
+            return rs;
+        }
+
+        NetworkGraph graph = graphStorageService.read(graphDto);
 
         // Если у нас нет networkNodes, создаем их из старого формата на лету
         if (graph.getNetworkNodes() == null) {
@@ -99,60 +359,1079 @@ public class GraphService extends AuthorizedService {
             // Асинхронно сохраняем обновленную версию в базе данных (в фоне)
             // Убираем синхронное сохранение, которое может блокировать ответ
             try {
-                String updatedJson = GsonUtils.gson().toJson(graph);
-                graphDto.setJson(updatedJson);
+                graphStorageService.write(graphDto, graph);
                 graphRepository.save(graphDto);
             } catch (Exception e) {
                 // Логируем ошибку, но не прерываем выполнение запроса
                 System.err.println("Ошибка при сохранении миграции графа " + graphId + ": " + e.getMessage());
             }
         }
+        applyNodeValues(graphDto.getId(), graphDto.getVersion(), graph);
 
         GraphRs rs = new GraphRs();
         rs.setId(graphDto.getId());
+        rs.setVersion(graphDto.getVersion());
         rs.setGraph(graph);
         rs.setSuccessful(true);
         return rs;
     }
 
-    public GraphPathRs userGraphPath(String token, Integer graphId, String n1, String n2) {
+    /**
+     * Подставляет в value узлов значения метрики, записанные для этой версии графа
+     */
+    private void applyNodeValues(int graphId, long version, NetworkGraph graph) {
+        Map<String, BigDecimal> values = graphIndexService.nodeValues(graphId, version);
+        if (values.isEmpty()) {
+            return;
+        }
+        for (NetworkGraphNode node : graph.getNodes().keySet()) {
+            BigDecimal value = values.get(node.getName());
+            if (value != null) {
+                node.setValue(value);
+            }
+        }
+    }
+
+    /**
+     * Меняет веса рёбер сохранённого графа и повышает его версию. Топология не меняется, поэтому
+     * скомпилированный граф копируется с новыми весами, а деревья кратчайших путей из кэша
+     * восстанавливаются по затронутым поддеревьям вместо полного пересчёта.
+     * <p>
+     * При формуле веса не по умолчанию параметры узлов есть только в документе, поэтому он читается целиком
+     * с применением журнала: такой запрос стоит O(размер графа), а не O(числа изменений).
+     */
+    @Transactional
+    public GraphWeightsRs updateUserGraphWeights(String token, Integer graphId, GraphWeightsRq rq) {
         UserDto user = findTokenUser(token);
-        GraphDto graphDto = graphRepository.findById(graphId)
-                .orElseThrow(() -> new NotFoundException("Graph not found"));
+        if (rq.getUpdates() == null || rq.getUpdates().isEmpty()) {
+            throw new BadRequestException("Updates are empty");
+        }
+        GraphRepository.GraphHeader header = lockUserGraph(user, graphId);
 
-        if (!user.getId().equals(graphDto.getUser().getId())) {
+        long version = header.getVersion() != null ? header.getVersion() : 0L;
+        CompiledGraph graph = compiledGraphCache.get(graphId, version, () -> compileGraph(loadGraph(graphId)));
+        WeightFormula edgeFormula = edgeFormula(header);
+        double[] weights = graph.weights();
+        Map<Integer, BigDecimal> decimals = new HashMap<>();
+        Set<Integer> changedEdges = new LinkedHashSet<>();
+        Set<String> changedNodes = new LinkedHashSet<>();
+        List<GraphMutation> operations = new ArrayList<>(rq.getUpdates().size());
+        for (GraphWeightsRq.EdgeWeight update : rq.getUpdates()) {
+            if (update.getWeight() == null) {
+                throw new BadRequestException("Weight is empty: " + update.getN1() + " -> " + update.getN2());
+            }
+            int from = graph.id(update.getN1());
+            int to = graph.id(update.getN2());
+            if (from < 0 || to < 0) {
+                throw new NotFoundException("Node not found: " + (from < 0 ? update.getN1() : update.getN2()));
+            }
+            boolean found = false;
+            for (int edge = graph.edgesStart(from); edge < graph.edgesEnd(from); edge++) {
+                if (graph.edgeTarget(edge) == to) {
+                    // Для тождественной формулы параметр и есть вес, граф не пересобирается
+                    if (edgeFormula.isIdentity()) {
+                        weights[edge] = update.getWeight().doubleValue();
+                        decimals.put(edge, update.getWeight());
+                    }
+                    changedEdges.add(edge);
+                    found = true;
+                }
+            }
+            if (!found) {
+                throw new NotFoundException("Edge not found: " + update.getN1() + " -> " + update.getN2());
+            }
+            changedNodes.add(update.getN1());
+            operations.add(new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, update.getN1(), update.getN2(),
+                    update.getWeight()));
+        }
+        if (!edgeFormula.isIdentity()) {
+            try {
+                recalculateWeights(loadGraph(graphId), graph, operations, changedNodes, weights, changedEdges);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        }
+
+        CompiledGraph updatedGraph = graph.withWeights(weights, decimals);
+        // Новые параметры дописываются в журнал изменений, документ графа не переписывается
+        appendOperations(header, version, operations, edgeFormula.isIdentity() ? updatedGraph : null);
+
+        ReachabilityIndex reachability = graph.index(ReachabilityIndex.class);
+        if (reachability != null) {
+            // Достижимость зависит только от топологии
+            updatedGraph.attachIndex(ReachabilityIndex.class, reachability);
+        }
+        // Прошлая версия остаётся в кэше для запросов, начатых до изменения
+        compiledGraphCache.put(graphId, version + 1, updatedGraph);
+        recordVersion(graphId, version, graph, operations, updatedGraph, edgeFormula.isIdentity());
+
+        int[] changed = changedEdges.stream().mapToInt(Integer::intValue).toArray();
+        int repairedTrees = shortestPathTreeCache.migrate(graphId, version, version + 1,
+                tree -> tree.repair(updatedGraph, changed));
+        distanceOracleService.schedule(graphId, version + 1, updatedGraph);
+
+        GraphWeightsRs rs = new GraphWeightsRs();
+        rs.setVersion(version + 1);
+        rs.setUpdatedEdges(changed.length);
+        rs.setRepairedTrees(repairedTrees);
+        rs.setSuccessful(true);
+        return rs;
+    }
+
+    /**
+     * Добавляет и удаляет узлы и рёбра, меняет веса. Операции применяются к скомпилированному графу из кэша,
+     * а в БД дописываются одной записью журнала изменений, без перезаписи документа графа;
+     * раз в {@code graph.mutation.compact-every} версий журнал сворачивается в полную копию.
+     * При формуле веса не по умолчанию операции применяются к узлам документа, и граф компилируется заново:
+     * такой запрос стоит O(размер графа).
+     */
+    @Transactional
+    public GraphMutationRs mutateUserGraph(String token, Integer graphId, GraphMutationRq rq) {
+        UserDto user = findTokenUser(token);
+        List<GraphMutation> operations = rq.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("Operations are empty");
+        }
+        GraphRepository.GraphHeader header = lockUserGraph(user, graphId);
+
+        long version = header.getVersion() != null ? header.getVersion() : 0L;
+        CompiledGraph graph = compiledGraphCache.get(graphId, version, () -> compileGraph(loadGraph(graphId)));
+        boolean identity = edgeFormula(header).isIdentity();
+        CompiledGraph updated;
+        try {
+            if (identity) {
+                updated = GraphMutator.apply(graph, operations);
+            } else {
+                NetworkGraph networkGraph = graphStorageService.read(loadGraph(graphId));
+                List<NetworkNode> networkNodes = networkGraph.getNetworkNodes() != null
+                        ? networkGraph.getNetworkNodes() : graph.toNetworkGraph().getNetworkNodes();
+                updated = CompiledGraph.of(GraphMutator.apply(networkNodes, operations),
+                        WeightFormula.edge(networkGraph.getEdgeWeightFormula()));
+            }
+        } catch (NoSuchElementException e) {
+            throw new NotFoundException(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        boolean compacted = appendOperations(header, version, operations, identity ? updated : null);
+        long newVersion = version + 1;
+
+        // Прошлая версия остаётся в кэше для запросов, начатых до изменения
+        compiledGraphCache.put(graphId, newVersion, updated);
+        recordVersion(graphId, version, graph, operations, updated, identity);
+        // Топология могла измениться, деревья кратчайших путей строятся заново
+        shortestPathTreeCache.invalidate(graphId);
+        distanceOracleService.schedule(graphId, newVersion, updated);
+        logger.info("Graph {} mutated to version {}: {} operations{}", graphId, newVersion, operations.size(),
+                compacted ? ", log compacted" : "");
+
+        GraphMutationRs rs = new GraphMutationRs();
+        rs.setVersion(newVersion);
+        rs.setNodeCount(updated.nodeCount());
+        rs.setEdgeCount(updated.edgeCount());
+        rs.setCompacted(compacted);
+        rs.setSuccessful(true);
+        return rs;
+    }
+
+    /**
+     * Дописывает операции в журнал изменений, повышая версию графа, и при необходимости сворачивает журнал
+     *
+     * @param updated скомпилированный граф новой версии, если его параметры - веса рёбер; по нему журнал
+     *                сворачивается без сборки документа в памяти
+     * @return true, если журнал свёрнут в полную копию
+     */
+    private boolean appendOperations(GraphRepository.GraphHeader header, long version,
+            List<GraphMutation> operations, CompiledGraph updated) {
+        long newVersion = graphStorageService.append(header.getId(), version, operations);
+        long snapshotVersion = header.getSnapshotVersion() != null ? header.getSnapshotVersion() : version;
+        boolean compacted = newVersion - snapshotVersion >= compactEvery;
+        if (compacted) {
+            // Запись графа читается после повышения версии, уже с новой версией
+            GraphDto graphDto = loadGraph(header.getId());
+            graphStorageService.compact(graphDto, updated);
+            graphRepository.save(graphDto);
+        }
+        return compacted;
+    }
+
+    /**
+     * Заголовок графа пользователя с блокировкой строки до конца транзакции; документ графа не загружается
+     */
+    private GraphRepository.GraphHeader lockUserGraph(UserDto user, Integer graphId) {
+        GraphRepository.GraphHeader header = graphRepository.findHeaderForUpdateById(graphId)
+                .orElseThrow(() -> new NotFoundException("Graph not found"));
+        if (!user.getId().equals(header.getUserId())) {
             throw new NotFoundException("Graph not found");
         }
+        return header;
+    }
 
-        NetworkGraph graph = GsonUtils.gson().fromJson(graphDto.getJson(), NetworkGraph.class);
-        List<NetworkGraphNode> nodePath = ShortestPathAlgorithm.TRACE.find(graph, n1, n2);
+    /**
+     * Запись графа с документом; нужна только при промахе кэша, формуле веса не по умолчанию и свёртке журнала
+     */
+    private GraphDto loadGraph(Integer graphId) {
+        return graphRepository.findById(graphId).orElseThrow(() -> new NotFoundException("Graph not found"));
+    }
+
+    /**
+     * Формула веса ребра из заголовка. У графа, сохранённого до появления колонки с формулой, она один раз
+     * читается из документа и записывается в колонку
+     */
+    private WeightFormula edgeFormula(GraphRepository.GraphHeader header) {
+        if (header.getEdgeWeightFormula() != null) {
+            return WeightFormula.edge(header.getEdgeWeightFormula());
+        }
+        GraphDto graphDto = loadGraph(header.getId());
+        WeightFormula edgeFormula = graphStorageService.edgeFormula(graphDto);
+        graphDto.setEdgeWeightFormula(edgeFormula.getExpression());
+        return edgeFormula;
+    }
+
+    /**
+     * Запоминает новую версию в памяти. При весе ребра по умолчанию операции применяются к блокам
+     * прошлой версии и неизменённые блоки общие, иначе версия запоминается целиком
+     */
+    private void recordVersion(int graphId, long version, CompiledGraph graph, List<GraphMutation> operations,
+            CompiledGraph updated, boolean identity) {
+        if (identity) {
+            graphVersionStore.record(graphId, version, graph, operations, version + 1);
+        } else {
+            graphVersionStore.record(graphId, updated, version + 1);
+        }
+    }
+
+    /**
+     * Параметр - аргумент формулы, поэтому пересчитываются все рёбра изменённых узлов. Описания узла с одним
+     * именем идут в смежности подряд в порядке документа, поэтому ребро находится по позиции, а не по имени.
+     */
+    private void recalculateWeights(GraphDto graphDto, CompiledGraph graph, List<GraphMutation> operations,
+            Set<String> changedNodes, double[] weights, Set<Integer> changedEdges) {
+        NetworkGraph networkGraph = graphStorageService.read(graphDto);
+        // Граф старого формата читаем в порядке узлов скомпилированного графа, чтобы нумерация рёбер совпала
+        List<NetworkNode> networkNodes = networkGraph.getNetworkNodes() != null
+                ? networkGraph.getNetworkNodes() : graph.toNetworkGraph().getNetworkNodes();
+        GraphMutator.apply(networkNodes, operations);
+
+        WeightFormula edgeFormula = WeightFormula.edge(networkGraph.getEdgeWeightFormula());
+        int[] next = new int[graph.nodeCount()];
+        for (int node = 0; node < next.length; node++) {
+            next[node] = graph.edgesStart(node);
+        }
+        for (NetworkNode node : networkNodes) {
+            int from = graph.id(node.getName());
+            List<String> connectedNodes = node.getConnectedNodes();
+            if (connectedNodes == null || connectedNodes.isEmpty()) {
+                continue;
+            }
+            if (!changedNodes.contains(node.getName())) {
+                for (String connectedNode : connectedNodes) {
+                    if (graph.id(connectedNode) >= 0) {
+                        next[from]++;
+                    }
+                }
+                continue;
+            }
+            double[] nodeWeights = edgeFormula.edgeWeights(node);
+            for (int i = 0; i < nodeWeights.length; i++) {
+                if (graph.id(connectedNodes.get(i)) < 0) {
+                    continue;
+                }
+                int edge = next[from]++;
+                if (weights[edge] != nodeWeights[i]) {
+                    weights[edge] = nodeWeights[i];
+                    changedEdges.add(edge);
+                }
+            }
+        }
+    }
 
+    public GraphPathRs userGraphPath(String token, Integer graphId, String n1, String n2, String algorithm,
+            String numeric, Long version) {
+        UserDto user = findTokenUser(token);
+        return queryGovernor.run(user.getId(), () -> {
+            ShortestPathAlgorithm pathAlgorithm = pathAlgorithm(algorithm);
+            NumericMode numericMode = numericMode(numeric);
+            if (numericMode != NumericMode.DOUBLE && algorithm != null && !algorithm.isBlank()
+                    && pathAlgorithm != ShortestPathAlgorithm.DIJKSTRA && pathAlgorithm != ShortestPathAlgorithm.AUTO) {
+                throw new BadRequestException("Numeric mode " + numericMode + " is supported only by DIJKSTRA");
+            }
+            UserGraph userGraph = loadUserGraph(user, graphId, version);
+            CompiledGraph graph = userGraph.graph();
+            int source = graph.id(n1);
+            int target = graph.id(n2);
+            ShortestPathAlgorithm resolved = numericMode == NumericMode.DOUBLE
+                    ? pathAlgorithm.resolve(graph) : ShortestPathAlgorithm.DIJKSTRA;
+
+            ShortestPath path = switch (numericMode) {
+                case DOUBLE -> findPath(userGraph, resolved, source, target);
+                case FIXED -> {
+                    if (graph.edgeCount() > 0 && graph.minWeight() < 0) {
+                        throw new BadRequestException("Numeric mode FIXED requires non-negative weights");
+                    }
+                    FixedPointWeights weights = graph.index(FixedPointWeights.class, FixedPointWeights::of);
+                    if (weights == null) {
+                        throw new BadRequestException("Weights cannot be represented in fixed point, use EXACT");
+                    }
+                    yield reachable(graph, source, target) ? weights.find(graph, source, target) : null;
+                }
+                case EXACT -> {
+                    if (graph.edgeCount() > 0 && graph.minWeight() < 0) {
+                        throw new BadRequestException("Numeric mode EXACT requires non-negative weights");
+                    }
+                    yield reachable(graph, source, target) ? DecimalDijkstra.find(graph, source, target) : null;
+                }
+            };
+            if (path == null) {
+                return errorRs(GraphPathRs.class, error("Path not found", HttpStatus.NOT_FOUND.value()));
+            }
+
+            GraphPathRs rs = pathRs(graph, path, resolved);
+            rs.setNumericMode(numericMode.name());
+            return rs;
+        });
+    }
+
+    private static NumericMode numericMode(String numeric) {
+        if (numeric == null || numeric.isBlank()) {
+            return NumericMode.DOUBLE;
+        }
+        try {
+            return NumericMode.valueOf(numeric.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown numeric mode: " + numeric);
+        }
+    }
+
+    private boolean reachable(CompiledGraph graph, int source, int target) {
+        return source >= 0 && target >= 0 && reachability(graph).mayReach(source, target);
+    }
+
+    /**
+     * Пакетный поиск путей: граф загружается один раз, и все пары считаются в одной его версии,
+     * даже если граф тем временем изменили; группировка по начальному узлу - {@link BatchPathSearch}
+     */
+    public GraphPathsRs userGraphPaths(String token, Integer graphId, GraphPathsRq rq) {
+        UserDto user = findTokenUser(token);
+        return queryGovernor.run(user.getId(), () -> {
+            List<GraphPathsRq.NodePair> pairs = rq.getPairs();
+            if (pairs == null || pairs.isEmpty()) {
+                throw new BadRequestException("Pairs are empty");
+            }
+            if (pairs.size() > maxBatchPairs) {
+                throw new BadRequestException("Too many pairs, max: " + maxBatchPairs);
+            }
+            UserGraph userGraph = loadUserGraph(user, graphId, rq.getVersion());
+            CompiledGraph graph = userGraph.graph();
+            ShortestPathAlgorithm pathAlgorithm = pathAlgorithm(rq.getAlgorithm()).resolve(graph);
+
+            BatchPathSearch.Result[] results;
+            try {
+                results = BatchPathSearch.run(graph,
+                        pairs.stream().map(pair -> new Pair<>(pair.getN1(), pair.getN2())).toList(),
+                        (source, target) -> searchPath(userGraph, pathAlgorithm, source, target),
+                        graphSearchExecutor, maxBatchParallelism);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InternalServerException("Batch path calculation interrupted");
+            }
+
+            List<GraphPathRs> items = new ArrayList<>(results.length);
+            for (BatchPathSearch.Result result : results) {
+                items.add(switch (result.status()) {
+                    case FOUND -> pathRs(graph, result.path(), pathAlgorithm);
+                    case NOT_FOUND -> errorRs(GraphPathRs.class, error(result.message(), HttpStatus.NOT_FOUND.value()));
+                    case INVALID -> errorRs(GraphPathRs.class, error(result.message(), HttpStatus.BAD_REQUEST.value()));
+                });
+            }
+            GraphPathsRs rs = new GraphPathsRs();
+            rs.setResults(items);
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    private static GraphPathRs pathRs(CompiledGraph graph, ShortestPath path, ShortestPathAlgorithm algorithm) {
         GraphPathRs rs = new GraphPathRs();
 
         // Преобразуем путь из списка узлов в список имен узлов
-        List<String> pathNames = nodePath.stream()
-                .map(NetworkGraphNode::getName)
-                .toList();
-        rs.setPath(pathNames);
+        rs.setPath(graph.names(path.getNodes()));
+
+        // Поиск идёт в примитивной арифметике, итоговый вес пересчитывается точно по рёбрам пути
+        rs.setTotalWeight(graph.exactLength(path.getEdges()));
+        rs.setNumericMode(NumericMode.DOUBLE.name());
+        rs.setAlgorithm(algorithm.name());
+        rs.setSettledNodes(path.getSettledNodes());
+        rs.setSuccessful(true);
+        return rs;
+    }
 
-        // Расчет общего веса пути
-        int totalWeight = 0;
-        for (int i = 0; i < nodePath.size() - 1; i++) {
-            NetworkGraphNode source = nodePath.get(i);
-            NetworkGraphNode target = nodePath.get(i + 1);
+    /**
+     * Замеряет время поиска одного и того же пути разными алгоритмами.
+     * TRACE перебирает все простые пути, поэтому выполняется только по явному запросу.
+     */
+    public GraphPathBenchmarkRs userGraphPathBenchmark(String token, Integer graphId, String n1, String n2,
+            List<String> algorithms, int runs) {
+        UserDto user = findTokenUser(token);
+        return queryGovernor.run(user.getId(), () -> {
+            CompiledGraph graph = userCompiledGraph(user, graphId);
+            int source = graph.id(n1);
+            int target = graph.id(n2);
+            if (source < 0 || target < 0) {
+                throw new NotFoundException("Node not found");
+            }
 
-            // Находим ребро между источником и целью
-            for (NetworkGraphEdge edge : graph.getNodes().get(source)) {
-                String targetName = edge.getTargetNodeName();
-                if (targetName != null && targetName.equals(target.getName())) {
-                    totalWeight += edge.getWeight().intValue();
-                    break;
+            List<ShortestPathAlgorithm> selected = new ArrayList<>();
+            if (algorithms == null || algorithms.isEmpty()) {
+                selected.add(ShortestPathAlgorithm.DIJKSTRA);
+                selected.add(ShortestPathAlgorithm.ALT);
+                selected.add(ShortestPathAlgorithm.CH);
+            } else {
+                algorithms.forEach(a -> selected.add(pathAlgorithm(a)));
+            }
+            int runCount = Math.max(1, Math.min(runs, MAX_BENCHMARK_RUNS));
+
+            List<PathBenchmark> results = new ArrayList<>();
+            for (ShortestPathAlgorithm algorithm : selected) {
+                // Прогревочный запуск, заодно строит недостающие индексы
+                graphIndexService.prepare(graph, algorithm);
+                ShortestPath path = algorithm.find(graph, source, target);
+
+                long total = 0;
+                long min = Long.MAX_VALUE;
+                for (int i = 0; i < runCount; i++) {
+                    long start = System.nanoTime();
+                    path = algorithm.find(graph, source, target);
+                    long elapsed = System.nanoTime() - start;
+                    total += elapsed;
+                    min = Math.min(min, elapsed);
                 }
+
+                PathBenchmark benchmark = new PathBenchmark();
+                benchmark.setAlgorithm(algorithm.name());
+                benchmark.setRuns(runCount);
+                benchmark.setAverageMicros(total / runCount / 1000);
+                benchmark.setMinMicros(min / 1000);
+                benchmark.setSettledNodes(path != null ? path.getSettledNodes() : 0);
+                benchmark.setDistance(path != null ? path.getDistance() : null);
+                results.add(benchmark);
             }
+
+            GraphPathBenchmarkRs rs = new GraphPathBenchmarkRs();
+            rs.setResults(results);
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    /**
+     * Матрица кратчайших расстояний: по одному поиску на каждый различный начальный узел,
+     * поиски выполняются параллельно, строки пишутся в NDJSON по мере готовности.
+     * Граф и узлы проверяются до начала потоковой передачи, чтобы ошибки возвращались обычным ответом.
+     */
+    public StreamingResponseBody userGraphMatrix(String token, Integer graphId, GraphMatrixRq rq) {
+        UserDto user = findTokenUser(token);
+        if (rq.getSources() == null || rq.getSources().isEmpty()) {
+            throw new BadRequestException("Sources are empty");
+        }
+        List<String> sourceNames = rq.getSources();
+        List<String> targetNames = rq.getTargets() == null || rq.getTargets().isEmpty()
+                ? sourceNames : rq.getTargets();
+        if ((long) sourceNames.size() * targetNames.size() > maxMatrixCells) {
+            throw new BadRequestException("Matrix is too large, max cells: " + maxMatrixCells);
+        }
+
+        // Загрузка графа и потенциалы Джонсона - полные проходы по графу, поэтому проверка тоже идёт в бюджете
+        UserGraph userGraph = queryGovernor.run(user.getId(), () -> {
+            UserGraph loaded = loadUserGraph(user, graphId);
+            CompiledGraph compiled = loaded.graph();
+            if (compiled.minWeight() < 0) {
+                // Отрицательные веса приводятся потенциалами Джонсона, при отрицательном цикле расстояния не определены
+                JohnsonPotentials potentials = compiled.index(JohnsonPotentials.class, JohnsonPotentials::compute);
+                if (potentials.hasNegativeCycle()) {
+                    throw new BadRequestException(potentials.describeNegativeCycle(compiled));
+                }
+            }
+            return loaded;
+        });
+        CompiledGraph graph = userGraph.graph();
+        int[] targets = nodeIds(graph, targetNames);
+        int[] sources = nodeIds(graph, sourceNames);
+
+        // Повторяющиеся начальные узлы считаются один раз
+        Map<Integer, List<Integer>> rowsBySource = new LinkedHashMap<>();
+        for (int row = 0; row < sources.length; row++) {
+            rowsBySource.computeIfAbsent(sources[row], s -> new ArrayList<>()).add(row);
         }
+        boolean includePaths = rq.isIncludePaths();
 
-        rs.setTotalWeight(totalWeight);
+        // Расчёт идёт при записи ответа, поэтому бюджет запроса берётся там же и передаётся поискам в пуле
+        return out -> governed(user, () -> {
+            long start = System.currentTimeMillis();
+            QueryBudget budget = QueryBudget.current();
+            CompletionService<List<GraphMatrixRow>> completion = new ExecutorCompletionService<>(graphSearchExecutor);
+            List<Future<List<GraphMatrixRow>>> futures = new ArrayList<>(rowsBySource.size());
+            for (Map.Entry<Integer, List<Integer>> entry : rowsBySource.entrySet()) {
+                int source = entry.getKey();
+                futures.add(completion.submit(() -> budget.call(() -> {
+                    // Дерево, уже построенное запросами пути, переиспользуется
+                    ShortestPathTree tree = shortestPathTreeCache.getIfPresent(userGraph.id(), userGraph.version(), source);
+                    if (tree == null) {
+                        // Недостижимые цели не держат поиск до исчерпания графа
+                        ReachabilityIndex reachability = reachability(graph);
+                        int[] reachable = Arrays.stream(targets)
+                                .filter(target -> reachability.mayReach(source, target)).toArray();
+                        tree = ShortestPathTree.compute(graph, source, reachable);
+                    }
+                    return matrixRows(graph, tree, entry.getValue(), sourceNames, targets, includePaths);
+                })));
+            }
+
+            Gson gson = GsonUtils.gson();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    for (GraphMatrixRow row : completion.take().get()) {
+                        gson.toJson(row, writer);
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Matrix calculation interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof QueryAbortedException aborted) {
+                    throw aborted;
+                }
+                throw new IOException("Matrix calculation failed", e.getCause());
+            } finally {
+                // Клиент отключился, поиск упал или истёк срок - оставшиеся поиски не нужны
+                futures.forEach(f -> f.cancel(true));
+            }
+            logger.info("Graph {} matrix {}x{} calculated in {} ms", graphId, sources.length, targets.length,
+                    System.currentTimeMillis() - start);
+        });
+    }
+
+    /**
+     * Выполняет запись потокового ответа в бюджете {@link QueryGovernor}
+     */
+    private void governed(UserDto user, StreamAction action) throws IOException {
+        try {
+            queryGovernor.run(user.getId(), () -> {
+                try {
+                    action.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<GraphMatrixRow> matrixRows(CompiledGraph graph, ShortestPathTree tree, List<Integer> rows,
+            List<String> sourceNames, int[] targets, boolean includePaths) {
+        List<Double> weights = new ArrayList<>(targets.length);
+        List<List<String>> paths = includePaths ? new ArrayList<>(targets.length) : null;
+        for (int target : targets) {
+            double distance = tree.distance(target);
+            weights.add(Double.isInfinite(distance) ? null : distance);
+            if (includePaths) {
+                ShortestPath path = tree.path(target);
+                paths.add(path != null ? graph.names(path.getNodes()) : null);
+            }
+        }
+
+        List<GraphMatrixRow> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            GraphMatrixRow matrixRow = new GraphMatrixRow();
+            matrixRow.setIndex(row);
+            matrixRow.setSource(sourceNames.get(row));
+            matrixRow.setWeights(weights);
+            matrixRow.setPaths(paths);
+            result.add(matrixRow);
+        }
+        return result;
+    }
+
+    /**
+     * Узлы в пределах расстояния {@code maxWeight} и/или {@code maxHops} рёбер от начального узла.
+     * Поиск обрезается по границе и пишет узлы в NDJSON сразу по мере обработки;
+     * граф и параметры проверяются до начала потоковой передачи.
+     */
+    public StreamingResponseBody userGraphReach(String token, Integer graphId, String from, Double maxWeight,
+            Integer maxHops) {
+        UserDto user = findTokenUser(token);
+        if (maxWeight == null && maxHops == null) {
+            throw new BadRequestException("maxWeight or maxHops is required");
+        }
+        if (maxWeight != null && !(maxWeight >= 0) || maxHops != null && maxHops < 0) {
+            throw new BadRequestException("Bounds must be non-negative");
+        }
+        CompiledGraph graph = queryGovernor.run(user.getId(), () -> userCompiledGraph(user, graphId));
+        int source = graph.id(from);
+        if (source < 0) {
+            throw new NotFoundException("Node not found: " + from);
+        }
+        // Минимальный вес посчитан при компиляции графа
+        if (maxWeight != null && graph.edgeCount() > 0 && graph.minWeight() < 0) {
+            throw new BadRequestException("Reach by weight requires non-negative weights");
+        }
+
+        // Поиск идёт при записи ответа, поэтому бюджет запроса берётся там же
+        return out -> governed(user, () -> {
+            long start = System.currentTimeMillis();
+            Gson gson = GsonUtils.gson();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            GraphReachNode row = new GraphReachNode();
+            BoundedSearch.Visitor visitor = (node, distance, hops) -> {
+                row.setNode(graph.name(node));
+                row.setDistance(distance);
+                row.setHops(hops);
+                try {
+                    gson.toJson(row, writer);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            int reached;
+            try {
+                reached = maxWeight != null
+                        ? BoundedSearch.byWeight(graph, source, maxWeight, maxHops != null ? maxHops : -1, visitor)
+                        : BoundedSearch.byHops(graph, source, maxHops, visitor);
+            } catch (UncheckedIOException e) {
+                // Клиент отключился - поиск прекращается вместе с записью
+                throw e.getCause();
+            }
+            writer.flush();
+            logger.info("Graph {} reach from {} found {} nodes in {} ms", graphId, from, reached,
+                    System.currentTimeMillis() - start);
+        });
+    }
+
+    private static int[] nodeIds(CompiledGraph graph, List<String> names) {
+        int[] ids = new int[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = graph.id(names.get(i));
+            if (ids[i] < 0) {
+                throw new NotFoundException("Node not found: " + names.get(i));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Состояние матрицы расстояний; для графа, ещё не загруженного после перезапуска, запускает построение
+     */
+    public GraphOracleRs userGraphOracle(String token, Integer graphId) {
+        UserDto user = findTokenUser(token);
+        // Загрузка графа после перезапуска - полная компиляция, поэтому идёт в бюджете пользователя
+        return queryGovernor.run(user.getId(), () -> {
+            CompiledGraph graph = userCompiledGraph(user, graphId);
+            DistanceOracleService.Build build = distanceOracleService.status(graphId);
+
+            GraphOracleRs rs = new GraphOracleRs();
+            rs.setNodeCount(graph.nodeCount());
+            if (build != null) {
+                rs.setStatus(build.status().name());
+                rs.setMemoryBytes(build.memoryBytes());
+                rs.setBuildMillis(build.buildMillis());
+                rs.setError(build.error());
+            } else {
+                rs.setStatus(DistanceOracleService.Status.DISABLED.name());
+            }
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    /**
+     * Компоненты сильной связности графа, крупнейшие первыми
+     */
+    public GraphComponentsRs userGraphComponents(String token, Integer graphId, int limit) {
+        UserDto user = findTokenUser(token);
+        // Промах кэша - компиляция графа и алгоритм Тарьяна, поэтому запрос идёт в бюджете пользователя
+        return queryGovernor.run(user.getId(), () -> {
+            CompiledGraph graph = userCompiledGraph(user, graphId);
+            ReachabilityIndex reachability = reachability(graph);
+
+            Integer[] order = new Integer[reachability.componentCount()];
+            for (int component = 0; component < order.length; component++) {
+                order[component] = component;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(reachability.componentSize(b), reachability.componentSize(a)));
+
+            List<GraphComponent> components = new ArrayList<>();
+            for (int i = 0; i < Math.min(Math.max(limit, 0), order.length); i++) {
+                int component = order[i];
+                GraphComponent graphComponent = new GraphComponent();
+                graphComponent.setId(component);
+                graphComponent.setSize(reachability.componentSize(component));
+                graphComponent.setNodes(graph.names(reachability.componentNodes(component)));
+                graphComponent.setSuccessors(Arrays.stream(reachability.successors(component)).boxed().toList());
+                components.add(graphComponent);
+            }
+
+            GraphComponentsRs rs = new GraphComponentsRs();
+            rs.setComponentCount(reachability.componentCount());
+            rs.setWeakComponentCount(reachability.weakComponentCount());
+            rs.setLargestComponentSize(order.length > 0 ? reachability.componentSize(order[0]) : 0);
+            rs.setExactReachability(reachability.isExact());
+            rs.setComponents(components);
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    /**
+     * Минимальный остовный лес: без явного алгоритма большие графы считаются параллельной Борувкой,
+     * небольшие - Краскалом
+     */
+    public GraphMstRs userGraphMst(String token, Integer graphId, String algorithm) {
+        UserDto user = findTokenUser(token);
+        return queryGovernor.run(user.getId(), () -> {
+            CompiledGraph graph = userCompiledGraph(user, graphId);
+
+            long start = System.currentTimeMillis();
+            MinimumSpanningForest forest;
+            try {
+                if (algorithm == null || algorithm.isBlank()) {
+                    forest = MinimumSpanningForest.compute(graph, ForkJoinPool.commonPool(), mstParallelMinEdges);
+                } else {
+                    forest = switch (mstAlgorithm(algorithm)) {
+                        case BORUVKA -> MinimumSpanningForest.boruvka(graph, ForkJoinPool.commonPool());
+                        case KRUSKAL -> MinimumSpanningForest.kruskal(graph);
+                    };
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InternalServerException("Spanning forest calculation interrupted");
+            } catch (ExecutionException e) {
+                throw new InternalServerException("Spanning forest calculation failed: " + e.getCause().getMessage());
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            // Сумма считается в BigDecimal по исходным десятичным весам рёбер
+            List<MstEdge> edges = new ArrayList<>(forest.getEdges().length);
+            BigDecimal totalWeight = BigDecimal.ZERO;
+            for (int edge : forest.getEdges()) {
+                BigDecimal weight = graph.exactWeight(edge);
+                edges.add(new MstEdge(graph.name(graph.edgeSource(edge)), graph.name(graph.edgeTarget(edge)), weight));
+                totalWeight = totalWeight.add(weight);
+            }
+
+            GraphMstRs rs = new GraphMstRs();
+            rs.setAlgorithm(forest.getAlgorithm().name());
+            rs.setTotalWeight(totalWeight);
+            rs.setTreeCount(forest.getTreeCount());
+            rs.setElapsedMillis(elapsed);
+            rs.setEdges(edges);
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    private static MinimumSpanningForest.Algorithm mstAlgorithm(String algorithm) {
+        try {
+            return MinimumSpanningForest.Algorithm.valueOf(algorithm.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Максимальный поток из {@code from} в {@code to}; пропускные способности - параметры узлов
+     */
+    public GraphFlowRs userGraphFlow(String token, Integer graphId, String from, String to) {
+        UserDto user = findTokenUser(token);
+        return queryGovernor.run(user.getId(), () -> {
+            CompiledGraph graph = userCompiledGraph(user, graphId);
+            int source = graph.id(from);
+            int sink = graph.id(to);
+            if (source < 0 || sink < 0) {
+                throw new NotFoundException("Node not found: " + (source < 0 ? from : to));
+            }
+
+            long start = System.currentTimeMillis();
+            MaxFlow flow;
+            try {
+                flow = MaxFlow.compute(graph, source, sink);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            FixedPointWeights capacities = graph.index(FixedPointWeights.class, FixedPointWeights::of);
+            List<FlowEdge> edges = new ArrayList<>();
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                if (flow.flow(edge) > 0) {
+                    edges.add(flowEdge(graph, flow, capacities, edge));
+                }
+            }
+            List<FlowEdge> cutEdges = new ArrayList<>();
+            for (int edge : flow.cutEdges()) {
+                cutEdges.add(flowEdge(graph, flow, capacities, edge));
+            }
+            List<String> sourceSide = new ArrayList<>();
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                if (flow.isSourceSide(node)) {
+                    sourceSide.add(graph.name(node));
+                }
+            }
+
+            GraphFlowRs rs = new GraphFlowRs();
+            rs.setFlowValue(exactFlow(capacities, flow.getValue()));
+            rs.setEdges(edges);
+            rs.setCutEdges(cutEdges);
+            rs.setSourceSide(sourceSide);
+            rs.setSinkSideSize(graph.nodeCount() - sourceSide.size());
+            rs.setElapsedMillis(elapsed);
+            rs.setSuccessful(true);
+            return rs;
+        });
+    }
+
+    private static FlowEdge flowEdge(CompiledGraph graph, MaxFlow flow, FixedPointWeights capacities, int edge) {
+        return new FlowEdge(graph.name(graph.edgeSource(edge)), graph.name(graph.edgeTarget(edge)),
+                graph.exactWeight(edge), exactFlow(capacities, flow.flow(edge)));
+    }
+
+    /**
+     * Поток складывается из пропускных способностей, поэтому при весах в фиксированной точке точное значение
+     * имеет их масштаб: ошибка округления double снимается округлением до этого масштаба, пока значение
+     * помещается в мантиссу double
+     */
+    private static BigDecimal exactFlow(FixedPointWeights capacities, double value) {
+        BigDecimal decimal = BigDecimal.valueOf(value);
+        if (capacities == null || Math.abs(value) >= 0x1p52 / Math.pow(10, capacities.scale())) {
+            return decimal;
+        }
+        return decimal.setScale(capacities.scale(), RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Запускает фоновый расчёт метрики важности узлов
+     */
+    public GraphAnalyticsRs startUserGraphAnalytics(String token, Integer graphId, String metric, int samples,
+            boolean writeBack) {
+        UserDto user = findTokenUser(token);
+        GraphAnalyticsService.Metric analyticsMetric;
+        try {
+            analyticsMetric = GraphAnalyticsService.Metric.valueOf(metric.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown metric: " + metric);
+        }
+        // Промах кэша компилирует граф на потоке запроса - это тоже расходует бюджет пользователя
+        UserGraph graph = queryGovernor.run(user.getId(), () -> loadUserGraph(user, graphId));
+
+        GraphAnalyticsService.Job job;
+        try {
+            job = graphAnalyticsService.submit(graphId, graph.version(), graph.graph(), analyticsMetric, samples,
+                    writeBack);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        return analyticsRs(job, 0);
+    }
+
+    /**
+     * Состояние расчёта метрики и, после завершения, узлы с наибольшими значениями
+     */
+    public GraphAnalyticsRs userGraphAnalytics(String token, Integer graphId, String jobId, int limit) {
+        UserDto user = findTokenUser(token);
+        userGraphMeta(user, graphId);
+        GraphAnalyticsService.Job job = graphAnalyticsService.job(jobId);
+        if (job == null || job.getGraphId() != graphId) {
+            throw new NotFoundException("Analytics job not found");
+        }
+        return analyticsRs(job, limit);
+    }
+
+    private static GraphAnalyticsRs analyticsRs(GraphAnalyticsService.Job job, int limit) {
+        GraphAnalyticsRs rs = new GraphAnalyticsRs();
+        rs.setJobId(job.getId());
+        rs.setMetric(job.getMetric().name());
+        rs.setStatus(job.getStatus().name());
+        rs.setProgress(job.getProgress());
+        rs.setElapsedMillis(job.getElapsedMillis());
+        rs.setWrittenBack(job.isWrittenBack());
+        rs.setError(job.getError());
+
+        double[] values = job.getValues();
+        if (values != null && limit > 0) {
+            CompiledGraph graph = job.getGraph();
+            rs.setScores(IntStream.range(0, values.length).boxed()
+                    .sorted((a, b) -> Double.compare(values[b], values[a]))
+                    .limit(limit)
+                    .map(node -> new NodeScore(graph.name(node), values[node]))
+                    .toList());
+        }
         rs.setSuccessful(true);
         return rs;
     }
+
+    /**
+     * По умолчанию путь берётся из матрицы расстояний, а пока её нет - ищется Дейкстрой
+     */
+    private static ShortestPathAlgorithm pathAlgorithm(String algorithm) {
+        if (algorithm == null || algorithm.isBlank()) {
+            return ShortestPathAlgorithm.ORACLE;
+        }
+        try {
+            return ShortestPathAlgorithm.valueOf(algorithm.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Дейкстра (и ORACLE до готовности матрицы) строит полное дерево из начального узла и кэширует его,
+     * так что следующие запросы из того же узла не выполняют поиск
+     */
+    private ShortestPath findPath(UserGraph userGraph, ShortestPathAlgorithm algorithm, int source, int target) {
+        try {
+            return searchPath(userGraph, algorithm, source, target);
+        } catch (IllegalArgumentException e) {
+            // Беллман-Форд и Дейкстра по потенциалам сообщают о достижимом цикле отрицательного веса
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException если в графе есть цикл отрицательного веса
+     */
+    private ShortestPath searchPath(UserGraph userGraph, ShortestPathAlgorithm algorithm, int source, int target) {
+        CompiledGraph graph = userGraph.graph();
+        if (source >= 0 && target >= 0 && !reachability(graph).mayReach(source, target)) {
+            // Недостижимая пара отсекается без поиска
+            return null;
+        }
+        boolean treeAlgorithm = algorithm == ShortestPathAlgorithm.DIJKSTRA
+                || algorithm == ShortestPathAlgorithm.ORACLE && graph.index(DistanceOracle.class) == null;
+        if (!treeAlgorithm || source < 0 || target < 0 || graph.minWeight() < 0) {
+            graphIndexService.prepare(graph, algorithm);
+            return algorithm.find(graph, source, target);
+        }
+
+        ShortestPathTree tree = shortestPathTreeCache.get(userGraph.id(), userGraph.version(), source,
+                () -> largeGraph(graph)
+                        ? graph.index(DeltaStepping.class, DeltaStepping::new).tree(source)
+                        : ShortestPathTree.compute(graph, source));
+        return tree.path(target);
+    }
+
+    /**
+     * На больших графах дерево строится параллельным delta-stepping вместо последовательной Дейкстры
+     */
+    private boolean largeGraph(CompiledGraph graph) {
+        return graph.nodeCount() >= deltaMinNodes || graph.edgeCount() >= deltaMinEdges;
+    }
+
+    private static ReachabilityIndex reachability(CompiledGraph graph) {
+        return graph.index(ReachabilityIndex.class, ReachabilityIndex::build);
+    }
+
+    private CompiledGraph userCompiledGraph(UserDto user, Integer graphId) {
+        return loadUserGraph(user, graphId).graph();
+    }
+
+    /**
+     * Возвращает скомпилированный граф пользователя; JSON разбирается только при промахе кэша
+     */
+    private UserGraph loadUserGraph(UserDto user, Integer graphId) {
+        return loadUserGraph(user, graphId, null);
+    }
+
+    /**
+     * Возвращает скомпилированный граф пользователя в текущей или указанной версии. Граф версии неизменяем,
+     * поэтому запрос работает с одной версией до конца, даже если граф тем временем изменили
+     */
+    private UserGraph loadUserGraph(UserDto user, Integer graphId, Long requestedVersion) {
+        GraphRepository.GraphMeta meta = userGraphMeta(user, graphId);
+
+        long current = meta.getVersion() != null ? meta.getVersion() : 0L;
+        if (requestedVersion != null && requestedVersion != current) {
+            if (requestedVersion < 0 || requestedVersion > current) {
+                throw new NotFoundException("Graph version not found: " + requestedVersion);
+            }
+            long version = requestedVersion;
+            CompiledGraph graph = compiledGraphCache.get(graphId, version, () -> historicalGraph(graphId, version));
+            return new UserGraph(graphId, version, graph);
+        }
+        CompiledGraph graph = compiledGraphCache.get(graphId, current, () -> compileGraph(
+                graphRepository.findById(graphId).orElseThrow(() -> new NotFoundException("Graph not found")),
+                current));
+        return new UserGraph(graphId, current, graph);
+    }
+
+    /**
+     * Прошлая версия графа: из версий в памяти, иначе по полной копии и журналу изменений.
+     * Индексы в БД относятся к текущей версии, поэтому к прошлой версии не прикрепляются
+     */
+    private CompiledGraph historicalGraph(int graphId, long version) {
+        VersionedGraph versioned = graphVersionStore.find(graphId, version);
+        if (versioned != null) {
+            return versioned.compile();
+        }
+        return historicalGraph(graphRepository.findById(graphId)
+                .orElseThrow(() -> new NotFoundException("Graph not found")), version);
+    }
+
+    private CompiledGraph historicalGraph(GraphDto graphDto, long version) {
+        try {
+            return graphStorageService.compile(graphDto, version);
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage());
+        }
+    }
+
+    /**
+     * Компилирует сохранённый граф и прикрепляет к нему индексы текущей версии
+     */
+    private CompiledGraph compileGraph(GraphDto graphDto) {
+        return compileGraph(graphDto, graphDto.getVersion());
+    }
+
+    /**
+     * Компилирует граф в версии {@code version}, под которой он попадёт в кэш. Документ читается отдельно
+     * от метаданных и может оказаться новее, если граф изменили между чтениями; тогда собирается прошлая
+     * версия, а индексы из БД и матрица расстояний, относящиеся к версии документа, не прикрепляются
+     */
+    private CompiledGraph compileGraph(GraphDto graphDto, long version) {
+        if (graphDto.getVersion() != version) {
+            VersionedGraph versioned = graphVersionStore.find(graphDto.getId(), version);
+            return versioned != null ? versioned.compile() : historicalGraph(graphDto, version);
+        }
+        CompiledGraph compiled = graphStorageService.compile(graphDto, version);
+        compiled.index(ReachabilityIndex.class, ReachabilityIndex::build);
+        graphIndexService.loadIndexes(graphDto, compiled);
+        distanceOracleService.schedule(graphDto.getId(), version, compiled);
+        return compiled;
+    }
+
+    /**
+     * Метаданные графа пользователя; чужой граф неотличим от отсутствующего
+     */
+    private GraphRepository.GraphMeta userGraphMeta(UserDto user, Integer graphId) {
+        GraphRepository.GraphMeta meta = graphRepository.findMetaById(graphId)
+                .orElseThrow(() -> new NotFoundException("Graph not found"));
+
+        if (!user.getId().equals(meta.getUserId())) {
+            throw new NotFoundException("Graph not found");
+        }
+        return meta;
+    }
+
+    private record UserGraph(int id, long version, CompiledGraph graph) {
+    }
+
+    @FunctionalInterface
+    private interface StreamAction {
+        void run() throws IOException;
+    }
 }
@@ -0,0 +1,546 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.exception.BadRequestException;
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkNode;
+import com.app.network_graph_api.model.db.GraphChunkDto;
+import com.app.network_graph_api.model.db.GraphDeltaDto;
+import com.app.network_graph_api.model.db.GraphDto;
+import com.app.network_graph_api.repo.GraphChunkRepository;
+import com.app.network_graph_api.repo.GraphDeltaRepository;
+import com.app.network_graph_api.repo.GraphRepository;
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.GraphMutator;
+import com.app.network_graph_api.utils.GsonUtils;
+import com.app.network_graph_api.utils.NetworkGraphUtils;
+import com.app.network_graph_api.utils.NetworkNodeReader;
+import com.app.network_graph_api.utils.StreamingGraphBuilder;
+import com.app.network_graph_api.utils.WeightFormula;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Хранение JSON графа. Небольшой граф лежит целиком в {@link GraphDto#getJson()}, граф из потоковой
+ * загрузки - последовательными частями {@link GraphChunkDto}, которые пишутся и читаются по одной.
+ * Документ в частях начинается с формул, затем идут networkNodes, поэтому компиляция разбирает его
+ * потоково, не собирая список узлов.
+ * <p>
+ * Точечные изменения не переписывают документ: они дописываются небольшими записями {@link GraphDeltaDto}
+ * и применяются при чтении поверх полной копии, пока журнал не будет свёрнут в новую копию. Любую версию
+ * от полной копии до текущей можно прочитать, применив начало журнала.
+ */
+@Service
+public class GraphStorageService {
+
+    private static final String EDGE_FORMULA = "edgeWeightFormula";
+    private static final String NODE_FORMULA = "nodeValueFormula";
+    private static final String NETWORK_NODES = "networkNodes";
+    private static final Type OPERATIONS = new TypeToken<List<GraphMutation>>() {
+    }.getType();
+
+    private final GraphRepository graphRepository;
+    private final GraphChunkRepository graphChunkRepository;
+    private final GraphDeltaRepository graphDeltaRepository;
+    private final int chunkChars;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public GraphStorageService(@Autowired GraphRepository graphRepository,
+            @Autowired GraphChunkRepository graphChunkRepository,
+            @Autowired GraphDeltaRepository graphDeltaRepository,
+            @Value("${graph.ingest.chunk-chars:1000000}") int chunkChars) {
+        this.graphRepository = graphRepository;
+        this.graphChunkRepository = graphChunkRepository;
+        this.graphDeltaRepository = graphDeltaRepository;
+        this.chunkChars = chunkChars;
+    }
+
+    /**
+     * Граф целиком с применёнными изменениями; для документа из потоковой загрузки узлы старого формата
+     * достраиваются по networkNodes
+     */
+    public NetworkGraph read(GraphDto graphDto) {
+        return read(graphDto, graphDto.getVersion());
+    }
+
+    /**
+     * Граф в одной из версий от полной копии до текущей
+     *
+     * @throws IllegalArgumentException если версия вне этого диапазона
+     */
+    public NetworkGraph read(GraphDto graphDto, long version) {
+        List<GraphDeltaDto> deltas = deltas(graphDto, version);
+        NetworkGraph graph = readSnapshot(graphDto);
+        if (deltas.isEmpty()) {
+            return graph;
+        }
+        List<NetworkNode> networkNodes = graph.getNetworkNodes() != null
+                ? graph.getNetworkNodes() : CompiledGraph.of(graph).toNetworkGraph().getNetworkNodes();
+        for (GraphDeltaDto delta : deltas) {
+            GraphMutator.apply(networkNodes, operations(delta));
+        }
+        return NetworkGraphUtils.buildGraph(networkNodes, WeightFormula.edge(graph.getEdgeWeightFormula()),
+                WeightFormula.node(graph.getNodeValueFormula()));
+    }
+
+    private NetworkGraph readSnapshot(GraphDto graphDto) {
+        Gson gson = GsonUtils.gson();
+        if (!graphDto.isChunked()) {
+            return gson.fromJson(graphDto.getJson(), NetworkGraph.class);
+        }
+        NetworkGraph graph = gson.fromJson(new ChunkReader(graphDto), NetworkGraph.class);
+        if (graph.getNodes().isEmpty() && graph.getNetworkNodes() != null && !graph.getNetworkNodes().isEmpty()) {
+            graph = NetworkGraphUtils.buildGraph(graph.getNetworkNodes(),
+                    WeightFormula.edge(graph.getEdgeWeightFormula()), WeightFormula.node(graph.getNodeValueFormula()));
+        }
+        return graph;
+    }
+
+    /**
+     * Сохраняет граф в том же виде хранения, в каком он был: большой граф переписывается частями.
+     * Запись - полная копия текущей версии, журнал изменений очищается
+     */
+    public void write(GraphDto graphDto, NetworkGraph graph) {
+        Gson gson = GsonUtils.gson();
+        snapshot(graphDto);
+        graphDto.setEdgeWeightFormula(WeightFormula.edge(graph.getEdgeWeightFormula()).getExpression());
+        if (!graphDto.isChunked()) {
+            graphDto.setJson(gson.toJson(graph));
+            return;
+        }
+        List<NetworkNode> networkNodes = graph.getNetworkNodes() != null
+                ? graph.getNetworkNodes() : NetworkGraphUtils.convertToNetworkNodes(graph);
+        graphChunkRepository.deleteByGraphId(graphDto.getId());
+        ChunkWriter chunks = new ChunkWriter(graphDto);
+        // Узлы пишутся по одному, без промежуточного дерева JSON. Формулы нужны до узлов: по ним считаются
+        // веса при потоковой компиляции; nodes не пишется - при чтении он строится по networkNodes
+        try (JsonWriter out = new JsonWriter(chunks)) {
+            out.beginObject();
+            if (graph.getEdgeWeightFormula() != null) {
+                out.name(EDGE_FORMULA).value(graph.getEdgeWeightFormula());
+            }
+            if (graph.getNodeValueFormula() != null) {
+                out.name(NODE_FORMULA).value(graph.getNodeValueFormula());
+            }
+            out.name(NETWORK_NODES).beginArray();
+            for (NetworkNode node : networkNodes) {
+                gson.toJson(node, NetworkNode.class, out);
+            }
+            out.endArray();
+            out.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        graphDto.setJson("");
+        graphDto.setChunks(chunks.count());
+    }
+
+    /**
+     * Сохраняет скомпилированный граф частями, узел за узлом: параметры узла - веса его рёбер,
+     * формулы по умолчанию, поэтому при повторной компиляции получается тот же граф
+     */
+    public void write(GraphDto graphDto, CompiledGraph graph) {
+        write(graphDto, graph, null);
+    }
+
+    /**
+     * То же с заданной формулой значения узла; веса пишутся исходными десятичными значениями
+     */
+    private void write(GraphDto graphDto, CompiledGraph graph, String nodeValueFormula) {
+        snapshot(graphDto);
+        graphDto.setEdgeWeightFormula(WeightFormula.DEFAULT_EDGE.getExpression());
+        if (graphDto.getId() != null) {
+            graphChunkRepository.deleteByGraphId(graphDto.getId());
+        }
+        ChunkWriter chunks = new ChunkWriter(graphDto);
+        try (JsonWriter out = new JsonWriter(chunks)) {
+            out.beginObject();
+            if (nodeValueFormula != null) {
+                out.name(NODE_FORMULA).value(nodeValueFormula);
+            }
+            out.name(NETWORK_NODES).beginArray();
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                out.beginObject();
+                out.name("name").value(graph.name(node));
+                out.name("parameters").beginArray();
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    out.value(graph.exactWeight(edge));
+                }
+                out.endArray();
+                out.name("connectedNodes").beginArray();
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    out.value(graph.name(graph.edgeTarget(edge)));
+                }
+                out.endArray();
+                out.endObject();
+            }
+            out.endArray();
+            out.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        graphDto.setJson("");
+        graphDto.setChunks(chunks.count());
+    }
+
+    /**
+     * Компилирует сохранённый граф; части разбираются потоково, исходные узлы не накапливаются.
+     * При весе ребра по умолчанию изменения применяются к скомпилированной копии, иначе граф
+     * собирается по узлам с применёнными изменениями
+     */
+    public CompiledGraph compile(GraphDto graphDto) {
+        return compile(graphDto, graphDto.getVersion());
+    }
+
+    /**
+     * Компилирует граф в одной из версий от полной копии до текущей
+     *
+     * @throws IllegalArgumentException если версия вне этого диапазона
+     */
+    public CompiledGraph compile(GraphDto graphDto, long version) {
+        List<GraphDeltaDto> deltas = deltas(graphDto, version);
+        if (deltas.isEmpty()) {
+            return compileSnapshot(graphDto);
+        }
+        if (!edgeFormula(graphDto).isIdentity()) {
+            return CompiledGraph.of(read(graphDto, version));
+        }
+        CompiledGraph graph = compileSnapshot(graphDto);
+        for (GraphDeltaDto delta : deltas) {
+            graph = GraphMutator.apply(graph, operations(delta));
+        }
+        return graph;
+    }
+
+    private CompiledGraph compileSnapshot(GraphDto graphDto) {
+        if (!graphDto.isChunked()) {
+            return CompiledGraph.of(GsonUtils.gson().fromJson(graphDto.getJson(), NetworkGraph.class));
+        }
+        Compilation compilation = new Compilation(null, null);
+        try {
+            NetworkNodeReader.read(new ChunkReader(graphDto), NetworkNodeReader.Format.JSON, compilation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compilation.builder.build().getGraph();
+    }
+
+    /**
+     * Дописывает изменение в журнал и повышает версию графа. Запись графа не загружается: изменение
+     * ссылается на неё по идентификатору, версия повышается отдельным UPDATE двух колонок
+     *
+     * @param version текущая версия графа, прочитанная под блокировкой строки
+     * @return новая версия
+     */
+    public long append(int graphId, long version, List<GraphMutation> operations) {
+        GraphDeltaDto delta = new GraphDeltaDto();
+        delta.setGraph(entityManager.getReference(GraphDto.class, graphId));
+        delta.setVersion(version + 1);
+        delta.setJson(GsonUtils.gson().toJson(operations, OPERATIONS));
+        graphDeltaRepository.save(delta);
+        graphRepository.incrementVersion(graphId);
+        return version + 1;
+    }
+
+    /**
+     * Сворачивает журнал изменений в полную копию текущей версии. Граф из частей при весе ребра по умолчанию
+     * пишется узел за узлом из скомпилированного графа этой версии, документ и граф целиком в памяти
+     * не собираются; в копии остаются только рёбра графа - ссылки на отсутствующие узлы и параметры без
+     * соединений отбрасываются, как при импорте. Иначе граф собирается по документу с применённым журналом
+     *
+     * @param graph скомпилированный граф текущей версии; null - собрать по документу
+     */
+    public void compact(GraphDto graphDto, CompiledGraph graph) {
+        if (graph != null && graphDto.isChunked() && edgeFormula(graphDto).isIdentity()) {
+            // Формула узла читается из начала документа до того, как части будут перезаписаны
+            write(graphDto, graph, formula(graphDto, NODE_FORMULA));
+            return;
+        }
+        write(graphDto, read(graphDto));
+    }
+
+    /**
+     * Формула веса ребра графа. Для графа, сохранённого до появления колонки с формулой, она читается
+     * из документа: в документе из частей формулы стоят до узлов, поэтому читается только начало первой части
+     */
+    public WeightFormula edgeFormula(GraphDto graphDto) {
+        if (graphDto.getEdgeWeightFormula() != null) {
+            return WeightFormula.edge(graphDto.getEdgeWeightFormula());
+        }
+        return WeightFormula.edge(formula(graphDto, EDGE_FORMULA));
+    }
+
+    /**
+     * Формула из документа потоковым чтением; null - формула не задана
+     */
+    private String formula(GraphDto graphDto, String formulaName) {
+        try (JsonReader reader = new JsonReader(graphDto.isChunked()
+                ? new ChunkReader(graphDto) : new StringReader(graphDto.getJson()))) {
+            String formula = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals(formulaName) && reader.peek() != JsonToken.NULL) {
+                    formula = reader.nextString();
+                } else if (name.equals(NETWORK_NODES) && graphDto.isChunked()) {
+                    break;
+                } else {
+                    reader.skipValue();
+                }
+            }
+            return formula;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<GraphDeltaDto> deltas(GraphDto graphDto, long version) {
+        if (version < graphDto.getSnapshotVersion() || version > graphDto.getVersion()) {
+            throw new IllegalArgumentException("Graph " + graphDto.getId() + " version " + version
+                    + " is not stored, available: " + graphDto.getSnapshotVersion() + ".." + graphDto.getVersion());
+        }
+        if (graphDto.getId() == null || version == graphDto.getSnapshotVersion()) {
+            return List.of();
+        }
+        return graphDeltaRepository.findRange(graphDto.getId(), graphDto.getSnapshotVersion(), version);
+    }
+
+    private static List<GraphMutation> operations(GraphDeltaDto delta) {
+        return GsonUtils.gson().fromJson(delta.getJson(), OPERATIONS);
+    }
+
+    /**
+     * Отмечает, что полная копия соответствует текущей версии, и удаляет ставший ненужным журнал
+     */
+    private void snapshot(GraphDto graphDto) {
+        if (graphDto.getId() != null && graphDto.getSnapshotVersion() != graphDto.getVersion()) {
+            graphDeltaRepository.deleteByGraphId(graphDto.getId());
+        }
+        graphDto.setSnapshotVersion(graphDto.getVersion());
+    }
+
+    /**
+     * Потоковая загрузка графа: узлы читаются по одному, передаются в построитель и дописываются
+     * в части документа, поэтому память не зависит от размера тела запроса.
+     * Формулы из параметров запроса имеют приоритет над формулами в теле, но не могут им противоречить.
+     *
+     * @param graphDto сохранённая запись графа; после загрузки в ней число частей
+     * @throws BadRequestException при ошибке в данных или формулах
+     */
+    public Ingested ingest(GraphDto graphDto, Reader source, NetworkNodeReader.Format format,
+            String edgeWeightFormula, String nodeValueFormula) throws IOException {
+        Gson gson = GsonUtils.gson();
+        ChunkWriter chunks = new ChunkWriter(graphDto);
+        JsonWriter out = new JsonWriter(chunks);
+        Compilation compilation = new Compilation(edgeWeightFormula, nodeValueFormula) {
+            @Override
+            public void begin(NetworkNodeReader.Header header) {
+                super.begin(header);
+                try {
+                    out.beginObject();
+                    if (edgeFormula != WeightFormula.DEFAULT_EDGE) {
+                        out.name(EDGE_FORMULA).value(edgeFormula.getExpression());
+                    }
+                    if (nodeFormula != WeightFormula.DEFAULT_NODE) {
+                        out.name(NODE_FORMULA).value(nodeFormula.getExpression());
+                    }
+                    out.name(NETWORK_NODES).beginArray();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void accept(NetworkNode node) {
+                super.accept(node);
+                gson.toJson(node, NetworkNode.class, out);
+            }
+        };
+
+        try {
+            NetworkNodeReader.read(source, format, compilation);
+        } catch (JsonParseException e) {
+            throw new BadRequestException("Malformed graph: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (compilation.builder == null || compilation.builder.nodeCount() == 0) {
+            throw new BadRequestException("Graph has no nodes");
+        }
+        out.endArray();
+        out.endObject();
+        out.close();
+        graphDto.setJson("");
+        graphDto.setChunks(chunks.count());
+        graphDto.setEdgeWeightFormula(compilation.edgeFormula.getExpression());
+
+        StreamingGraphBuilder.Result result = compilation.builder.build();
+        return new Ingested(result, compilation.edgeFormula, compilation.nodeFormula);
+    }
+
+    /**
+     * Результат потоковой загрузки: скомпилированный граф, проблемы входных данных и формулы
+     */
+    public record Ingested(StreamingGraphBuilder.Result result, WeightFormula edgeFormula,
+            WeightFormula nodeFormula) {
+    }
+
+    /**
+     * Построение графа по узлам из {@link NetworkNodeReader}; формулы определяются перед первым узлом
+     */
+    private static class Compilation implements NetworkNodeReader.Listener {
+
+        private final String edgeWeightFormula;
+        private final String nodeValueFormula;
+        protected WeightFormula edgeFormula;
+        protected WeightFormula nodeFormula;
+        private StreamingGraphBuilder builder;
+
+        Compilation(String edgeWeightFormula, String nodeValueFormula) {
+            this.edgeWeightFormula = edgeWeightFormula;
+            this.nodeValueFormula = nodeValueFormula;
+        }
+
+        @Override
+        public void begin(NetworkNodeReader.Header header) {
+            try {
+                edgeFormula = WeightFormula.edge(formula(EDGE_FORMULA, edgeWeightFormula,
+                        header.getEdgeWeightFormula()));
+                nodeFormula = WeightFormula.node(formula(NODE_FORMULA, nodeValueFormula,
+                        header.getNodeValueFormula()));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            builder = new StreamingGraphBuilder(edgeFormula);
+        }
+
+        @Override
+        public void accept(NetworkNode node) {
+            try {
+                builder.accept(node);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        }
+
+        private static String formula(String name, String parameter, String body) {
+            if (parameter != null && body != null && !Objects.equals(parameter, body)) {
+                throw new BadRequestException(name + " differs in request parameters and body");
+            }
+            return parameter != null ? parameter : body;
+        }
+    }
+
+    /**
+     * Пишет документ частями не короче {@code chunkChars} символов; записанные части
+     * отсоединяются от контекста персистентности и не держатся в памяти
+     */
+    private final class ChunkWriter extends Writer {
+
+        private final GraphDto graphDto;
+        private final StringBuilder buffer = new StringBuilder();
+        private int count;
+
+        ChunkWriter(GraphDto graphDto) {
+            this.graphDto = graphDto;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+            if (buffer.length() >= chunkChars) {
+                save();
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            buffer.append(string, offset, offset + length);
+            if (buffer.length() >= chunkChars) {
+                save();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            if (buffer.length() > 0 || count == 0) {
+                save();
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        private void save() {
+            GraphChunkDto chunk = new GraphChunkDto();
+            chunk.setGraph(graphDto);
+            chunk.setSeq(count++);
+            chunk.setJson(buffer.toString());
+            buffer.setLength(0);
+            graphChunkRepository.save(chunk);
+            entityManager.flush();
+            entityManager.detach(chunk);
+        }
+    }
+
+    /**
+     * Читает документ, подгружая части по одной
+     */
+    private final class ChunkReader extends Reader {
+
+        private final int graphId;
+        private final int chunks;
+        private int next;
+        private Reader current = new StringReader("");
+
+        ChunkReader(GraphDto graphDto) {
+            this.graphId = graphDto.getId();
+            this.chunks = graphDto.getChunks();
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) throws IOException {
+            while (true) {
+                int read = current.read(chars, offset, length);
+                if (read > 0 || length == 0) {
+                    return read;
+                }
+                if (next == chunks) {
+                    return -1;
+                }
+                int seq = next++;
+                current = new StringReader(graphChunkRepository.findJson(graphId, seq)
+                        .orElseThrow(() -> new IOException("Graph " + graphId + " chunk " + seq + " is missing")));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
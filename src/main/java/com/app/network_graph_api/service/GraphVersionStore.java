@@ -0,0 +1,134 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.utils.CompiledGraph;
+import com.app.network_graph_api.utils.VersionedGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Последние версии изменяемых графов в памяти. Версии хранятся на общих блоках смежности
+ * {@link VersionedGraph}: каждая следующая версия занимает память только под изменённые блоки.
+ * <p>
+ * Чтение не берёт блокировок: список версий графа - неизменяемый массив, который запись подменяет целиком.
+ * Записи одного графа упорядочены блокировкой строки графа в БД.
+ */
+@Component
+public class GraphVersionStore {
+    Logger logger = LoggerFactory.getLogger(GraphVersionStore.class);
+
+    private final int maxVersions;
+    private final int maxGraphs;
+    private final Map<Integer, History> histories = new ConcurrentHashMap<>();
+
+    public GraphVersionStore(@Value("${graph.versions.max-versions:16}") int maxVersions,
+            @Value("${graph.versions.max-graphs:64}") int maxGraphs) {
+        this.maxVersions = maxVersions;
+        this.maxGraphs = maxGraphs;
+    }
+
+    /**
+     * @return версия графа или null, если её нет в памяти
+     */
+    public VersionedGraph find(int graphId, long version) {
+        History history = histories.get(graphId);
+        if (history == null) {
+            return null;
+        }
+        history.lastAccess = System.nanoTime();
+        for (VersionedGraph versioned : history.versions) {
+            if (versioned.version() == version) {
+                return versioned;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Запоминает версию, полученную операциями из версии {@code version}; блоки, не затронутые
+     * операциями, общие с предыдущей версией
+     *
+     * @param graph скомпилированный граф версии {@code version}; нужен, если её ещё нет в памяти
+     */
+    public void record(int graphId, long version, CompiledGraph graph, List<GraphMutation> operations,
+            long newVersion) {
+        VersionedGraph previous = find(graphId, version);
+        if (previous == null) {
+            previous = VersionedGraph.of(graph, version);
+        }
+        VersionedGraph next = previous.apply(operations, newVersion);
+        logger.debug("Graph {} v{}: {} of {} chunks shared with v{}", graphId, newVersion,
+                next.sharedChunks(previous), next.chunkCount(), version);
+        publish(graphId, previous, next);
+    }
+
+    /**
+     * Запоминает версию целиком, без общих блоков - когда изменение нельзя выразить над весами рёбер
+     */
+    public void record(int graphId, CompiledGraph graph, long newVersion) {
+        publish(graphId, null, VersionedGraph.of(graph, newVersion));
+    }
+
+    private void publish(int graphId, VersionedGraph previous, VersionedGraph next) {
+        History history = histories.computeIfAbsent(graphId, id -> new History());
+        synchronized (history) {
+            VersionedGraph[] versions = history.versions;
+            // Версии не новее записываемой остались от откаченной транзакции
+            int kept = 0;
+            while (kept < versions.length && versions[kept].version() < next.version()) {
+                kept++;
+            }
+            versions = Arrays.copyOf(versions, kept);
+            if (previous != null && (versions.length == 0 || versions[versions.length - 1] != previous)) {
+                versions = append(versions, previous);
+            }
+            versions = append(versions, next);
+            if (versions.length > maxVersions) {
+                versions = Arrays.copyOfRange(versions, versions.length - maxVersions, versions.length);
+            }
+            history.versions = versions;
+            history.lastAccess = System.nanoTime();
+        }
+        evict();
+    }
+
+    private static VersionedGraph[] append(VersionedGraph[] versions, VersionedGraph versioned) {
+        VersionedGraph[] result = Arrays.copyOf(versions, versions.length + 1);
+        result[versions.length] = versioned;
+        return result;
+    }
+
+    /**
+     * Удаляет историю графа, к которому дольше всех не обращались
+     */
+    private void evict() {
+        while (histories.size() > maxGraphs) {
+            Map.Entry<Integer, History> eldest = null;
+            for (Map.Entry<Integer, History> entry : histories.entrySet()) {
+                if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null || !histories.remove(eldest.getKey(), eldest.getValue())) {
+                return;
+            }
+            logger.debug("Graph {} versions evicted", eldest.getKey());
+        }
+    }
+
+    /**
+     * Версии одного графа по возрастанию
+     */
+    private static final class History {
+
+        private volatile VersionedGraph[] versions = new VersionedGraph[0];
+        private volatile long lastAccess;
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.exception.QueryAbortedException;
+import com.app.network_graph_api.utils.QueryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Ограничитель тяжёлых запросов: срок выполнения каждого запроса и лимиты одновременных запросов
+ * на пользователя ({@code 429}) и на сервер ({@code 503}). Запрос не ждёт в очереди - при превышении
+ * лимита он сразу отклоняется, чтобы не занимать поток Tomcat.
+ */
+@Service
+public class QueryGovernor {
+    Logger logger = LoggerFactory.getLogger(QueryGovernor.class);
+
+    private final long timeoutMillis;
+    private final int maxPerUser;
+    private final Semaphore globalPermits;
+    private final ConcurrentHashMap<Integer, Integer> running = new ConcurrentHashMap<>();
+
+    public QueryGovernor(@Value("${graph.query.timeout-ms:30000}") long timeoutMillis,
+            @Value("${graph.query.max-per-user:2}") int maxPerUser,
+            @Value("${graph.query.max-global:0}") int maxGlobal) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPerUser = maxPerUser;
+        this.globalPermits = new Semaphore(maxGlobal > 0 ? maxGlobal : 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Выполняет запрос пользователя с бюджетом, привязанным к текущему потоку
+     *
+     * @throws QueryAbortedException если лимит занят или запрос не уложился в срок
+     */
+    public <T> T run(Integer userId, Supplier<T> query) {
+        running.compute(userId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPerUser) {
+                throw new QueryAbortedException("Too many concurrent queries, max: " + maxPerUser,
+                        HttpStatus.TOO_MANY_REQUESTS.value(), 0, 0);
+            }
+            return current + 1;
+        });
+        try {
+            if (!globalPermits.tryAcquire()) {
+                throw new QueryAbortedException("Server is busy, try again later",
+                        HttpStatus.SERVICE_UNAVAILABLE.value(), 0, 0);
+            }
+            try {
+                return new QueryBudget(timeoutMillis).call(query);
+            } catch (QueryAbortedException e) {
+                logger.warn("Query of user {} aborted: {} after {} ms, {} nodes settled", userId, e.getMessage(),
+                        e.getElapsedMillis(), e.getSettledNodes());
+                throw e;
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            running.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
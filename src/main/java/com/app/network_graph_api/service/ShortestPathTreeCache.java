@@ -0,0 +1,108 @@
+package com.app.network_graph_api.service;
+
+import com.app.network_graph_api.utils.ShortestPathTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * LRU-кэш деревьев кратчайших путей по ключу (graphId, version, начальный узел).
+ * Повторный запрос из того же узла сводится к проходу по массиву предшественников.
+ * Ограничен суммарным объёмом деревьев.
+ */
+@Component
+public class ShortestPathTreeCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, ShortestPathTree> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public ShortestPathTreeCache(@Value("${graph.spt-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public ShortestPathTree get(int graphId, long version, int source, Supplier<ShortestPathTree> loader) {
+        ShortestPathTree tree = getIfPresent(graphId, version, source);
+        if (tree != null) {
+            return tree;
+        }
+
+        tree = loader.get();
+        put(new Key(graphId, version, source), tree);
+        return tree;
+    }
+
+    public synchronized ShortestPathTree getIfPresent(int graphId, long version, int source) {
+        return entries.get(new Key(graphId, version, source));
+    }
+
+    /**
+     * Переносит деревья графа с версии {@code version} на {@code newVersion}, пропуская их через
+     * {@code repair}; деревья, которые не удалось восстановить (null), удаляются.
+     * Деревья прочих версий графа удаляются.
+     *
+     * @return количество перенесённых деревьев
+     */
+    public int migrate(int graphId, long version, long newVersion, UnaryOperator<ShortestPathTree> repair) {
+        Map<Integer, ShortestPathTree> trees = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Key, ShortestPathTree> entry : entries.entrySet()) {
+                if (entry.getKey().graphId() == graphId && entry.getKey().version() == version) {
+                    trees.put(entry.getKey().source(), entry.getValue());
+                }
+            }
+        }
+        invalidate(graphId);
+
+        // Восстановление идёт без блокировки кэша
+        int migrated = 0;
+        for (Map.Entry<Integer, ShortestPathTree> entry : trees.entrySet()) {
+            ShortestPathTree tree = repair.apply(entry.getValue());
+            if (tree != null) {
+                put(new Key(graphId, newVersion, entry.getKey()), tree);
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+
+    public synchronized void invalidate(int graphId) {
+        Iterator<Map.Entry<Key, ShortestPathTree>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, ShortestPathTree> entry = iterator.next();
+            if (entry.getKey().graphId() == graphId) {
+                bytes -= entry.getValue().memoryFootprint();
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized void put(Key key, ShortestPathTree tree) {
+        if (tree.memoryFootprint() > maxBytes) {
+            return;
+        }
+        ShortestPathTree previous = entries.put(key, tree);
+        if (previous != null) {
+            bytes -= previous.memoryFootprint();
+        }
+        bytes += tree.memoryFootprint();
+
+        Iterator<Map.Entry<Key, ShortestPathTree>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Key, ShortestPathTree> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            bytes -= eldest.getValue().memoryFootprint();
+            iterator.remove();
+        }
+    }
+
+    private record Key(int graphId, long version, int source) {
+    }
+}
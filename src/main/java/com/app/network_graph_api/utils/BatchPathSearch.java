@@ -0,0 +1,109 @@
+package com.app.network_graph_api.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Пакетный поиск путей на одном графе: пары группируются по начальному узлу, группы считаются
+ * параллельно в общем пуле поиска. Пары группы ищутся последовательно, поэтому первая строит дерево
+ * из источника, а остальные берут его из кэша. Семафор ограничивает число групп одного пакета в работе,
+ * чтобы большой пакет не занимал весь пул; группы выполняются в бюджете вызывающего потока.
+ */
+public final class BatchPathSearch {
+
+    public enum Status {
+        FOUND, NOT_FOUND, INVALID
+    }
+
+    /**
+     * Поиск пути для одной пары
+     */
+    @FunctionalInterface
+    public interface PathFinder {
+
+        /**
+         * @return путь или null, если конечный узел недостижим
+         * @throws IllegalArgumentException если путь для пары не определён
+         */
+        ShortestPath find(int source, int target);
+    }
+
+    /**
+     * Результат пары: путь или причина, по которой его нет
+     */
+    public record Result(Status status, ShortestPath path, String message) {
+    }
+
+    private BatchPathSearch() {
+    }
+
+    /**
+     * @param pairs       пары имён (начальный, конечный узел)
+     * @param parallelism наибольшее число групп пакета в работе одновременно
+     * @return результаты в порядке пар; ошибка одной пары не прерывает остальные
+     * @throws InterruptedException если поток прерван в ожидании групп
+     */
+    public static Result[] run(CompiledGraph graph, List<Pair<String, String>> pairs, PathFinder finder,
+            ExecutorService executor, int parallelism) throws InterruptedException {
+        Result[] results = new Result[pairs.size()];
+        Map<Integer, List<Integer>> pairsBySource = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            Pair<String, String> pair = pairs.get(i);
+            int source = graph.id(pair.getL());
+            if (source < 0 || graph.id(pair.getR()) < 0) {
+                String missing = source < 0 ? pair.getL() : pair.getR();
+                results[i] = new Result(Status.NOT_FOUND, null, "Node not found: " + missing);
+                continue;
+            }
+            pairsBySource.computeIfAbsent(source, s -> new ArrayList<>()).add(i);
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<?>> futures = new ArrayList<>(pairsBySource.size());
+        // Группы выполняются в пуле, но в бюджете запроса: срок и отмена общие для всего пакета
+        QueryBudget budget = QueryBudget.current();
+        try {
+            for (Map.Entry<Integer, List<Integer>> entry : pairsBySource.entrySet()) {
+                permits.acquire();
+                futures.add(executor.submit(() -> budget.call(() -> {
+                    try {
+                        for (int i : entry.getValue()) {
+                            results[i] = find(finder, entry.getKey(), graph.id(pairs.get(i).getR()));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+        return results;
+    }
+
+    private static Result find(PathFinder finder, int source, int target) {
+        try {
+            ShortestPath path = finder.find(source, target);
+            return path != null
+                    ? new Result(Status.FOUND, path, null)
+                    : new Result(Status.NOT_FOUND, null, "Path not found");
+        } catch (IllegalArgumentException e) {
+            return new Result(Status.INVALID, null, e.getMessage());
+        }
+    }
+}
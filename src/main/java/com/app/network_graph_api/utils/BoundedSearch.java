@@ -0,0 +1,298 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Поиск узлов в пределах заданного расстояния или числа рёбер от начального узла.
+ * <p>
+ * Поиск прекращается, как только фронт выходит за границу. Метки узлов хранятся в хеш-таблице,
+ * а не в массивах размером с граф, поэтому время и память пропорциональны размеру достигнутой
+ * области. Узлы передаются посетителю сразу по мере обработки: по возрастанию расстояния
+ * при поиске по весу и по возрастанию числа рёбер при поиске по рёбрам.
+ */
+public final class BoundedSearch {
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int node, double distance, int hops);
+    }
+
+    private BoundedSearch() {
+    }
+
+    /**
+     * Дейкстра, обрезанная по расстоянию; веса рёбер должны быть неотрицательными.
+     * При заданном {@code maxHops} расстояние до узла - вес самого лёгкого пути не длиннее {@code maxHops}
+     * рёбер: путь тяжелее, но короче по числу рёбер, может довести дальше, поэтому такой поиск
+     * идёт по парам (узел, число рёбер), см. {@link #byWeightAndHops}
+     *
+     * @param maxHops ограничение числа рёбер; отрицательное - без ограничения
+     * @return число достигнутых узлов
+     */
+    public static int byWeight(CompiledGraph graph, int source, double maxWeight, int maxHops, Visitor visitor) {
+        if (maxHops >= 0) {
+            return byWeightAndHops(graph, source, maxWeight, maxHops, visitor);
+        }
+        QueryBudget budget = QueryBudget.current();
+        Labels labels = new Labels();
+        Heap heap = new Heap();
+        int label = labels.add(source);
+        heap.push(0, label);
+        int reached = 0;
+
+        while (!heap.isEmpty()) {
+            double distance = heap.minKey();
+            int current = heap.pop();
+            if (labels.settled[current] || distance > labels.distances[current]) {
+                continue;
+            }
+            labels.settled[current] = true;
+            int node = labels.nodes[current];
+            int hops = labels.hops[current];
+            reached++;
+            budget.checkpoint();
+            visitor.visit(node, distance, hops);
+
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate > maxWeight) {
+                    continue;
+                }
+                int next = labels.find(graph.edgeTarget(edge));
+                if (next < 0) {
+                    next = labels.add(graph.edgeTarget(edge));
+                } else if (labels.settled[next] || candidate >= labels.distances[next]) {
+                    continue;
+                }
+                labels.distances[next] = candidate;
+                labels.hops[next] = hops + 1;
+                heap.push(candidate, next);
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Дейкстра по состояниям (узел, число рёбер). Состояния извлекаются по возрастанию расстояния,
+     * поэтому состояние узла с не меньшим числом рёбер, чем у уже обработанного, ничего не добавляет
+     * и отбрасывается (парето-отсечение). Каждый узел раскрывается не более {@code maxHops + 1} раз,
+     * посетителю передаётся первое, самое лёгкое состояние узла
+     */
+    private static int byWeightAndHops(CompiledGraph graph, int source, double maxWeight, int maxHops,
+            Visitor visitor) {
+        QueryBudget budget = QueryBudget.current();
+        // Метка узла хранит наименьшее число рёбер среди его обработанных состояний
+        Labels labels = new Labels();
+        IntList stateNodes = new IntList();
+        IntList stateHops = new IntList();
+        Heap heap = new Heap();
+        stateNodes.add(source);
+        stateHops.add(0);
+        heap.push(0, 0);
+        int reached = 0;
+
+        while (!heap.isEmpty()) {
+            double distance = heap.minKey();
+            int state = heap.pop();
+            int node = stateNodes.get(state);
+            int hops = stateHops.get(state);
+            int label = labels.find(node);
+            if (label >= 0 && labels.hops[label] <= hops) {
+                continue;
+            }
+            budget.checkpoint();
+            if (label < 0) {
+                label = labels.add(node);
+                reached++;
+                visitor.visit(node, distance, hops);
+            }
+            labels.hops[label] = hops;
+            if (hops >= maxHops) {
+                continue;
+            }
+
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate > maxWeight) {
+                    continue;
+                }
+                int target = graph.edgeTarget(edge);
+                int next = labels.find(target);
+                if (next >= 0 && labels.hops[next] <= hops + 1) {
+                    continue;
+                }
+                heap.push(candidate, stateNodes.size());
+                stateNodes.add(target);
+                stateHops.add(hops + 1);
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Поиск в ширину до {@code maxHops} рёбер; расстояние - вес найденного пути с минимальным
+     * числом рёбер (среди таких путей не обязательно самого лёгкого)
+     *
+     * @return число достигнутых узлов
+     */
+    public static int byHops(CompiledGraph graph, int source, int maxHops, Visitor visitor) {
+        QueryBudget budget = QueryBudget.current();
+        Labels labels = new Labels();
+        labels.add(source);
+        // Метки добавляются в порядке обхода - они же очередь поиска в ширину
+        for (int current = 0; current < labels.size; current++) {
+            int node = labels.nodes[current];
+            double distance = labels.distances[current];
+            int hops = labels.hops[current];
+            budget.checkpoint();
+            visitor.visit(node, distance, hops);
+            if (hops >= maxHops) {
+                continue;
+            }
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int target = graph.edgeTarget(edge);
+                if (labels.find(target) >= 0) {
+                    continue;
+                }
+                int next = labels.add(target);
+                labels.distances[next] = distance + graph.edgeWeight(edge);
+                labels.hops[next] = hops + 1;
+            }
+        }
+        return labels.size;
+    }
+
+    /**
+     * Метки достигнутых узлов: открытая адресация узел -> номер метки и плотные массивы меток
+     */
+    private static final class Labels {
+
+        private int[] table = new int[64];
+        private int[] nodes = new int[32];
+        private double[] distances = new double[32];
+        private int[] hops = new int[32];
+        private boolean[] settled = new boolean[32];
+        private int size;
+
+        Labels() {
+            Arrays.fill(table, -1);
+        }
+
+        int find(int node) {
+            int mask = table.length - 1;
+            for (int slot = hash(node) & mask; ; slot = (slot + 1) & mask) {
+                int label = table[slot];
+                if (label < 0 || nodes[label] == node) {
+                    return label;
+                }
+            }
+        }
+
+        /**
+         * Добавляет узел, которого ещё нет среди меток
+         */
+        int add(int node) {
+            if (size == nodes.length) {
+                int capacity = size * 2;
+                nodes = Arrays.copyOf(nodes, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                hops = Arrays.copyOf(hops, capacity);
+                settled = Arrays.copyOf(settled, capacity);
+            }
+            if (2 * (size + 1) > table.length) {
+                rehash(table.length * 2);
+            }
+            int label = size++;
+            nodes[label] = node;
+            distances[label] = 0;
+            hops[label] = 0;
+            insert(node, label);
+            return label;
+        }
+
+        private void insert(int node, int label) {
+            int mask = table.length - 1;
+            int slot = hash(node) & mask;
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = label;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            Arrays.fill(table, -1);
+            for (int label = 0; label < size; label++) {
+                insert(nodes[label], label);
+            }
+        }
+
+        private static int hash(int node) {
+            int h = node * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Двоичная куча меток с ленивым удалением: устаревшие записи пропускаются при извлечении
+     */
+    private static final class Heap {
+
+        private double[] keys = new double[32];
+        private int[] labels = new int[32];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double minKey() {
+            return keys[0];
+        }
+
+        void push(double key, int label) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                labels[i] = labels[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            labels[i] = label;
+        }
+
+        int pop() {
+            int result = labels[0];
+            size--;
+            double key = keys[size];
+            int label = labels[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                labels[i] = labels[child];
+                i = child;
+            }
+            keys[i] = key;
+            labels[i] = label;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkGraphEdge;
+import com.app.network_graph_api.model.api.NetworkGraphNode;
+import com.app.network_graph_api.model.api.NetworkNode;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Неизменяемое компактное представление графа: словарь имя -> int,
+ * смежность в формате CSR (offsets/targets) и массив весов рёбер.
+ * Рёбра узла {@code v} занимают индексы {@code offsets[v]..offsets[v + 1] - 1}.
+ * <p>
+ * Производные индексы (обратная смежность, ориентиры и т.п.) строятся по требованию
+ * и запоминаются в самом графе, поэтому живут столько же, сколько запись в кэше.
+ */
+public final class CompiledGraph {
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    // Исходные десятичные веса рёбер, которые double передаёт неточно; у большинства графов пусто
+    private final Map<Integer, BigDecimal> decimalWeights;
+    private final double minWeight;
+    private final Map<Class<?>, Object> indexes = new ConcurrentHashMap<>();
+
+    private volatile int[] reverseOffsets;
+    private volatile int[] reverseEdges;
+    private volatile int[] reverseSources;
+    private volatile int[] edgeSources;
+    private volatile long nameBytes = -1;
+
+    private CompiledGraph(String[] names, Map<String, Integer> ids, int[] offsets, int[] targets, double[] weights,
+            Map<Integer, BigDecimal> decimalWeights) {
+        this.names = names;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.decimalWeights = decimalWeights;
+        // Знак весов выбирает алгоритм в каждом запросе, поэтому минимум считается один раз при сборке
+        double min = weights.length == 0 ? 0 : Double.POSITIVE_INFINITY;
+        for (double weight : weights) {
+            min = Math.min(min, weight);
+        }
+        this.minWeight = min;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static CompiledGraph of(NetworkGraph graph) {
+        if (graph.getNetworkNodes() != null) {
+            return of(graph.getNetworkNodes(), WeightFormula.edge(graph.getEdgeWeightFormula()));
+        }
+
+        // Старый формат: упорядочиваем узлы по имени, чтобы нумерация не зависела от HashMap
+        List<NetworkGraphNode> nodes = new ArrayList<>(graph.getNodes().keySet());
+        nodes.sort(Comparator.comparing(NetworkGraphNode::getName));
+        Builder builder = builder();
+        for (NetworkGraphNode node : nodes) {
+            builder.addNode(node.getName());
+        }
+        for (NetworkGraphNode node : nodes) {
+            int from = builder.id(node.getName());
+            for (NetworkGraphEdge edge : graph.getNodes().get(node)) {
+                int to = builder.id(edge.getTargetNodeName());
+                if (to >= 0) {
+                    builder.addEdge(from, to, edge.getWeight().doubleValue(), edge.getWeight());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public static CompiledGraph of(List<NetworkNode> networkNodes) {
+        return of(networkNodes, WeightFormula.DEFAULT_EDGE);
+    }
+
+    /**
+     * Веса рёбер вычисляются формулой над параметрами узла, как в {@link NetworkGraphUtils#buildGraph}
+     */
+    public static CompiledGraph of(List<NetworkNode> networkNodes, WeightFormula edgeFormula) {
+        Builder builder = builder();
+        for (NetworkNode node : networkNodes) {
+            builder.addNode(node.getName());
+        }
+        for (NetworkNode node : networkNodes) {
+            int from = builder.id(node.getName());
+            List<String> connectedNodes = node.getConnectedNodes();
+            // Нет параметра - нулевой вес; при тождественной формуле вес - сам параметр
+            double[] weights = edgeFormula.edgeWeights(node);
+            List<BigDecimal> parameters = edgeFormula.isIdentity() ? node.getParameters() : null;
+            for (int i = 0; i < connectedNodes.size(); i++) {
+                int to = builder.id(connectedNodes.get(i));
+                if (to >= 0) {
+                    builder.addEdge(from, to, weights[i],
+                            parameters != null && i < parameters.size() ? parameters.get(i) : null);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Копия графа с другими весами рёбер; словарь, смежность и обратная смежность общие.
+     * Производные индексы не переносятся - они зависят от весов.
+     */
+    public CompiledGraph withWeights(double[] newWeights) {
+        return withWeights(newWeights, Map.of());
+    }
+
+    /**
+     * То же с исходными десятичными значениями изменённых весов; десятичные веса прочих рёбер
+     * переносятся, если вес ребра не изменился
+     */
+    public CompiledGraph withWeights(double[] newWeights, Map<Integer, BigDecimal> decimals) {
+        if (newWeights.length != weights.length) {
+            throw new IllegalArgumentException("Expected " + weights.length + " weights, got " + newWeights.length);
+        }
+        Map<Integer, BigDecimal> newDecimals = new HashMap<>();
+        decimalWeights.forEach((edge, decimal) -> {
+            if (newWeights[edge] == weights[edge] && !decimals.containsKey(edge)) {
+                newDecimals.put(edge, decimal);
+            }
+        });
+        decimals.forEach((edge, decimal) -> {
+            if (inexact(newWeights[edge], decimal)) {
+                newDecimals.put(edge, decimal);
+            }
+        });
+        CompiledGraph graph = new CompiledGraph(names, ids, offsets, targets, newWeights, compact(newDecimals));
+        synchronized (this) {
+            graph.reverseEdges = reverseEdges;
+            graph.reverseSources = reverseSources;
+            graph.reverseOffsets = reverseOffsets;
+        }
+        graph.edgeSources = edgeSources;
+        return graph;
+    }
+
+    /**
+     * Копия графа с тем же словарём и другой смежностью; производные индексы не переносятся
+     */
+    CompiledGraph withEdges(int[] newOffsets, int[] newTargets, double[] newWeights,
+            Map<Integer, BigDecimal> newDecimals) {
+        if (newOffsets.length != offsets.length) {
+            throw new IllegalArgumentException("Expected " + offsets.length + " offsets, got " + newOffsets.length);
+        }
+        return new CompiledGraph(names, ids, newOffsets, newTargets, newWeights, compact(newDecimals));
+    }
+
+    /**
+     * Десятичный вес ребра: исходное значение, если оно было задано в BigDecimal и double передаёт
+     * его неточно, иначе кратчайшая десятичная запись double
+     */
+    public BigDecimal exactWeight(int edge) {
+        BigDecimal decimal = decimalWeight(edge);
+        return decimal != null ? decimal : BigDecimal.valueOf(weights[edge]);
+    }
+
+    /**
+     * @return исходный десятичный вес, если double передаёт его неточно, иначе null
+     */
+    BigDecimal decimalWeight(int edge) {
+        return decimalWeights.isEmpty() ? null : decimalWeights.get(edge);
+    }
+
+    static boolean inexact(double weight, BigDecimal decimal) {
+        return !Double.isFinite(weight) || BigDecimal.valueOf(weight).compareTo(decimal) != 0;
+    }
+
+    private static Map<Integer, BigDecimal> compact(Map<Integer, BigDecimal> decimals) {
+        return decimals.isEmpty() ? Map.of() : decimals;
+    }
+
+    /**
+     * Точная сумма весов рёбер пути; поиск идёт на double, итог считается один раз в BigDecimal
+     */
+    public BigDecimal exactLength(int[] edges) {
+        BigDecimal length = BigDecimal.ZERO;
+        for (int edge : edges) {
+            length = length.add(exactWeight(edge));
+        }
+        return length;
+    }
+
+    /**
+     * @return копия массива весов рёбер
+     */
+    public double[] weights() {
+        return weights.clone();
+    }
+
+    public int nodeCount() {
+        return names.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return идентификатор узла или -1, если узла с таким именем нет
+     */
+    public int id(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null ? id : -1;
+    }
+
+    public String name(int node) {
+        return names[node];
+    }
+
+    public List<String> names(int[] nodes) {
+        List<String> result = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            result.add(names[node]);
+        }
+        return result;
+    }
+
+    public int edgesStart(int node) {
+        return offsets[node];
+    }
+
+    public int edgesEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @return исходный узел ребра; массив источников строится при первом обращении
+     */
+    public int edgeSource(int edge) {
+        int[] sources = edgeSources;
+        if (sources == null) {
+            sources = new int[targets.length];
+            for (int node = 0; node < names.length; node++) {
+                Arrays.fill(sources, offsets[node], offsets[node + 1], node);
+            }
+            edgeSources = sources;
+        }
+        return sources[edge];
+    }
+
+    public int inEdgesStart(int node) {
+        ensureReverse();
+        return reverseOffsets[node];
+    }
+
+    public int inEdgesEnd(int node) {
+        ensureReverse();
+        return reverseOffsets[node + 1];
+    }
+
+    /**
+     * @return индекс прямого ребра для позиции {@code i} во входящей смежности
+     */
+    public int inEdge(int i) {
+        return reverseEdges[i];
+    }
+
+    public int inEdgeSource(int i) {
+        return reverseSources[i];
+    }
+
+    /**
+     * @return минимальный вес ребра или 0 для графа без рёбер; O(1), посчитан при сборке графа
+     */
+    public double minWeight() {
+        return minWeight;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T index(Class<T> type) {
+        return (T) indexes.get(type);
+    }
+
+    /**
+     * Возвращает производный индекс, при отсутствии строит его. Построение идёт вне
+     * блокировок, поэтому построители могут сами запрашивать другие индексы графа.
+     * Если построитель вернул null, индекс не запоминается.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T index(Class<T> type, Function<CompiledGraph, T> builder) {
+        Object index = indexes.get(type);
+        if (index == null) {
+            index = builder.apply(this);
+            if (index == null) {
+                return null;
+            }
+            Object previous = indexes.putIfAbsent(type, index);
+            if (previous != null) {
+                index = previous;
+            }
+        }
+        return (T) index;
+    }
+
+    public <T> void attachIndex(Class<T> type, T index) {
+        indexes.put(type, index);
+    }
+
+    private void ensureReverse() {
+        if (reverseOffsets != null) {
+            return;
+        }
+        synchronized (this) {
+            if (reverseOffsets != null) {
+                return;
+            }
+            int nodeCount = names.length;
+            int[] inOffsets = new int[nodeCount + 1];
+            for (int target : targets) {
+                inOffsets[target + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                inOffsets[node + 1] += inOffsets[node];
+            }
+            int[] cursor = Arrays.copyOf(inOffsets, nodeCount);
+            int[] inEdges = new int[targets.length];
+            int[] inSources = new int[targets.length];
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                    int position = cursor[targets[edge]]++;
+                    inEdges[position] = edge;
+                    inSources[position] = node;
+                }
+            }
+            reverseEdges = inEdges;
+            reverseSources = inSources;
+            reverseOffsets = inOffsets;
+        }
+    }
+
+    /**
+     * Примерный объём памяти, занимаемый графом вместе с построенными к этому моменту
+     * обратной смежностью и прикреплёнными индексами, в байтах
+     */
+    public long memoryFootprint() {
+        long bytes = 64L + 4L * offsets.length + 4L * targets.length + 8L * weights.length + nameBytes()
+                + 96L * decimalWeights.size();
+        if (reverseOffsets != null) {
+            bytes += 4L * (reverseOffsets.length + 2L * targets.length);
+        }
+        if (edgeSources != null) {
+            bytes += 4L * targets.length;
+        }
+        for (Object index : indexes.values()) {
+            if (index instanceof GraphIndex graphIndex) {
+                bytes += graphIndex.memoryFootprint();
+            }
+        }
+        return bytes;
+    }
+
+    // Словарь не меняется, поэтому его объём считается один раз
+    private long nameBytes() {
+        long bytes = nameBytes;
+        if (bytes < 0) {
+            bytes = 0;
+            for (String name : names) {
+                bytes += 48L + 2L * name.length() + 48L;
+            }
+            nameBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Восстанавливает объектное представление графа для обработчиков, работающих с {@link NetworkGraph}
+     */
+    public NetworkGraph toNetworkGraph() {
+        NetworkGraphNode[] graphNodes = new NetworkGraphNode[names.length];
+        List<NetworkNode> networkNodes = new ArrayList<>(names.length);
+        for (int node = 0; node < names.length; node++) {
+            NetworkGraphNode graphNode = new NetworkGraphNode();
+            graphNode.setName(names[node]);
+            graphNodes[node] = graphNode;
+        }
+
+        NetworkGraph graph = new NetworkGraph();
+        for (int node = 0; node < names.length; node++) {
+            NetworkNode networkNode = new NetworkNode();
+            networkNode.setName(names[node]);
+
+            List<NetworkGraphEdge> edges = new ArrayList<>(degree(node));
+            BigDecimal value = BigDecimal.ZERO;
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                BigDecimal weight = BigDecimal.valueOf(weights[edge]);
+                NetworkGraphEdge graphEdge = new NetworkGraphEdge();
+                graphEdge.setTo(graphNodes[targets[edge]]);
+                graphEdge.setWeight(weight);
+                edges.add(graphEdge);
+
+                networkNode.getConnectedNodes().add(names[targets[edge]]);
+                networkNode.getParameters().add(weight);
+                value = value.add(weight);
+            }
+
+            graphNodes[node].setValue(value);
+            graph.getNodes().put(graphNodes[node], edges);
+            networkNodes.add(networkNode);
+        }
+        graph.setNetworkNodes(networkNodes);
+        return graph;
+    }
+
+    /**
+     * Накопитель узлов и рёбер; рёбра могут добавляться в любом порядке,
+     * при сборке они группируются по исходному узлу с сохранением порядка добавления.
+     */
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private double[] edgeWeights = new double[16];
+        private final Map<Integer, BigDecimal> edgeDecimals = new HashMap<>();
+        private int edgeCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Регистрирует узел; повторная регистрация имени возвращает уже выданный идентификатор
+         */
+        public int addNode(String name) {
+            Integer id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+            return id;
+        }
+
+        public int id(String name) {
+            Integer id = name != null ? ids.get(name) : null;
+            return id != null ? id : -1;
+        }
+
+        public int nodeCount() {
+            return names.size();
+        }
+
+        public int edgeCount() {
+            return edgeCount;
+        }
+
+        public Builder addEdge(int from, int to, double weight) {
+            if (edgeCount == edgeSources.length) {
+                int capacity = edgeCount * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+            edgeSources[edgeCount] = from;
+            edgeTargets[edgeCount] = to;
+            edgeWeights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Ребро с исходным десятичным весом; он сохраняется, только если double передаёт его неточно
+         */
+        public Builder addEdge(int from, int to, double weight, BigDecimal decimal) {
+            if (decimal != null && inexact(weight, decimal)) {
+                edgeDecimals.put(edgeCount, decimal);
+            }
+            return addEdge(from, to, weight);
+        }
+
+        public CompiledGraph build() {
+            int nodeCount = names.size();
+
+            // Сортировка подсчётом по исходному узлу
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[edgeSources[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            Map<Integer, BigDecimal> decimals = new HashMap<>();
+            for (int i = 0; i < edgeCount; i++) {
+                int position = cursor[edgeSources[i]]++;
+                targets[position] = edgeTargets[i];
+                weights[position] = edgeWeights[i];
+                if (!edgeDecimals.isEmpty() && edgeDecimals.containsKey(i)) {
+                    decimals.put(position, edgeDecimals.get(i));
+                }
+            }
+
+            return new CompiledGraph(names.toArray(new String[0]), new HashMap<>(ids), offsets, targets, weights,
+                    compact(decimals));
+        }
+    }
+}
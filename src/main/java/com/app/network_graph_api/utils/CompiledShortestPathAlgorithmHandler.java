@@ -0,0 +1,39 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkGraphNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Базовый класс обработчиков, работающих на {@link CompiledGraph}:
+ * поиск по {@link NetworkGraph} компилирует граф и переводит найденный путь обратно в узлы графа
+ */
+public abstract class CompiledShortestPathAlgorithmHandler implements ShortestPathAlgorithmHandler {
+
+    @Override
+    public List<NetworkGraphNode> find(NetworkGraph graph, String n1, String n2) {
+        CompiledGraph compiled = CompiledGraph.of(graph);
+        ShortestPath path = find(compiled, compiled.id(n1), compiled.id(n2));
+        if (path == null) {
+            return null;
+        }
+
+        Map<String, NetworkGraphNode> nodesByName = new HashMap<>();
+        for (NetworkGraphNode node : graph.getNodes().keySet()) {
+            nodesByName.putIfAbsent(node.getName(), node);
+        }
+
+        List<NetworkGraphNode> result = new ArrayList<>(path.getNodes().length);
+        for (int node : path.getNodes()) {
+            result.add(nodesByName.get(compiled.name(node)));
+        }
+        return result;
+    }
+
+    @Override
+    public abstract ShortestPath find(CompiledGraph graph, int source, int target);
+}
@@ -0,0 +1,660 @@
+package com.app.network_graph_api.utils;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Иерархия сжатия (contraction hierarchies) для статических графов с неотрицательными весами.
+ * <p>
+ * При построении узлы сжимаются по очереди (порядок - разность рёбер с ленивым обновлением),
+ * а вместо удаляемого узла v добавляются шорткаты u -> w, если без v нет пути не длиннее u -> v -> w.
+ * Запрос - двунаправленный Дейкстра только "вверх" по рангу: прямой поиск по исходящим рёбрам
+ * к узлам с большим рангом, обратный - по входящим. Шорткаты хранят два заменённых ребра
+ * и разворачиваются обратно в исходные рёбра графа.
+ */
+public final class ContractionHierarchy implements GraphIndex {
+
+    private static final int FORMAT = 1;
+    private static final int WITNESS_SETTLED_LIMIT = 500;
+    private static final int SIMULATION_SETTLED_LIMIT = 20;
+    // Сколько свободных рабочих массивов держит иерархия; при большем числе одновременных запросов
+    // лишние массивы создаются на запрос и отдаются сборщику мусора
+    static final int MAX_POOLED_WORKSPACES = 4;
+
+    private final boolean available;
+    private final int nodeCount;
+    private final int graphEdgeCount;
+    private final int[] rank;
+
+    // Все рёбра иерархии. Для исходного ребра edgeSecond = -1, а edgeFirst - индекс ребра в CompiledGraph;
+    // для шортката edgeFirst/edgeSecond - рёбра иерархии u -> v и v -> w
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeFirst;
+    private final int[] edgeSecond;
+
+    // Рёбра вверх из узла и рёбра, входящие в узел сверху
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    private final Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledWorkspaces = new AtomicInteger();
+
+    private ContractionHierarchy(boolean available, int nodeCount, int graphEdgeCount, int[] rank, int[] edgeFrom,
+            int[] edgeTo, double[] edgeWeight, int[] edgeFirst, int[] edgeSecond) {
+        this.available = available;
+        this.nodeCount = nodeCount;
+        this.graphEdgeCount = graphEdgeCount;
+        this.rank = rank;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeWeight = edgeWeight;
+        this.edgeFirst = edgeFirst;
+        this.edgeSecond = edgeSecond;
+
+        int edgeCount = edgeFrom.length;
+        upOffsets = new int[nodeCount + 1];
+        downOffsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (rank[edgeTo[edge]] > rank[edgeFrom[edge]]) {
+                upOffsets[edgeFrom[edge] + 1]++;
+            } else {
+                downOffsets[edgeTo[edge] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            upOffsets[node + 1] += upOffsets[node];
+            downOffsets[node + 1] += downOffsets[node];
+        }
+        upEdges = new int[upOffsets[nodeCount]];
+        downEdges = new int[downOffsets[nodeCount]];
+        int[] upCursor = Arrays.copyOf(upOffsets, nodeCount);
+        int[] downCursor = Arrays.copyOf(downOffsets, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (rank[edgeTo[edge]] > rank[edgeFrom[edge]]) {
+                upEdges[upCursor[edgeFrom[edge]]++] = edge;
+            } else {
+                downEdges[downCursor[edgeTo[edge]]++] = edge;
+            }
+        }
+    }
+
+    /**
+     * Строит иерархию. Для графов с отрицательными весами иерархия недоступна ({@link #isAvailable()}).
+     */
+    public static ContractionHierarchy build(CompiledGraph graph) {
+        if (graph.minWeight() < 0) {
+            return unavailable(graph);
+        }
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Пустая иерархия: поиск по ней идёт Дейкстрой по исходному графу
+     */
+    public static ContractionHierarchy unavailable(CompiledGraph graph) {
+        return new ContractionHierarchy(false, graph.nodeCount(), graph.edgeCount(), new int[graph.nodeCount()],
+                new int[0], new int[0], new double[0], new int[0], new int[0]);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeFrom.length;
+    }
+
+    public int shortcutCount() {
+        int count = 0;
+        for (int second : edgeSecond) {
+            if (second >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Объём вместе с рабочими массивами, которые держит пул
+     */
+    @Override
+    public long memoryFootprint() {
+        return 64L + 4L * rank.length + 28L * edgeFrom.length + 4L * (upOffsets.length + downOffsets.length)
+                + 4L * (upEdges.length + downEdges.length)
+                + pooledWorkspaces.get() * Workspace.memoryFootprint(nodeCount);
+    }
+
+    /**
+     * Поиск кратчайшего пути; возвращаемые рёбра - рёбра исходного {@link CompiledGraph}
+     */
+    public ShortestPath find(int source, int target) {
+        if (source == target) {
+            return new ShortestPath(new int[]{source}, new int[0], 0, 1);
+        }
+
+        Workspace workspace = workspaces.poll();
+        if (workspace != null) {
+            pooledWorkspaces.decrementAndGet();
+        } else {
+            workspace = new Workspace(nodeCount);
+        }
+        try {
+            return search(workspace, source, target);
+        } finally {
+            workspace.reset();
+            release(workspace);
+        }
+    }
+
+    private void release(Workspace workspace) {
+        if (pooledWorkspaces.incrementAndGet() <= MAX_POOLED_WORKSPACES) {
+            workspaces.offer(workspace);
+        } else {
+            pooledWorkspaces.decrementAndGet();
+        }
+    }
+
+    private ShortestPath search(Workspace workspace, int source, int target) {
+        double[] forwardDistances = workspace.forwardDistances;
+        double[] backwardDistances = workspace.backwardDistances;
+        int[] forwardEdge = workspace.forwardEdge;
+        int[] backwardEdge = workspace.backwardEdge;
+        IndexedMinHeap forwardHeap = workspace.forwardHeap;
+        IndexedMinHeap backwardHeap = workspace.backwardHeap;
+
+        workspace.touch(source);
+        workspace.touch(target);
+        forwardDistances[source] = 0;
+        backwardDistances[target] = 0;
+        forwardHeap.offer(source, 0);
+        backwardHeap.offer(target, 0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+        QueryBudget budget = QueryBudget.current();
+
+        while (true) {
+            boolean forwardActive = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+            boolean backwardActive = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+
+            settled++;
+            budget.checkpoint();
+            if (forwardActive && (!backwardActive || forwardHeap.peekKey() <= backwardHeap.peekKey())) {
+                int node = forwardHeap.poll();
+                double distance = forwardDistances[node];
+                if (distance + backwardDistances[node] < best) {
+                    best = distance + backwardDistances[node];
+                    meeting = node;
+                }
+                for (int i = upOffsets[node]; i < upOffsets[node + 1]; i++) {
+                    int edge = upEdges[i];
+                    int next = edgeTo[edge];
+                    double candidate = distance + edgeWeight[edge];
+                    if (candidate < forwardDistances[next]) {
+                        workspace.touch(next);
+                        forwardDistances[next] = candidate;
+                        forwardEdge[next] = edge;
+                        forwardHeap.offer(next, candidate);
+                    }
+                }
+            } else {
+                int node = backwardHeap.poll();
+                double distance = backwardDistances[node];
+                if (distance + forwardDistances[node] < best) {
+                    best = distance + forwardDistances[node];
+                    meeting = node;
+                }
+                for (int i = downOffsets[node]; i < downOffsets[node + 1]; i++) {
+                    int edge = downEdges[i];
+                    int next = edgeFrom[edge];
+                    double candidate = distance + edgeWeight[edge];
+                    if (candidate < backwardDistances[next]) {
+                        workspace.touch(next);
+                        backwardDistances[next] = candidate;
+                        backwardEdge[next] = edge;
+                        backwardHeap.offer(next, candidate);
+                    }
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return null;
+        }
+
+        // Рёбра иерархии от source до meeting и от meeting до target
+        IntList hierarchyEdges = new IntList();
+        for (int node = meeting; node != source; node = edgeFrom[forwardEdge[node]]) {
+            hierarchyEdges.add(forwardEdge[node]);
+        }
+        hierarchyEdges.reverse();
+        for (int node = meeting; node != target; node = edgeTo[backwardEdge[node]]) {
+            hierarchyEdges.add(backwardEdge[node]);
+        }
+
+        int[] unpacked = unpack(hierarchyEdges).toArray();
+        int[] nodes = new int[unpacked.length + 1];
+        int[] edges = new int[unpacked.length];
+        nodes[0] = source;
+        for (int i = 0; i < unpacked.length; i++) {
+            nodes[i + 1] = edgeTo[unpacked[i]];
+            edges[i] = edgeFirst[unpacked[i]];
+        }
+        return new ShortestPath(nodes, edges, best, settled);
+    }
+
+    /**
+     * Разворачивает шорткаты в последовательность исходных рёбер иерархии
+     */
+    private IntList unpack(IntList hierarchyEdges) {
+        IntList result = new IntList();
+        IntList stack = new IntList();
+        for (int i = hierarchyEdges.size() - 1; i >= 0; i--) {
+            stack.add(hierarchyEdges.get(i));
+        }
+        while (stack.size() > 0) {
+            int edge = stack.pop();
+            if (edgeSecond[edge] < 0) {
+                result.add(edge);
+            } else {
+                stack.add(edgeSecond[edge]);
+                stack.add(edgeFirst[edge]);
+            }
+        }
+        return result;
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + 4 * nodeCount + 28 * edgeFrom.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT);
+            out.writeBoolean(available);
+            out.writeInt(nodeCount);
+            out.writeInt(graphEdgeCount);
+            out.writeInt(edgeFrom.length);
+            for (int value : rank) {
+                out.writeInt(value);
+            }
+            for (int edge = 0; edge < edgeFrom.length; edge++) {
+                out.writeInt(edgeFrom[edge]);
+                out.writeInt(edgeTo[edge]);
+                out.writeDouble(edgeWeight[edge]);
+                out.writeInt(edgeFirst[edge]);
+                out.writeInt(edgeSecond[edge]);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return иерархия или null, если данные повреждены или построены для другого графа
+     */
+    public static ContractionHierarchy fromBytes(byte[] data, CompiledGraph graph) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != FORMAT) {
+                return null;
+            }
+            boolean available = in.readBoolean();
+            int nodeCount = in.readInt();
+            int graphEdgeCount = in.readInt();
+            if (nodeCount != graph.nodeCount() || graphEdgeCount != graph.edgeCount()) {
+                return null;
+            }
+            int edgeCount = in.readInt();
+            int[] rank = new int[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                rank[node] = in.readInt();
+            }
+            int[] edgeFrom = new int[edgeCount];
+            int[] edgeTo = new int[edgeCount];
+            double[] edgeWeight = new double[edgeCount];
+            int[] edgeFirst = new int[edgeCount];
+            int[] edgeSecond = new int[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                edgeFrom[edge] = in.readInt();
+                edgeTo[edge] = in.readInt();
+                edgeWeight[edge] = in.readDouble();
+                edgeFirst[edge] = in.readInt();
+                edgeSecond[edge] = in.readInt();
+            }
+            return new ContractionHierarchy(available, nodeCount, graphEdgeCount, rank, edgeFrom, edgeTo,
+                    edgeWeight, edgeFirst, edgeSecond);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Рабочие массивы запроса; берутся из пула иерархии, после запроса сбрасываются только затронутые узлы
+     */
+    private static final class Workspace {
+        final double[] forwardDistances;
+        final double[] backwardDistances;
+        final int[] forwardEdge;
+        final int[] backwardEdge;
+        final IndexedMinHeap forwardHeap;
+        final IndexedMinHeap backwardHeap;
+        final IntList touched = new IntList();
+        final boolean[] isTouched;
+
+        Workspace(int nodeCount) {
+            forwardDistances = new double[nodeCount];
+            backwardDistances = new double[nodeCount];
+            Arrays.fill(forwardDistances, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDistances, Double.POSITIVE_INFINITY);
+            forwardEdge = new int[nodeCount];
+            backwardEdge = new int[nodeCount];
+            forwardHeap = new IndexedMinHeap(nodeCount);
+            backwardHeap = new IndexedMinHeap(nodeCount);
+            isTouched = new boolean[nodeCount];
+        }
+
+        static long memoryFootprint(int nodeCount) {
+            // Расстояния, рёбра, две кучи и отметки
+            return 64L + 57L * nodeCount;
+        }
+
+        void touch(int node) {
+            if (!isTouched[node]) {
+                isTouched[node] = true;
+                touched.add(node);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touched.size(); i++) {
+                int node = touched.get(i);
+                forwardDistances[node] = Double.POSITIVE_INFINITY;
+                backwardDistances[node] = Double.POSITIVE_INFINITY;
+                isTouched[node] = false;
+            }
+            touched.clear();
+            forwardHeap.clear();
+            backwardHeap.clear();
+        }
+    }
+
+    /**
+     * Построение иерархии на изменяемых списках смежности
+     */
+    private static final class Builder {
+
+        private final CompiledGraph graph;
+        private final int nodeCount;
+
+        private int[] edgeFrom = new int[16];
+        private int[] edgeTo = new int[16];
+        private double[] edgeWeight = new double[16];
+        private int[] edgeFirst = new int[16];
+        private int[] edgeSecond = new int[16];
+        private int edgeCount;
+
+        private final IntList[] outEdges;
+        private final IntList[] inEdges;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+
+        // Свидетельский поиск
+        private final double[] witnessDistances;
+        private final IntList witnessTouched = new IntList();
+        private final IndexedMinHeap witnessHeap;
+        private final int[] targetMarks;
+        private int targetMark;
+        private int targetCount;
+
+        Builder(CompiledGraph graph) {
+            this.graph = graph;
+            this.nodeCount = graph.nodeCount();
+            outEdges = new IntList[nodeCount];
+            inEdges = new IntList[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                outEdges[node] = new IntList();
+                inEdges[node] = new IntList();
+            }
+            contracted = new boolean[nodeCount];
+            contractedNeighbors = new int[nodeCount];
+            witnessDistances = new double[nodeCount];
+            Arrays.fill(witnessDistances, Double.POSITIVE_INFINITY);
+            witnessHeap = new IndexedMinHeap(nodeCount);
+            targetMarks = new int[nodeCount];
+        }
+
+        ContractionHierarchy build() {
+            // Исходные рёбра без петель; из параллельных рёбер остаётся самое лёгкое
+            int[] lastEdge = new int[nodeCount];
+            Arrays.fill(lastEdge, -1);
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int target = graph.edgeTarget(edge);
+                    if (target == node) {
+                        continue;
+                    }
+                    int existing = lastEdge[target];
+                    if (existing >= 0 && edgeFrom[existing] == node) {
+                        if (graph.edgeWeight(edge) < edgeWeight[existing]) {
+                            edgeWeight[existing] = graph.edgeWeight(edge);
+                            edgeFirst[existing] = edge;
+                        }
+                        continue;
+                    }
+                    lastEdge[target] = addEdge(node, target, graph.edgeWeight(edge), edge, -1);
+                }
+            }
+
+            IndexedMinHeap queue = new IndexedMinHeap(nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                queue.offer(node, priority(node));
+            }
+
+            int[] rank = new int[nodeCount];
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                double priority = priority(node);
+                if (!queue.isEmpty() && priority > queue.peekKey()) {
+                    // Ленивое обновление: приоритет устарел, возвращаем узел в очередь
+                    queue.offer(node, priority);
+                    continue;
+                }
+
+                contract(node, false);
+                contracted[node] = true;
+                rank[node] = order++;
+
+                // Рёбра сжатого узла больше не участвуют в поиске - убираем их из списков соседей
+                for (int i = 0; i < outEdges[node].size(); i++) {
+                    int neighbor = edgeTo[outEdges[node].get(i)];
+                    removeEdgesTo(inEdges[neighbor], node, true);
+                    touchNeighbor(queue, neighbor);
+                }
+                for (int i = 0; i < inEdges[node].size(); i++) {
+                    int neighbor = edgeFrom[inEdges[node].get(i)];
+                    removeEdgesTo(outEdges[neighbor], node, false);
+                    touchNeighbor(queue, neighbor);
+                }
+            }
+
+            return new ContractionHierarchy(true, nodeCount, graph.edgeCount(), rank,
+                    Arrays.copyOf(edgeFrom, edgeCount), Arrays.copyOf(edgeTo, edgeCount),
+                    Arrays.copyOf(edgeWeight, edgeCount), Arrays.copyOf(edgeFirst, edgeCount),
+                    Arrays.copyOf(edgeSecond, edgeCount));
+        }
+
+        private void removeEdgesTo(IntList edges, int node, boolean incoming) {
+            int size = 0;
+            for (int i = 0; i < edges.size(); i++) {
+                int edge = edges.get(i);
+                if ((incoming ? edgeFrom[edge] : edgeTo[edge]) != node) {
+                    edges.set(size++, edge);
+                }
+            }
+            edges.truncate(size);
+        }
+
+        private void touchNeighbor(IndexedMinHeap queue, int neighbor) {
+            if (!contracted[neighbor]) {
+                contractedNeighbors[neighbor]++;
+                queue.update(neighbor, priority(neighbor));
+            }
+        }
+
+        /**
+         * Разность рёбер плюс число уже сжатых соседей
+         */
+        private double priority(int node) {
+            int shortcuts = contract(node, true);
+            int degree = outEdges[node].size() + inEdges[node].size();
+            return shortcuts - degree + contractedNeighbors[node];
+        }
+
+        /**
+         * Сжимает узел или (при simulate) только считает необходимые шорткаты
+         */
+        private int contract(int node, boolean simulate) {
+            IntList in = inEdges[node];
+            IntList out = outEdges[node];
+
+            double maxOut = 0;
+            for (int i = 0; i < out.size(); i++) {
+                maxOut = Math.max(maxOut, edgeWeight[out.get(i)]);
+            }
+
+            int shortcuts = 0;
+            for (int i = 0; i < in.size(); i++) {
+                int inEdge = in.get(i);
+                int from = edgeFrom[inEdge];
+                if (contracted[from]) {
+                    continue;
+                }
+
+                // Свидетельский поиск можно остановить, когда обработаны все соседи w
+                targetMark++;
+                targetCount = 0;
+                for (int j = 0; j < out.size(); j++) {
+                    int to = edgeTo[out.get(j)];
+                    if (to != from && targetMarks[to] != targetMark) {
+                        targetMarks[to] = targetMark;
+                        targetCount++;
+                    }
+                }
+                witnessSearch(from, node, edgeWeight[inEdge] + maxOut,
+                        simulate ? SIMULATION_SETTLED_LIMIT : WITNESS_SETTLED_LIMIT);
+                for (int j = 0; j < out.size(); j++) {
+                    int outEdge = out.get(j);
+                    int to = edgeTo[outEdge];
+                    if (to == from) {
+                        continue;
+                    }
+                    double via = edgeWeight[inEdge] + edgeWeight[outEdge];
+                    if (witnessDistances[to] <= via) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (!simulate) {
+                        addShortcut(from, to, via, inEdge, outEdge);
+                    }
+                }
+                resetWitness();
+            }
+            return shortcuts;
+        }
+
+        private void witnessSearch(int source, int excluded, double maxDistance, int settledLimit) {
+            witnessDistances[source] = 0;
+            witnessTouched.add(source);
+            witnessHeap.offer(source, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settledLimit) {
+                if (witnessHeap.peekKey() > maxDistance) {
+                    break;
+                }
+                int node = witnessHeap.poll();
+                settled++;
+                if (targetMarks[node] == targetMark && --targetCount == 0) {
+                    break;
+                }
+                double distance = witnessDistances[node];
+                IntList out = outEdges[node];
+                for (int i = 0; i < out.size(); i++) {
+                    int edge = out.get(i);
+                    int next = edgeTo[edge];
+                    if (next == excluded || contracted[next]) {
+                        continue;
+                    }
+                    double candidate = distance + edgeWeight[edge];
+                    if (candidate < witnessDistances[next]) {
+                        if (Double.isInfinite(witnessDistances[next])) {
+                            witnessTouched.add(next);
+                        }
+                        witnessDistances[next] = candidate;
+                        witnessHeap.offer(next, candidate);
+                    }
+                }
+            }
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < witnessTouched.size(); i++) {
+                witnessDistances[witnessTouched.get(i)] = Double.POSITIVE_INFINITY;
+            }
+            witnessTouched.clear();
+            witnessHeap.clear();
+        }
+
+        private void addShortcut(int from, int to, double weight, int first, int second) {
+            IntList out = outEdges[from];
+            for (int i = 0; i < out.size(); i++) {
+                int edge = out.get(i);
+                if (edgeTo[edge] == to) {
+                    if (weight < edgeWeight[edge]) {
+                        edgeWeight[edge] = weight;
+                        edgeFirst[edge] = first;
+                        edgeSecond[edge] = second;
+                    }
+                    return;
+                }
+            }
+            addEdge(from, to, weight, first, second);
+        }
+
+        private int addEdge(int from, int to, double weight, int first, int second) {
+            if (edgeCount == edgeFrom.length) {
+                int capacity = edgeCount * 2;
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+                edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+                edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+            }
+            int edge = edgeCount++;
+            edgeFrom[edge] = from;
+            edgeTo[edge] = to;
+            edgeWeight[edge] = weight;
+            edgeFirst[edge] = first;
+            edgeSecond[edge] = second;
+            outEdges[from].add(edge);
+            inEdges[to].add(edge);
+            return edge;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.network_graph_api.utils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Дейкстра на BigDecimal для весов, которые не представимы в фиксированной точке.
+ * Сравнения точные при любом масштабе, но каждая релаксация создаёт объект.
+ */
+public final class DecimalDijkstra {
+
+    private DecimalDijkstra() {
+        // no init
+    }
+
+    private record Entry(BigDecimal distance, int node) {
+    }
+
+    public static ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int nodeCount = graph.nodeCount();
+        BigDecimal[] distances = new BigDecimal[nodeCount];
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        boolean[] settled = new boolean[nodeCount];
+        int settledCount = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> a.distance().compareTo(b.distance()));
+        distances[source] = BigDecimal.ZERO;
+        queue.add(new Entry(BigDecimal.ZERO, source));
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            int node = entry.node();
+            if (settled[node] || entry.distance() != distances[node]) {
+                continue;
+            }
+            settled[node] = true;
+            settledCount++;
+            budget.checkpoint();
+            if (node == target) {
+                return ShortestPath.fromPredecessors(target, previousNode, previousEdge,
+                        entry.distance().doubleValue(), settledCount);
+            }
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (settled[next]) {
+                    continue;
+                }
+                BigDecimal candidate = entry.distance().add(graph.exactWeight(edge));
+                if (distances[next] == null || candidate.compareTo(distances[next]) < 0) {
+                    distances[next] = candidate;
+                    previousNode[next] = node;
+                    previousEdge[next] = edge;
+                    queue.add(new Entry(candidate, next));
+                }
+            }
+        }
+        return null;
+    }
+}
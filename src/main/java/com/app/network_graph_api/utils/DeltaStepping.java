@@ -0,0 +1,313 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Параллельный delta-stepping (Meyer, Sanders) для графов с неотрицательными весами.
+ * <p>
+ * Узлы раскладываются по корзинам ширины Δ. Корзина обрабатывается раундами: все её узлы
+ * параллельно релаксируют лёгкие рёбра (вес ≤ Δ), пока корзина не перестанет пополняться,
+ * затем один раз - тяжёлые рёбра. Расстояния хранятся как биты double в {@link AtomicLongArray}:
+ * для неотрицательных чисел порядок битов совпадает с порядком значений, поэтому
+ * уменьшение расстояния - это CAS-минимум без блокировок.
+ * <p>
+ * Предшественники при гонках не записываются; дерево путей восстанавливается после поиска
+ * обходом «плотных» рёбер (dist[u] + w == dist[v]) из корня, что даёт дерево и при рёбрах нулевого веса.
+ */
+public class DeltaStepping implements GraphIndex {
+
+    /**
+     * Меньшие фронты релаксируются в вызывающем потоке без накладных расходов ForkJoin
+     */
+    static final int PARALLEL_THRESHOLD = 256;
+
+    private static final long INFINITY = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    private final CompiledGraph graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    public DeltaStepping(CompiledGraph graph) {
+        this(graph, autoDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    public DeltaStepping(CompiledGraph graph, double delta, ForkJoinPool pool) {
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    /**
+     * Ширина корзины по распределению весов: 90-й перцентиль веса (по выборке), делённый на
+     * среднюю степень узла (Meyer, Sanders: Δ = Θ(max w / d)). Перцентиль вместо максимума
+     * не даёт единичным тяжёлым рёбрам раздуть корзины.
+     */
+    public static double autoDelta(CompiledGraph graph) {
+        int edgeCount = graph.edgeCount();
+        if (edgeCount == 0) {
+            return 1;
+        }
+        int sampleSize = Math.min(edgeCount, 4096);
+        double[] sample = new double[sampleSize];
+        double minPositive = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < sampleSize; i++) {
+            double weight = graph.edgeWeight((int) ((long) i * edgeCount / sampleSize));
+            sample[i] = weight;
+            if (weight > 0) {
+                minPositive = Math.min(minPositive, weight);
+            }
+        }
+        if (Double.isInfinite(minPositive)) {
+            // Все веса нулевые - одна корзина, поиск вырождается в параллельный BFS
+            return 1;
+        }
+        Arrays.sort(sample);
+        double percentile = sample[(int) (0.9 * (sampleSize - 1))];
+        double averageDegree = Math.max(1.0, (double) edgeCount / Math.max(1, graph.nodeCount()));
+        return Math.max(minPositive, percentile / averageDegree);
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Состояние поиска создаётся на каждый запрос, сам индекс хранит только параметры
+     */
+    @Override
+    public long memoryFootprint() {
+        return 32L;
+    }
+
+    /**
+     * Полное дерево кратчайших путей из {@code source}
+     */
+    public ShortestPathTree tree(int source) {
+        Search search = new Search(source, -1);
+        search.run();
+        return search.toTree(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Поиск до {@code target}: останавливается, как только обработана корзина, содержащая цель
+     */
+    public ShortestPath find(int source, int target) {
+        Search search = new Search(source, target);
+        search.run();
+        double distance = search.distance(target);
+        if (Double.isInfinite(distance)) {
+            return null;
+        }
+        // Узлы дальше цели могут быть не окончательными, поэтому дерево строится только до неё
+        return search.toTree(distance).path(target);
+    }
+
+    private final class Search {
+
+        private final int source;
+        private final int target;
+        private final AtomicLongArray distances;
+        private final AtomicIntegerArray stamps;
+        private final double[] processed;
+        private int round;
+        private int settledNodes;
+        private final QueryBudget budget = QueryBudget.current();
+
+        Search(int source, int target) {
+            int nodeCount = graph.nodeCount();
+            this.source = source;
+            this.target = target;
+            this.distances = new AtomicLongArray(nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                distances.set(node, INFINITY);
+            }
+            this.stamps = new AtomicIntegerArray(nodeCount);
+            this.processed = new double[nodeCount];
+            Arrays.fill(processed, Double.NaN);
+        }
+
+        double distance(int node) {
+            return Double.longBitsToDouble(distances.get(node));
+        }
+
+        void run() {
+            distances.set(source, 0);
+            IntList pending = new IntList();
+            pending.add(source);
+
+            while (!pending.isEmpty()) {
+                // Ближайшая непустая корзина среди узлов, чьё расстояние изменилось
+                double min = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < pending.size(); i++) {
+                    min = Math.min(min, distance(pending.get(i)));
+                }
+                double upper = (Math.floor(min / delta) + 1) * delta;
+
+                int stamp = ++round;
+                IntList current = new IntList();
+                IntList rest = new IntList();
+                for (int i = 0; i < pending.size(); i++) {
+                    int node = pending.get(i);
+                    double distance = distance(node);
+                    if (distance == processed[node]) {
+                        continue;
+                    }
+                    if (distance < upper) {
+                        if (stamps.getAndSet(node, stamp) != stamp) {
+                            current.add(node);
+                        }
+                    } else {
+                        rest.add(node);
+                    }
+                }
+                pending = rest;
+
+                IntList bucket = new IntList();
+                while (!current.isEmpty()) {
+                    int[] frontier = current.toArray();
+                    for (int node : frontier) {
+                        processed[node] = distance(node);
+                        bucket.add(node);
+                    }
+                    settledNodes += frontier.length;
+                    budget.checkpoint(frontier.length);
+
+                    IntList improved = relax(frontier, true, ++round);
+                    current = new IntList();
+                    for (int i = 0; i < improved.size(); i++) {
+                        int node = improved.get(i);
+                        if (distance(node) < upper) {
+                            current.add(node);
+                        } else {
+                            pending.add(node);
+                        }
+                    }
+                }
+
+                // Тяжёлые рёбра ведут только в следующие корзины
+                IntList improved = relax(bucket.toArray(), false, ++round);
+                for (int i = 0; i < improved.size(); i++) {
+                    pending.add(improved.get(i));
+                }
+
+                if (target >= 0 && distance(target) < upper) {
+                    return;
+                }
+            }
+        }
+
+        private IntList relax(int[] frontier, boolean light, int stamp) {
+            Relax task = new Relax(frontier, 0, frontier.length, light, stamp);
+            return frontier.length <= PARALLEL_THRESHOLD ? task.compute() : pool.invoke(task);
+        }
+
+        /**
+         * Релаксация рёбер части фронта; возвращает узлы, расстояние до которых уменьшилось,
+         * каждый не более одного раза за раунд
+         */
+        private final class Relax extends RecursiveTask<IntList> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int[] frontier;
+            private final int from;
+            private final int to;
+            private final boolean light;
+            private final int stamp;
+
+            Relax(int[] frontier, int from, int to, boolean light, int stamp) {
+                this.frontier = frontier;
+                this.from = from;
+                this.to = to;
+                this.light = light;
+                this.stamp = stamp;
+            }
+
+            @Override
+            protected IntList compute() {
+                if (to - from > PARALLEL_THRESHOLD) {
+                    int middle = (from + to) >>> 1;
+                    Relax left = new Relax(frontier, from, middle, light, stamp);
+                    left.fork();
+                    IntList right = new Relax(frontier, middle, to, light, stamp).compute();
+                    IntList result = left.join();
+                    for (int i = 0; i < right.size(); i++) {
+                        result.add(right.get(i));
+                    }
+                    return result;
+                }
+
+                IntList improved = new IntList();
+                for (int i = from; i < to; i++) {
+                    int node = frontier[i];
+                    double distance = processed[node];
+                    for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                        double weight = graph.edgeWeight(edge);
+                        if ((weight <= delta) != light) {
+                            continue;
+                        }
+                        int next = graph.edgeTarget(edge);
+                        if (decrease(next, distance + weight) && stamps.getAndSet(next, stamp) != stamp) {
+                            improved.add(next);
+                        }
+                    }
+                }
+                return improved;
+            }
+        }
+
+        private boolean decrease(int node, double candidate) {
+            long bits = Double.doubleToRawLongBits(candidate);
+            while (true) {
+                long current = distances.get(node);
+                if (bits >= current) {
+                    return false;
+                }
+                if (distances.compareAndSet(node, current, bits)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Дерево по плотным рёбрам из корня среди узлов с расстоянием не больше {@code limit}
+         */
+        ShortestPathTree toTree(double limit) {
+            int nodeCount = graph.nodeCount();
+            double[] result = new double[nodeCount];
+            int[] previousNode = new int[nodeCount];
+            int[] previousEdge = new int[nodeCount];
+            Arrays.fill(result, Double.POSITIVE_INFINITY);
+            Arrays.fill(previousNode, -1);
+            Arrays.fill(previousEdge, -1);
+
+            boolean[] visited = new boolean[nodeCount];
+            int[] queue = new int[nodeCount];
+            int head = 0;
+            int tail = 0;
+            visited[source] = true;
+            result[source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int node = queue[head++];
+                double distance = result[node];
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    double nextDistance = distance(next);
+                    if (!visited[next] && nextDistance <= limit && distance + graph.edgeWeight(edge) == nextDistance) {
+                        visited[next] = true;
+                        result[next] = nextDistance;
+                        previousNode[next] = node;
+                        previousEdge[next] = edge;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return new ShortestPathTree(source, false, result, previousNode, previousEdge, settledNodes);
+        }
+    }
+}
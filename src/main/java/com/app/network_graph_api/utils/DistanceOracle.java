@@ -0,0 +1,109 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Предрасчитанные кратчайшие расстояния между всеми парами узлов.
+ * Для каждой пары хранится расстояние и последнее ребро пути, так что путь
+ * восстанавливается без поиска, проходом по строке начального узла за O(длины пути).
+ * Занимает 12 * n^2 байт, поэтому строится только для небольших графов.
+ */
+public class DistanceOracle implements GraphIndex {
+
+    private final int nodeCount;
+    private final double[] distances;
+    private final int[] previousEdges;
+
+    private DistanceOracle(int nodeCount, double[] distances, int[] previousEdges) {
+        this.nodeCount = nodeCount;
+        this.distances = distances;
+        this.previousEdges = previousEdges;
+    }
+
+    /**
+     * Запускает Дейкстру из каждого узла параллельно в переданном пуле.
+     * Графы с отрицательными весами не поддерживаются.
+     */
+    public static DistanceOracle build(CompiledGraph graph, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        if (graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Distance oracle requires non-negative weights");
+        }
+        int nodeCount = graph.nodeCount();
+        if ((long) nodeCount * nodeCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph is too large for distance oracle: " + nodeCount);
+        }
+        double[] distances = new double[nodeCount * nodeCount];
+        int[] previousEdges = new int[nodeCount * nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousEdges, -1);
+
+        pool.submit(() -> IntStream.range(0, nodeCount).parallel()
+                .forEach(source -> fillRow(graph, source, distances, previousEdges))).get();
+        return new DistanceOracle(nodeCount, distances, previousEdges);
+    }
+
+    private static void fillRow(CompiledGraph graph, int source, double[] distances, int[] previousEdges) {
+        int nodeCount = graph.nodeCount();
+        int offset = source * nodeCount;
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        distances[offset + source] = 0;
+        heap.offer(source, 0);
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            double distance = distances[offset + node];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate < distances[offset + next]) {
+                    distances[offset + next] = candidate;
+                    previousEdges[offset + next] = edge;
+                    heap.offer(next, candidate);
+                }
+            }
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public double distance(int source, int target) {
+        return distances[source * nodeCount + target];
+    }
+
+    /**
+     * @return путь из строки {@code source} или null, если {@code target} недостижим
+     */
+    public ShortestPath path(CompiledGraph graph, int source, int target) {
+        int offset = source * nodeCount;
+        double distance = distances[offset + target];
+        if (Double.isInfinite(distance)) {
+            return null;
+        }
+
+        int length = 0;
+        for (int node = target; node != source; node = graph.edgeSource(previousEdges[offset + node])) {
+            length++;
+        }
+        int[] nodes = new int[length + 1];
+        int[] edges = new int[length];
+        int node = target;
+        for (int i = length; i > 0; i--) {
+            nodes[i] = node;
+            edges[i - 1] = previousEdges[offset + node];
+            node = graph.edgeSource(edges[i - 1]);
+        }
+        nodes[0] = source;
+        return new ShortestPath(nodes, edges, distance, 0);
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return 32L + 12L * distances.length;
+    }
+}
@@ -0,0 +1,486 @@
+package com.app.network_graph_api.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Загрузка графа из списка рёбер, отображённого в память: файл читается окнами через {@link FileChannel#map},
+ * имена узлов ищутся по байтам в собственной хеш-таблице, веса разбираются прямо из буфера.
+ * Объекты создаются только для новых имён узлов, на ребро - ни одного.
+ * <p>
+ * CSV: строка {@code src,dst,weight} или {@code src,dst} (вес 1); разделитель - запятая, точка с запятой
+ * или табуляция; пробелы вокруг полей и двойные кавычки без экранирования внутри отбрасываются.
+ * Пустые строки и строки, начинающиеся с {@code #}, пропускаются; первая строка с нечисловым весом
+ * считается заголовком. Узлы нумеруются в порядке первого упоминания.
+ * <p>
+ * Двоичный формат, числа в порядке big-endian как в {@link java.io.DataOutputStream}:
+ * <pre>
+ * int    0x47454C31 ("GEL1")
+ * int    число узлов
+ *        имена узлов: unsigned short длина в байтах, UTF-8
+ * long   число рёбер
+ *        рёбра: int источник, int цель, double вес
+ * </pre>
+ */
+public final class EdgeListReader {
+
+    public enum Format {
+        CSV, BINARY
+    }
+
+    static final int MAGIC = 0x47454C31;
+    static final int MAX_LINE = 1 << 16;
+    private static final int DEFAULT_WINDOW = 1 << 28;
+    private static final int EDGE_BYTES = 16;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private EdgeListReader() {
+    }
+
+    /**
+     * @throws IllegalArgumentException если данные не соответствуют формату; в сообщении номер строки или ребра
+     */
+    public static CompiledGraph read(Path file, Format format) throws IOException {
+        return read(file, format, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window размер окна отображения; не меньше {@link #MAX_LINE}
+     */
+    static CompiledGraph read(Path file, Format format, int window) throws IOException {
+        if (window < MAX_LINE) {
+            throw new IllegalArgumentException("Window is smaller than " + MAX_LINE + " bytes");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput input = new MappedInput(channel, window);
+            return format == Format.CSV ? readCsv(input) : readBinary(input);
+        }
+    }
+
+    /**
+     * Записывает граф в двоичном формате; рёбра - в порядке узлов, как в {@link CompiledGraph}
+     */
+    public static void writeBinary(CompiledGraph graph, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(graph.nodeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            byte[] name = graph.name(node).getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                throw new IllegalArgumentException("Node name is longer than 65535 bytes: " + node);
+            }
+            out.writeShort(name.length);
+            out.write(name);
+        }
+        out.writeLong(graph.edgeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                out.writeInt(node);
+                out.writeInt(graph.edgeTarget(edge));
+                out.writeDouble(graph.edgeWeight(edge));
+            }
+        }
+        out.flush();
+    }
+
+    private static CompiledGraph readCsv(MappedInput input) throws IOException {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        NameTable names = new NameTable(builder);
+        long line = 0;
+        boolean data = false;
+        while (input.hasMore()) {
+            input.ensure(MAX_LINE);
+            MappedByteBuffer buffer = input.buffer;
+            int start = input.position;
+            int limit = buffer.limit();
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            line++;
+            if (end == limit && input.hasMoreAfter(limit)) {
+                throw new IllegalArgumentException("Line " + line + " is longer than " + MAX_LINE + " bytes");
+            }
+            input.position = end < limit ? end + 1 : end;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            start = skipSpaces(buffer, start, end);
+            if (start == end || buffer.get(start) == '#') {
+                continue;
+            }
+
+            int first = separator(buffer, start, end);
+            if (first < 0) {
+                throw new IllegalArgumentException("Line " + line + ": expected src,dst[,weight]");
+            }
+            int second = separator(buffer, first + 1, end);
+            double weight = 1;
+            if (second >= 0) {
+                weight = parseDouble(buffer, second + 1, end);
+                if (Double.isNaN(weight)) {
+                    if (!data) {
+                        // Заголовок
+                        data = true;
+                        continue;
+                    }
+                    throw new IllegalArgumentException("Line " + line + ": invalid weight");
+                }
+            }
+            data = true;
+            int from = names.id(buffer, start, first, line);
+            int to = names.id(buffer, first + 1, second >= 0 ? second : end, line);
+            builder.addEdge(from, to, weight);
+        }
+        return builder.build();
+    }
+
+    private static CompiledGraph readBinary(MappedInput input) throws IOException {
+        input.require(8, "header", -1);
+        if (input.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary edge list: bad magic number");
+        }
+        int nodeCount = input.getInt();
+        if (nodeCount < 0) {
+            throw new IllegalArgumentException("Negative node count");
+        }
+
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < nodeCount; node++) {
+            input.require(2, "node", node);
+            int length = input.getShort() & 0xFFFF;
+            input.require(length, "node", node);
+            byte[] name = new byte[length];
+            input.buffer.get(input.position, name);
+            input.position += length;
+            if (builder.addNode(new String(name, StandardCharsets.UTF_8)) != node) {
+                throw new IllegalArgumentException("Duplicate node name: " + node);
+            }
+        }
+
+        input.require(8, "edge count", -1);
+        long edgeCount = input.getLong();
+        if (edgeCount < 0 || edgeCount > Integer.MAX_VALUE || edgeCount * EDGE_BYTES != input.remaining()) {
+            throw new IllegalArgumentException("Edge count " + edgeCount + " does not match file size");
+        }
+        for (long edge = 0; edge < edgeCount; edge++) {
+            input.require(EDGE_BYTES, "edge", edge);
+            int from = input.getInt();
+            int to = input.getInt();
+            double weight = input.getDouble();
+            if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + edge + ": node out of range");
+            }
+            if (!Double.isFinite(weight)) {
+                throw new IllegalArgumentException("Edge " + edge + ": invalid weight");
+            }
+            builder.addEdge(from, to, weight);
+        }
+        return builder.build();
+    }
+
+    private static int separator(MappedByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == ',' || b == ';' || b == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Десятичное число без создания строки: до 18 значащих цифр и порядок до 22 переводятся в double
+     * точно одним умножением или делением; остальное - через {@link Double#parseDouble}
+     *
+     * @return NaN, если это не конечное десятичное число
+     */
+    static double parseDouble(MappedByteBuffer buffer, int start, int end) {
+        start = skipSpaces(buffer, start, end);
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean exact = true;
+        for (; i < end && isDigit(buffer.get(i)); i++) {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                digits += mantissa != 0 ? 1 : 0;
+            } else {
+                exponent++;
+                exact = false;
+            }
+        }
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end && isDigit(buffer.get(i)); i++) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                    digits += mantissa != 0 ? 1 : 0;
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+            }
+        }
+        if (!any) {
+            return Double.NaN;
+        }
+        if (i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int value = 0;
+            boolean exponentDigits = false;
+            for (; i < end && isDigit(buffer.get(i)); i++) {
+                exponentDigits = true;
+                value = Math.min(value * 10 + (buffer.get(i) - '0'), 100_000);
+            }
+            if (!exponentDigits) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        if (exact && mantissa < (1L << 53) && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        byte[] text = new byte[end - start];
+        buffer.get(start, text);
+        double value = Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        return Double.isFinite(value) ? value : Double.NaN;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Файл, отображаемый в память окнами: окно сдвигается к текущей позиции, когда в нём остаётся
+     * меньше запрошенного числа байт. Позволяет читать файлы больше 2 ГБ.
+     */
+    private static final class MappedInput {
+
+        private final FileChannel channel;
+        private final long size;
+        private final int window;
+        private MappedByteBuffer buffer;
+        private long base;
+        private int position;
+
+        MappedInput(FileChannel channel, int window) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.window = window;
+            map(0);
+        }
+
+        boolean hasMore() {
+            return base + position < size;
+        }
+
+        boolean hasMoreAfter(int bufferPosition) {
+            return base + bufferPosition < size;
+        }
+
+        long remaining() {
+            return size - base - position;
+        }
+
+        /**
+         * Делает доступными в окне {@code bytes} байт от текущей позиции или остаток файла
+         */
+        void ensure(int bytes) throws IOException {
+            if (buffer.limit() - position < bytes && base + buffer.limit() < size) {
+                map(base + position);
+            }
+        }
+
+        /**
+         * Как {@link #ensure}, но конец файла раньше {@code bytes} байт - ошибка формата
+         *
+         * @param index номер узла или ребра для сообщения; отрицательный - без номера
+         */
+        void require(int bytes, String what, long index) throws IOException {
+            ensure(bytes);
+            if (buffer.limit() - position < bytes) {
+                throw new IllegalArgumentException("Unexpected end of file in " + what + (index >= 0 ? " " + index : ""));
+            }
+        }
+
+        int getInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        short getShort() {
+            short value = buffer.getShort(position);
+            position += 2;
+            return value;
+        }
+
+        long getLong() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        double getDouble() {
+            double value = buffer.getDouble(position);
+            position += 8;
+            return value;
+        }
+
+        private void map(long offset) throws IOException {
+            base = offset;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(window, size - offset));
+            position = 0;
+        }
+    }
+
+    /**
+     * Имена узлов по байтам: открытая адресация хеш -> номер узла, байты имён в общем массиве.
+     * Строка создаётся только для нового имени.
+     */
+    private static final class NameTable {
+
+        private final CompiledGraph.Builder builder;
+        private int[] table = new int[1024];
+        private int[] hashes = new int[512];
+        private int[] offsets = new int[513];
+        private byte[] bytes = new byte[1 << 16];
+        private int size;
+
+        NameTable(CompiledGraph.Builder builder) {
+            this.builder = builder;
+            Arrays.fill(table, -1);
+        }
+
+        int id(MappedByteBuffer buffer, int start, int end, long line) {
+            start = skipSpaces(buffer, start, end);
+            while (end > start && buffer.get(end - 1) == ' ') {
+                end--;
+            }
+            if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                start++;
+                end--;
+            }
+            if (start == end) {
+                throw new IllegalArgumentException("Line " + line + ": empty node name");
+            }
+
+            int hash = hash(buffer, start, end);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            for (int id = table[slot]; id >= 0; slot = (slot + 1) & mask, id = table[slot]) {
+                if (hashes[id] == hash && matches(id, buffer, start, end)) {
+                    return id;
+                }
+            }
+
+            byte[] name = new byte[end - start];
+            buffer.get(start, name);
+            int id = builder.addNode(new String(name, StandardCharsets.UTF_8));
+            if (id != size) {
+                // Разные байты дали одну строку (некорректный UTF-8) - узел уже есть, в таблицу не добавляем
+                return id;
+            }
+            add(hash, name);
+            table[slot] = id;
+            if (2 * size > table.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void add(int hash, byte[] name) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            int offset = offsets[size];
+            if (offset + name.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, offset + name.length));
+            }
+            System.arraycopy(name, 0, bytes, offset, name.length);
+            hashes[size] = hash;
+            offsets[size + 1] = offset + name.length;
+            size++;
+        }
+
+        private boolean matches(int id, MappedByteBuffer buffer, int start, int end) {
+            int offset = offsets[id];
+            if (offsets[id + 1] - offset != end - start) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (bytes[offset++] != buffer.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = hashes[id] & mask;
+                while (table[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id;
+            }
+        }
+
+        private static int hash(MappedByteBuffer buffer, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + buffer.get(i);
+            }
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
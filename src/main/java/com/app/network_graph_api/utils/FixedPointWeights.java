@@ -0,0 +1,188 @@
+package com.app.network_graph_api.utils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Веса рёбер в фиксированной точке: {@code weight = unscaled / 10^scale}. Масштаб - наибольшее
+ * число десятичных знаков среди весов. Строится, только если любой простой путь заведомо
+ * помещается в long, и тогда поиск Дейкстры на long сравнивает пути точно.
+ */
+public final class FixedPointWeights implements GraphIndex {
+
+    /**
+     * Больше знаков после запятой - признак того, что вес получен вычислением и в фиксированной
+     * точке не представим без округления
+     */
+    static final int MAX_SCALE = 9;
+
+    private final int scale;
+    private final long[] weights;
+
+    private FixedPointWeights(int scale, long[] weights) {
+        this.scale = scale;
+        this.weights = weights;
+    }
+
+    /**
+     * @return веса в фиксированной точке или null, если веса отрицательные, слишком дробные
+     * или сумма пути может переполнить long
+     */
+    public static FixedPointWeights of(CompiledGraph graph) {
+        int edgeCount = graph.edgeCount();
+        int scale = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            BigDecimal weight = graph.exactWeight(edge);
+            if (weight.signum() < 0) {
+                return null;
+            }
+            scale = Math.max(scale, weight.stripTrailingZeros().scale());
+        }
+        if (scale > MAX_SCALE) {
+            return null;
+        }
+
+        long[] weights = new long[edgeCount];
+        long max = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            try {
+                weights[edge] = graph.exactWeight(edge).movePointRight(scale).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            max = Math.max(max, weights[edge]);
+        }
+        // Простой путь содержит не больше nodeCount - 1 рёбер
+        if (max > 0 && Math.max(1, graph.nodeCount() - 1) > Long.MAX_VALUE / max) {
+            return null;
+        }
+        return new FixedPointWeights(scale, weights);
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public long weight(int edge) {
+        return weights[edge];
+    }
+
+    public BigDecimal toDecimal(long value) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * Дейкстра на long: куча с ленивым удалением, устаревшие записи пропускаются при извлечении
+     */
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int nodeCount = graph.nodeCount();
+        long[] distances = new long[nodeCount];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        boolean[] settled = new boolean[nodeCount];
+        int settledCount = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        LongHeap heap = new LongHeap();
+        distances[source] = 0;
+        heap.offer(source, 0);
+        while (!heap.isEmpty()) {
+            long distance = heap.peekKey();
+            int node = heap.poll();
+            if (settled[node] || distance != distances[node]) {
+                continue;
+            }
+            settled[node] = true;
+            settledCount++;
+            budget.checkpoint();
+            if (node == target) {
+                return ShortestPath.fromPredecessors(target, previousNode, previousEdge,
+                        toDecimal(distance).doubleValue(), settledCount);
+            }
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                long candidate = distance + weights[edge];
+                if (!settled[next] && candidate < distances[next]) {
+                    distances[next] = candidate;
+                    previousNode[next] = node;
+                    previousEdge[next] = edge;
+                    heap.offer(next, candidate);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return 32L + 8L * weights.length;
+    }
+
+    /**
+     * Двоичная куча пар (ключ long, узел) в примитивных массивах
+     */
+    private static final class LongHeap {
+
+        private long[] keys = new long[16];
+        private int[] nodes = new int[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        void offer(int node, long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[position] = keys[parent];
+                nodes[position] = nodes[parent];
+                position = parent;
+            }
+            keys[position] = key;
+            nodes[position] = node;
+        }
+
+        int poll() {
+            int result = nodes[0];
+            size--;
+            long key = keys[size];
+            int node = nodes[size];
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[position] = keys[child];
+                nodes[position] = nodes[child];
+                position = child;
+            }
+            keys[position] = key;
+            nodes[position] = node;
+            return result;
+        }
+    }
+}
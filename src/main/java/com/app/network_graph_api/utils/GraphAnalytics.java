@@ -0,0 +1,252 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Метрики важности узлов поверх {@link CompiledGraph}: PageRank, центральность по посредничеству
+ * (Brandes) и выборочная центральность по близости. Вычисления распараллеливаются в переданном
+ * {@link ForkJoinPool}, ход выполнения сообщается долей от 0 до 1.
+ */
+public final class GraphAnalytics {
+
+    private GraphAnalytics() {
+        // no init
+    }
+
+    /**
+     * PageRank степенным методом: на каждой итерации ранг узла собирается по входящим рёбрам
+     * параллельно по узлам, ранг висячих узлов распределяется равномерно. Веса рёбер не учитываются.
+     */
+    public static double[] pageRank(CompiledGraph graph, double damping, int maxIterations, double tolerance,
+            ForkJoinPool pool, DoubleConsumer progress) throws InterruptedException, ExecutionException {
+        int nodeCount = graph.nodeCount();
+        double[] rank = new double[nodeCount];
+        double[] next = new double[nodeCount];
+        if (nodeCount == 0) {
+            return rank;
+        }
+        Arrays.fill(rank, 1.0 / nodeCount);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] current = rank;
+            double[] updated = next;
+            double dangling = pool.submit(() -> IntStream.range(0, nodeCount).parallel()
+                    .filter(node -> graph.degree(node) == 0)
+                    .mapToDouble(node -> current[node]).sum()).get();
+            double base = (1 - damping) / nodeCount + damping * dangling / nodeCount;
+
+            double change = pool.submit(() -> IntStream.range(0, nodeCount).parallel().mapToDouble(node -> {
+                double sum = 0;
+                for (int i = graph.inEdgesStart(node); i < graph.inEdgesEnd(node); i++) {
+                    int source = graph.inEdgeSource(i);
+                    sum += current[source] / graph.degree(source);
+                }
+                updated[node] = base + damping * sum;
+                return Math.abs(updated[node] - current[node]);
+            }).sum()).get();
+
+            rank = updated;
+            next = current;
+            progress.accept((iteration + 1.0) / maxIterations);
+            if (change < tolerance) {
+                break;
+            }
+        }
+        progress.accept(1);
+        return rank;
+    }
+
+    /**
+     * Центральность по посредничеству алгоритмом Brandes для взвешенного графа.
+     * Источники делятся на порции, у каждой порции свой накопитель, накопители суммируются в конце.
+     * При {@code samples} меньше числа узлов считается по случайной выборке источников
+     * с масштабированием результата.
+     */
+    public static double[] betweenness(CompiledGraph graph, int samples, long seed, ForkJoinPool pool,
+            DoubleConsumer progress) throws InterruptedException, ExecutionException {
+        requireNonNegative(graph);
+        int nodeCount = graph.nodeCount();
+        int[] sources = sample(nodeCount, samples, seed);
+        double scale = sources.length > 0 ? (double) nodeCount / sources.length : 0;
+        AtomicInteger done = new AtomicInteger();
+
+        double[] centrality = accumulate(pool, sources, nodeCount, chunk -> {
+            double[] accumulator = new double[nodeCount];
+            BrandesWorkspace workspace = new BrandesWorkspace(nodeCount);
+            for (int source : chunk) {
+                workspace.accumulate(graph, source, accumulator);
+                progress.accept((double) done.incrementAndGet() / sources.length);
+            }
+            return accumulator;
+        });
+        for (int node = 0; node < nodeCount; node++) {
+            centrality[node] *= scale;
+        }
+        return centrality;
+    }
+
+    /**
+     * Выборочная центральность по близости: для случайных опорных узлов строятся обратные деревья
+     * кратчайших путей, близость узла - число достигнутых опорных узлов, делённое на сумму расстояний до них
+     */
+    public static double[] closeness(CompiledGraph graph, int samples, long seed, ForkJoinPool pool,
+            DoubleConsumer progress) throws InterruptedException, ExecutionException {
+        requireNonNegative(graph);
+        int nodeCount = graph.nodeCount();
+        int[] pivots = sample(nodeCount, samples, seed);
+        AtomicInteger done = new AtomicInteger();
+
+        // В одном накопителе: [0, n) - суммы расстояний, [n, 2n) - число достигнутых опорных узлов
+        double[] sums = accumulate(pool, pivots, 2 * nodeCount, chunk -> {
+            double[] accumulator = new double[2 * nodeCount];
+            for (int pivot : chunk) {
+                ShortestPathTree tree = ShortestPathTree.computeReverse(graph, pivot);
+                for (int node = 0; node < nodeCount; node++) {
+                    double distance = tree.distance(node);
+                    if (node != pivot && !Double.isInfinite(distance)) {
+                        accumulator[node] += distance;
+                        accumulator[nodeCount + node]++;
+                    }
+                }
+                progress.accept((double) done.incrementAndGet() / pivots.length);
+            }
+            return accumulator;
+        });
+
+        double[] closeness = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            closeness[node] = sums[node] > 0 ? sums[nodeCount + node] / sums[node] : 0;
+        }
+        return closeness;
+    }
+
+    private interface ChunkTask {
+        double[] run(int[] chunk);
+    }
+
+    /**
+     * Делит элементы на порции по числу потоков пула (с запасом для балансировки),
+     * считает порции параллельно и суммирует их накопители
+     */
+    private static double[] accumulate(ForkJoinPool pool, int[] items, int size, ChunkTask task)
+            throws InterruptedException, ExecutionException {
+        int chunkCount = Math.max(1, Math.min(items.length, pool.getParallelism() * 4));
+        return pool.submit(() -> IntStream.range(0, chunkCount).parallel()
+                .mapToObj(chunk -> task.run(Arrays.copyOfRange(items,
+                        (int) ((long) chunk * items.length / chunkCount),
+                        (int) ((long) (chunk + 1) * items.length / chunkCount))))
+                .reduce(new double[size], (left, right) -> {
+                    double[] merged = new double[size];
+                    for (int i = 0; i < size; i++) {
+                        merged[i] = left[i] + right[i];
+                    }
+                    return merged;
+                })).get();
+    }
+
+    private static int[] sample(int nodeCount, int samples, long seed) {
+        int[] nodes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodes[node] = node;
+        }
+        if (samples <= 0 || samples >= nodeCount) {
+            return nodes;
+        }
+        // Частичное перемешивание Фишера-Йетса
+        Random random = new Random(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(nodeCount - i);
+            int swap = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = swap;
+        }
+        return Arrays.copyOf(nodes, samples);
+    }
+
+    private static void requireNonNegative(CompiledGraph graph) {
+        if (graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Centrality requires non-negative weights");
+        }
+    }
+
+    /**
+     * Рабочие массивы одного потока Brandes; сбрасываются только по посещённым узлам
+     */
+    private static final class BrandesWorkspace {
+
+        private final double[] distances;
+        private final double[] paths;
+        private final double[] dependencies;
+        private final int[] settleOrder;
+        private final int[] settled;
+        private final IndexedMinHeap heap;
+
+        BrandesWorkspace(int nodeCount) {
+            distances = new double[nodeCount];
+            paths = new double[nodeCount];
+            dependencies = new double[nodeCount];
+            settleOrder = new int[nodeCount];
+            settled = new int[nodeCount];
+            heap = new IndexedMinHeap(nodeCount);
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(settleOrder, -1);
+        }
+
+        void accumulate(CompiledGraph graph, int source, double[] centrality) {
+            int settledCount = 0;
+            distances[source] = 0;
+            paths[source] = 1;
+            heap.offer(source, 0);
+
+            while (!heap.isEmpty()) {
+                int node = heap.poll();
+                settleOrder[node] = settledCount;
+                settled[settledCount++] = node;
+                double distance = distances[node];
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    if (settleOrder[next] >= 0) {
+                        continue;
+                    }
+                    double candidate = distance + graph.edgeWeight(edge);
+                    if (candidate < distances[next]) {
+                        distances[next] = candidate;
+                        paths[next] = paths[node];
+                        heap.offer(next, candidate);
+                    } else if (candidate == distances[next]) {
+                        paths[next] += paths[node];
+                    }
+                }
+            }
+
+            // Предшественник - узел, зафиксированный раньше и лежащий на кратчайшем пути;
+            // порядок фиксации делает это отношение ациклическим и при рёбрах нулевого веса
+            for (int i = settledCount - 1; i > 0; i--) {
+                int node = settled[i];
+                double coefficient = (1 + dependencies[node]) / paths[node];
+                for (int j = graph.inEdgesStart(node); j < graph.inEdgesEnd(node); j++) {
+                    int previous = graph.inEdgeSource(j);
+                    if (settleOrder[previous] >= 0 && settleOrder[previous] < i
+                            && distances[previous] + graph.edgeWeight(graph.inEdge(j)) == distances[node]) {
+                        dependencies[previous] += paths[previous] * coefficient;
+                    }
+                }
+                centrality[node] += dependencies[node];
+            }
+
+            for (int i = 0; i < settledCount; i++) {
+                int node = settled[i];
+                distances[node] = Double.POSITIVE_INFINITY;
+                paths[node] = 0;
+                dependencies[node] = 0;
+                settleOrder[node] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Производный индекс, прикрепляемый к {@link CompiledGraph}; его объём входит в объём графа в кэше
+ */
+public interface GraphIndex {
+
+    /**
+     * Примерный объём памяти, занимаемый индексом, в байтах
+     */
+    long memoryFootprint();
+}
@@ -0,0 +1,422 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.model.api.NetworkNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Применение операций изменения к графу.
+ * <p>
+ * Эталонная семантика задана над списком узлов {@link #apply(List, List)}: по нему после любой
+ * последовательности операций строится тот же граф, что и при создании. Для формулы веса по умолчанию
+ * ({@code w}) те же операции применяются прямо к скомпилированному графу {@link #apply(CompiledGraph, List)}:
+ * затронутые списки рёбер копируются, остальные переносятся из исходного графа. Результат совпадает
+ * с {@link CompiledGraph#of(List, WeightFormula)} от изменённого списка узлов.
+ * <p>
+ * Ошибки: {@link NoSuchElementException} - узел или ребро не найдены,
+ * {@link IllegalArgumentException} - некорректная операция.
+ */
+public final class GraphMutator {
+
+    private GraphMutator() {
+    }
+
+    /**
+     * Применяет операции к списку узлов на месте.
+     * <ul>
+     *     <li>ADD_NODE добавляет узел в конец списка; соединения, ссылавшиеся на это имя до появления узла,
+     *     удаляются, чтобы они не превратились в рёбра</li>
+     *     <li>REMOVE_NODE удаляет все описания узла и все соединения с ним</li>
+     *     <li>ADD_EDGE добавляет соединение в последнее описание узла n1</li>
+     *     <li>REMOVE_EDGE и SET_WEIGHT затрагивают все соединения n1 -> n2 во всех описаниях n1</li>
+     * </ul>
+     */
+    public static List<NetworkNode> apply(List<NetworkNode> nodes, List<GraphMutation> operations) {
+        Map<String, NetworkNode> last = new HashMap<>(nodes.size() * 4 / 3 + 1);
+        for (NetworkNode node : nodes) {
+            normalize(node);
+            last.put(node.getName(), node);
+        }
+
+        for (GraphMutation operation : operations) {
+            validate(operation);
+            switch (operation.getType()) {
+                case ADD_NODE -> {
+                    if (last.containsKey(operation.getNode())) {
+                        throw new IllegalArgumentException("Node already exists: " + operation.getNode());
+                    }
+                    removeConnections(nodes, operation.getNode());
+                    NetworkNode node = new NetworkNode();
+                    node.setName(operation.getNode());
+                    nodes.add(node);
+                    last.put(node.getName(), node);
+                }
+                case REMOVE_NODE -> {
+                    if (last.remove(operation.getNode()) == null) {
+                        throw new NoSuchElementException("Node not found: " + operation.getNode());
+                    }
+                    nodes.removeIf(node -> operation.getNode().equals(node.getName()));
+                    removeConnections(nodes, operation.getNode());
+                }
+                case ADD_EDGE -> {
+                    NetworkNode node = last.get(operation.getN1());
+                    requireNodes(node != null, last.containsKey(operation.getN2()), operation);
+                    List<BigDecimal> parameters = node.getParameters();
+                    int index = node.getConnectedNodes().size();
+                    while (parameters.size() < index) {
+                        parameters.add(BigDecimal.ZERO);
+                    }
+                    parameters.add(index, operation.getWeight());
+                    node.getConnectedNodes().add(operation.getN2());
+                }
+                case REMOVE_EDGE -> {
+                    requireNodes(last.containsKey(operation.getN1()), last.containsKey(operation.getN2()), operation);
+                    boolean found = false;
+                    for (NetworkNode node : nodes) {
+                        if (!operation.getN1().equals(node.getName())) {
+                            continue;
+                        }
+                        List<String> connectedNodes = node.getConnectedNodes();
+                        for (int i = connectedNodes.size() - 1; i >= 0; i--) {
+                            if (operation.getN2().equals(connectedNodes.get(i))) {
+                                removeConnection(node, i);
+                                found = true;
+                            }
+                        }
+                    }
+                    requireEdge(found, operation);
+                }
+                case SET_WEIGHT -> {
+                    requireNodes(last.containsKey(operation.getN1()), last.containsKey(operation.getN2()), operation);
+                    boolean found = false;
+                    for (NetworkNode node : nodes) {
+                        if (!operation.getN1().equals(node.getName())) {
+                            continue;
+                        }
+                        List<String> connectedNodes = node.getConnectedNodes();
+                        List<BigDecimal> parameters = node.getParameters();
+                        for (int i = 0; i < connectedNodes.size(); i++) {
+                            if (operation.getN2().equals(connectedNodes.get(i))) {
+                                while (parameters.size() <= i) {
+                                    parameters.add(BigDecimal.ZERO);
+                                }
+                                parameters.set(i, operation.getWeight());
+                                found = true;
+                            }
+                        }
+                    }
+                    requireEdge(found, operation);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Применяет операции к скомпилированному графу, веса рёбер которого равны их параметрам.
+     * Исходный граф не меняется; если набор узлов не изменился, словарь имён у результата общий с исходным.
+     */
+    public static CompiledGraph apply(CompiledGraph graph, List<GraphMutation> operations) {
+        Overlay overlay = new Overlay(graph);
+        for (GraphMutation operation : operations) {
+            validate(operation);
+            switch (operation.getType()) {
+                case ADD_NODE -> {
+                    if (overlay.id(operation.getNode()) >= 0) {
+                        throw new IllegalArgumentException("Node already exists: " + operation.getNode());
+                    }
+                    overlay.addNode(operation.getNode());
+                }
+                case REMOVE_NODE -> {
+                    int node = overlay.id(operation.getNode());
+                    if (node < 0) {
+                        throw new NoSuchElementException("Node not found: " + operation.getNode());
+                    }
+                    overlay.removeNode(operation.getNode(), node);
+                }
+                case ADD_EDGE -> {
+                    int from = overlay.id(operation.getN1());
+                    int to = overlay.id(operation.getN2());
+                    requireNodes(from >= 0, to >= 0, operation);
+                    overlay.edges(from).add(to, operation.getWeight().doubleValue(), operation.getWeight());
+                }
+                case REMOVE_EDGE -> {
+                    int from = overlay.id(operation.getN1());
+                    int to = overlay.id(operation.getN2());
+                    requireNodes(from >= 0, to >= 0, operation);
+                    requireEdge(overlay.edges(from).remove(to), operation);
+                }
+                case SET_WEIGHT -> {
+                    int from = overlay.id(operation.getN1());
+                    int to = overlay.id(operation.getN2());
+                    requireNodes(from >= 0, to >= 0, operation);
+                    requireEdge(overlay.edges(from).set(to, operation.getWeight().doubleValue(), operation.getWeight()),
+                            operation);
+                }
+            }
+        }
+        return overlay.build();
+    }
+
+    /**
+     * @throws IllegalArgumentException если у операции нет обязательных полей
+     */
+    public static void validate(GraphMutation operation) {
+        if (operation == null || operation.getType() == null) {
+            throw new IllegalArgumentException("Operation type is empty");
+        }
+        switch (operation.getType()) {
+            case ADD_NODE, REMOVE_NODE -> {
+                if (operation.getNode() == null) {
+                    throw new IllegalArgumentException(operation.getType() + ": node is empty");
+                }
+            }
+            case ADD_EDGE, REMOVE_EDGE, SET_WEIGHT -> {
+                if (operation.getN1() == null || operation.getN2() == null) {
+                    throw new IllegalArgumentException(operation.getType() + ": n1 and n2 are required");
+                }
+                if (operation.getType() != GraphMutation.Type.REMOVE_EDGE && operation.getWeight() == null) {
+                    throw new IllegalArgumentException(operation.getType() + ": weight is empty: "
+                            + operation.getN1() + " -> " + operation.getN2());
+                }
+            }
+        }
+    }
+
+    static void requireNodes(boolean fromFound, boolean toFound, GraphMutation operation) {
+        if (!fromFound || !toFound) {
+            throw new NoSuchElementException("Node not found: " + (fromFound ? operation.getN2() : operation.getN1()));
+        }
+    }
+
+    static void requireEdge(boolean found, GraphMutation operation) {
+        if (!found) {
+            throw new NoSuchElementException("Edge not found: " + operation.getN1() + " -> " + operation.getN2());
+        }
+    }
+
+    private static void normalize(NetworkNode node) {
+        if (node.getParameters() == null) {
+            node.setParameters(new ArrayList<>());
+        }
+        if (node.getConnectedNodes() == null) {
+            node.setConnectedNodes(new ArrayList<>());
+        }
+    }
+
+    private static void removeConnections(List<NetworkNode> nodes, String target) {
+        for (NetworkNode node : nodes) {
+            List<String> connectedNodes = node.getConnectedNodes();
+            for (int i = connectedNodes.size() - 1; i >= 0; i--) {
+                if (target.equals(connectedNodes.get(i))) {
+                    removeConnection(node, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Удаляет соединение вместе с его параметром, чтобы параметры следующих соединений сдвинулись вместе с ними
+     */
+    private static void removeConnection(NetworkNode node, int index) {
+        node.getConnectedNodes().remove(index);
+        if (index < node.getParameters().size()) {
+            node.getParameters().remove(index);
+        }
+    }
+
+    /**
+     * Изменения поверх скомпилированного графа: новые и удалённые имена, копии затронутых списков рёбер.
+     * Новые узлы получают номера после исходных; удалённый номер больше не используется,
+     * а рёбра в него отбрасываются при сборке.
+     */
+    private static final class Overlay {
+
+        private final CompiledGraph graph;
+        // Имя -> номер для новых узлов, -1 - удалённое имя
+        private final Map<String, Integer> names = new HashMap<>();
+        private final List<String> addedNames = new ArrayList<>();
+        private final Map<Integer, Edges> edges = new HashMap<>();
+        private final BitSet removed = new BitSet();
+
+        Overlay(CompiledGraph graph) {
+            this.graph = graph;
+        }
+
+        int id(String name) {
+            Integer id = names.get(name);
+            return id != null ? id : graph.id(name);
+        }
+
+        void addNode(String name) {
+            int id = graph.nodeCount() + addedNames.size();
+            addedNames.add(name);
+            names.put(name, id);
+            edges.put(id, new Edges());
+        }
+
+        void removeNode(String name, int id) {
+            names.put(name, -1);
+            removed.set(id);
+            edges.remove(id);
+        }
+
+        Edges edges(int node) {
+            Edges list = edges.get(node);
+            if (list == null) {
+                list = new Edges();
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    list.add(graph.edgeTarget(edge), graph.edgeWeight(edge), graph.decimalWeight(edge));
+                }
+                edges.put(node, list);
+            }
+            return list;
+        }
+
+        CompiledGraph build() {
+            if (addedNames.isEmpty() && removed.isEmpty()) {
+                return edges.isEmpty() ? graph : rebuildEdges();
+            }
+
+            // Нумерация как у списка узлов: исходные узлы по порядку без удалённых, затем новые
+            int total = graph.nodeCount() + addedNames.size();
+            int[] renumbered = new int[total];
+            CompiledGraph.Builder builder = CompiledGraph.builder();
+            for (int node = 0; node < total; node++) {
+                renumbered[node] = removed.get(node) ? -1 : builder.addNode(name(node));
+            }
+            for (int node = 0; node < total; node++) {
+                if (renumbered[node] < 0) {
+                    continue;
+                }
+                Edges list = edges.get(node);
+                if (list == null) {
+                    for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                        int to = renumbered[graph.edgeTarget(edge)];
+                        if (to >= 0) {
+                            builder.addEdge(renumbered[node], to, graph.edgeWeight(edge), graph.decimalWeight(edge));
+                        }
+                    }
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int to = renumbered[list.targets[i]];
+                    if (to >= 0) {
+                        builder.addEdge(renumbered[node], to, list.weights[i], list.decimals[i]);
+                    }
+                }
+            }
+            return builder.build();
+        }
+
+        /**
+         * Набор узлов не изменился: неизменённые участки смежности копируются из исходных массивов целиком
+         */
+        private CompiledGraph rebuildEdges() {
+            int nodeCount = graph.nodeCount();
+            int[] offsets = new int[nodeCount + 1];
+            for (int node = 0; node < nodeCount; node++) {
+                Edges list = edges.get(node);
+                offsets[node + 1] = offsets[node] + (list != null ? list.size : graph.degree(node));
+            }
+            int[] targets = new int[offsets[nodeCount]];
+            double[] weights = new double[offsets[nodeCount]];
+            Map<Integer, BigDecimal> decimals = new HashMap<>();
+            int node = 0;
+            while (node < nodeCount) {
+                Edges list = edges.get(node);
+                if (list != null) {
+                    System.arraycopy(list.targets, 0, targets, offsets[node], list.size);
+                    System.arraycopy(list.weights, 0, weights, offsets[node], list.size);
+                    for (int i = 0; i < list.size; i++) {
+                        if (list.decimals[i] != null) {
+                            decimals.put(offsets[node] + i, list.decimals[i]);
+                        }
+                    }
+                    node++;
+                    continue;
+                }
+                // Серия неизменённых узлов переносится подряд одним участком
+                int end = node + 1;
+                while (end < nodeCount && !edges.containsKey(end)) {
+                    end++;
+                }
+                int start = graph.edgesStart(node);
+                int length = graph.edgesEnd(end - 1) - start;
+                for (int edge = 0; edge < length; edge++) {
+                    targets[offsets[node] + edge] = graph.edgeTarget(start + edge);
+                    weights[offsets[node] + edge] = graph.edgeWeight(start + edge);
+                    BigDecimal decimal = graph.decimalWeight(start + edge);
+                    if (decimal != null) {
+                        decimals.put(offsets[node] + edge, decimal);
+                    }
+                }
+                node = end;
+            }
+            return graph.withEdges(offsets, targets, weights, decimals);
+        }
+
+        private String name(int node) {
+            return node < graph.nodeCount() ? graph.name(node) : addedNames.get(node - graph.nodeCount());
+        }
+    }
+
+    /**
+     * Изменяемый список рёбер одного узла
+     */
+    static final class Edges {
+
+        int[] targets = new int[4];
+        double[] weights = new double[4];
+        // Исходный десятичный вес, если double передаёт его неточно
+        BigDecimal[] decimals = new BigDecimal[4];
+        int size;
+
+        void add(int target, double weight, BigDecimal decimal) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                decimals = Arrays.copyOf(decimals, size * 2);
+            }
+            targets[size] = target;
+            weights[size] = weight;
+            decimals[size] = decimal != null && CompiledGraph.inexact(weight, decimal) ? decimal : null;
+            size++;
+        }
+
+        boolean remove(int target) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (targets[i] != target) {
+                    targets[kept] = targets[i];
+                    weights[kept] = weights[i];
+                    decimals[kept] = decimals[i];
+                    kept++;
+                }
+            }
+            boolean found = kept < size;
+            size = kept;
+            return found;
+        }
+
+        boolean set(int target, double weight, BigDecimal decimal) {
+            boolean found = false;
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    weights[i] = weight;
+                    decimals[i] = CompiledGraph.inexact(weight, decimal) ? decimal : null;
+                    found = true;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.app.network_graph_api.utils;
+
+import java.io.*;
+
+/**
+ * Статистика графа для выбора алгоритма поиска пути: размеры, диапазон весов, одинаковые веса,
+ * веса только из {0, c}, ацикличность. Для ациклического графа хранится топологический порядок узлов.
+ */
+public final class GraphStatistics implements GraphIndex {
+
+    private static final int FORMAT = 1;
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final double minWeight;
+    private final double maxWeight;
+    private final boolean uniformWeights;
+    private final boolean zeroOneWeights;
+    private final int[] topologicalOrder;
+    private final int[] topologicalRank;
+
+    private GraphStatistics(int nodeCount, int edgeCount, double minWeight, double maxWeight,
+            boolean uniformWeights, boolean zeroOneWeights, int[] topologicalOrder) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.uniformWeights = uniformWeights;
+        this.zeroOneWeights = zeroOneWeights;
+        this.topologicalOrder = topologicalOrder;
+        if (topologicalOrder != null) {
+            topologicalRank = new int[nodeCount];
+            for (int i = 0; i < topologicalOrder.length; i++) {
+                topologicalRank[topologicalOrder[i]] = i;
+            }
+        } else {
+            topologicalRank = null;
+        }
+    }
+
+    /**
+     * Один проход по весам и топологическая сортировка Кана
+     */
+    public static GraphStatistics compute(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int edgeCount = graph.edgeCount();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            double weight = graph.edgeWeight(edge);
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+        }
+        if (edgeCount == 0) {
+            min = 0;
+            max = 0;
+        }
+        boolean uniform = min == max && min >= 0;
+        boolean zeroOne = min >= 0;
+        for (int edge = 0; edge < edgeCount && zeroOne; edge++) {
+            double weight = graph.edgeWeight(edge);
+            zeroOne = weight == 0 || weight == max;
+        }
+        return new GraphStatistics(nodeCount, edgeCount, min, max, uniform, zeroOne, topologicalOrder(graph));
+    }
+
+    /**
+     * @return топологический порядок узлов или null, если в графе есть цикл
+     */
+    private static int[] topologicalOrder(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] inDegree = new int[nodeCount];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            inDegree[graph.edgeTarget(edge)]++;
+        }
+        int[] order = new int[nodeCount];
+        int tail = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (inDegree[node] == 0) {
+                order[tail++] = node;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int node = order[head];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (--inDegree[next] == 0) {
+                    order[tail++] = next;
+                }
+            }
+        }
+        return tail == nodeCount ? order : null;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public double minWeight() {
+        return minWeight;
+    }
+
+    public double maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return true, если все веса равны одному неотрицательному значению: длина пути пропорциональна числу рёбер
+     */
+    public boolean uniformWeights() {
+        return uniformWeights;
+    }
+
+    /**
+     * @return true, если все веса равны нулю или одному положительному значению
+     */
+    public boolean zeroOneWeights() {
+        return zeroOneWeights;
+    }
+
+    public boolean negativeWeights() {
+        return minWeight < 0;
+    }
+
+    public boolean acyclic() {
+        return topologicalOrder != null;
+    }
+
+    /**
+     * @return узлы в топологическом порядке или null для графа с циклами
+     */
+    public int[] topologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * @return позиция узла в топологическом порядке; только для ациклического графа
+     */
+    public int topologicalRank(int node) {
+        return topologicalRank[node];
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return 64L + (topologicalOrder != null ? 8L * nodeCount : 0);
+    }
+
+    public byte[] toBytes() {
+        try {
+            int orderLength = topologicalOrder != null ? topologicalOrder.length : -1;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(40 + 4 * Math.max(orderLength, 0));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT);
+            out.writeInt(nodeCount);
+            out.writeInt(edgeCount);
+            out.writeDouble(minWeight);
+            out.writeDouble(maxWeight);
+            out.writeBoolean(uniformWeights);
+            out.writeBoolean(zeroOneWeights);
+            out.writeInt(orderLength);
+            if (topologicalOrder != null) {
+                for (int node : topologicalOrder) {
+                    out.writeInt(node);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return статистика или null, если данные повреждены или посчитаны для другого графа
+     */
+    public static GraphStatistics fromBytes(byte[] data, CompiledGraph graph) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != FORMAT) {
+                return null;
+            }
+            int nodeCount = in.readInt();
+            int edgeCount = in.readInt();
+            if (nodeCount != graph.nodeCount() || edgeCount != graph.edgeCount()) {
+                return null;
+            }
+            double minWeight = in.readDouble();
+            double maxWeight = in.readDouble();
+            boolean uniformWeights = in.readBoolean();
+            boolean zeroOneWeights = in.readBoolean();
+            int orderLength = in.readInt();
+            int[] order = null;
+            if (orderLength >= 0) {
+                if (orderLength != nodeCount) {
+                    return null;
+                }
+                order = new int[orderLength];
+                for (int i = 0; i < orderLength; i++) {
+                    order[i] = in.readInt();
+                }
+            }
+            return new GraphStatistics(nodeCount, edgeCount, minWeight, maxWeight, uniformWeights, zeroOneWeights,
+                    order);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GraphStatistics{nodes=" + nodeCount + ", edges=" + edgeCount
+                + ", weights=[" + minWeight + ", " + maxWeight + "]"
+                + ", uniform=" + uniformWeights + ", zeroOne=" + zeroOneWeights
+                + ", acyclic=" + acyclic() + "}";
+    }
+}
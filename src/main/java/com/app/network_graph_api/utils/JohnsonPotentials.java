@@ -0,0 +1,275 @@
+package com.app.network_graph_api.utils;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Потенциалы Джонсона для графов с отрицательными весами: {@code h(v)} - длина кратчайшего пути
+ * до {@code v} из виртуального узла, соединённого со всеми узлами рёбрами нулевого веса.
+ * Приведённые веса {@code w(u, v) + h(u) - h(v)} неотрицательны и сохраняют кратчайшие пути,
+ * поэтому поиск идёт Дейкстрой по графу с приведёнными весами.
+ * <p>
+ * Потенциалы считаются Беллманом-Фордом с очередью (SPFA) при создании графа и хранятся вместе с ним.
+ * Если в графе есть цикл отрицательного веса, потенциалов нет, а цикл сохраняется для сообщения об ошибке.
+ */
+public final class JohnsonPotentials implements GraphIndex {
+
+    private static final int FORMAT = 1;
+
+    private final int nodeCount;
+    private final double[] potentials;
+    private final int[] negativeCycle;
+    private volatile CompiledGraph reweighted;
+
+    private JohnsonPotentials(int nodeCount, double[] potentials, int[] negativeCycle) {
+        this.nodeCount = nodeCount;
+        this.potentials = potentials;
+        this.negativeCycle = negativeCycle;
+    }
+
+    /**
+     * Для графа без отрицательных весов потенциалы нулевые и не считаются
+     */
+    public static JohnsonPotentials compute(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        if (graph.edgeCount() == 0 || graph.minWeight() >= 0) {
+            return new JohnsonPotentials(nodeCount, null, null);
+        }
+
+        // Виртуальный узел задаёт всем узлам начальное расстояние 0, и все они сразу в очереди
+        double[] distances = new double[nodeCount];
+        int[] pathEdges = new int[nodeCount];
+        boolean[] queued = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            queue[node] = node;
+            queued[node] = true;
+        }
+        int head = 0;
+        int size = nodeCount;
+        while (size > 0) {
+            int node = queue[head];
+            head = head + 1 == nodeCount ? 0 : head + 1;
+            size--;
+            queued[node] = false;
+
+            double distance = distances[node];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate >= distances[next]) {
+                    continue;
+                }
+                distances[next] = candidate;
+                // Путь из nodeCount рёбер без учёта виртуального содержит цикл, и он отрицательный
+                pathEdges[next] = pathEdges[node] + 1;
+                if (pathEdges[next] >= nodeCount) {
+                    return new JohnsonPotentials(nodeCount, null, findNegativeCycle(graph));
+                }
+                if (!queued[next]) {
+                    queued[next] = true;
+                    int tail = head + size;
+                    queue[tail >= nodeCount ? tail - nodeCount : tail] = next;
+                    size++;
+                }
+            }
+        }
+        return new JohnsonPotentials(nodeCount, distances, null);
+    }
+
+    /**
+     * Классический Беллман-Форд из виртуального узла: если на последнем из nodeCount проходов
+     * ещё есть улучшение, то в nodeCount шагах назад по предшественникам от улучшенного узла
+     * лежит цикл отрицательного веса. Выполняется только когда цикл уже обнаружен.
+     */
+    private static int[] findNegativeCycle(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        int[] previous = new int[nodeCount];
+        Arrays.fill(previous, -1);
+        int relaxed = -1;
+        for (int round = 0; round < nodeCount; round++) {
+            relaxed = -1;
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    double candidate = distances[node] + graph.edgeWeight(edge);
+                    if (candidate < distances[next]) {
+                        distances[next] = candidate;
+                        previous[next] = node;
+                        relaxed = next;
+                    }
+                }
+            }
+            if (relaxed < 0) {
+                return new int[0];
+            }
+        }
+
+        int node = relaxed;
+        for (int i = 0; i < nodeCount; i++) {
+            node = previous[node];
+        }
+        IntList cycle = new IntList();
+        for (int current = node; ; current = previous[current]) {
+            cycle.add(current);
+            if (current == node && cycle.size() > 1) {
+                break;
+            }
+        }
+        int[] nodes = cycle.toArray();
+        // Предшественники ведут назад - разворачиваем в порядок обхода
+        for (int i = 0, j = nodes.length - 1; i < j; i++, j--) {
+            int swap = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = swap;
+        }
+        return nodes;
+    }
+
+    public boolean hasNegativeCycle() {
+        return negativeCycle != null;
+    }
+
+    /**
+     * @return узлы цикла отрицательного веса в порядке обхода, первый узел повторён в конце;
+     * null, если цикла нет
+     */
+    public int[] negativeCycle() {
+        return negativeCycle;
+    }
+
+    public double potential(int node) {
+        return potentials != null ? potentials[node] : 0;
+    }
+
+    /**
+     * Граф с приведёнными весами и той же топологией; строится один раз.
+     * Погрешность округления может дать приведённый вес чуть меньше нуля - такие веса обнуляются.
+     *
+     * @throws IllegalStateException если в графе есть цикл отрицательного веса
+     */
+    public CompiledGraph reweighted(CompiledGraph graph) {
+        if (negativeCycle != null) {
+            throw new IllegalStateException("Graph contains a negative cycle");
+        }
+        CompiledGraph result = reweighted;
+        if (result == null) {
+            if (potentials == null) {
+                result = graph;
+            } else {
+                double[] weights = new double[graph.edgeCount()];
+                for (int edge = 0; edge < weights.length; edge++) {
+                    weights[edge] = Math.max(0, graph.edgeWeight(edge)
+                            + potentials[graph.edgeSource(edge)] - potentials[graph.edgeTarget(edge)]);
+                }
+                result = graph.withWeights(weights);
+            }
+            reweighted = result;
+        }
+        return result;
+    }
+
+    /**
+     * Переводит путь, найденный по приведённым весам, в длину по исходным весам
+     */
+    public static ShortestPath restore(CompiledGraph graph, ShortestPath reduced) {
+        if (reduced == null) {
+            return null;
+        }
+        double distance = 0;
+        for (int edge : reduced.getEdges()) {
+            distance += graph.edgeWeight(edge);
+        }
+        return new ShortestPath(reduced.getNodes(), reduced.getEdges(), distance, reduced.getSettledNodes());
+    }
+
+    /**
+     * @return описание цикла отрицательного веса для сообщений об ошибке
+     */
+    public String describeNegativeCycle(CompiledGraph graph) {
+        return "Graph contains a negative cycle: " + String.join(" -> ", graph.names(negativeCycle));
+    }
+
+    @Override
+    public long memoryFootprint() {
+        // Приведённый граф делит с исходным всё, кроме массива весов
+        CompiledGraph result = reweighted;
+        return 32L + (potentials != null ? 8L * potentials.length : 0)
+                + (negativeCycle != null ? 4L * negativeCycle.length : 0)
+                + (potentials != null && result != null ? 8L * result.edgeCount() : 0);
+    }
+
+    public byte[] toBytes() {
+        try {
+            int potentialCount = potentials != null ? potentials.length : -1;
+            int cycleLength = negativeCycle != null ? negativeCycle.length : -1;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 8 * Math.max(potentialCount, 0)
+                    + 4 * Math.max(cycleLength, 0));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT);
+            out.writeInt(nodeCount);
+            out.writeInt(potentialCount);
+            if (potentials != null) {
+                for (double potential : potentials) {
+                    out.writeDouble(potential);
+                }
+            }
+            out.writeInt(cycleLength);
+            if (negativeCycle != null) {
+                for (int node : negativeCycle) {
+                    out.writeInt(node);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return потенциалы или null, если данные повреждены или посчитаны для другого графа
+     */
+    public static JohnsonPotentials fromBytes(byte[] data, CompiledGraph graph) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != FORMAT) {
+                return null;
+            }
+            int nodeCount = in.readInt();
+            if (nodeCount != graph.nodeCount()) {
+                return null;
+            }
+            int potentialCount = in.readInt();
+            double[] potentials = null;
+            if (potentialCount >= 0) {
+                if (potentialCount != nodeCount) {
+                    return null;
+                }
+                potentials = new double[potentialCount];
+                for (int i = 0; i < potentialCount; i++) {
+                    potentials[i] = in.readDouble();
+                }
+            }
+            int cycleLength = in.readInt();
+            int[] negativeCycle = null;
+            if (cycleLength >= 0) {
+                negativeCycle = new int[cycleLength];
+                for (int i = 0; i < cycleLength; i++) {
+                    negativeCycle[i] = in.readInt();
+                    if (negativeCycle[i] < 0 || negativeCycle[i] >= nodeCount) {
+                        return null;
+                    }
+                }
+            }
+            if (potentials == null && negativeCycle == null && graph.edgeCount() > 0 && graph.minWeight() < 0) {
+                // Сохранены нулевые потенциалы, а веса с тех пор стали отрицательными
+                return null;
+            }
+            return new JohnsonPotentials(nodeCount, potentials, negativeCycle);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.app.network_graph_api.utils;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Ориентиры (landmarks) для ALT: расстояния от каждого ориентира до всех узлов и от всех узлов
+ * до ориентира. По неравенству треугольника дают нижнюю оценку d(v, t) для A*.
+ * Таблицы хранятся построчно по узлам ({@code [node * count + landmark]}), чтобы оценка
+ * для одного узла читала соседние ячейки памяти.
+ */
+public final class Landmarks implements GraphIndex {
+
+    public static final int DEFAULT_COUNT = 16;
+
+    private static final int FORMAT = 1;
+
+    private final int nodeCount;
+    private final int[] landmarks;
+    private final double[] fromLandmark;
+    private final double[] toLandmark;
+
+    private Landmarks(int nodeCount, int[] landmarks, double[] fromLandmark, double[] toLandmark) {
+        this.nodeCount = nodeCount;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Выбирает ориентиры эвристикой "самый дальний" и считает таблицы расстояний.
+     * Для графов с отрицательными весами оценки неприменимы, возвращается пустой набор.
+     */
+    public static Landmarks build(CompiledGraph graph, int count) {
+        int nodeCount = graph.nodeCount();
+        count = Math.min(count, nodeCount);
+        if (count <= 0 || graph.minWeight() < 0) {
+            return new Landmarks(nodeCount, new int[0], new double[0], new double[0]);
+        }
+
+        int[] selected = new int[count];
+        double[] fromLandmark = new double[nodeCount * count];
+        double[] toLandmark = new double[nodeCount * count];
+
+        // Удалённость узла от уже выбранных ориентиров: минимум по ориентирам d(L, v) + d(v, L)
+        double[] coverage = new double[nodeCount];
+        Arrays.fill(coverage, Double.POSITIVE_INFINITY);
+
+        // Первый ориентир - самый дальний узел от произвольной стартовой точки
+        ShortestPathTree start = ShortestPathTree.compute(graph, 0);
+        int next = farthest(start.getDistances(), 0);
+
+        int selectedCount = 0;
+        while (selectedCount < count) {
+            int landmark = next;
+            selected[selectedCount] = landmark;
+
+            ShortestPathTree forward = ShortestPathTree.compute(graph, landmark);
+            ShortestPathTree backward = ShortestPathTree.computeReverse(graph, landmark);
+            for (int node = 0; node < nodeCount; node++) {
+                double from = forward.distance(node);
+                double to = backward.distance(node);
+                fromLandmark[node * count + selectedCount] = from;
+                toLandmark[node * count + selectedCount] = to;
+                coverage[node] = Math.min(coverage[node], from + to);
+            }
+            coverage[landmark] = -1;
+            selectedCount++;
+
+            next = -1;
+            double best = -1;
+            for (int node = 0; node < nodeCount; node++) {
+                if (coverage[node] > best) {
+                    best = coverage[node];
+                    next = node;
+                }
+            }
+            if (next < 0 || best < 0) {
+                break;
+            }
+        }
+
+        if (selectedCount < count) {
+            return new Landmarks(nodeCount, Arrays.copyOf(selected, selectedCount),
+                    shrink(fromLandmark, nodeCount, count, selectedCount),
+                    shrink(toLandmark, nodeCount, count, selectedCount));
+        }
+        return new Landmarks(nodeCount, selected, fromLandmark, toLandmark);
+    }
+
+    private static int farthest(double[] distances, int fallback) {
+        int result = fallback;
+        double best = -1;
+        for (int node = 0; node < distances.length; node++) {
+            if (!Double.isInfinite(distances[node]) && distances[node] > best) {
+                best = distances[node];
+                result = node;
+            }
+        }
+        return result;
+    }
+
+    private static double[] shrink(double[] table, int nodeCount, int count, int newCount) {
+        double[] result = new double[nodeCount * newCount];
+        for (int node = 0; node < nodeCount; node++) {
+            System.arraycopy(table, node * count, result, node * newCount, newCount);
+        }
+        return result;
+    }
+
+    public int size() {
+        return landmarks.length;
+    }
+
+    public boolean isEmpty() {
+        return landmarks.length == 0;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * Нижняя оценка длины кратчайшего пути из {@code from} в {@code to}
+     */
+    public double lowerBound(int from, int to) {
+        int count = landmarks.length;
+        int fromBase = from * count;
+        int toBase = to * count;
+        double bound = 0;
+        for (int i = 0; i < count; i++) {
+            // d(L, to) - d(L, from) <= d(from, to)
+            double forward = fromLandmark[toBase + i] - fromLandmark[fromBase + i];
+            if (forward > bound && forward != Double.POSITIVE_INFINITY) {
+                bound = forward;
+            }
+            // d(from, L) - d(to, L) <= d(from, to)
+            double backward = toLandmark[fromBase + i] - toLandmark[toBase + i];
+            if (backward > bound && backward != Double.POSITIVE_INFINITY) {
+                bound = backward;
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return 32L + 4L * landmarks.length + 16L * fromLandmark.length;
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 4 * landmarks.length + 16 * fromLandmark.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT);
+            out.writeInt(nodeCount);
+            out.writeInt(landmarks.length);
+            for (int landmark : landmarks) {
+                out.writeInt(landmark);
+            }
+            for (double distance : fromLandmark) {
+                out.writeDouble(distance);
+            }
+            for (double distance : toLandmark) {
+                out.writeDouble(distance);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return ориентиры или null, если данные повреждены или построены для другого графа
+     */
+    public static Landmarks fromBytes(byte[] data, CompiledGraph graph) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != FORMAT) {
+                return null;
+            }
+            int nodeCount = in.readInt();
+            if (nodeCount != graph.nodeCount()) {
+                return null;
+            }
+            int count = in.readInt();
+            int[] landmarks = new int[count];
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = in.readInt();
+            }
+            double[] fromLandmark = new double[nodeCount * count];
+            for (int i = 0; i < fromLandmark.length; i++) {
+                fromLandmark[i] = in.readDouble();
+            }
+            double[] toLandmark = new double[nodeCount * count];
+            for (int i = 0; i < toLandmark.length; i++) {
+                toLandmark[i] = in.readDouble();
+            }
+            return new Landmarks(nodeCount, landmarks, fromLandmark, toLandmark);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
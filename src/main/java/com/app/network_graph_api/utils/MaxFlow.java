@@ -0,0 +1,231 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Максимальный поток и минимальный разрез алгоритмом Диница; пропускные способности - веса рёбер
+ * {@link CompiledGraph}.
+ * <p>
+ * Остаточная сеть хранится в примитивных массивах: ребру графа {@code e} соответствуют прямая дуга
+ * {@code 2e} и обратная {@code 2e + 1}, поэтому парная дуга - {@code arc ^ 1}. Дуги сгруппированы
+ * по начальному узлу так же, как рёбра в CSR. Блокирующий поток ищется итеративным обходом в глубину
+ * с указателями текущей дуги, так что длинные пути не переполняют стек потока.
+ */
+public class MaxFlow {
+
+    private final CompiledGraph graph;
+    private final int source;
+    private final int sink;
+    private final double[] residual;
+    private final boolean[] sourceSide;
+    private final double value;
+    private final int phases;
+
+    private MaxFlow(CompiledGraph graph, int source, int sink, double[] residual, boolean[] sourceSide,
+            double value, int phases) {
+        this.graph = graph;
+        this.source = source;
+        this.sink = sink;
+        this.residual = residual;
+        this.sourceSide = sourceSide;
+        this.value = value;
+        this.phases = phases;
+    }
+
+    public static MaxFlow compute(CompiledGraph graph, int source, int sink) {
+        if (source == sink) {
+            throw new IllegalArgumentException("Source and sink must differ");
+        }
+        if (graph.edgeCount() > 0 && graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Capacities must be non-negative");
+        }
+        return new Dinic(graph).run(source, sink);
+    }
+
+    private static final class Dinic {
+
+        private final CompiledGraph graph;
+        private final int nodeCount;
+        private final int[] arcOffsets;
+        private final int[] arcs;
+        private final int[] heads;
+        private final double[] residual;
+        private final int[] levels;
+        private final int[] currentArc;
+        private final int[] queue;
+        private final int[] pathArcs;
+        private final double epsilon;
+        private final QueryBudget budget = QueryBudget.current();
+
+        Dinic(CompiledGraph graph) {
+            this.graph = graph;
+            nodeCount = graph.nodeCount();
+            int edgeCount = graph.edgeCount();
+            heads = new int[2 * edgeCount];
+            residual = new double[2 * edgeCount];
+            arcOffsets = new int[nodeCount + 1];
+            double maxCapacity = 0;
+            for (int edge = 0; edge < edgeCount; edge++) {
+                int from = graph.edgeSource(edge);
+                int to = graph.edgeTarget(edge);
+                heads[2 * edge] = to;
+                heads[2 * edge + 1] = from;
+                residual[2 * edge] = graph.edgeWeight(edge);
+                maxCapacity = Math.max(maxCapacity, graph.edgeWeight(edge));
+                arcOffsets[from + 1]++;
+                arcOffsets[to + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                arcOffsets[node + 1] += arcOffsets[node];
+            }
+            arcs = new int[2 * edgeCount];
+            int[] cursor = Arrays.copyOf(arcOffsets, nodeCount);
+            for (int arc = 0; arc < 2 * edgeCount; arc++) {
+                // Начало дуги - конец парной
+                arcs[cursor[heads[arc ^ 1]]++] = arc;
+            }
+            levels = new int[nodeCount];
+            currentArc = new int[nodeCount];
+            queue = new int[nodeCount];
+            pathArcs = new int[nodeCount];
+            // Остатки меньше этого порога считаются нулевыми: погрешность вычитаний не даёт бесконечных фаз
+            epsilon = maxCapacity * 1e-12;
+        }
+
+        MaxFlow run(int source, int sink) {
+            double value = 0;
+            int phases = 0;
+            while (buildLevels(source, sink)) {
+                phases++;
+                System.arraycopy(arcOffsets, 0, currentArc, 0, nodeCount);
+                value += blockingFlow(source, sink);
+            }
+            // После последнего поиска уровней достижимые из источника узлы - сторона разреза с источником
+            boolean[] sourceSide = new boolean[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                sourceSide[node] = levels[node] >= 0;
+            }
+            return new MaxFlow(graph, source, sink, residual, sourceSide, value, phases);
+        }
+
+        private boolean buildLevels(int source, int sink) {
+            Arrays.fill(levels, -1);
+            int head = 0;
+            int tail = 0;
+            levels[source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = arcOffsets[node]; i < arcOffsets[node + 1]; i++) {
+                    int arc = arcs[i];
+                    int next = heads[arc];
+                    if (levels[next] < 0 && residual[arc] > epsilon) {
+                        levels[next] = levels[node] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return levels[sink] >= 0;
+        }
+
+        /**
+         * Итеративный обход: путь хранится стеком дуг; после насыщения поток откатывается
+         * к первой насыщенной дуге, тупиковые узлы исключаются из графа уровней
+         */
+        private double blockingFlow(int source, int sink) {
+            double total = 0;
+            int depth = 0;
+            int node = source;
+            while (true) {
+                if (node == sink) {
+                    double bottleneck = Double.POSITIVE_INFINITY;
+                    for (int i = 0; i < depth; i++) {
+                        bottleneck = Math.min(bottleneck, residual[pathArcs[i]]);
+                    }
+                    int saturated = depth;
+                    for (int i = 0; i < depth; i++) {
+                        int arc = pathArcs[i];
+                        residual[arc] -= bottleneck;
+                        residual[arc ^ 1] += bottleneck;
+                        if (saturated == depth && residual[arc] <= epsilon) {
+                            saturated = i;
+                        }
+                    }
+                    total += bottleneck;
+                    depth = saturated;
+                    node = depth == 0 ? source : heads[pathArcs[depth - 1]];
+                    continue;
+                }
+
+                boolean advanced = false;
+                for (; currentArc[node] < arcOffsets[node + 1]; currentArc[node]++) {
+                    int arc = arcs[currentArc[node]];
+                    int next = heads[arc];
+                    if (residual[arc] > epsilon && levels[next] == levels[node] + 1) {
+                        pathArcs[depth++] = arc;
+                        node = next;
+                        advanced = true;
+                        break;
+                    }
+                }
+                if (advanced) {
+                    budget.checkpoint();
+                    continue;
+                }
+                if (depth == 0) {
+                    return total;
+                }
+                // Тупик: узел больше не участвует в фазе, у предыдущего узла пропускается дуга
+                levels[node] = -1;
+                node = heads[pathArcs[--depth] ^ 1];
+                currentArc[node]++;
+            }
+        }
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return число фаз Диница (поисков уровней, нашедших путь)
+     */
+    public int getPhases() {
+        return phases;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getSink() {
+        return sink;
+    }
+
+    /**
+     * @return поток по ребру графа
+     */
+    public double flow(int edge) {
+        return Math.max(0, graph.edgeWeight(edge) - residual[2 * edge]);
+    }
+
+    /**
+     * @return true, если узел остаётся на стороне источника в минимальном разрезе
+     */
+    public boolean isSourceSide(int node) {
+        return sourceSide[node];
+    }
+
+    /**
+     * @return рёбра минимального разреза: из стороны источника в сторону стока
+     */
+    public int[] cutEdges() {
+        IntList cut = new IntList();
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (sourceSide[graph.edgeSource(edge)] && !sourceSide[graph.edgeTarget(edge)]) {
+                cut.add(edge);
+            }
+        }
+        return cut.toArray();
+    }
+}
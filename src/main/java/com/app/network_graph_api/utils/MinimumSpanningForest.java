@@ -0,0 +1,223 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Минимальный остовный лес графа; направление рёбер не учитывается, петли пропускаются.
+ * Рёбра с равным весом упорядочиваются по номеру, поэтому порядок строгий и Борувка не создаёт циклов.
+ */
+public class MinimumSpanningForest {
+
+    public enum Algorithm {
+        BORUVKA, KRUSKAL
+    }
+
+    private final int[] edges;
+    private final double totalWeight;
+    private final int treeCount;
+    private final Algorithm algorithm;
+
+    private MinimumSpanningForest(int[] edges, double totalWeight, int treeCount, Algorithm algorithm) {
+        this.edges = edges;
+        this.totalWeight = totalWeight;
+        this.treeCount = treeCount;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Борувка для графов от {@code parallelThreshold} рёбер, для меньших - Краскал
+     */
+    public static MinimumSpanningForest compute(CompiledGraph graph, ForkJoinPool pool, int parallelThreshold)
+            throws InterruptedException, ExecutionException {
+        return graph.edgeCount() >= parallelThreshold ? boruvka(graph, pool) : kruskal(graph);
+    }
+
+    /**
+     * Краскал: рёбра сортируются по рангу веса упакованными в long ключами (ранг << 32 | ребро),
+     * без объектов-обёрток
+     */
+    public static MinimumSpanningForest kruskal(CompiledGraph graph) {
+        int edgeCount = graph.edgeCount();
+        double[] weights = graph.weights();
+        double[] distinct = weights.clone();
+        Arrays.sort(distinct);
+        long[] keys = new long[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            long rank = Arrays.binarySearch(distinct, weights[edge]);
+            keys[edge] = rank << 32 | edge;
+        }
+        Arrays.sort(keys);
+
+        int nodeCount = graph.nodeCount();
+        int[] parents = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            parents[node] = node;
+        }
+        IntList result = new IntList();
+        double total = 0;
+        QueryBudget budget = QueryBudget.current();
+        for (long key : keys) {
+            budget.checkpoint();
+            int edge = (int) key;
+            int a = find(parents, graph.edgeSource(edge));
+            int b = find(parents, graph.edgeTarget(edge));
+            if (a != b) {
+                parents[Math.max(a, b)] = Math.min(a, b);
+                result.add(edge);
+                total += weights[edge];
+            }
+        }
+        return new MinimumSpanningForest(result.toArray(), total, nodeCount - result.size(), Algorithm.KRUSKAL);
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    /**
+     * Параллельная Борувка: в каждом раунде все рёбра между разными компонентами параллельно
+     * предлагаются как минимальные для обеих компонент (CAS по номеру ребра), затем выбранные рёбра
+     * параллельно объединяют компоненты в union-find без блокировок. Рёбра внутри компонент
+     * отбрасываются после каждого раунда.
+     */
+    public static MinimumSpanningForest boruvka(CompiledGraph graph, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        int nodeCount = graph.nodeCount();
+        ConcurrentUnionFind components = new ConcurrentUnionFind(nodeCount);
+        AtomicIntegerArray best = new AtomicIntegerArray(nodeCount);
+        boolean[] selected = new boolean[graph.edgeCount()];
+        if (graph.edgeCount() > 0) {
+            // Массив источников строится лениво - строим его до параллельной части
+            graph.edgeSource(0);
+        }
+
+        int[] active = pool.submit(() -> IntStream.range(0, graph.edgeCount()).parallel()
+                .filter(edge -> graph.edgeSource(edge) != graph.edgeTarget(edge)).toArray()).get();
+        QueryBudget budget = QueryBudget.current();
+        while (active.length > 0) {
+            budget.check();
+            int[] edges = active;
+            for (int node = 0; node < nodeCount; node++) {
+                best.set(node, -1);
+            }
+
+            pool.submit(() -> IntStream.range(0, edges.length).parallel().forEach(i -> {
+                int edge = edges[i];
+                propose(graph, best, components.find(graph.edgeSource(edge)), edge);
+                propose(graph, best, components.find(graph.edgeTarget(edge)), edge);
+            })).get();
+
+            pool.submit(() -> IntStream.range(0, nodeCount).parallel().forEach(component -> {
+                int edge = best.get(component);
+                if (edge >= 0 && components.union(graph.edgeSource(edge), graph.edgeTarget(edge))) {
+                    selected[edge] = true;
+                }
+            })).get();
+
+            active = pool.submit(() -> Arrays.stream(edges).parallel()
+                    .filter(edge -> components.find(graph.edgeSource(edge)) != components.find(graph.edgeTarget(edge)))
+                    .toArray()).get();
+        }
+
+        IntList result = new IntList();
+        double total = 0;
+        for (int edge = 0; edge < selected.length; edge++) {
+            if (selected[edge]) {
+                result.add(edge);
+                total += graph.edgeWeight(edge);
+            }
+        }
+        return new MinimumSpanningForest(result.toArray(), total, nodeCount - result.size(), Algorithm.BORUVKA);
+    }
+
+    private static void propose(CompiledGraph graph, AtomicIntegerArray best, int component, int edge) {
+        while (true) {
+            int current = best.get(component);
+            if (current >= 0 && !lighter(graph, edge, current)) {
+                return;
+            }
+            if (best.compareAndSet(component, current, edge)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean lighter(CompiledGraph graph, int edge, int other) {
+        int compare = Double.compare(graph.edgeWeight(edge), graph.edgeWeight(other));
+        return compare < 0 || compare == 0 && edge < other;
+    }
+
+    /**
+     * @return рёбра леса в порядке номеров (Борувка) или по возрастанию веса (Краскал)
+     */
+    public int[] getEdges() {
+        return edges;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return количество деревьев в лесу, включая изолированные узлы
+     */
+    public int getTreeCount() {
+        return treeCount;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Union-find без блокировок: корень подвешивается к другому корню через CAS,
+     * сжатие путей делением пополам тоже через CAS и не мешает параллельным объединениям
+     */
+    private static final class ConcurrentUnionFind {
+
+        private final AtomicIntegerArray parents;
+
+        ConcurrentUnionFind(int size) {
+            parents = new AtomicIntegerArray(size);
+            for (int node = 0; node < size; node++) {
+                parents.set(node, node);
+            }
+        }
+
+        int find(int node) {
+            while (true) {
+                int parent = parents.get(node);
+                if (parent == node) {
+                    return node;
+                }
+                int grandparent = parents.get(parent);
+                parents.compareAndSet(node, parent, grandparent);
+                node = grandparent;
+            }
+        }
+
+        boolean union(int a, int b) {
+            while (true) {
+                int rootA = find(a);
+                int rootB = find(b);
+                if (rootA == rootB) {
+                    return false;
+                }
+                // Больший корень подвешивается к меньшему: порядок исключает циклы при гонках
+                int child = Math.max(rootA, rootB);
+                int root = Math.min(rootA, rootB);
+                if (parents.compareAndSet(child, child, root)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
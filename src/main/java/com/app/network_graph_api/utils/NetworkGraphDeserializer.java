@@ -36,6 +36,13 @@ public class NetworkGraphDeserializer implements JsonDeserializer<NetworkGraph>
             graph.setNetworkNodes(networkNodes);
         }
 
+        if (jsonObject.has("edgeWeightFormula")) {
+            graph.setEdgeWeightFormula(jsonObject.get("edgeWeightFormula").getAsString());
+        }
+        if (jsonObject.has("nodeValueFormula")) {
+            graph.setNodeValueFormula(jsonObject.get("nodeValueFormula").getAsString());
+        }
+
         return graph;
     }
 
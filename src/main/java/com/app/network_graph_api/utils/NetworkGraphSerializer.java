@@ -23,6 +23,13 @@ public class NetworkGraphSerializer implements JsonSerializer<NetworkGraph> {
             jsonObject.add("networkNodes", context.serialize(graph.getNetworkNodes()));
         }
 
+        if (graph.getEdgeWeightFormula() != null) {
+            jsonObject.addProperty("edgeWeightFormula", graph.getEdgeWeightFormula());
+        }
+        if (graph.getNodeValueFormula() != null) {
+            jsonObject.addProperty("nodeValueFormula", graph.getNodeValueFormula());
+        }
+
         return jsonObject;
     }
 
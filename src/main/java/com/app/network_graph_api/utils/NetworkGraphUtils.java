@@ -1,5 +1,6 @@
 package com.app.network_graph_api.utils;
 
+import com.app.network_graph_api.model.api.GraphBuildIssue;
 import com.app.network_graph_api.model.api.NetworkGraph;
 import com.app.network_graph_api.model.api.NetworkGraphEdge;
 import com.app.network_graph_api.model.api.NetworkGraphNode;
@@ -7,9 +8,10 @@ import com.app.network_graph_api.model.api.NetworkNode;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public final class NetworkGraphUtils {
 
@@ -17,98 +19,146 @@ public final class NetworkGraphUtils {
         // prevent init
     }
 
-    public static NetworkGraph buildGraph(List<NetworkNode> nodes) {
-        Map<NetworkGraphNode, NetworkNode> graphNodes = graphNodeToNetworkNodeMap(nodes);
-
-        NetworkGraph graph = new NetworkGraph();
-        for (NetworkGraphNode graphNode : graphNodes.keySet()) {
-            NetworkNode networkNode = graphNodes.get(graphNode);
-
-            List<NetworkGraphEdge> edges = new ArrayList<>();
-
-            // Проходим по всем соединенным узлам для данного узла
-            for (int i = 0; i < networkNode.getConnectedNodes().size(); i++) {
-                String connectedNodeName = networkNode.getConnectedNodes().get(i);
-
-                // Находим соответствующий GraphNode
-                NetworkGraphNode connectedGraphNode = graphNodes.entrySet().stream()
-                        .filter(entry -> entry.getValue().getName().equals(connectedNodeName))
-                        .map(Map.Entry::getKey)
-                        .findFirst()
-                        .orElse(null);
+    /**
+     * Входные данные от этого числа узлов разбираются параллельно
+     */
+    static final int PARALLEL_MIN_NODES = 10_000;
 
-                if (connectedGraphNode != null) {
-                    NetworkGraphEdge edge = new NetworkGraphEdge();
-                    edge.setTo(connectedGraphNode);
+    public static NetworkGraph buildGraph(List<NetworkNode> nodes) {
+        return buildGraph(nodes, WeightFormula.DEFAULT_EDGE, WeightFormula.DEFAULT_NODE);
+    }
 
-                    // Используем вес из массива parameters по соответствующему индексу
-                    BigDecimal weight = (i < networkNode.getParameters().size())
-                            ? networkNode.getParameters().get(i)
-                            : BigDecimal.ZERO;
-                    edge.setWeight(weight);
+    public static NetworkGraph buildGraph(List<NetworkNode> nodes, WeightFormula edgeFormula,
+            WeightFormula nodeFormula) {
+        return build(nodes, edgeFormula, nodeFormula).getGraph();
+    }
 
-                    edges.add(edge);
-                }
+    /**
+     * Строит граф за линейное время: имена узлов один раз заносятся в хеш-индекс, соединения
+     * разрешаются одним проходом по узлам, для больших графов - параллельно по узлам.
+     * Веса рёбер и значения узлов вычисляются скомпилированными формулами: параметры узла переводятся
+     * в примитивный массив один раз, все рёбра узла считаются за один проход.
+     * <p>
+     * Соединения с несуществующими узлами не создают рёбер, несовпадение числа параметров и соединений
+     * и повторные имена узлов не мешают построению - все они возвращаются в отчёте в порядке узлов.
+     *
+     * @throws IllegalArgumentException если формула даёт бесконечный вес или значение
+     */
+    public static BuildResult build(List<NetworkNode> nodes, WeightFormula edgeFormula, WeightFormula nodeFormula) {
+        int nodeCount = nodes.size();
+        NetworkGraphNode[] graphNodes = new NetworkGraphNode[nodeCount];
+        Map<String, Integer> index = new HashMap<>(nodeCount * 4 / 3 + 1);
+        List<GraphBuildIssue> duplicates = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            String name = nodes.get(i).getName();
+            if (index.putIfAbsent(name, i) != null) {
+                duplicates.add(new GraphBuildIssue(GraphBuildIssue.Type.DUPLICATE_NODE, name, null, null, null));
             }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<NetworkGraphEdge>[] edges = (List<NetworkGraphEdge>[]) new List<?>[nodeCount];
+        @SuppressWarnings("unchecked")
+        List<GraphBuildIssue>[] issues = (List<GraphBuildIssue>[]) new List<?>[nodeCount];
+        // Индекс имён только читается, каждый узел пишет в свои ячейки массивов
+        nodeRange(nodeCount).forEach(i -> graphNodes[i] = convertToGraphNode(nodes.get(i), nodeFormula));
+        nodeRange(nodeCount).forEach(i -> edges[i] = resolveEdges(nodes.get(i), graphNodes, index, edgeFormula,
+                issues, i));
 
-            graph.getNodes().put(graphNode, edges);
+        NetworkGraph graph = new NetworkGraph();
+        graph.setNodes(new HashMap<>(nodeCount * 4 / 3 + 1));
+        for (int i = 0; i < nodeCount; i++) {
+            graph.getNodes().put(graphNodes[i], edges[i]);
         }
 
         // Устанавливаем исходные узлы в networkNodes
         graph.setNetworkNodes(nodes);
+        if (edgeFormula != WeightFormula.DEFAULT_EDGE) {
+            graph.setEdgeWeightFormula(edgeFormula.getExpression());
+        }
+        if (nodeFormula != WeightFormula.DEFAULT_NODE) {
+            graph.setNodeValueFormula(nodeFormula.getExpression());
+        }
 
-        return graph;
+        List<GraphBuildIssue> report = new ArrayList<>(duplicates);
+        for (List<GraphBuildIssue> nodeIssues : issues) {
+            if (nodeIssues != null) {
+                report.addAll(nodeIssues);
+            }
+        }
+        return new BuildResult(graph, edges, report);
     }
 
-    private static List<NetworkGraphNode> collectGraphNodes(Map<NetworkGraphNode, NetworkNode> nodesMap,
-            List<NetworkNode> networkNodes) {
-        List<NetworkGraphNode> graphNodes = new ArrayList<>();
-        for (NetworkGraphNode graphNode : nodesMap.keySet()) {
-            NetworkNode networkNode = nodesMap.get(graphNode);
-            networkNodes.stream()
-                    .filter(n -> networkNode.getName().equals(n.getName()))
-                    .findFirst()
-                    .ifPresent(n -> graphNodes.add(graphNode));
+    private static List<NetworkGraphEdge> resolveEdges(NetworkNode networkNode, NetworkGraphNode[] graphNodes,
+            Map<String, Integer> index, WeightFormula edgeFormula, List<GraphBuildIssue>[] issues, int position) {
+        List<String> connectedNodes = networkNode.getConnectedNodes();
+        int parameterCount = networkNode.getParameters() != null ? networkNode.getParameters().size() : 0;
+        if (parameterCount != connectedNodes.size()) {
+            issue(issues, position, new GraphBuildIssue(GraphBuildIssue.Type.COUNT_MISMATCH, networkNode.getName(),
+                    null, null, connectedNodes.size() + " connections, " + parameterCount + " parameters"));
+        }
+
+        double[] weights = edgeFormula.isIdentity() ? null : edgeFormula.edgeWeights(networkNode);
+        List<NetworkGraphEdge> edges = new ArrayList<>(connectedNodes.size());
+        for (int i = 0; i < connectedNodes.size(); i++) {
+            String connectedNodeName = connectedNodes.get(i);
+            Integer target = connectedNodeName != null ? index.get(connectedNodeName) : null;
+            if (target == null) {
+                issue(issues, position, new GraphBuildIssue(GraphBuildIssue.Type.DANGLING_REFERENCE,
+                        networkNode.getName(), i, connectedNodeName, null));
+                continue;
+            }
+
+            NetworkGraphEdge edge = new NetworkGraphEdge();
+            edge.setTo(graphNodes[target]);
+            edge.setWeight(weights != null
+                    ? BigDecimal.valueOf(weights[i])
+                    : calcNetworkGraphEdgeWeight(networkNode, i));
+            edges.add(edge);
         }
-        return graphNodes;
+        return edges;
     }
 
-    private static List<NetworkNode> collectConnectedNetworkNodes(NetworkNode root, List<NetworkNode> nodes) {
-        return nodes.stream()
-                .filter(n -> root.getConnectedNodes().contains(n.getName()))
-                .toList();
+    private static IntStream nodeRange(int nodeCount) {
+        IntStream range = IntStream.range(0, nodeCount);
+        return nodeCount >= PARALLEL_MIN_NODES ? range.parallel() : range;
     }
 
-    private static Map<NetworkGraphNode, NetworkNode> graphNodeToNetworkNodeMap(List<NetworkNode> nodes) {
-        return nodes.stream()
-                .collect(Collectors.toMap(NetworkGraphUtils::convertToGraphNode, v -> v));
+    private static void issue(List<GraphBuildIssue>[] issues, int position, GraphBuildIssue issue) {
+        if (issues[position] == null) {
+            issues[position] = new ArrayList<>(2);
+        }
+        issues[position].add(issue);
     }
 
-    private static NetworkGraphNode convertToGraphNode(NetworkNode networkNode) {
+    private static NetworkGraphNode convertToGraphNode(NetworkNode networkNode, WeightFormula nodeFormula) {
         NetworkGraphNode graphNode = new NetworkGraphNode();
         graphNode.setName(networkNode.getName());
-        graphNode.setValue(calcNetworkGraphNodeValue(networkNode));
+        graphNode.setValue(nodeFormula == WeightFormula.DEFAULT_NODE
+                ? calcNetworkGraphNodeValue(networkNode)
+                : BigDecimal.valueOf(nodeFormula.nodeValue(networkNode)));
         return graphNode;
     }
 
-    private static List<NetworkNode> findConnectedNodes(NetworkNode networkNode, List<NetworkNode> otherNodes) {
-        return otherNodes.stream()
-                .filter(n -> networkNode.getConnectedNodes().contains(n.getName()))
-                .toList();
-    }
-
-    // TODO: implement node value calc algorithm
+    /**
+     * Значение узла по умолчанию - точная сумма параметров
+     */
     private static BigDecimal calcNetworkGraphNodeValue(NetworkNode node) {
-        return node.getParameters().stream()
-                .reduce(BigDecimal::add)
-                .orElse(BigDecimal.ZERO);
+        BigDecimal value = BigDecimal.ZERO;
+        for (BigDecimal parameter : node.getParameters()) {
+            if (parameter != null) {
+                value = value.add(parameter);
+            }
+        }
+        return value;
     }
 
-    // TODO: implement weight calc algorithm
-    private static BigDecimal calcNetworkGraphEdgeWeight(NetworkNode node) {
-        return node.getParameters().stream()
-                .reduce(BigDecimal::add)
-                .orElse(BigDecimal.ZERO);
+    /**
+     * Вес ребра по умолчанию - параметр с индексом соединения как есть, без пересчёта
+     */
+    private static BigDecimal calcNetworkGraphEdgeWeight(NetworkNode node, int index) {
+        List<BigDecimal> parameters = node.getParameters();
+        return index < parameters.size() && parameters.get(index) != null ? parameters.get(index) : BigDecimal.ZERO;
     }
 
     public static NetworkGraphNode findNodeByName(NetworkGraph graph, String nodeName) {
@@ -156,4 +206,48 @@ public final class NetworkGraphUtils {
 
         return networkNodes;
     }
+
+    /**
+     * Построенный граф и проблемы входных данных
+     */
+    public static final class BuildResult {
+
+        private final NetworkGraph graph;
+        private final List<NetworkGraphEdge>[] edges;
+        private final List<GraphBuildIssue> issues;
+
+        private BuildResult(NetworkGraph graph, List<NetworkGraphEdge>[] edges, List<GraphBuildIssue> issues) {
+            this.graph = graph;
+            this.edges = edges;
+            this.issues = issues;
+        }
+
+        public NetworkGraph getGraph() {
+            return graph;
+        }
+
+        /**
+         * Скомпилированный граф по уже вычисленным весам рёбер, формула повторно не вычисляется;
+         * совпадает с {@link CompiledGraph#of(List, WeightFormula)} для тех же узлов
+         */
+        public CompiledGraph compile() {
+            List<NetworkNode> nodes = graph.getNetworkNodes();
+            CompiledGraph.Builder builder = CompiledGraph.builder();
+            for (NetworkNode node : nodes) {
+                builder.addNode(node.getName());
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                int from = builder.id(nodes.get(i).getName());
+                for (NetworkGraphEdge edge : edges[i]) {
+                    builder.addEdge(from, builder.id(edge.getTargetNodeName()), edge.getWeight().doubleValue(),
+                            edge.getWeight());
+                }
+            }
+            return builder.build();
+        }
+
+        public List<GraphBuildIssue> getIssues() {
+            return issues;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkNode;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение узлов сети: узлы разбираются {@link JsonReader} по одному и сразу передаются
+ * получателю, поэтому в памяти одновременно находится только текущий узел.
+ */
+public final class NetworkNodeReader {
+
+    public enum Format {
+        /**
+         * Один узел в формате JSON на строку (application/x-ndjson)
+         */
+        NDJSON,
+        /**
+         * Массив узлов или объект запроса создания графа с полем networkNodes
+         */
+        JSON
+    }
+
+    private NetworkNodeReader() {
+    }
+
+    /**
+     * Формулы из тела запроса в формате JSON; в NDJSON формул нет
+     */
+    public static final class Header {
+
+        private String edgeWeightFormula;
+        private String nodeValueFormula;
+
+        public String getEdgeWeightFormula() {
+            return edgeWeightFormula;
+        }
+
+        public String getNodeValueFormula() {
+            return nodeValueFormula;
+        }
+    }
+
+    /**
+     * Получатель узлов; вызывается перед первым узлом с формулами, прочитанными до массива узлов
+     */
+    public interface Listener extends Consumer<NetworkNode> {
+
+        default void begin(Header header) {
+        }
+    }
+
+    /**
+     * Читает узлы и передаёт их получателю в порядке следования
+     *
+     * @return число прочитанных узлов
+     * @throws JsonParseException при синтаксической ошибке или неверной структуре данных
+     */
+    public static int read(Reader source, Format format, Listener listener) throws IOException {
+        Gson gson = GsonUtils.gson();
+        JsonReader reader = new JsonReader(source);
+        Header header = new Header();
+        int count = 0;
+        try {
+            if (format == Format.NDJSON) {
+                // В нестрогом режиме JsonReader читает подряд несколько значений верхнего уровня
+                reader.setStrictness(Strictness.LENIENT);
+                listener.begin(header);
+                while (reader.peek() != JsonToken.END_DOCUMENT) {
+                    listener.accept(node(gson, reader, count++));
+                }
+                return count;
+            }
+
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                listener.begin(header);
+                return readArray(gson, reader, listener);
+            }
+            boolean found = false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "networkNodes" -> {
+                        if (found) {
+                            throw new JsonParseException("Duplicate networkNodes");
+                        }
+                        found = true;
+                        listener.begin(header);
+                        count = readArray(gson, reader, listener);
+                    }
+                    case "edgeWeightFormula", "nodeValueFormula" -> {
+                        if (found) {
+                            // Веса считаются по мере чтения узлов, формула после узлов уже не применима
+                            throw new JsonParseException(name + " must precede networkNodes");
+                        }
+                        String value = null;
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.nextNull();
+                        } else {
+                            value = reader.nextString();
+                        }
+                        if (name.equals("edgeWeightFormula")) {
+                            header.edgeWeightFormula = value;
+                        } else {
+                            header.nodeValueFormula = value;
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (!found) {
+                throw new JsonParseException("networkNodes is missing");
+            }
+            return count;
+        } catch (IllegalStateException | NumberFormatException e) {
+            // Значение не того типа, например строка вместо массива
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+    private static int readArray(Gson gson, JsonReader reader, Listener listener) throws IOException {
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            listener.accept(node(gson, reader, count++));
+        }
+        reader.endArray();
+        return count;
+    }
+
+    private static NetworkNode node(Gson gson, JsonReader reader, int position) {
+        NetworkNode node = gson.fromJson(reader, NetworkNode.class);
+        if (node == null) {
+            throw new JsonParseException("Node " + position + " is null");
+        }
+        if (node.getParameters() == null) {
+            node.setParameters(new ArrayList<>());
+        }
+        if (node.getConnectedNodes() == null) {
+            node.setConnectedNodes(new ArrayList<>());
+        }
+        return node;
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Арифметика поиска пути. Итоговый вес пути в любом режиме пересчитывается точно
+ * по десятичным весам рёбер ({@link CompiledGraph#exactWeight(int)}).
+ */
+public enum NumericMode {
+
+    /**
+     * Поиск на double - самый быстрый, равные по весу пути могут различаться в последних знаках
+     */
+    DOUBLE,
+
+    /**
+     * Поиск на long с фиксированной точкой: веса масштабируются на 10^scale, сравнения точные
+     */
+    FIXED,
+
+    /**
+     * Поиск на BigDecimal - точный при любом масштабе весов, самый медленный
+     */
+    EXACT
+}
@@ -0,0 +1,133 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.exception.QueryAbortedException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Бюджет запроса: срок выполнения и флаг отмены, которые циклы поиска проверяют кооперативно.
+ * <p>
+ * Бюджет привязывается к потоку на время выполнения запроса ({@link #call(Supplier)}), и поиск берёт его
+ * через {@link #current()}, не меняя сигнатур алгоритмов. Без привязки возвращается
+ * {@link #UNLIMITED}, проверки которого ничего не делают. {@link #checkpoint()} вызывается на каждый
+ * обработанный узел и раз в {@value #CHECK_INTERVAL} вызовов сверяет время, флаг отмены и прерывание потока.
+ */
+public class QueryBudget {
+
+    static final int CHECK_INTERVAL = 1024;
+
+    public static final QueryBudget UNLIMITED = new QueryBudget(0) {
+        @Override
+        public void checkpoint() {
+        }
+
+        @Override
+        public void checkpoint(int settled) {
+        }
+
+        @Override
+        public void check() {
+        }
+    };
+
+    private static final ThreadLocal<QueryBudget> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.currentTimeMillis();
+    private final long timeoutMillis;
+    private final long deadline;
+    private final AtomicLong settledNodes = new AtomicLong();
+    private volatile boolean cancelled;
+    // Счётчик для выборочных проверок; гонки при параллельном поиске влияют только на частоту проверок
+    private int ticks;
+
+    /**
+     * @param timeoutMillis срок выполнения; 0 - без ограничения по времени
+     */
+    public QueryBudget(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadline = timeoutMillis > 0 ? startedAt + timeoutMillis : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return бюджет, привязанный к текущему потоку, или {@link #UNLIMITED}
+     */
+    public static QueryBudget current() {
+        QueryBudget budget = CURRENT.get();
+        return budget != null ? budget : UNLIMITED;
+    }
+
+    /**
+     * Выполняет действие с бюджетом, привязанным к текущему потоку; предыдущая привязка восстанавливается
+     */
+    public <T> T call(Supplier<T> action) {
+        QueryBudget previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Отмечает обработанный узел и периодически проверяет бюджет
+     *
+     * @throws QueryAbortedException если срок истёк или запрос отменён
+     */
+    public void checkpoint() {
+        if ((++ticks & (CHECK_INTERVAL - 1)) == 0) {
+            settledNodes.addAndGet(CHECK_INTERVAL);
+            check();
+        }
+    }
+
+    /**
+     * Отмечает сразу несколько обработанных узлов и проверяет бюджет; для поисков,
+     * которые обрабатывают узлы фронтами
+     *
+     * @throws QueryAbortedException если срок истёк или запрос отменён
+     */
+    public void checkpoint(int settled) {
+        settledNodes.addAndGet(settled);
+        check();
+    }
+
+    /**
+     * Немедленная проверка бюджета
+     *
+     * @throws QueryAbortedException если срок истёк или запрос отменён
+     */
+    public void check() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new QueryAbortedException("Query cancelled", 503, elapsedMillis(), settledNodes());
+        }
+        if (System.currentTimeMillis() > deadline) {
+            throw new QueryAbortedException("Query deadline of " + timeoutMillis + " ms exceeded", 503,
+                    elapsedMillis(), settledNodes());
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public long elapsedMillis() {
+        return System.currentTimeMillis() - startedAt;
+    }
+
+    /**
+     * @return примерное число обработанных узлов с точностью до {@value #CHECK_INTERVAL}
+     */
+    public long settledNodes() {
+        return settledNodes.get();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
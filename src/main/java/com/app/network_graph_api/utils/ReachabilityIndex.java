@@ -0,0 +1,277 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Индекс достижимости: компоненты сильной связности (итеративный Тарьян),
+ * конденсация графа в DAG и компоненты слабой связности.
+ * <p>
+ * Тарьян нумерует компоненты в обратном топологическом порядке, поэтому ребро конденсации
+ * всегда ведёт из компоненты с большим номером в компоненту с меньшим. Отсюда
+ * отказ за O(1): узлы из разных слабых компонент или из компоненты с меньшим номером в большую
+ * недостижимы. Если компонент немного, дополнительно хранится транзитивное замыкание
+ * конденсации в битовых масках и ответ становится точным.
+ */
+public class ReachabilityIndex implements GraphIndex {
+
+    /**
+     * Предел числа компонент для замыкания: 8192^2 бит = 8 МиБ
+     */
+    static final int MAX_CLOSURE_COMPONENTS = 8192;
+
+    private final int[] components;
+    private final int[] componentOffsets;
+    private final int[] componentNodes;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] weakComponents;
+    private final int weakComponentCount;
+    private final long[][] closure;
+
+    private ReachabilityIndex(int[] components, int[] componentOffsets, int[] componentNodes,
+            int[] successorOffsets, int[] successors, int[] weakComponents, int weakComponentCount, long[][] closure) {
+        this.components = components;
+        this.componentOffsets = componentOffsets;
+        this.componentNodes = componentNodes;
+        this.successorOffsets = successorOffsets;
+        this.successors = successors;
+        this.weakComponents = weakComponents;
+        this.weakComponentCount = weakComponentCount;
+        this.closure = closure;
+    }
+
+    public static ReachabilityIndex build(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] components = tarjan(graph);
+        int componentCount = 0;
+        for (int component : components) {
+            componentCount = Math.max(componentCount, component + 1);
+        }
+
+        // Узлы, сгруппированные по компонентам
+        int[] componentOffsets = new int[componentCount + 1];
+        for (int component : components) {
+            componentOffsets[component + 1]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            componentOffsets[component + 1] += componentOffsets[component];
+        }
+        int[] cursor = Arrays.copyOf(componentOffsets, componentCount);
+        int[] componentNodes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            componentNodes[cursor[components[node]]++] = node;
+        }
+
+        // Рёбра конденсации без повторов
+        int[] successorOffsets = new int[componentCount + 1];
+        IntList successorList = new IntList();
+        int[] lastSeen = new int[componentCount];
+        Arrays.fill(lastSeen, -1);
+        for (int component = 0; component < componentCount; component++) {
+            for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+                int node = componentNodes[i];
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = components[graph.edgeTarget(edge)];
+                    if (next != component && lastSeen[next] != component) {
+                        lastSeen[next] = component;
+                        successorList.add(next);
+                    }
+                }
+            }
+            successorOffsets[component + 1] = successorList.size();
+        }
+        int[] successors = successorList.toArray();
+
+        int[] weakComponents = weakComponents(graph);
+        int weakComponentCount = 0;
+        for (int weak : weakComponents) {
+            weakComponentCount = Math.max(weakComponentCount, weak + 1);
+        }
+
+        long[][] closure = null;
+        if (componentCount <= MAX_CLOSURE_COMPONENTS) {
+            // Компоненты-последователи имеют меньшие номера и уже обработаны
+            closure = new long[componentCount][];
+            int words = (componentCount + 63) >>> 6;
+            for (int component = 0; component < componentCount; component++) {
+                long[] bits = new long[words];
+                bits[component >>> 6] |= 1L << component;
+                for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+                    long[] next = closure[successors[i]];
+                    for (int word = 0; word < words; word++) {
+                        bits[word] |= next[word];
+                    }
+                }
+                closure[component] = bits;
+            }
+        }
+
+        return new ReachabilityIndex(components, componentOffsets, componentNodes, successorOffsets, successors,
+                weakComponents, weakComponentCount, closure);
+    }
+
+    /**
+     * Итеративный алгоритм Тарьяна: стек вызовов хранится явно вместе с позицией в списке рёбер,
+     * поэтому длинные цепочки не переполняют стек потока
+     */
+    private static int[] tarjan(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] order = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        int[] components = new int[nodeCount];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        int[] callNode = new int[nodeCount];
+        int[] callEdge = new int[nodeCount];
+        int counter = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = graph.edgesStart(root);
+            order[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int node = callNode[depth];
+                if (callEdge[depth] < graph.edgesEnd(node)) {
+                    int next = graph.edgeTarget(callEdge[depth]++);
+                    if (order[next] < 0) {
+                        order[next] = lowLink[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        depth++;
+                        callNode[depth] = next;
+                        callEdge[depth] = graph.edgesStart(next);
+                    } else if (onStack[next]) {
+                        lowLink[node] = Math.min(lowLink[node], order[next]);
+                    }
+                    continue;
+                }
+
+                // Все рёбра узла пройдены - возврат из рекурсии
+                if (lowLink[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                    } while (member != node);
+                    componentCount++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+            }
+        }
+        return components;
+    }
+
+    private static int[] weakComponents(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] parents = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            parents[node] = node;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int a = find(parents, node);
+                int b = find(parents, graph.edgeTarget(edge));
+                if (a != b) {
+                    parents[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+
+        int[] weak = new int[nodeCount];
+        int count = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int root = find(parents, node);
+            weak[node] = root == node ? count++ : weak[root];
+        }
+        return weak;
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    /**
+     * @return false, если путь из {@code source} в {@code target} точно не существует;
+     * при {@link #isExact()} true означает, что путь точно есть
+     */
+    public boolean mayReach(int source, int target) {
+        int from = components[source];
+        int to = components[target];
+        if (from == to) {
+            return true;
+        }
+        if (from < to || weakComponents[source] != weakComponents[target]) {
+            return false;
+        }
+        return closure == null || (closure[from][to >>> 6] & (1L << to)) != 0;
+    }
+
+    /**
+     * @return true, если ответы {@link #mayReach(int, int)} точные
+     */
+    public boolean isExact() {
+        return closure != null;
+    }
+
+    public int componentCount() {
+        return componentOffsets.length - 1;
+    }
+
+    public int component(int node) {
+        return components[node];
+    }
+
+    public int componentSize(int component) {
+        return componentOffsets[component + 1] - componentOffsets[component];
+    }
+
+    public int[] componentNodes(int component) {
+        return Arrays.copyOfRange(componentNodes, componentOffsets[component], componentOffsets[component + 1]);
+    }
+
+    /**
+     * @return компоненты, в которые ведут рёбра конденсации из {@code component}
+     */
+    public int[] successors(int component) {
+        return Arrays.copyOfRange(successors, successorOffsets[component], successorOffsets[component + 1]);
+    }
+
+    public int weakComponentCount() {
+        return weakComponentCount;
+    }
+
+    public int weakComponent(int node) {
+        return weakComponents[node];
+    }
+
+    @Override
+    public long memoryFootprint() {
+        long bytes = 64L + 4L * (components.length + componentOffsets.length + componentNodes.length
+                + successorOffsets.length + successors.length + weakComponents.length);
+        if (closure != null) {
+            for (long[] bits : closure) {
+                bytes += 16L + 8L * bits.length;
+            }
+        }
+        return bytes;
+    }
+}
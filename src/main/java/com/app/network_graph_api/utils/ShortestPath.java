@@ -0,0 +1,57 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Результат поиска пути в {@link CompiledGraph}: узлы пути, использованные рёбра и длина
+ */
+public class ShortestPath {
+
+    private final int[] nodes;
+    private final int[] edges;
+    private final double distance;
+    private final int settledNodes;
+
+    public ShortestPath(int[] nodes, int[] edges, double distance, int settledNodes) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.distance = distance;
+        this.settledNodes = settledNodes;
+    }
+
+    /**
+     * Восстанавливает путь по массивам предшественников (узел и ребро, по которому в него пришли)
+     */
+    public static ShortestPath fromPredecessors(int target, int[] previousNode, int[] previousEdge,
+            double distance, int settledNodes) {
+        int length = 1;
+        for (int node = target; previousNode[node] != -1; node = previousNode[node]) {
+            length++;
+        }
+
+        int[] nodes = new int[length];
+        int[] edges = new int[length - 1];
+        int node = target;
+        for (int i = length - 1; i > 0; i--) {
+            nodes[i] = node;
+            edges[i - 1] = previousEdge[node];
+            node = previousNode[node];
+        }
+        nodes[0] = node;
+        return new ShortestPath(nodes, edges, distance, settledNodes);
+    }
+
+    public int[] getNodes() {
+        return nodes;
+    }
+
+    public int[] getEdges() {
+        return edges;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+}
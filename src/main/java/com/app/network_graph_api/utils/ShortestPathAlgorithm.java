@@ -7,7 +7,17 @@ import java.util.List;
 
 public enum ShortestPathAlgorithm {
 
-    TRACE(new ShortestPathAlgorithmTrace());
+    TRACE(new ShortestPathAlgorithmTrace()),
+    DIJKSTRA(new ShortestPathAlgorithmDijkstra()),
+    ALT(new ShortestPathAlgorithmAlt()),
+    CH(new ShortestPathAlgorithmContraction()),
+    ORACLE(new ShortestPathAlgorithmOracle()),
+    DELTA(new ShortestPathAlgorithmDeltaStepping()),
+    BFS(new ShortestPathAlgorithmBfs()),
+    ZERO_ONE_BFS(new ShortestPathAlgorithmZeroOneBfs()),
+    DAG(new ShortestPathAlgorithmDag()),
+    BELLMAN_FORD(new ShortestPathAlgorithmBellmanFord()),
+    AUTO(new ShortestPathAlgorithmAuto());
 
     private final ShortestPathAlgorithmHandler handler;
 
@@ -18,4 +28,49 @@ public enum ShortestPathAlgorithm {
     public List<NetworkGraphNode> find(NetworkGraph graph, String n1, String n2) {
         return handler.find(graph, n1, n2);
     }
+
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        return handler.find(graph, source, target);
+    }
+
+    /**
+     * Алгоритм, который фактически выполнит поиск на графе: AUTO заменяется выбором планировщика,
+     * BFS, ZERO_ONE_BFS и DAG на неподходящем графе - тоже
+     */
+    public ShortestPathAlgorithm resolve(CompiledGraph graph) {
+        GraphStatistics statistics = statistics(graph);
+        boolean applicable = switch (this) {
+            case AUTO -> false;
+            case BFS -> statistics.uniformWeights();
+            case ZERO_ONE_BFS -> statistics.zeroOneWeights();
+            case DAG -> statistics.acyclic();
+            default -> true;
+        };
+        return applicable ? this : plan(statistics);
+    }
+
+    /**
+     * Самый дешёвый корректный алгоритм по статистике графа: BFS для одинаковых весов,
+     * 0-1 BFS для весов {0, c}, релаксация в топологическом порядке для ациклических графов,
+     * иначе Дейкстра (при отрицательных весах - по весам, приведённым потенциалами Джонсона)
+     */
+    public static ShortestPathAlgorithm plan(GraphStatistics statistics) {
+        if (statistics.uniformWeights()) {
+            return BFS;
+        }
+        if (statistics.zeroOneWeights()) {
+            return ZERO_ONE_BFS;
+        }
+        if (statistics.acyclic()) {
+            return DAG;
+        }
+        return DIJKSTRA;
+    }
+
+    /**
+     * Статистика графа: сохранённая вместе с графом или посчитанная при первом обращении
+     */
+    public static GraphStatistics statistics(CompiledGraph graph) {
+        return graph.index(GraphStatistics.class, GraphStatistics::compute);
+    }
 }
@@ -0,0 +1,149 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Двунаправленный A* с нижними оценками по ориентирам (ALT).
+ * Используются усреднённые потенциалы p(v) = (h_t(v) - h_s(v)) / 2, которые согласованы
+ * для обоих направлений, поэтому поиск останавливается, как только
+ * сумма минимальных ключей двух очередей достигает лучшего найденного пути.
+ */
+public class ShortestPathAlgorithmAlt extends CompiledShortestPathAlgorithmHandler {
+
+    private final ShortestPathAlgorithmDijkstra fallback = new ShortestPathAlgorithmDijkstra();
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+
+        Landmarks landmarks = graph.index(Landmarks.class, g -> Landmarks.build(g, Landmarks.DEFAULT_COUNT));
+        if (landmarks.isEmpty() && graph.minWeight() < 0) {
+            // Оценки по ориентирам для отрицательных весов не строятся
+            return fallback.find(graph, source, target);
+        }
+        if (source == target) {
+            return new ShortestPath(new int[]{source}, new int[0], 0, 1);
+        }
+
+        int nodeCount = graph.nodeCount();
+        double[] potentials = new double[nodeCount];
+        Arrays.fill(potentials, Double.NaN);
+
+        double[] forwardDistances = new double[nodeCount];
+        double[] backwardDistances = new double[nodeCount];
+        Arrays.fill(forwardDistances, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDistances, Double.POSITIVE_INFINITY);
+        int[] forwardNode = new int[nodeCount];
+        int[] forwardEdge = new int[nodeCount];
+        int[] backwardNode = new int[nodeCount];
+        int[] backwardEdge = new int[nodeCount];
+        Arrays.fill(forwardNode, -1);
+        Arrays.fill(backwardNode, -1);
+
+        IndexedMinHeap forwardHeap = new IndexedMinHeap(nodeCount);
+        IndexedMinHeap backwardHeap = new IndexedMinHeap(nodeCount);
+        forwardDistances[source] = 0;
+        backwardDistances[target] = 0;
+        forwardHeap.offer(source, potential(landmarks, potentials, source, source, target));
+        backwardHeap.offer(target, -potential(landmarks, potentials, target, source, target));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+        QueryBudget budget = QueryBudget.current();
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekKey() + backwardHeap.peekKey() >= best) {
+                break;
+            }
+
+            settled++;
+            budget.checkpoint();
+            if (forwardHeap.size() <= backwardHeap.size()) {
+                int node = forwardHeap.poll();
+                double distance = forwardDistances[node];
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    double candidate = distance + graph.edgeWeight(edge);
+                    if (candidate < forwardDistances[next]) {
+                        forwardDistances[next] = candidate;
+                        forwardNode[next] = node;
+                        forwardEdge[next] = edge;
+                        forwardHeap.offer(next, candidate + potential(landmarks, potentials, next, source, target));
+                        if (candidate + backwardDistances[next] < best) {
+                            best = candidate + backwardDistances[next];
+                            meeting = next;
+                        }
+                    }
+                }
+            } else {
+                int node = backwardHeap.poll();
+                double distance = backwardDistances[node];
+                for (int i = graph.inEdgesStart(node); i < graph.inEdgesEnd(node); i++) {
+                    int edge = graph.inEdge(i);
+                    int next = graph.inEdgeSource(i);
+                    double candidate = distance + graph.edgeWeight(edge);
+                    if (candidate < backwardDistances[next]) {
+                        backwardDistances[next] = candidate;
+                        backwardNode[next] = node;
+                        backwardEdge[next] = edge;
+                        backwardHeap.offer(next, candidate - potential(landmarks, potentials, next, source, target));
+                        if (candidate + forwardDistances[next] < best) {
+                            best = candidate + forwardDistances[next];
+                            meeting = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return null;
+        }
+        return join(meeting, forwardNode, forwardEdge, backwardNode, backwardEdge, best, settled);
+    }
+
+    private static double potential(Landmarks landmarks, double[] potentials, int node, int source, int target) {
+        double potential = potentials[node];
+        if (Double.isNaN(potential)) {
+            potential = (landmarks.lowerBound(node, target) - landmarks.lowerBound(source, node)) / 2;
+            potentials[node] = potential;
+        }
+        return potential;
+    }
+
+    /**
+     * Склеивает путь source -> meeting из прямого поиска и meeting -> target из обратного
+     */
+    private static ShortestPath join(int meeting, int[] forwardNode, int[] forwardEdge,
+            int[] backwardNode, int[] backwardEdge, double distance, int settled) {
+        int forwardLength = 0;
+        for (int node = meeting; forwardNode[node] != -1; node = forwardNode[node]) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int node = meeting; backwardNode[node] != -1; node = backwardNode[node]) {
+            backwardLength++;
+        }
+
+        int[] nodes = new int[forwardLength + backwardLength + 1];
+        int[] edges = new int[forwardLength + backwardLength];
+        int node = meeting;
+        for (int i = forwardLength; i > 0; i--) {
+            nodes[i] = node;
+            edges[i - 1] = forwardEdge[node];
+            node = forwardNode[node];
+        }
+        nodes[0] = node;
+
+        node = meeting;
+        for (int i = forwardLength; i < forwardLength + backwardLength; i++) {
+            edges[i] = backwardEdge[node];
+            node = backwardNode[node];
+            nodes[i + 1] = node;
+        }
+        return new ShortestPath(nodes, edges, distance, settled);
+    }
+}
@@ -0,0 +1,16 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Выбирает алгоритм по статистике графа ({@link ShortestPathAlgorithm#plan(GraphStatistics)})
+ * отдельно для каждого запроса
+ */
+public class ShortestPathAlgorithmAuto extends CompiledShortestPathAlgorithmHandler {
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        return ShortestPathAlgorithm.plan(ShortestPathAlgorithm.statistics(graph)).find(graph, source, target);
+    }
+}
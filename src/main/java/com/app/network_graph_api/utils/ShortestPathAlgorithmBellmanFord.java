@@ -0,0 +1,75 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Беллман-Форд с очередью (SPFA) для графов с отрицательными весами: в очереди только узлы,
+ * расстояние до которых уменьшилось на предыдущем шаге.
+ */
+public class ShortestPathAlgorithmBellmanFord extends CompiledShortestPathAlgorithmHandler {
+
+    /**
+     * @throws IllegalArgumentException если из начального узла достижим цикл отрицательного веса
+     */
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        // Число рёбер в текущем кратчайшем пути до узла; путь из nodeCount рёбер содержит цикл
+        int[] pathEdges = new int[nodeCount];
+        boolean[] queued = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int size = 0;
+        int processed = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        distances[source] = 0;
+        queue[0] = source;
+        queued[source] = true;
+        size++;
+        while (size > 0) {
+            int node = queue[head];
+            head = head + 1 == nodeCount ? 0 : head + 1;
+            size--;
+            queued[node] = false;
+            processed++;
+            budget.checkpoint();
+
+            double distance = distances[node];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate >= distances[next]) {
+                    continue;
+                }
+                distances[next] = candidate;
+                previousNode[next] = node;
+                previousEdge[next] = edge;
+                pathEdges[next] = pathEdges[node] + 1;
+                if (pathEdges[next] >= nodeCount) {
+                    throw new IllegalArgumentException("Negative cycle reachable from node " + graph.name(source));
+                }
+                if (!queued[next]) {
+                    queued[next] = true;
+                    int tail = head + size;
+                    queue[tail >= nodeCount ? tail - nodeCount : tail] = next;
+                    size++;
+                }
+            }
+        }
+
+        if (distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return ShortestPath.fromPredecessors(target, previousNode, previousEdge, distances[target], processed);
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Поиск в ширину для графов с одинаковыми весами рёбер: первый достигнутый раз узел уже на кратчайшем
+ * расстоянии, куча не нужна. На других графах выполняется алгоритм, выбранный планировщиком.
+ */
+public class ShortestPathAlgorithmBfs extends CompiledShortestPathAlgorithmHandler {
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        GraphStatistics statistics = ShortestPathAlgorithm.statistics(graph);
+        if (!statistics.uniformWeights()) {
+            return ShortestPathAlgorithm.AUTO.find(graph, source, target);
+        }
+
+        int nodeCount = graph.nodeCount();
+        int[] previousNode = new int[nodeCount];
+        int[] previousEdge = new int[nodeCount];
+        int[] hops = new int[nodeCount];
+        boolean[] visited = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        previousNode[source] = -1;
+        visited[source] = true;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node = queue[head++];
+            budget.checkpoint();
+            if (node == target) {
+                return ShortestPath.fromPredecessors(target, previousNode, previousEdge,
+                        hops[target] * statistics.maxWeight(), head);
+            }
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (!visited[next]) {
+                    visited[next] = true;
+                    previousNode[next] = node;
+                    previousEdge[next] = edge;
+                    hops[next] = hops[node] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Поиск по иерархии сжатия; без иерархии (отрицательные веса) используется Дейкстра
+ */
+public class ShortestPathAlgorithmContraction extends CompiledShortestPathAlgorithmHandler {
+
+    private final ShortestPathAlgorithmDijkstra fallback = new ShortestPathAlgorithmDijkstra();
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+
+        ContractionHierarchy hierarchy = graph.index(ContractionHierarchy.class, ContractionHierarchy::build);
+        if (!hierarchy.isAvailable()) {
+            return fallback.find(graph, source, target);
+        }
+        return hierarchy.find(source, target);
+    }
+}
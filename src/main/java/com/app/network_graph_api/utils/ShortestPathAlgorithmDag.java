@@ -0,0 +1,62 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Релаксация рёбер в топологическом порядке для ациклических графов: каждое ребро просматривается
+ * не больше одного раза, веса могут быть отрицательными. Просматриваются только узлы между
+ * начальным и конечным в топологическом порядке. На графах с циклами выполняется алгоритм,
+ * выбранный планировщиком.
+ */
+public class ShortestPathAlgorithmDag extends CompiledShortestPathAlgorithmHandler {
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        GraphStatistics statistics = ShortestPathAlgorithm.statistics(graph);
+        if (!statistics.acyclic()) {
+            return ShortestPathAlgorithm.AUTO.find(graph, source, target);
+        }
+        int from = statistics.topologicalRank(source);
+        int to = statistics.topologicalRank(target);
+        if (from > to) {
+            return null;
+        }
+
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        int[] order = statistics.topologicalOrder();
+        int settledCount = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        distances[source] = 0;
+        for (int rank = from; rank < to; rank++) {
+            int node = order[rank];
+            double distance = distances[node];
+            if (distance == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            settledCount++;
+            budget.checkpoint();
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate < distances[next]) {
+                    distances[next] = candidate;
+                    previousNode[next] = node;
+                    previousEdge[next] = edge;
+                }
+            }
+        }
+        if (distances[target] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return ShortestPath.fromPredecessors(target, previousNode, previousEdge, distances[target], settledCount + 1);
+    }
+}
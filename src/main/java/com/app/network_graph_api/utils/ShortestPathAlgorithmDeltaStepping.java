@@ -0,0 +1,21 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Параллельный delta-stepping; Δ подбирается один раз на граф и хранится вместе с ним.
+ * При отрицательных весах используется Дейкстра.
+ */
+public class ShortestPathAlgorithmDeltaStepping extends CompiledShortestPathAlgorithmHandler {
+
+    private final ShortestPathAlgorithmDijkstra fallback = new ShortestPathAlgorithmDijkstra();
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (graph.minWeight() < 0) {
+            return fallback.find(graph, source, target);
+        }
+        return graph.index(DeltaStepping.class, DeltaStepping::new).find(source, target);
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+public class ShortestPathAlgorithmDijkstra extends CompiledShortestPathAlgorithmHandler {
+
+    /**
+     * Классический алгоритм Дейкстры на индексированной куче. Граф с отрицательными весами
+     * просматривается с приведёнными по потенциалам Джонсона весами.
+     *
+     * @throws IllegalArgumentException если в графе есть цикл отрицательного веса
+     */
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (graph.minWeight() < 0) {
+            JohnsonPotentials potentials = graph.index(JohnsonPotentials.class, JohnsonPotentials::compute);
+            if (potentials.hasNegativeCycle()) {
+                throw new IllegalArgumentException(potentials.describeNegativeCycle(graph));
+            }
+            return JohnsonPotentials.restore(graph, find(potentials.reweighted(graph), source, target));
+        }
+
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        boolean[] settled = new boolean[nodeCount];
+        int settledCount = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        distances[source] = 0;
+        heap.offer(source, 0);
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            settled[node] = true;
+            settledCount++;
+            budget.checkpoint();
+            if (node == target) {
+                return ShortestPath.fromPredecessors(target, previousNode, previousEdge, distances[target],
+                        settledCount);
+            }
+
+            double distance = distances[node];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (settled[next]) {
+                    continue;
+                }
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate < distances[next]) {
+                    distances[next] = candidate;
+                    previousNode[next] = node;
+                    previousEdge[next] = edge;
+                    heap.offer(next, candidate);
+                }
+            }
+        }
+
+        return null;
+    }
+}
@@ -8,4 +8,44 @@ import java.util.List;
 public interface ShortestPathAlgorithmHandler {
 
     List<NetworkGraphNode> find(NetworkGraph graph, String n1, String n2);
+
+    /**
+     * Поиск пути в компактном графе. По умолчанию граф переводится в объектный вид
+     * и используется {@link #find(NetworkGraph, String, String)}.
+     *
+     * @return путь или null, если путь не найден
+     */
+    default ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+
+        NetworkGraph networkGraph = graph.toNetworkGraph();
+        List<NetworkGraphNode> path = find(networkGraph, graph.name(source), graph.name(target));
+        if (path == null) {
+            return null;
+        }
+
+        int[] nodes = new int[path.size()];
+        int[] edges = new int[path.size() - 1];
+        double distance = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.id(path.get(i).getName());
+            if (i > 0) {
+                edges[i - 1] = lightestEdge(graph, nodes[i - 1], nodes[i]);
+                distance += graph.edgeWeight(edges[i - 1]);
+            }
+        }
+        return new ShortestPath(nodes, edges, distance, 0);
+    }
+
+    private static int lightestEdge(CompiledGraph graph, int from, int to) {
+        int result = -1;
+        for (int edge = graph.edgesStart(from); edge < graph.edgesEnd(from); edge++) {
+            if (graph.edgeTarget(edge) == to && (result < 0 || graph.edgeWeight(edge) < graph.edgeWeight(result))) {
+                result = edge;
+            }
+        }
+        return result;
+    }
 }
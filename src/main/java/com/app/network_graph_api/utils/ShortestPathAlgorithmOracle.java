@@ -0,0 +1,22 @@
+package com.app.network_graph_api.utils;
+
+/**
+ * Ответ по предрасчитанной матрице расстояний; пока матрица не построена, используется Дейкстра
+ */
+public class ShortestPathAlgorithmOracle extends CompiledShortestPathAlgorithmHandler {
+
+    private final ShortestPathAlgorithmDijkstra fallback = new ShortestPathAlgorithmDijkstra();
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+
+        DistanceOracle oracle = graph.index(DistanceOracle.class);
+        if (oracle == null) {
+            return fallback.find(graph, source, target);
+        }
+        return oracle.path(graph, source, target);
+    }
+}
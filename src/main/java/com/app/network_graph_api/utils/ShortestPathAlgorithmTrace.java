@@ -1,67 +1,76 @@
 package com.app.network_graph_api.utils;
 
-import com.app.network_graph_api.model.api.NetworkGraph;
-import com.app.network_graph_api.model.api.NetworkGraphEdge;
-import com.app.network_graph_api.model.api.NetworkGraphNode;
-
-import java.math.BigDecimal;
-import java.util.*;
-
-public class ShortestPathAlgorithmTrace implements ShortestPathAlgorithmHandler {
+/**
+ * Полный перебор простых путей обходом в глубину по {@link CompiledGraph}; вес пути накапливается
+ * в double. При неотрицательных весах ветви, уже не лучшие найденного пути, отсекаются.
+ */
+public class ShortestPathAlgorithmTrace extends CompiledShortestPathAlgorithmHandler {
 
     @Override
-    public List<NetworkGraphNode> find(NetworkGraph graph, String n1, String n2) {
-        NetworkGraphNode in = NetworkGraphUtils.findNodeByName(graph, n1);
-        Map<List<NetworkGraphNode>, BigDecimal> paths = new HashMap<>();
-        trace(in, graph, paths);
-        return paths.keySet().stream()
-                .filter(path -> n1.equals(path.get(0).getName()) && n2.equals(path.get(path.size() - 1).getName()))
-                .min(Comparator.comparing(paths::get))
-                .orElse(null);
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        Search search = new Search(graph, target);
+        search.trace(source, 0, 0);
+        if (search.bestLength < 0) {
+            return null;
+        }
+        int[] nodes = new int[search.bestLength + 1];
+        nodes[0] = source;
+        int[] edges = new int[search.bestLength];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = search.bestEdges[i];
+            nodes[i + 1] = graph.edgeTarget(edges[i]);
+        }
+        return new ShortestPath(nodes, edges, search.bestDistance, search.visited);
     }
 
-    private void trace(NetworkGraphNode entry, NetworkGraph graph, Map<List<NetworkGraphNode>, BigDecimal> result) {
-        trace(entry, BigDecimal.ZERO, graph, null, result);
-    }
+    private static final class Search {
 
-    private void trace(NetworkGraphNode node, BigDecimal weight, NetworkGraph graph,
-            Map<List<NetworkGraphNode>, BigDecimal> paths, Map<List<NetworkGraphNode>, BigDecimal> result) {
-        Map<List<NetworkGraphNode>, BigDecimal> newPaths = new HashMap<>();
-        if (paths == null) {
-            List<NetworkGraphNode> newPath = new ArrayList<>();
-            newPath.add(node);
-            newPaths.put(newPath, weight);
-        } else {
-            for (List<NetworkGraphNode> path : paths.keySet()) {
-                if (path.contains(node)) {
-                    continue;
-                }
+        private final CompiledGraph graph;
+        private final int target;
+        private final boolean prune;
+        private final boolean[] onPath;
+        private final int[] pathEdges;
+        private final int[] bestEdges;
+        private final QueryBudget budget = QueryBudget.current();
+        private double bestDistance = Double.POSITIVE_INFINITY;
+        private int bestLength = -1;
+        private int visited;
 
-                BigDecimal pathWeight = paths.get(path);
-                List<NetworkGraphNode> newPath = new ArrayList<>(path);
-                newPath.add(node);
-                newPaths.put(newPath, pathWeight.add(weight));
-            }
+        Search(CompiledGraph graph, int target) {
+            this.graph = graph;
+            this.target = target;
+            this.prune = graph.edgeCount() == 0 || graph.minWeight() >= 0;
+            this.onPath = new boolean[graph.nodeCount()];
+            this.pathEdges = new int[graph.nodeCount()];
+            this.bestEdges = new int[graph.nodeCount()];
         }
 
-        List<NetworkGraphEdge> edges = graph.getNodes().get(node);
-        for (NetworkGraphEdge edge : edges) {
-            for (List<NetworkGraphNode> path : newPaths.keySet()) {
-                NetworkGraphNode targetNode = null;
-                String targetName = edge.getTargetNodeName();
-
-                if (targetName != null) {
-                    targetNode = NetworkGraphUtils.findNodeByName(graph, targetName);
+        void trace(int node, double distance, int depth) {
+            visited++;
+            budget.checkpoint();
+            if (node == target) {
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestLength = depth;
+                    System.arraycopy(pathEdges, 0, bestEdges, 0, depth);
                 }
-
-                if (targetNode == null || path.contains(targetNode)) {
-                    continue;
+                return;
+            }
+            if (prune && distance >= bestDistance) {
+                return;
+            }
+            onPath[node] = true;
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (!onPath[next]) {
+                    pathEdges[depth] = edge;
+                    trace(next, distance + graph.edgeWeight(edge), depth + 1);
                 }
-
-                trace(targetNode, edge.getWeight(), graph, newPaths, result);
             }
+            onPath[node] = false;
         }
-
-        result.putAll(newPaths);
     }
 }
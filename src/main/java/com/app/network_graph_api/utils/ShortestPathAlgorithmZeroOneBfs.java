@@ -0,0 +1,73 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * 0-1 BFS для графов, где веса рёбер равны нулю или одному положительному значению: рёбра нулевого веса
+ * кладутся в начало двусторонней очереди, остальные - в конец. На других графах выполняется алгоритм,
+ * выбранный планировщиком.
+ */
+public class ShortestPathAlgorithmZeroOneBfs extends CompiledShortestPathAlgorithmHandler {
+
+    @Override
+    public ShortestPath find(CompiledGraph graph, int source, int target) {
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        if (!ShortestPathAlgorithm.statistics(graph).zeroOneWeights()) {
+            return ShortestPathAlgorithm.AUTO.find(graph, source, target);
+        }
+
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        boolean[] settled = new boolean[nodeCount];
+        int settledCount = 0;
+
+        // Кольцевой буфер: узел может попасть в очередь повторно, но в ней одновременно не больше
+        // одной записи на каждое ребро и источник
+        int capacity = Integer.highestOneBit(Math.max(graph.edgeCount() + 1, 1)) << 1;
+        int[] deque = new int[capacity];
+        int mask = capacity - 1;
+        int head = 0;
+        int tail = 0;
+
+        QueryBudget budget = QueryBudget.current();
+        distances[source] = 0;
+        deque[tail++ & mask] = source;
+        while (head != tail) {
+            int node = deque[head++ & mask];
+            if (settled[node]) {
+                continue;
+            }
+            settled[node] = true;
+            settledCount++;
+            budget.checkpoint();
+            if (node == target) {
+                return ShortestPath.fromPredecessors(target, previousNode, previousEdge, distances[target],
+                        settledCount);
+            }
+
+            double distance = distances[node];
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                double weight = graph.edgeWeight(edge);
+                if (settled[next] || distance + weight >= distances[next]) {
+                    continue;
+                }
+                distances[next] = distance + weight;
+                previousNode[next] = node;
+                previousEdge[next] = edge;
+                if (weight == 0) {
+                    deque[--head & mask] = next;
+                } else {
+                    deque[tail++ & mask] = next;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,287 @@
+package com.app.network_graph_api.utils;
+
+import java.util.Arrays;
+
+/**
+ * Полное дерево кратчайших путей из одного узла (или в один узел для обратного поиска)
+ */
+public class ShortestPathTree {
+
+    private final int root;
+    private final boolean reverse;
+    private final double[] distances;
+    private final int[] previousNode;
+    private final int[] previousEdge;
+    private final int settledNodes;
+
+    ShortestPathTree(int root, boolean reverse, double[] distances, int[] previousNode, int[] previousEdge,
+            int settledNodes) {
+        this.root = root;
+        this.reverse = reverse;
+        this.distances = distances;
+        this.previousNode = previousNode;
+        this.previousEdge = previousEdge;
+        this.settledNodes = settledNodes;
+    }
+
+    /**
+     * Дейкстра из {@code source} по исходящим рёбрам
+     */
+    public static ShortestPathTree compute(CompiledGraph graph, int source) {
+        return compute(graph, source, false, null);
+    }
+
+    /**
+     * Дейкстра из {@code source}, остановленная после фиксации всех {@code targets}.
+     * Расстояния до прочих узлов могут быть не окончательными.
+     */
+    public static ShortestPathTree compute(CompiledGraph graph, int source, int[] targets) {
+        return compute(graph, source, false, targets);
+    }
+
+    /**
+     * Дейкстра в {@code target} по входящим рёбрам: distance(v) - длина пути из v в target
+     */
+    public static ShortestPathTree computeReverse(CompiledGraph graph, int target) {
+        return compute(graph, target, true, null);
+    }
+
+    /**
+     * При отрицательных весах поиск идёт по весам, приведённым потенциалами Джонсона, и расстояния
+     * переводятся обратно: без этого Дейкстра без проверки фиксации узлов на цикле отрицательного веса не завершается
+     *
+     * @throws IllegalArgumentException если в графе есть цикл отрицательного веса
+     */
+    private static ShortestPathTree compute(CompiledGraph graph, int root, boolean reverse, int[] targets) {
+        if (graph.minWeight() >= 0) {
+            return search(graph, root, reverse, targets);
+        }
+        JohnsonPotentials potentials = graph.index(JohnsonPotentials.class, JohnsonPotentials::compute);
+        if (potentials.hasNegativeCycle()) {
+            throw new IllegalArgumentException(potentials.describeNegativeCycle(graph));
+        }
+        ShortestPathTree reduced = search(potentials.reweighted(graph), root, reverse, targets);
+        double[] distances = reduced.distances;
+        double rootPotential = potentials.potential(root);
+        for (int node = 0; node < distances.length; node++) {
+            if (!Double.isInfinite(distances[node])) {
+                distances[node] += reverse
+                        ? rootPotential - potentials.potential(node)
+                        : potentials.potential(node) - rootPotential;
+            }
+        }
+        return reduced;
+    }
+
+    private static ShortestPathTree search(CompiledGraph graph, int root, boolean reverse, int[] targets) {
+        int nodeCount = graph.nodeCount();
+        double[] distances = new double[nodeCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int[] previousNode = new int[nodeCount];
+        Arrays.fill(previousNode, -1);
+        int[] previousEdge = new int[nodeCount];
+        Arrays.fill(previousEdge, -1);
+        int settledCount = 0;
+
+        boolean[] targetMarks = null;
+        int remainingTargets = 0;
+        if (targets != null) {
+            targetMarks = new boolean[nodeCount];
+            for (int target : targets) {
+                if (target >= 0 && !targetMarks[target]) {
+                    targetMarks[target] = true;
+                    remainingTargets++;
+                }
+            }
+        }
+
+        QueryBudget budget = QueryBudget.current();
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        distances[root] = 0;
+        heap.offer(root, 0);
+
+        while (!heap.isEmpty() && (targetMarks == null || remainingTargets > 0)) {
+            int node = heap.poll();
+            settledCount++;
+            budget.checkpoint();
+            if (targetMarks != null && targetMarks[node]) {
+                targetMarks[node] = false;
+                if (--remainingTargets == 0) {
+                    break;
+                }
+            }
+            double distance = distances[node];
+
+            if (reverse) {
+                for (int i = graph.inEdgesStart(node); i < graph.inEdgesEnd(node); i++) {
+                    int edge = graph.inEdge(i);
+                    int next = graph.inEdgeSource(i);
+                    double candidate = distance + graph.edgeWeight(edge);
+                    if (candidate < distances[next]) {
+                        distances[next] = candidate;
+                        previousNode[next] = node;
+                        previousEdge[next] = edge;
+                        heap.offer(next, candidate);
+                    }
+                }
+            } else {
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    double candidate = distance + graph.edgeWeight(edge);
+                    if (candidate < distances[next]) {
+                        distances[next] = candidate;
+                        previousNode[next] = node;
+                        previousEdge[next] = edge;
+                        heap.offer(next, candidate);
+                    }
+                }
+            }
+        }
+
+        return new ShortestPathTree(root, reverse, distances, previousNode, previousEdge, settledCount);
+    }
+
+    /**
+     * Восстанавливает дерево после изменения весов рёбер {@code changedEdges} (в духе Ramalingam-Reps).
+     * Поддеревья под изменёнными рёбрами дерева сбрасываются и получают расстояния от своей границы,
+     * изменённые рёбра вне дерева проверяются на улучшение; затем Дейкстра распространяет
+     * изменения только по затронутой части графа. Исходное дерево не изменяется.
+     *
+     * @param graph граф с новыми весами и той же топологией
+     * @return новое дерево или null, если восстановление не поддерживается (обратное дерево, отрицательные веса)
+     */
+    public ShortestPathTree repair(CompiledGraph graph, int[] changedEdges) {
+        if (reverse || graph.minWeight() < 0) {
+            return null;
+        }
+        int nodeCount = graph.nodeCount();
+        double[] newDistances = distances.clone();
+        int[] newPreviousNode = previousNode.clone();
+        int[] newPreviousEdge = previousEdge.clone();
+
+        // Поддеревья под изменёнными рёбрами дерева: их расстояния могли вырасти
+        boolean[] affected = new boolean[nodeCount];
+        IntList affectedNodes = new IntList();
+        IntList stack = new IntList();
+        for (int edge : changedEdges) {
+            int node = graph.edgeTarget(edge);
+            if (newPreviousEdge[node] == edge) {
+                stack.add(node);
+            }
+        }
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            if (affected[node]) {
+                continue;
+            }
+            affected[node] = true;
+            affectedNodes.add(node);
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (newPreviousEdge[next] == edge && !affected[next]) {
+                    stack.add(next);
+                }
+            }
+        }
+
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        for (int i = 0; i < affectedNodes.size(); i++) {
+            int node = affectedNodes.get(i);
+            newDistances[node] = Double.POSITIVE_INFINITY;
+            newPreviousNode[node] = -1;
+            newPreviousEdge[node] = -1;
+        }
+        for (int i = 0; i < affectedNodes.size(); i++) {
+            int node = affectedNodes.get(i);
+            for (int j = graph.inEdgesStart(node); j < graph.inEdgesEnd(node); j++) {
+                int from = graph.inEdgeSource(j);
+                if (!affected[from]) {
+                    relax(graph, graph.inEdge(j), from, node, newDistances, newPreviousNode, newPreviousEdge, heap);
+                }
+            }
+        }
+        // Рёбра вне дерева, которые стали легче
+        for (int edge : changedEdges) {
+            relax(graph, edge, graph.edgeSource(edge), graph.edgeTarget(edge), newDistances, newPreviousNode,
+                    newPreviousEdge, heap);
+        }
+
+        int repaired = 0;
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            repaired++;
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                relax(graph, edge, node, graph.edgeTarget(edge), newDistances, newPreviousNode, newPreviousEdge, heap);
+            }
+        }
+
+        return new ShortestPathTree(root, false, newDistances, newPreviousNode, newPreviousEdge, repaired);
+    }
+
+    private static void relax(CompiledGraph graph, int edge, int from, int to, double[] distances,
+            int[] previousNode, int[] previousEdge, IndexedMinHeap heap) {
+        double candidate = distances[from] + graph.edgeWeight(edge);
+        if (candidate < distances[to]) {
+            distances[to] = candidate;
+            previousNode[to] = from;
+            previousEdge[to] = edge;
+            heap.offer(to, candidate);
+        }
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public boolean isReverse() {
+        return reverse;
+    }
+
+    public double distance(int node) {
+        return distances[node];
+    }
+
+    public double[] getDistances() {
+        return distances;
+    }
+
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+
+    /**
+     * Примерный объём памяти, занимаемый деревом, в байтах
+     */
+    public long memoryFootprint() {
+        return 64L + 16L * distances.length;
+    }
+
+    /**
+     * Путь от корня до узла (для обратного дерева - от узла до корня) за O(длины пути)
+     *
+     * @return путь или null, если узел недостижим
+     */
+    public ShortestPath path(int node) {
+        if (Double.isInfinite(distances[node])) {
+            return null;
+        }
+        if (!reverse) {
+            return ShortestPath.fromPredecessors(node, previousNode, previousEdge, distances[node], settledNodes);
+        }
+
+        int length = 1;
+        for (int current = node; previousNode[current] != -1; current = previousNode[current]) {
+            length++;
+        }
+        int[] nodes = new int[length];
+        int[] edges = new int[length - 1];
+        int current = node;
+        for (int i = 0; i < length - 1; i++) {
+            nodes[i] = current;
+            edges[i] = previousEdge[current];
+            current = previousNode[current];
+        }
+        nodes[length - 1] = current;
+        return new ShortestPath(nodes, edges, distances[node], settledNodes);
+    }
+}
@@ -0,0 +1,175 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphBuildIssue;
+import com.app.network_graph_api.model.api.NetworkNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Построение скомпилированного графа по узлам, поступающим по одному, без хранения исходных узлов.
+ * <p>
+ * Соединение может ссылаться на узел, описанный позже, поэтому имя получает временный номер при первой
+ * встрече - в описании или в ссылке, а рёбра хранятся в примитивных массивах на временных номерах.
+ * При сборке узлы нумеруются в порядке описания, рёбра к так и не описанным узлам отбрасываются.
+ * Результат совпадает с {@link CompiledGraph#of(List, WeightFormula)} и отчётом
+ * {@link NetworkGraphUtils#build} для того же списка узлов.
+ */
+public final class StreamingGraphBuilder {
+
+    private final WeightFormula edgeFormula;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    // Временный номер -> позиция описания узла, -1 - узел пока не описан
+    private int[] positions = new int[16];
+    private int nodeCount;
+
+    private int[] edgeSources = new int[16];
+    private int[] edgeTargets = new int[16];
+    private double[] edgeWeights = new double[16];
+    private int[] edgeIndexes = new int[16];
+    // Номер ребра -> исходный десятичный вес при тождественной формуле, если double передаёт его неточно
+    private final Map<Integer, BigDecimal> edgeDecimals = new HashMap<>();
+    private int edgeCount;
+
+    private final List<GraphBuildIssue> duplicates = new ArrayList<>();
+    // Несовпадения числа параметров в порядке узлов и число рёбер на момент каждого - для слияния с висячими ссылками
+    private final List<GraphBuildIssue> mismatches = new ArrayList<>();
+    private final IntList mismatchEdges = new IntList();
+
+    public StreamingGraphBuilder(WeightFormula edgeFormula) {
+        this.edgeFormula = edgeFormula;
+    }
+
+    /**
+     * Добавляет очередной узел; ссылки узла используются сразу, сам узел не сохраняется
+     */
+    public void accept(NetworkNode node) {
+        List<String> connectedNodes = node.getConnectedNodes() != null ? node.getConnectedNodes() : List.of();
+        int id = provisionalId(node.getName());
+        if (positions[id] >= 0) {
+            // Соединения повторного узла ведут от первого узла с этим именем
+            duplicates.add(new GraphBuildIssue(GraphBuildIssue.Type.DUPLICATE_NODE, node.getName(), null, null, null));
+        } else {
+            positions[id] = nodeCount++;
+        }
+
+        int parameterCount = node.getParameters() != null ? node.getParameters().size() : 0;
+        if (parameterCount != connectedNodes.size()) {
+            mismatches.add(new GraphBuildIssue(GraphBuildIssue.Type.COUNT_MISMATCH, node.getName(), null, null,
+                    connectedNodes.size() + " connections, " + parameterCount + " parameters"));
+            mismatchEdges.add(edgeCount);
+        }
+        if (connectedNodes.isEmpty()) {
+            return;
+        }
+
+        double[] weights = edgeFormula.edgeWeights(node);
+        List<BigDecimal> parameters = edgeFormula.isIdentity() ? node.getParameters() : null;
+        for (int i = 0; i < connectedNodes.size(); i++) {
+            String target = connectedNodes.get(i);
+            BigDecimal decimal = parameters != null && i < parameters.size() ? parameters.get(i) : null;
+            if (decimal != null && CompiledGraph.inexact(weights[i], decimal)) {
+                edgeDecimals.put(edgeCount, decimal);
+            }
+            addEdge(id, target != null ? provisionalId(target) : -1, weights[i], i);
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Собирает граф; после сборки построитель не используется
+     */
+    public Result build() {
+        String[] definedNames = new String[nodeCount];
+        for (int id = 0; id < names.size(); id++) {
+            if (positions[id] >= 0 && definedNames[positions[id]] == null) {
+                definedNames[positions[id]] = names.get(id);
+            }
+        }
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (String name : definedNames) {
+            builder.addNode(name);
+        }
+
+        // Рёбра добавлены в порядке узлов, поэтому висячие ссылки уже упорядочены по узлам;
+        // несовпадение числа параметров узла предшествует его висячим ссылкам
+        List<GraphBuildIssue> issues = new ArrayList<>(duplicates);
+        int mismatch = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int from = positions[edgeSources[edge]];
+            int target = edgeTargets[edge];
+            if (target >= 0 && positions[target] >= 0) {
+                builder.addEdge(from, positions[target], edgeWeights[edge],
+                        edgeDecimals.isEmpty() ? null : edgeDecimals.get(edge));
+                continue;
+            }
+            while (mismatch < mismatches.size() && mismatchEdges.get(mismatch) <= edge) {
+                issues.add(mismatches.get(mismatch++));
+            }
+            issues.add(new GraphBuildIssue(GraphBuildIssue.Type.DANGLING_REFERENCE, definedNames[from],
+                    edgeIndexes[edge], target >= 0 ? names.get(target) : null, null));
+        }
+        issues.addAll(mismatches.subList(mismatch, mismatches.size()));
+        return new Result(builder.build(), issues);
+    }
+
+    private int provisionalId(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        id = names.size();
+        names.add(name);
+        ids.put(name, id);
+        if (id == positions.length) {
+            positions = Arrays.copyOf(positions, id * 2);
+        }
+        positions[id] = -1;
+        return id;
+    }
+
+    private void addEdge(int from, int to, double weight, int index) {
+        if (edgeCount == edgeSources.length) {
+            int capacity = edgeCount * 2;
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            edgeIndexes = Arrays.copyOf(edgeIndexes, capacity);
+        }
+        edgeSources[edgeCount] = from;
+        edgeTargets[edgeCount] = to;
+        edgeWeights[edgeCount] = weight;
+        edgeIndexes[edgeCount] = index;
+        edgeCount++;
+    }
+
+    /**
+     * Скомпилированный граф и проблемы входных данных
+     */
+    public static final class Result {
+
+        private final CompiledGraph graph;
+        private final List<GraphBuildIssue> issues;
+
+        private Result(CompiledGraph graph, List<GraphBuildIssue> issues) {
+            this.graph = graph;
+            this.issues = issues;
+        }
+
+        public CompiledGraph getGraph() {
+            return graph;
+        }
+
+        public List<GraphBuildIssue> getIssues() {
+            return issues;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Неизменяемая версия графа на персистентных частях смежности.
+ * <p>
+ * Узлы получают постоянные ключи в порядке появления и хранятся блоками по {@value #CHUNK_SIZE} ключей:
+ * имена, смежность в формате CSR (цели - ключи) и веса. Новая версия копирует только блоки с изменёнными
+ * узлами и массив ссылок на блоки, остальные блоки общие со всеми соседними версиями. Удалённый узел
+ * остаётся в блоке без имени, рёбра в него отбрасываются при компиляции; новый узел получает следующий
+ * ключ, поэтому ключи остальных узлов и рёбра в них не меняются.
+ * <p>
+ * Операции имеют ту же семантику, что и {@link GraphMutator#apply(CompiledGraph, List)}:
+ * {@code of(graph, v).apply(operations, v + 1).compile()} совпадает с {@code GraphMutator.apply(graph, operations)}.
+ */
+public final class VersionedGraph {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final long version;
+    private final Chunk[] chunks;
+    private final int keyCount;
+    // Имя -> ключ живых узлов; строится при первой записи и переходит к версиям с тем же набором узлов
+    private volatile Map<String, Integer> keys;
+
+    private VersionedGraph(long version, Chunk[] chunks, int keyCount, Map<String, Integer> keys) {
+        this.version = version;
+        this.chunks = chunks;
+        this.keyCount = keyCount;
+        this.keys = keys;
+    }
+
+    /**
+     * Разбивает скомпилированный граф на блоки; ключи совпадают с номерами узлов
+     */
+    public static VersionedGraph of(CompiledGraph graph, long version) {
+        int nodeCount = graph.nodeCount();
+        Chunk[] chunks = new Chunk[(nodeCount + CHUNK_SIZE - 1) >>> CHUNK_SHIFT];
+        for (int c = 0; c < chunks.length; c++) {
+            int first = c << CHUNK_SHIFT;
+            int size = Math.min(CHUNK_SIZE, nodeCount - first);
+            String[] names = new String[size];
+            int[] offsets = new int[size + 1];
+            int start = graph.edgesStart(first);
+            for (int i = 0; i < size; i++) {
+                names[i] = graph.name(first + i);
+                offsets[i + 1] = graph.edgesEnd(first + i) - start;
+            }
+            int[] targets = new int[offsets[size]];
+            double[] weights = new double[offsets[size]];
+            BigDecimal[] decimals = null;
+            for (int edge = 0; edge < targets.length; edge++) {
+                targets[edge] = graph.edgeTarget(start + edge);
+                weights[edge] = graph.edgeWeight(start + edge);
+                BigDecimal decimal = graph.decimalWeight(start + edge);
+                if (decimal != null) {
+                    if (decimals == null) {
+                        decimals = new BigDecimal[targets.length];
+                    }
+                    decimals[edge] = decimal;
+                }
+            }
+            chunks[c] = new Chunk(names, offsets, targets, weights, decimals);
+        }
+        return new VersionedGraph(version, chunks, nodeCount, null);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Новая версия с применёнными операциями; текущая версия не меняется
+     *
+     * @throws NoSuchElementException   если узел или ребро не найдены
+     * @throws IllegalArgumentException если операция некорректна
+     */
+    public VersionedGraph apply(List<GraphMutation> operations, long newVersion) {
+        Map<String, Integer> base = keys();
+        // Изменения имён в пределах операций: ключ нового узла или -1 для удалённого
+        Map<String, Integer> names = new HashMap<>();
+        Map<Integer, Block> blocks = new HashMap<>();
+        int nextKey = keyCount;
+
+        for (GraphMutation operation : operations) {
+            GraphMutator.validate(operation);
+            switch (operation.getType()) {
+                case ADD_NODE -> {
+                    if (key(base, names, operation.getNode()) >= 0) {
+                        throw new IllegalArgumentException("Node already exists: " + operation.getNode());
+                    }
+                    int key = nextKey++;
+                    block(blocks, key).add(operation.getNode());
+                    names.put(operation.getNode(), key);
+                }
+                case REMOVE_NODE -> {
+                    int key = key(base, names, operation.getNode());
+                    if (key < 0) {
+                        throw new NoSuchElementException("Node not found: " + operation.getNode());
+                    }
+                    block(blocks, key).remove(key & (CHUNK_SIZE - 1));
+                    names.put(operation.getNode(), -1);
+                }
+                case ADD_EDGE -> {
+                    int from = key(base, names, operation.getN1());
+                    int to = key(base, names, operation.getN2());
+                    GraphMutator.requireNodes(from >= 0, to >= 0, operation);
+                    block(blocks, from).edges(from & (CHUNK_SIZE - 1))
+                            .add(to, operation.getWeight().doubleValue(), operation.getWeight());
+                }
+                case REMOVE_EDGE -> {
+                    int from = key(base, names, operation.getN1());
+                    int to = key(base, names, operation.getN2());
+                    GraphMutator.requireNodes(from >= 0, to >= 0, operation);
+                    GraphMutator.requireEdge(block(blocks, from).edges(from & (CHUNK_SIZE - 1)).remove(to), operation);
+                }
+                case SET_WEIGHT -> {
+                    int from = key(base, names, operation.getN1());
+                    int to = key(base, names, operation.getN2());
+                    GraphMutator.requireNodes(from >= 0, to >= 0, operation);
+                    GraphMutator.requireEdge(block(blocks, from).edges(from & (CHUNK_SIZE - 1))
+                            .set(to, operation.getWeight().doubleValue(), operation.getWeight()), operation);
+                }
+            }
+        }
+
+        Chunk[] newChunks = Arrays.copyOf(chunks, (nextKey + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+        for (Map.Entry<Integer, Block> entry : blocks.entrySet()) {
+            newChunks[entry.getKey()] = entry.getValue().freeze();
+        }
+        // Набор узлов не изменился - словарь общий
+        return new VersionedGraph(newVersion, newChunks, nextKey, names.isEmpty() ? base : null);
+    }
+
+    /**
+     * Собирает скомпилированный граф версии: живые узлы в порядке ключей, рёбра в удалённые узлы отбрасываются
+     */
+    public CompiledGraph compile() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int[] ids = new int[keyCount];
+        for (int key = 0; key < keyCount; key++) {
+            String name = chunks[key >>> CHUNK_SHIFT].names[key & (CHUNK_SIZE - 1)];
+            ids[key] = name != null ? builder.addNode(name) : -1;
+        }
+        for (int key = 0; key < keyCount; key++) {
+            if (ids[key] < 0) {
+                continue;
+            }
+            Chunk chunk = chunks[key >>> CHUNK_SHIFT];
+            int local = key & (CHUNK_SIZE - 1);
+            for (int edge = chunk.offsets[local]; edge < chunk.offsets[local + 1]; edge++) {
+                int to = ids[chunk.targets[edge]];
+                if (to >= 0) {
+                    builder.addEdge(ids[key], to, chunk.weights[edge], chunk.decimal(edge));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return число блоков этой версии, общих с версией {@code other}
+     */
+    public int sharedChunks(VersionedGraph other) {
+        int shared = 0;
+        for (int c = 0; c < Math.min(chunks.length, other.chunks.length); c++) {
+            if (chunks[c] == other.chunks[c]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    public int chunkCount() {
+        return chunks.length;
+    }
+
+    private Map<String, Integer> keys() {
+        Map<String, Integer> map = keys;
+        if (map == null) {
+            map = new HashMap<>(keyCount * 4 / 3 + 1);
+            for (int key = 0; key < keyCount; key++) {
+                String name = chunks[key >>> CHUNK_SHIFT].names[key & (CHUNK_SIZE - 1)];
+                if (name != null) {
+                    map.put(name, key);
+                }
+            }
+            keys = map;
+        }
+        return map;
+    }
+
+    private static int key(Map<String, Integer> base, Map<String, Integer> names, String name) {
+        Integer key = names.get(name);
+        if (key == null) {
+            key = base.get(name);
+        }
+        return key != null ? key : -1;
+    }
+
+    private Block block(Map<Integer, Block> blocks, int key) {
+        return blocks.computeIfAbsent(key >>> CHUNK_SHIFT,
+                c -> new Block(c < chunks.length ? chunks[c] : null));
+    }
+
+    /**
+     * Неизменяемый блок узлов; у удалённого узла имя null и нет рёбер
+     */
+    private static final class Chunk {
+
+        private final String[] names;
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        // Исходные десятичные веса, которые double передаёт неточно; null, если таких в блоке нет
+        private final BigDecimal[] decimals;
+
+        Chunk(String[] names, int[] offsets, int[] targets, double[] weights, BigDecimal[] decimals) {
+            this.names = names;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.decimals = decimals;
+        }
+
+        BigDecimal decimal(int edge) {
+            return decimals != null ? decimals[edge] : null;
+        }
+    }
+
+    /**
+     * Копия блока на время применения операций; списки рёбер копируются только у затронутых узлов
+     */
+    private static final class Block {
+
+        private final Chunk chunk;
+        private String[] names;
+        private GraphMutator.Edges[] edges;
+        private int size;
+
+        Block(Chunk chunk) {
+            this.chunk = chunk;
+            this.names = chunk != null ? chunk.names.clone() : new String[0];
+            this.size = names.length;
+            this.edges = new GraphMutator.Edges[size];
+        }
+
+        void add(String name) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, Math.min(CHUNK_SIZE, Math.max(size * 2, 16)));
+                edges = Arrays.copyOf(edges, names.length);
+            }
+            names[size] = name;
+            edges[size] = new GraphMutator.Edges();
+            size++;
+        }
+
+        void remove(int local) {
+            names[local] = null;
+            edges[local] = new GraphMutator.Edges();
+        }
+
+        GraphMutator.Edges edges(int local) {
+            GraphMutator.Edges list = edges[local];
+            if (list == null) {
+                list = new GraphMutator.Edges();
+                for (int edge = chunk.offsets[local]; edge < chunk.offsets[local + 1]; edge++) {
+                    list.add(chunk.targets[edge], chunk.weights[edge], chunk.decimal(edge));
+                }
+                edges[local] = list;
+            }
+            return list;
+        }
+
+        Chunk freeze() {
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[i + 1] = offsets[i] + (edges[i] != null ? edges[i].size : chunk.offsets[i + 1] - chunk.offsets[i]);
+            }
+            int[] targets = new int[offsets[size]];
+            double[] weights = new double[offsets[size]];
+            BigDecimal[] decimals = new BigDecimal[offsets[size]];
+            for (int i = 0; i < size; i++) {
+                if (edges[i] != null) {
+                    System.arraycopy(edges[i].targets, 0, targets, offsets[i], edges[i].size);
+                    System.arraycopy(edges[i].weights, 0, weights, offsets[i], edges[i].size);
+                    System.arraycopy(edges[i].decimals, 0, decimals, offsets[i], edges[i].size);
+                } else {
+                    System.arraycopy(chunk.targets, chunk.offsets[i], targets, offsets[i], offsets[i + 1] - offsets[i]);
+                    System.arraycopy(chunk.weights, chunk.offsets[i], weights, offsets[i], offsets[i + 1] - offsets[i]);
+                    if (chunk.decimals != null) {
+                        System.arraycopy(chunk.decimals, chunk.offsets[i], decimals, offsets[i],
+                                offsets[i + 1] - offsets[i]);
+                    }
+                }
+            }
+            boolean hasDecimals = false;
+            for (BigDecimal decimal : decimals) {
+                hasDecimals |= decimal != null;
+            }
+            return new Chunk(Arrays.copyOf(names, size), offsets, targets, weights, hasDecimals ? decimals : null);
+        }
+    }
+}
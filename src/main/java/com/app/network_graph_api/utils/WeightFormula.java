@@ -0,0 +1,431 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Формула веса ребра или значения узла над вектором параметров узла.
+ * <p>
+ * Выражение разбирается один раз и компилируется в дерево лямбд; константные поддеревья
+ * сворачиваются при компиляции. Вычисление идёт по примитивному массиву параметров без BigDecimal.
+ * <p>
+ * Переменные: {@code w} - параметр ребра (параметр с индексом соединения), {@code i} - индекс соединения,
+ * {@code p0}, {@code p1}, ... или {@code p[k]} - параметры узла, {@code n} - число параметров,
+ * {@code sum} и {@code avg} - сумма и среднее параметров. Отсутствующий параметр равен нулю.
+ * Операции: {@code + - * / ^}, скобки, функции {@code min, max, pow} (два аргумента) и
+ * {@code abs, sqrt, exp, log} (один аргумент). {@code w} и {@code i} доступны только в формуле ребра.
+ */
+public final class WeightFormula {
+
+    /**
+     * Вес ребра по умолчанию - его параметр
+     */
+    public static final WeightFormula DEFAULT_EDGE = compile("w");
+
+    /**
+     * Значение узла по умолчанию - сумма параметров
+     */
+    public static final WeightFormula DEFAULT_NODE = compile("sum");
+
+    @FunctionalInterface
+    private interface Term {
+        double apply(double[] parameters, int index, double sum);
+    }
+
+    private final String expression;
+    private final Term term;
+    private final boolean edgeScoped;
+    private final boolean usesSum;
+    private final boolean identity;
+
+    private WeightFormula(String expression, Term term, boolean edgeScoped, boolean usesSum, boolean identity) {
+        this.expression = expression;
+        this.term = term;
+        this.edgeScoped = edgeScoped;
+        this.usesSum = usesSum;
+        this.identity = identity;
+    }
+
+    /**
+     * @throws IllegalArgumentException если выражение некорректно
+     */
+    public static WeightFormula compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Formula is empty");
+        }
+        Parser parser = new Parser(expression);
+        Expr expr = parser.parse();
+        return new WeightFormula(expression.trim(), expr.term, parser.edgeScoped, parser.usesSum,
+                expression.trim().equals("w"));
+    }
+
+    /**
+     * Формула веса ребра; пустое выражение - вес по умолчанию
+     */
+    public static WeightFormula edge(String expression) {
+        return expression == null || expression.isBlank() ? DEFAULT_EDGE : compile(expression);
+    }
+
+    /**
+     * Формула значения узла; пустое выражение - значение по умолчанию
+     *
+     * @throws IllegalArgumentException если формула ссылается на переменные ребра
+     */
+    public static WeightFormula node(String expression) {
+        WeightFormula formula = expression == null || expression.isBlank() ? DEFAULT_NODE : compile(expression);
+        if (formula.edgeScoped) {
+            throw new IllegalArgumentException("Variables w and i are not available in node value formula");
+        }
+        return formula;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return true, если вес ребра - его параметр без преобразований
+     */
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    /**
+     * Веса всех соединений узла за один проход по параметрам, в порядке {@code connectedNodes}
+     *
+     * @throws IllegalArgumentException если вес не конечен (деление на ноль, переполнение)
+     */
+    public double[] edgeWeights(NetworkNode node) {
+        double[] parameters = parameters(node);
+        double sum = usesSum ? sum(parameters) : 0;
+        double[] weights = new double[node.getConnectedNodes().size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = requireFinite(term.apply(parameters, i, sum), node, i);
+        }
+        return weights;
+    }
+
+    /**
+     * @throws IllegalArgumentException если значение не конечно
+     */
+    public double nodeValue(NetworkNode node) {
+        double[] parameters = parameters(node);
+        return requireFinite(term.apply(parameters, -1, usesSum ? sum(parameters) : 0), node, -1);
+    }
+
+    public double evaluate(double[] parameters, int index) {
+        return term.apply(parameters, index, usesSum ? sum(parameters) : 0);
+    }
+
+    private double requireFinite(double value, NetworkNode node, int index) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Formula '" + expression + "' gives " + value + " for node "
+                    + node.getName() + (index >= 0 ? " -> " + node.getConnectedNodes().get(index) : ""));
+        }
+        return value;
+    }
+
+    private static double[] parameters(NetworkNode node) {
+        List<BigDecimal> list = node.getParameters();
+        double[] parameters = new double[list != null ? list.size() : 0];
+        for (int i = 0; i < parameters.length; i++) {
+            BigDecimal parameter = list.get(i);
+            parameters[i] = parameter != null ? parameter.doubleValue() : 0;
+        }
+        return parameters;
+    }
+
+    private static double sum(double[] parameters) {
+        double sum = 0;
+        for (double parameter : parameters) {
+            sum += parameter;
+        }
+        return sum;
+    }
+
+    private static double parameter(double[] parameters, int index) {
+        return index >= 0 && index < parameters.length ? parameters[index] : 0;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Скомпилированное поддерево; {@code constant} не null, если поддерево не зависит от параметров
+     */
+    private record Expr(Term term, Double constant) {
+
+        static Expr constant(double value) {
+            return new Expr((parameters, index, sum) -> value, value);
+        }
+
+        static Expr of(Term term) {
+            return new Expr(term, null);
+        }
+
+        boolean isConstant() {
+            return constant != null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BinaryOperator {
+        double apply(double left, double right);
+    }
+
+    @FunctionalInterface
+    private interface UnaryOperator {
+        double apply(double value);
+    }
+
+    /**
+     * Рекурсивный спуск: expr := term (('+'|'-') term)*, term := unary (('*'|'/') unary)*,
+     * unary := '-' unary | power, power := primary ('^' unary)?
+     */
+    private static final class Parser {
+
+        private final String source;
+        private int position;
+        private boolean edgeScoped;
+        private boolean usesSum;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        Expr parse() {
+            Expr expr = expression();
+            skipSpaces();
+            if (position < source.length()) {
+                throw error("Unexpected '" + source.charAt(position) + "'");
+            }
+            return expr;
+        }
+
+        private Expr expression() {
+            Expr left = term();
+            while (true) {
+                if (accept('+')) {
+                    left = binary(left, term(), (a, b) -> a + b);
+                } else if (accept('-')) {
+                    left = binary(left, term(), (a, b) -> a - b);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Expr term() {
+            Expr left = unary();
+            while (true) {
+                if (accept('*')) {
+                    left = binary(left, unary(), (a, b) -> a * b);
+                } else if (accept('/')) {
+                    left = binary(left, unary(), (a, b) -> a / b);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Expr unary() {
+            if (accept('-')) {
+                return unary(unary(), value -> -value);
+            }
+            return power();
+        }
+
+        private Expr power() {
+            Expr base = primary();
+            if (accept('^')) {
+                return binary(base, unary(), Math::pow);
+            }
+            return base;
+        }
+
+        private Expr primary() {
+            skipSpaces();
+            if (position >= source.length()) {
+                throw error("Unexpected end of formula");
+            }
+            char c = source.charAt(position);
+            if (accept('(')) {
+                Expr expr = expression();
+                expect(')');
+                return expr;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return Expr.constant(number());
+            }
+            if (Character.isLetter(c)) {
+                String name = identifier();
+                skipSpaces();
+                if (position < source.length() && source.charAt(position) == '(') {
+                    return function(name);
+                }
+                return variable(name);
+            }
+            throw error("Unexpected '" + c + "'");
+        }
+
+        private Expr variable(String name) {
+            switch (name) {
+                case "w" -> {
+                    edgeScoped = true;
+                    return Expr.of((parameters, index, sum) -> parameter(parameters, index));
+                }
+                case "i" -> {
+                    edgeScoped = true;
+                    return Expr.of((parameters, index, sum) -> index);
+                }
+                case "n" -> {
+                    return Expr.of((parameters, index, sum) -> parameters.length);
+                }
+                case "sum" -> {
+                    usesSum = true;
+                    return Expr.of((parameters, index, sum) -> sum);
+                }
+                case "avg" -> {
+                    usesSum = true;
+                    return Expr.of((parameters, index, sum) -> parameters.length > 0 ? sum / parameters.length : 0);
+                }
+                case "p" -> {
+                    expect('[');
+                    int parameter = parameterIndex(number());
+                    expect(']');
+                    return Expr.of((parameters, index, sum) -> parameter(parameters, parameter));
+                }
+                default -> {
+                    if (name.matches("p\\d+")) {
+                        int parameter = parameterIndex(Double.parseDouble(name.substring(1)));
+                        return Expr.of((parameters, index, sum) -> parameter(parameters, parameter));
+                    }
+                    throw error("Unknown variable: " + name);
+                }
+            }
+        }
+
+        private Expr function(String name) {
+            expect('(');
+            List<Expr> arguments = new ArrayList<>();
+            if (!accept(')')) {
+                do {
+                    arguments.add(expression());
+                } while (accept(','));
+                expect(')');
+            }
+            int arity = switch (name) {
+                case "min", "max", "pow" -> 2;
+                case "abs", "sqrt", "exp", "log" -> 1;
+                default -> throw error("Unknown function: " + name);
+            };
+            if (arguments.size() != arity) {
+                throw error("Function " + name + " expects " + arity + " arguments");
+            }
+            return switch (name) {
+                case "min" -> binary(arguments.get(0), arguments.get(1), Math::min);
+                case "max" -> binary(arguments.get(0), arguments.get(1), Math::max);
+                case "pow" -> binary(arguments.get(0), arguments.get(1), Math::pow);
+                case "abs" -> unary(arguments.get(0), Math::abs);
+                case "sqrt" -> unary(arguments.get(0), Math::sqrt);
+                case "exp" -> unary(arguments.get(0), Math::exp);
+                default -> unary(arguments.get(0), Math::log);
+            };
+        }
+
+        private static Expr binary(Expr left, Expr right, BinaryOperator operator) {
+            if (left.isConstant() && right.isConstant()) {
+                return Expr.constant(operator.apply(left.constant(), right.constant()));
+            }
+            Term a = left.term();
+            Term b = right.term();
+            // Специализация под константный операнд: меньше вызовов на каждое ребро
+            if (right.isConstant()) {
+                double value = right.constant();
+                return Expr.of((parameters, index, sum) -> operator.apply(a.apply(parameters, index, sum), value));
+            }
+            if (left.isConstant()) {
+                double value = left.constant();
+                return Expr.of((parameters, index, sum) -> operator.apply(value, b.apply(parameters, index, sum)));
+            }
+            return Expr.of((parameters, index, sum) -> operator.apply(a.apply(parameters, index, sum),
+                    b.apply(parameters, index, sum)));
+        }
+
+        private static Expr unary(Expr operand, UnaryOperator operator) {
+            if (operand.isConstant()) {
+                return Expr.constant(operator.apply(operand.constant()));
+            }
+            Term a = operand.term();
+            return Expr.of((parameters, index, sum) -> operator.apply(a.apply(parameters, index, sum)));
+        }
+
+        private int parameterIndex(double value) {
+            if (value != Math.floor(value) || value < 0 || value > Integer.MAX_VALUE) {
+                throw error("Invalid parameter index: " + value);
+            }
+            return (int) value;
+        }
+
+        private double number() {
+            skipSpaces();
+            int start = position;
+            while (position < source.length()
+                    && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+                position++;
+            }
+            if (position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+                position++;
+                if (position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+                    position++;
+                }
+                while (position < source.length() && Character.isDigit(source.charAt(position))) {
+                    position++;
+                }
+            }
+            try {
+                return Double.parseDouble(source.substring(start, position));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number: " + source.substring(start, position));
+            }
+        }
+
+        private String identifier() {
+            int start = position;
+            while (position < source.length() && Character.isLetterOrDigit(source.charAt(position))) {
+                position++;
+            }
+            return source.substring(start, position);
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (position < source.length() && source.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in formula: " + source);
+        }
+    }
+}
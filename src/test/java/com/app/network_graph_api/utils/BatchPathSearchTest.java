@@ -0,0 +1,125 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.service.ShortestPathTreeCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchPathSearchTest {
+
+    @Test
+    public void testPairsWithSharedSourceBuildOneTree() throws Exception {
+        CompiledGraph graph = grid(15, 15, new Random(31));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(1 << 24);
+        AtomicInteger builds = new AtomicInteger();
+        Random random = new Random(37);
+        List<Pair<String, String>> pairs = new ArrayList<>();
+        String[] sources = {"0:0", "7:7", "14:3"};
+        for (int i = 0; i < 60; i++) {
+            pairs.add(new Pair<>(sources[i % sources.length], graph.name(random.nextInt(graph.nodeCount()))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchPathSearch.Result[] results = BatchPathSearch.run(graph, pairs,
+                    (source, target) -> cache.get(1, 0, source, () -> {
+                        builds.incrementAndGet();
+                        return ShortestPathTree.compute(graph, source);
+                    }).path(target), executor, 4);
+
+            // Пары одного источника идут одной группой, поэтому дерево из каждого источника строится один раз
+            assertEquals(sources.length, builds.get());
+            for (int i = 0; i < pairs.size(); i++) {
+                int source = graph.id(pairs.get(i).getL());
+                int target = graph.id(pairs.get(i).getR());
+                assertEquals(BatchPathSearch.Status.FOUND, results[i].status());
+                assertEquals(ShortestPathTree.compute(graph, source).distance(target),
+                        results[i].path().getDistance(), 1e-9);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testErrorsArePerItem() throws Exception {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        builder.addNode("c");
+        int d = builder.addNode("d");
+        builder.addEdge(a, b, 1).addEdge(d, a, 2);
+        CompiledGraph graph = builder.build();
+        List<Pair<String, String>> pairs = List.of(new Pair<>("a", "b"), new Pair<>("a", "x"), new Pair<>("y", "a"),
+                new Pair<>("a", "c"), new Pair<>("d", "b"), new Pair<>("d", "a"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BatchPathSearch.Result[] results = BatchPathSearch.run(graph, pairs, (source, target) -> {
+                if (source == d && target == b) {
+                    throw new IllegalArgumentException("Graph contains a negative cycle");
+                }
+                return ShortestPathAlgorithm.DIJKSTRA.find(graph, source, target);
+            }, executor, 1);
+
+            assertEquals(BatchPathSearch.Status.FOUND, results[0].status());
+            assertEquals(1.0, results[0].path().getDistance());
+            assertEquals(BatchPathSearch.Status.NOT_FOUND, results[1].status());
+            assertEquals("Node not found: x", results[1].message());
+            assertEquals("Node not found: y", results[2].message());
+            assertEquals(BatchPathSearch.Status.NOT_FOUND, results[3].status());
+            assertEquals("Path not found", results[3].message());
+            // Ошибка одной пары группы не мешает следующей паре той же группы
+            assertEquals(BatchPathSearch.Status.INVALID, results[4].status());
+            assertEquals("Graph contains a negative cycle", results[4].message());
+            assertEquals(BatchPathSearch.Status.FOUND, results[5].status());
+            assertEquals(2.0, results[5].path().getDistance());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchStaysOnItsVersion() throws Exception {
+        CompiledGraph graph = grid(10, 10, new Random(41));
+        double[] weights = graph.weights();
+        for (int edge = 0; edge < weights.length; edge++) {
+            weights[edge] += 100;
+        }
+        CompiledGraph updated = graph.withWeights(weights);
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(1 << 24);
+        AtomicInteger searches = new AtomicInteger();
+
+        List<Pair<String, String>> pairs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            pairs.add(new Pair<>(graph.name(i % 5), graph.name(99 - i)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Пакет закреплён за версией 0; посреди пакета граф меняется до версии 1
+            BatchPathSearch.Result[] results = BatchPathSearch.run(graph, pairs, (source, target) -> {
+                if (searches.incrementAndGet() == 10) {
+                    cache.migrate(1, 0, 1, tree -> ShortestPathTree.compute(updated, tree.getRoot()));
+                }
+                return cache.get(1, 0, source, () -> ShortestPathTree.compute(graph, source)).path(target);
+            }, executor, 2);
+
+            for (int i = 0; i < pairs.size(); i++) {
+                int source = graph.id(pairs.get(i).getL());
+                int target = graph.id(pairs.get(i).getR());
+                assertEquals(ShortestPathTree.compute(graph, source).distance(target),
+                        results[i].path().getDistance(), 1e-9);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedSearchTest {
+
+    @Test
+    public void testByWeightMatchesDijkstra() {
+        Random random = new Random(1);
+        CompiledGraph graph = TestGraphs.grid(40, 40, random);
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            double maxWeight = 5 + random.nextInt(60);
+            ShortestPathTree tree = ShortestPathTree.compute(graph, source);
+
+            double[] found = new double[graph.nodeCount()];
+            Arrays.fill(found, Double.NaN);
+            double[] last = {0};
+            int reached = BoundedSearch.byWeight(graph, source, maxWeight, -1, (node, distance, hops) -> {
+                assertTrue(Double.isNaN(found[node]));
+                assertTrue(distance >= last[0]);
+                last[0] = distance;
+                found[node] = distance;
+            });
+
+            int expected = 0;
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                if (tree.distance(node) <= maxWeight) {
+                    expected++;
+                    assertEquals(tree.distance(node), found[node], 1e-9);
+                } else {
+                    assertTrue(Double.isNaN(found[node]));
+                }
+            }
+            assertEquals(expected, reached);
+        }
+    }
+
+    @Test
+    public void testByHops() {
+        CompiledGraph graph = TestGraphs.grid(30, 30, new Random(2));
+        int source = 15 * 30 + 15;
+        int[] found = new int[graph.nodeCount()];
+        Arrays.fill(found, -1);
+        int reached = BoundedSearch.byHops(graph, source, 4, (node, distance, hops) -> {
+            assertEquals(-1, found[node]);
+            found[node] = hops;
+        });
+
+        // На решётке число рёбер до узла - манхэттенское расстояние
+        int expected = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int manhattan = Math.abs(node % 30 - 15) + Math.abs(node / 30 - 15);
+            if (manhattan <= 4) {
+                expected++;
+                assertEquals(manhattan, found[node]);
+            } else {
+                assertEquals(-1, found[node]);
+            }
+        }
+        assertEquals(expected, reached);
+    }
+
+    @Test
+    public void testHopLimitStopsWeightSearch() {
+        CompiledGraph graph = TestGraphs.grid(30, 30, new Random(3));
+        int[] maxHops = {0};
+        int reached = BoundedSearch.byWeight(graph, 0, Double.MAX_VALUE, 3,
+                (node, distance, hops) -> maxHops[0] = Math.max(maxHops[0], hops));
+        assertEquals(3, maxHops[0]);
+        assertTrue(reached <= 10);
+
+        assertEquals(1, BoundedSearch.byWeight(graph, 0, 0, -1, (node, distance, hops) -> assertEquals(0, node)));
+    }
+
+    @Test
+    public void testBothBoundsKeepHeavierPathWithFewerHops() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int s = builder.addNode("s");
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        builder.addEdge(s, a, 1).addEdge(a, b, 1).addEdge(s, b, 5).addEdge(b, c, 1);
+        CompiledGraph graph = builder.build();
+
+        double[] found = new double[graph.nodeCount()];
+        Arrays.fill(found, Double.NaN);
+        int reached = BoundedSearch.byWeight(graph, s, 10, 2, (node, distance, hops) -> {
+            assertTrue(Double.isNaN(found[node]));
+            found[node] = distance;
+        });
+
+        // Кратчайший путь до b идёт через a (2 ребра), но до c в пределах 2 рёбер ведёт только s -> b -> c
+        assertEquals(4, reached);
+        assertEquals(2.0, found[b]);
+        assertEquals(6.0, found[c]);
+    }
+
+    @Test
+    public void testBothBoundsMatchHopLimitedBellmanFord() {
+        Random random = new Random(4);
+        CompiledGraph graph = TestGraphs.grid(20, 20, random);
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int maxHops = 1 + random.nextInt(8);
+            double maxWeight = 5 + random.nextInt(40);
+
+            // distances[node] - вес самого лёгкого пути не длиннее maxHops рёбер
+            double[] distances = new double[graph.nodeCount()];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            distances[source] = 0;
+            for (int round = 0; round < maxHops; round++) {
+                double[] next = distances.clone();
+                for (int node = 0; node < graph.nodeCount(); node++) {
+                    for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                        next[graph.edgeTarget(edge)] = Math.min(next[graph.edgeTarget(edge)],
+                                distances[node] + graph.edgeWeight(edge));
+                    }
+                }
+                distances = next;
+            }
+
+            double[] found = new double[graph.nodeCount()];
+            Arrays.fill(found, Double.NaN);
+            int reached = BoundedSearch.byWeight(graph, source, maxWeight, maxHops, (node, distance, hops) -> {
+                assertTrue(Double.isNaN(found[node]));
+                assertTrue(hops <= maxHops);
+                found[node] = distance;
+            });
+
+            int expected = 0;
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                if (distances[node] <= maxWeight) {
+                    expected++;
+                    assertEquals(distances[node], found[node], 1e-9);
+                } else {
+                    assertTrue(Double.isNaN(found[node]));
+                }
+            }
+            assertEquals(expected, reached);
+        }
+    }
+}
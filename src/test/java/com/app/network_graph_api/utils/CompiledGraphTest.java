@@ -0,0 +1,147 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.app.network_graph_api.utils.TestGraphs.connections;
+import static com.app.network_graph_api.utils.TestGraphs.networkNode;
+import static com.app.network_graph_api.utils.TestGraphs.params;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledGraphTest {
+
+    @Test
+    public void testCompileNetworkNodes() {
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("A", connections("B", "C", "X"), params(2, 3, 7)));
+        nodes.add(networkNode("B", connections("C"), params()));
+        nodes.add(networkNode("C", connections(), params()));
+
+        CompiledGraph graph = CompiledGraph.of(nodes);
+
+        assertEquals(3, graph.nodeCount());
+        // Ребро на несуществующий узел X отбрасывается, как и в buildGraph
+        assertEquals(3, graph.edgeCount());
+
+        int a = graph.id("A");
+        assertEquals(0, a);
+        assertEquals(-1, graph.id("X"));
+        assertEquals(2, graph.degree(a));
+        assertEquals("B", graph.name(graph.edgeTarget(graph.edgesStart(a))));
+        assertEquals(2.0, graph.edgeWeight(graph.edgesStart(a)));
+        assertEquals(3.0, graph.edgeWeight(graph.edgesStart(a) + 1));
+
+        // Нет параметра - нулевой вес
+        int b = graph.id("B");
+        assertEquals(0.0, graph.edgeWeight(graph.edgesStart(b)));
+    }
+
+    @Test
+    public void testBuilderGroupsEdgesBySource() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("A");
+        int b = builder.addNode("B");
+        assertEquals(a, builder.addNode("A"));
+        builder.addEdge(b, a, 1);
+        builder.addEdge(a, b, 2);
+        builder.addEdge(b, b, 3);
+
+        CompiledGraph graph = builder.build();
+        assertEquals(1, graph.degree(a));
+        assertEquals(2, graph.degree(b));
+        assertEquals(1.0, graph.edgeWeight(graph.edgesStart(b)));
+        assertEquals(3.0, graph.edgeWeight(graph.edgesStart(b) + 1));
+    }
+
+    @Test
+    public void testSameGraphFromBothFormats() {
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("n1", connections("n2", "n3"), params(1, 2)));
+        nodes.add(networkNode("n2", connections("n3"), params(3)));
+        nodes.add(networkNode("n3", connections("n1"), params(4)));
+        NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes);
+        graph.setNetworkNodes(null);
+
+        CompiledGraph fromNodes = CompiledGraph.of(nodes);
+        CompiledGraph fromGraph = CompiledGraph.of(graph);
+        CompiledGraph roundTrip = CompiledGraph.of(fromNodes.toNetworkGraph());
+
+        for (CompiledGraph compiled : List.of(fromGraph, roundTrip)) {
+            assertEquals(fromNodes.nodeCount(), compiled.nodeCount());
+            assertEquals(fromNodes.edgeCount(), compiled.edgeCount());
+            ShortestPath expected = ShortestPathAlgorithm.DIJKSTRA.find(fromNodes, fromNodes.id("n2"), fromNodes.id("n1"));
+            ShortestPath actual = ShortestPathAlgorithm.DIJKSTRA.find(compiled, compiled.id("n2"), compiled.id("n1"));
+            assertEquals(expected.getDistance(), actual.getDistance());
+            assertEquals(fromNodes.names(expected.getNodes()), compiled.names(actual.getNodes()));
+        }
+    }
+
+    @Test
+    public void testMemoryFootprintIncludesIndexes() throws Exception {
+        CompiledGraph graph = TestGraphs.grid(10, 10, new Random(3));
+        long bare = graph.memoryFootprint();
+
+        DistanceOracle oracle = DistanceOracle.build(graph, ForkJoinPool.commonPool());
+        graph.attachIndex(DistanceOracle.class, oracle);
+        assertEquals(bare + oracle.memoryFootprint(), graph.memoryFootprint());
+
+        // Обратная смежность строится по требованию и тоже учитывается
+        graph.inEdgesStart(0);
+        assertTrue(graph.memoryFootprint() > bare + oracle.memoryFootprint());
+    }
+
+    @Test
+    public void testExactWeightKeepsOriginalDecimal() {
+        // 20 значащих цифр: double округляет значение до 0.1
+        BigDecimal precise = new BigDecimal("0.10000000000000000001");
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("A", connections("B", "C"), new ArrayList<>(List.of(precise, new BigDecimal("0.2")))));
+        nodes.add(networkNode("B", connections("C"), params(3)));
+        nodes.add(networkNode("C", connections(), params()));
+
+        CompiledGraph graph = CompiledGraph.of(nodes);
+        int ab = graph.edgesStart(graph.id("A"));
+        assertEquals(0.1, graph.edgeWeight(ab));
+        assertEquals(precise, graph.exactWeight(ab));
+        assertEquals(new BigDecimal("0.2"), graph.exactWeight(ab + 1));
+        assertEquals(new BigDecimal("3.10000000000000000001"), graph.exactLength(new int[]{ab, ab + 2}));
+
+        // Те же исходные значения при сборке из отчёта построения, потоком и после изменений
+        StreamingGraphBuilder streaming = new StreamingGraphBuilder(WeightFormula.DEFAULT_EDGE);
+        nodes.forEach(streaming::accept);
+        List<CompiledGraph> graphs = List.of(
+                NetworkGraphUtils.build(nodes, WeightFormula.DEFAULT_EDGE, WeightFormula.DEFAULT_NODE).compile(),
+                streaming.build().getGraph(),
+                GraphMutator.apply(graph, List.of(new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, "B", "C",
+                        BigDecimal.ONE))),
+                GraphMutator.apply(graph, List.of(new GraphMutation(GraphMutation.Type.ADD_NODE, "D", null, null,
+                        null))),
+                VersionedGraph.of(graph, 0).apply(List.of(new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, "A",
+                        "C", new BigDecimal("0.2"))), 1).compile());
+        for (CompiledGraph copy : graphs) {
+            assertEquals(precise, copy.exactWeight(copy.edgesStart(copy.id("A"))));
+        }
+
+        // Новый вес заменяет исходный, неизменённые рёбра сохраняют свои
+        BigDecimal updated = new BigDecimal("2.00000000000000000003");
+        double[] weights = graph.weights();
+        weights[ab + 1] = updated.doubleValue();
+        CompiledGraph reweighted = graph.withWeights(weights, Map.of(ab + 1, updated));
+        assertEquals(precise, reweighted.exactWeight(ab));
+        assertEquals(updated, reweighted.exactWeight(ab + 1));
+        weights[ab] = 5;
+        assertEquals(new BigDecimal("5.0"), graph.withWeights(weights).exactWeight(ab));
+        CompiledGraph mutated = GraphMutator.apply(graph, List.of(new GraphMutation(GraphMutation.Type.SET_WEIGHT,
+                null, "A", "B", new BigDecimal("0.5"))));
+        assertEquals(0, new BigDecimal("0.5").compareTo(mutated.exactWeight(mutated.edgesStart(mutated.id("A")))));
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static com.app.network_graph_api.utils.TestGraphs.weight;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyTest {
+
+    private final ShortestPathAlgorithmDijkstra dijkstra = new ShortestPathAlgorithmDijkstra();
+
+    @Test
+    public void testMatchesDijkstraOnGrid() {
+        CompiledGraph graph = grid(25, 25, new Random(17));
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        assertTrue(hierarchy.isAvailable());
+
+        Random random = new Random(19);
+        for (int i = 0; i < 300; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+            ShortestPath expected = dijkstra.find(graph, source, target);
+            ShortestPath actual = hierarchy.find(source, target);
+            assertEquals(expected.getDistance(), actual.getDistance(), 1e-9);
+            // Шорткаты развёрнуты в исходные рёбра графа
+            assertEquals(source, actual.getNodes()[0]);
+            assertEquals(actual.getDistance(), weight(graph, actual), 1e-9);
+        }
+    }
+
+    @Test
+    public void testMatchesDijkstraOnSparseDirectedGraph() {
+        Random random = new Random(23);
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int nodeCount = 200;
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int i = 0; i < nodeCount * 3; i++) {
+            builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(20));
+        }
+        CompiledGraph graph = builder.build();
+        ContractionHierarchy hierarchy = ContractionHierarchy.fromBytes(ContractionHierarchy.build(graph).toBytes(), graph);
+        assertNotNull(hierarchy);
+
+        for (int source = 0; source < nodeCount; source += 7) {
+            ShortestPathTree tree = ShortestPathTree.compute(graph, source);
+            for (int target = 0; target < nodeCount; target++) {
+                ShortestPath actual = hierarchy.find(source, target);
+                if (Double.isInfinite(tree.distance(target))) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(tree.distance(target), actual.getDistance(), 1e-9);
+                    assertEquals(actual.getDistance(), weight(graph, actual), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeWeightsFallBackToDijkstra() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        builder.addEdge(a, b, 5).addEdge(b, c, -2).addEdge(a, c, 4);
+        CompiledGraph graph = builder.build();
+
+        assertFalse(ContractionHierarchy.build(graph).isAvailable());
+        assertEquals(dijkstra.find(graph, a, c).getDistance(), ShortestPathAlgorithm.CH.find(graph, a, c).getDistance());
+    }
+
+    @Test
+    public void testWorkspacePoolIsBounded() throws Exception {
+        CompiledGraph graph = grid(20, 20, new Random(29));
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        long empty = hierarchy.memoryFootprint();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2 * ContractionHierarchy.MAX_POOLED_WORKSPACES);
+        try {
+            List<Future<Double>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int source = i % graph.nodeCount();
+                futures.add(executor.submit(() -> hierarchy.find(source, graph.nodeCount() - 1 - source).getDistance()));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                int source = i % graph.nodeCount();
+                assertEquals(dijkstra.find(graph, source, graph.nodeCount() - 1 - source).getDistance(),
+                        futures.get(i).get(), 1e-9);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Свободных рабочих массивов не больше размера пула, и они учтены в объёме иерархии
+        long pooled = hierarchy.memoryFootprint() - empty;
+        assertTrue(pooled > 0);
+        assertTrue(pooled <= ContractionHierarchy.MAX_POOLED_WORKSPACES * (64L + 57L * graph.nodeCount()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static com.app.network_graph_api.utils.TestGraphs.weight;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaSteppingTest {
+
+    @Test
+    public void testTreeMatchesDijkstra() {
+        CompiledGraph graph = grid(60, 60, new Random(41));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (double delta : new double[]{DeltaStepping.autoDelta(graph), 0.5, 7, 1000}) {
+                DeltaStepping deltaStepping = new DeltaStepping(graph, delta, pool);
+                for (int source = 0; source < graph.nodeCount(); source += 977) {
+                    ShortestPathTree expected = ShortestPathTree.compute(graph, source);
+                    ShortestPathTree actual = deltaStepping.tree(source);
+                    for (int node = 0; node < graph.nodeCount(); node++) {
+                        assertEquals(expected.distance(node), actual.distance(node), 1e-9);
+                        assertEquals(actual.distance(node), weight(graph, actual.path(node)), 1e-9);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPointQueriesWithZeroWeights() {
+        Random random = new Random(43);
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int nodeCount = 400;
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int i = 0; i < nodeCount * 4; i++) {
+            builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(4));
+        }
+        CompiledGraph graph = builder.build();
+        ShortestPathAlgorithmDijkstra dijkstra = new ShortestPathAlgorithmDijkstra();
+
+        for (int i = 0; i < 200; i++) {
+            int source = random.nextInt(nodeCount);
+            int target = random.nextInt(nodeCount);
+            ShortestPath expected = dijkstra.find(graph, source, target);
+            ShortestPath actual = ShortestPathAlgorithm.DELTA.find(graph, source, target);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.getDistance(), actual.getDistance(), 1e-9);
+                assertEquals(source, actual.getNodes()[0]);
+                assertEquals(target, actual.getNodes()[actual.getNodes().length - 1]);
+                assertEquals(actual.getDistance(), weight(graph, actual), 1e-9);
+            }
+        }
+    }
+}
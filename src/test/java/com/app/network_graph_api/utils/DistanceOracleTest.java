@@ -0,0 +1,51 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static com.app.network_graph_api.utils.TestGraphs.weight;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceOracleTest {
+
+    @Test
+    public void testMatchesShortestPathTrees() throws Exception {
+        CompiledGraph graph = grid(15, 15, new Random(3));
+        DistanceOracle oracle = DistanceOracle.build(graph, ForkJoinPool.commonPool());
+
+        for (int source = 0; source < graph.nodeCount(); source += 11) {
+            ShortestPathTree tree = ShortestPathTree.compute(graph, source);
+            for (int target = 0; target < graph.nodeCount(); target++) {
+                assertEquals(tree.distance(target), oracle.distance(source, target), 1e-9);
+                ShortestPath path = oracle.path(graph, source, target);
+                assertEquals(source, path.getNodes()[0]);
+                assertEquals(target, path.getNodes()[path.getNodes().length - 1]);
+                assertEquals(tree.distance(target), weight(graph, path), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachableAndUnsupported() throws Exception {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        builder.addNode("c");
+        builder.addEdge(a, b, 2);
+        CompiledGraph graph = builder.build();
+        DistanceOracle oracle = DistanceOracle.build(graph, ForkJoinPool.commonPool());
+
+        assertNull(oracle.path(graph, b, a));
+        assertEquals(1, oracle.path(graph, a, b).getEdges().length);
+        graph.attachIndex(DistanceOracle.class, oracle);
+        assertEquals(2.0, ShortestPathAlgorithm.ORACLE.find(graph, a, b).getDistance());
+
+        CompiledGraph.Builder negativeBuilder = CompiledGraph.builder();
+        negativeBuilder.addEdge(negativeBuilder.addNode("x"), negativeBuilder.addNode("y"), -1);
+        CompiledGraph negative = negativeBuilder.build();
+        assertThrows(IllegalArgumentException.class, () -> DistanceOracle.build(negative, ForkJoinPool.commonPool()));
+    }
+}
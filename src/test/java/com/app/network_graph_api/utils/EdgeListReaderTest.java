@@ -0,0 +1,117 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EdgeListReaderTest {
+
+    @Test
+    public void testCsv() throws IOException {
+        String csv = "source,target,weight\r\n"
+                + "# comment\n"
+                + "a,b,1.5\r\n"
+                + "\n"
+                + " b ; \"c\" ; -2e1\n"
+                + "a\tc\t0.125\n"
+                + "c,a";
+        CompiledGraph graph = EdgeListReader.read(file(csv.getBytes(StandardCharsets.UTF_8)), EdgeListReader.Format.CSV);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(0, graph.id("a"));
+        assertEquals(1, graph.id("b"));
+        assertEquals(2, graph.id("c"));
+        assertEquals(1.5, graph.edgeWeight(graph.edgesStart(0)));
+        assertEquals(0.125, graph.edgeWeight(graph.edgesStart(0) + 1));
+        assertEquals(-20.0, graph.edgeWeight(graph.edgesStart(1)));
+        assertEquals(1.0, graph.edgeWeight(graph.edgesStart(2)));
+    }
+
+    @Test
+    public void testCsvAcrossWindows() throws IOException {
+        Random random = new Random(1);
+        CompiledGraph expected = TestGraphs.random(3000, 20000, true, random, w -> w * 0.37 - 1);
+        StringBuilder csv = new StringBuilder();
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            for (int edge = expected.edgesStart(node); edge < expected.edgesEnd(node); edge++) {
+                csv.append(expected.name(node)).append(',').append(expected.name(expected.edgeTarget(edge)))
+                        .append(',').append(expected.edgeWeight(edge)).append('\n');
+            }
+        }
+        // Окно минимального размера: строки разрываются границами окон
+        CompiledGraph graph = EdgeListReader.read(file(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                EdgeListReader.Format.CSV, EdgeListReader.MAX_LINE);
+
+        assertEquals(expected.edgeCount(), graph.edgeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int original = expected.id(graph.name(node));
+            assertEquals(expected.degree(original), graph.degree(node));
+            for (int i = 0; i < graph.degree(node); i++) {
+                int edge = graph.edgesStart(node) + i;
+                int expectedEdge = expected.edgesStart(original) + i;
+                assertEquals(expected.name(expected.edgeTarget(expectedEdge)), graph.name(graph.edgeTarget(edge)));
+                assertEquals(expected.edgeWeight(expectedEdge), graph.edgeWeight(edge));
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        CompiledGraph expected = TestGraphs.random(5000, 30000, true, new Random(2), w -> w / 3.0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EdgeListReader.writeBinary(expected, bytes);
+
+        CompiledGraph graph = EdgeListReader.read(file(bytes.toByteArray()), EdgeListReader.Format.BINARY,
+                EdgeListReader.MAX_LINE);
+        TestGraphs.assertSameGraph(expected, graph);
+
+        byte[] truncated = java.util.Arrays.copyOf(bytes.toByteArray(), bytes.size() - 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> EdgeListReader.read(file(truncated), EdgeListReader.Format.BINARY));
+        assertThrows(IllegalArgumentException.class,
+                () -> EdgeListReader.read(file("a,b,1\n".getBytes(StandardCharsets.UTF_8)), EdgeListReader.Format.BINARY));
+    }
+
+    @Test
+    public void testParseWeights() throws IOException {
+        Random random = new Random(3);
+        String[] samples = {"0", "-0.0", "+7", "1e3", "2.5E-3", "0.000123", "123456789012345678901234", "1e-30",
+                "3.141592653589793", ".5", "5.", "9007199254740993"};
+        StringBuilder csv = new StringBuilder();
+        for (String sample : samples) {
+            csv.append("a,b,").append(sample).append('\n');
+        }
+        for (int i = 0; i < 1000; i++) {
+            csv.append("a,b,").append(random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10)).append('\n');
+        }
+        String text = csv.toString();
+        CompiledGraph graph = EdgeListReader.read(file(text.getBytes(StandardCharsets.UTF_8)), EdgeListReader.Format.CSV);
+        String[] lines = text.split("\n");
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            assertEquals(Double.parseDouble(lines[edge].substring(4)), graph.edgeWeight(edge));
+        }
+
+        for (String invalid : new String[]{"a,b,1\nb,c,x\n", "a,b,1\nb,c,1e\n", "a,b,NaN\na,b,1\nb,c,Infinity\n", "a\n"}) {
+            assertThrows(IllegalArgumentException.class, () -> EdgeListReader.read(
+                    file(invalid.getBytes(StandardCharsets.UTF_8)), EdgeListReader.Format.CSV), invalid);
+        }
+    }
+
+    private static Path file(byte[] content) throws IOException {
+        Path file = Files.createTempFile("edge-list-test-", ".tmp");
+        file.toFile().deleteOnExit();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(content);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedPointWeightsTest {
+
+    @Test
+    public void testExactTotal() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        builder.addEdge(a, b, 0.1);
+        builder.addEdge(b, c, 0.2);
+        builder.addEdge(a, c, 0.30000000000000004);
+        CompiledGraph graph = builder.build();
+
+        // В double оба пути равны, точно - путь через b короче; 17 знаков не помещаются в фиксированную точку
+        assertNull(FixedPointWeights.of(graph));
+        ShortestPath exact = DecimalDijkstra.find(graph, a, c);
+        assertArrayEquals(new int[]{a, b, c}, exact.getNodes());
+        assertEquals(new BigDecimal("0.3"), graph.exactLength(exact.getEdges()));
+    }
+
+    @Test
+    public void testFixedPointMatchesDecimal() {
+        Random random = new Random(3);
+        CompiledGraph graph = TestGraphs.grid(20, 20, random);
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            builder.addNode(graph.name(node));
+        }
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                builder.addEdge(node, graph.edgeTarget(edge), random.nextInt(1000) / 100.0);
+            }
+        }
+        CompiledGraph decimal = builder.build();
+        FixedPointWeights weights = FixedPointWeights.of(decimal);
+        assertNotNull(weights);
+        assertEquals(2, weights.scale());
+
+        ShortestPathAlgorithmDijkstra dijkstra = new ShortestPathAlgorithmDijkstra();
+        for (int i = 0; i < 50; i++) {
+            int source = random.nextInt(decimal.nodeCount());
+            int target = random.nextInt(decimal.nodeCount());
+            ShortestPath fixed = weights.find(decimal, source, target);
+            ShortestPath exact = DecimalDijkstra.find(decimal, source, target);
+            ShortestPath fast = dijkstra.find(decimal, source, target);
+            assertEquals(0, decimal.exactLength(exact.getEdges()).compareTo(decimal.exactLength(fixed.getEdges())));
+            assertEquals(0, decimal.exactLength(exact.getEdges()).compareTo(decimal.exactLength(fast.getEdges())));
+        }
+    }
+
+    @Test
+    public void testUnrepresentableWeights() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        builder.addEdge(a, b, 1.0 / 3);
+        assertNull(FixedPointWeights.of(builder.build()));
+
+        CompiledGraph.Builder negative = CompiledGraph.builder();
+        negative.addEdge(negative.addNode("a"), negative.addNode("b"), -1);
+        assertNull(FixedPointWeights.of(negative.build()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphAnalyticsTest {
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    @Test
+    public void testPageRank() throws Exception {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < 5; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int node = 0; node < 5; node++) {
+            builder.addEdge(node, (node + 1) % 5, 1);
+        }
+        double[] cycle = GraphAnalytics.pageRank(builder.build(), 0.85, 100, 1e-12, pool, p -> {
+        });
+        for (double rank : cycle) {
+            assertEquals(0.2, rank, 1e-9);
+        }
+
+        // Звезда с висячим центром: сумма рангов остаётся равной 1, центр важнее листьев
+        CompiledGraph.Builder star = CompiledGraph.builder();
+        int center = star.addNode("center");
+        for (int leaf = 0; leaf < 4; leaf++) {
+            star.addEdge(star.addNode("leaf" + leaf), center, 1);
+        }
+        double[] ranks = GraphAnalytics.pageRank(star.build(), 0.85, 100, 1e-12, pool, p -> {
+        });
+        assertEquals(1.0, Arrays.stream(ranks).sum(), 1e-9);
+        assertTrue(ranks[center] > ranks[1]);
+    }
+
+    @Test
+    public void testBetweennessMatchesPathCounting() throws Exception {
+        Random random = new Random(47);
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int nodeCount = 30;
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int i = 0; i < nodeCount * 3; i++) {
+            builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), 1 + random.nextInt(3));
+        }
+        CompiledGraph graph = builder.build();
+
+        double[] actual = GraphAnalytics.betweenness(graph, 0, 0, pool, p -> {
+        });
+        double[] expected = bruteForceBetweenness(graph);
+        for (int node = 0; node < nodeCount; node++) {
+            assertEquals(expected[node], actual[node], 1e-6, "node " + node);
+        }
+    }
+
+    @Test
+    public void testExactClosenessAndNegativeWeights() throws Exception {
+        CompiledGraph graph = TestGraphs.grid(6, 6, new Random(53));
+        double[] closeness = GraphAnalytics.closeness(graph, 0, 0, pool, p -> {
+        });
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            ShortestPathTree tree = ShortestPathTree.compute(graph, node);
+            double sum = Arrays.stream(tree.getDistances()).filter(d -> !Double.isInfinite(d)).sum();
+            assertEquals((graph.nodeCount() - 1) / sum, closeness[node], 1e-9);
+        }
+
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        builder.addEdge(builder.addNode("a"), builder.addNode("b"), -1);
+        assertThrows(IllegalArgumentException.class, () -> GraphAnalytics.betweenness(builder.build(), 0, 0, pool, p -> {
+        }));
+    }
+
+    private static double[] bruteForceBetweenness(CompiledGraph graph) {
+        int nodeCount = graph.nodeCount();
+        double[][] distances = new double[nodeCount][];
+        double[][] paths = new double[nodeCount][];
+        for (int source = 0; source < nodeCount; source++) {
+            distances[source] = ShortestPathTree.compute(graph, source).getDistances();
+            double[] distance = distances[source];
+            Integer[] order = new Integer[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                order[node] = node;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(node -> distance[node]));
+            paths[source] = new double[nodeCount];
+            paths[source][source] = 1;
+            for (int node : order) {
+                if (Double.isInfinite(distance[node])) {
+                    continue;
+                }
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    int next = graph.edgeTarget(edge);
+                    if (distance[node] + graph.edgeWeight(edge) == distance[next]) {
+                        paths[source][next] += paths[source][node];
+                    }
+                }
+            }
+        }
+
+        double[] centrality = new double[nodeCount];
+        for (int s = 0; s < nodeCount; s++) {
+            for (int t = 0; t < nodeCount; t++) {
+                if (s == t || Double.isInfinite(distances[s][t])) {
+                    continue;
+                }
+                for (int v = 0; v < nodeCount; v++) {
+                    if (v != s && v != t && distances[s][v] + distances[v][t] == distances[s][t]) {
+                        centrality[v] += paths[s][v] * paths[v][t] / paths[s][t];
+                    }
+                }
+            }
+        }
+        return centrality;
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.assertSameGraph;
+import static com.app.network_graph_api.utils.TestGraphs.node;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphMutatorTest {
+
+    @Test
+    public void testCompiledMatchesNodes() {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            List<NetworkNode> nodes = TestGraphs.nodes(60, random);
+            CompiledGraph graph = CompiledGraph.of(nodes);
+            for (int step = 0; step < 200; step++) {
+                List<GraphMutation> operations = List.of(randomOperation(graph, random, step));
+                graph = GraphMutator.apply(graph, operations);
+                assertSameGraph(CompiledGraph.of(GraphMutator.apply(nodes, operations)), graph);
+            }
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        List<NetworkNode> nodes = new ArrayList<>(List.of(node("a", "b", 1, "c", 2), node("b", "c", 3, "x", 4),
+                node("c")));
+        List<GraphMutation> operations = List.of(
+                new GraphMutation(GraphMutation.Type.ADD_NODE, "x", null, null, null),
+                new GraphMutation(GraphMutation.Type.ADD_EDGE, null, "x", "a", BigDecimal.valueOf(5)),
+                new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, "a", "c", BigDecimal.valueOf(7)),
+                new GraphMutation(GraphMutation.Type.REMOVE_NODE, "b", null, null, null),
+                new GraphMutation(GraphMutation.Type.REMOVE_EDGE, null, "a", "c", null),
+                new GraphMutation(GraphMutation.Type.ADD_EDGE, null, "c", "x", BigDecimal.valueOf(6)));
+
+        CompiledGraph graph = GraphMutator.apply(CompiledGraph.of(nodes), operations);
+        assertSameGraph(CompiledGraph.of(GraphMutator.apply(nodes, operations)), graph);
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(-1, graph.id("b"));
+        assertEquals(graph.id("a"), graph.edgeTarget(graph.edgesStart(graph.id("x"))));
+        // Соединение добавлено в описание c, параметр стоит на месте соединения
+        assertEquals(List.of("x"), nodes.get(nodes.size() - 2).getConnectedNodes());
+        assertEquals(List.of(BigDecimal.valueOf(6)), nodes.get(nodes.size() - 2).getParameters());
+    }
+
+    @Test
+    public void testWeightChangeSharesDictionary() {
+        CompiledGraph graph = CompiledGraph.of(List.of(node("a", "b", 1), node("b", "a", 2), node("c", "a", 3)));
+        CompiledGraph updated = GraphMutator.apply(graph, List.of(
+                new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, "b", "a", BigDecimal.valueOf(9))));
+        assertEquals(9.0, updated.edgeWeight(updated.edgesStart(updated.id("b"))));
+        assertEquals(1.0, updated.edgeWeight(updated.edgesStart(updated.id("a"))));
+        assertEquals(2.0, graph.edgeWeight(graph.edgesStart(graph.id("b"))));
+        assertEquals(graph.nodeCount(), updated.nodeCount());
+    }
+
+    @Test
+    public void testErrors() {
+        CompiledGraph graph = CompiledGraph.of(List.of(node("a", "b", 1), node("b")));
+        assertThrows(NoSuchElementException.class, () -> GraphMutator.apply(graph, List.of(
+                new GraphMutation(GraphMutation.Type.REMOVE_NODE, "c", null, null, null))));
+        assertThrows(NoSuchElementException.class, () -> GraphMutator.apply(graph, List.of(
+                new GraphMutation(GraphMutation.Type.REMOVE_EDGE, null, "b", "a", null))));
+        assertThrows(IllegalArgumentException.class, () -> GraphMutator.apply(graph, List.of(
+                new GraphMutation(GraphMutation.Type.ADD_NODE, "a", null, null, null))));
+        assertThrows(IllegalArgumentException.class, () -> GraphMutator.apply(graph, List.of(
+                new GraphMutation(GraphMutation.Type.ADD_EDGE, null, "a", "b", null))));
+        assertThrows(IllegalArgumentException.class, () -> GraphMutator.apply(graph, List.of(new GraphMutation())));
+    }
+
+    /**
+     * Допустимая для текущего графа операция; новые имена иногда совпадают с висячими ссылками исходных узлов
+     */
+    static GraphMutation randomOperation(CompiledGraph graph, Random random, int step) {
+        int kind = random.nextInt(10);
+        if (graph.nodeCount() < 2 || kind == 0) {
+            String name = random.nextBoolean() ? "missing" + random.nextInt(5) : "new" + step;
+            if (graph.id(name) < 0) {
+                return new GraphMutation(GraphMutation.Type.ADD_NODE, name, null, null, null);
+            }
+        }
+        String from = graph.name(random.nextInt(graph.nodeCount()));
+        String to = graph.name(random.nextInt(graph.nodeCount()));
+        BigDecimal weight = BigDecimal.valueOf(random.nextInt(100));
+        if (kind == 1) {
+            return new GraphMutation(GraphMutation.Type.REMOVE_NODE, from, null, null, null);
+        }
+        if (kind <= 4 || graph.edgeCount() == 0) {
+            return new GraphMutation(GraphMutation.Type.ADD_EDGE, null, from, to, weight);
+        }
+        int edge = random.nextInt(graph.edgeCount());
+        from = graph.name(graph.edgeSource(edge));
+        to = graph.name(graph.edgeTarget(edge));
+        return kind <= 6
+                ? new GraphMutation(GraphMutation.Type.REMOVE_EDGE, null, from, to, null)
+                : new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, from, to, weight);
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.distances;
+import static com.app.network_graph_api.utils.TestGraphs.random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphStatisticsTest {
+
+    @Test
+    public void testPlan() {
+        assertEquals(ShortestPathAlgorithm.BFS, plan(random(200, 800, true, new Random(1), w -> 2)));
+        assertEquals(ShortestPathAlgorithm.ZERO_ONE_BFS, plan(random(200, 800, true, new Random(2), w -> w % 2 * 3)));
+        assertEquals(ShortestPathAlgorithm.DAG, plan(random(200, 800, false, new Random(3), w -> w - 4)));
+        assertEquals(ShortestPathAlgorithm.DIJKSTRA, plan(random(200, 800, true, new Random(4), TestGraphs::negative)));
+        assertEquals(ShortestPathAlgorithm.DIJKSTRA, plan(random(200, 800, true, new Random(5), w -> w + 1.5)));
+    }
+
+    @Test
+    public void testSpecializedAlgorithmsMatchReference() {
+        check(random(300, 1500, true, new Random(6), w -> 1), ShortestPathAlgorithm.BFS);
+        check(random(300, 1500, true, new Random(7), w -> w % 2 * 0.25), ShortestPathAlgorithm.ZERO_ONE_BFS);
+        check(random(300, 1500, false, new Random(8), w -> w - 3), ShortestPathAlgorithm.DAG);
+        check(random(300, 1500, true, new Random(9), TestGraphs::negative), ShortestPathAlgorithm.BELLMAN_FORD);
+    }
+
+    @Test
+    public void testNotApplicableAlgorithmFallsBack() {
+        CompiledGraph graph = random(100, 400, true, new Random(10), w -> w + 1.5);
+        assertEquals(ShortestPathAlgorithm.DIJKSTRA, ShortestPathAlgorithm.BFS.resolve(graph));
+        assertEquals(ShortestPathAlgorithm.DIJKSTRA, ShortestPathAlgorithm.DAG.resolve(graph));
+        assertEquals(ShortestPathAlgorithm.CH, ShortestPathAlgorithm.CH.resolve(graph));
+        check(graph, ShortestPathAlgorithm.BFS);
+    }
+
+    @Test
+    public void testNegativeCycle() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        builder.addEdge(a, b, 1);
+        builder.addEdge(b, c, -2);
+        builder.addEdge(c, b, 1);
+        CompiledGraph graph = builder.build();
+
+        assertThrows(IllegalArgumentException.class, () -> ShortestPathAlgorithm.BELLMAN_FORD.find(graph, a, c));
+    }
+
+    @Test
+    public void testBytesRoundTrip() {
+        CompiledGraph graph = random(100, 300, false, new Random(11), w -> w);
+        GraphStatistics statistics = GraphStatistics.compute(graph);
+        GraphStatistics restored = GraphStatistics.fromBytes(statistics.toBytes(), graph);
+        assertNotNull(restored);
+        assertTrue(restored.acyclic());
+        assertArrayEquals(statistics.topologicalOrder(), restored.topologicalOrder());
+        assertEquals(statistics.minWeight(), restored.minWeight());
+        assertEquals(statistics.zeroOneWeights(), restored.zeroOneWeights());
+
+        CompiledGraph other = random(101, 300, false, new Random(11), w -> w);
+        assertNull(GraphStatistics.fromBytes(statistics.toBytes(), other));
+    }
+
+    private static ShortestPathAlgorithm plan(CompiledGraph graph) {
+        return ShortestPathAlgorithm.AUTO.resolve(graph);
+    }
+
+    private static void check(CompiledGraph graph, ShortestPathAlgorithm algorithm) {
+        Random random = new Random(graph.nodeCount());
+        for (int i = 0; i < 100; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+            double expected = distances(graph, source)[target];
+            ShortestPath actual = algorithm.find(graph, source, target);
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(actual);
+                continue;
+            }
+            assertNotNull(actual);
+            assertEquals(expected, actual.getDistance(), 1e-9);
+            assertEquals(source, actual.getNodes()[0]);
+            assertEquals(target, actual.getNodes()[actual.getNodes().length - 1]);
+            assertEquals(actual.getDistance(), TestGraphs.weight(graph, actual), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JohnsonPotentialsTest {
+
+    @Test
+    public void testReducedWeightsAreNonNegative() {
+        CompiledGraph graph = TestGraphs.random(300, 1500, true, new Random(1), TestGraphs::negative);
+        JohnsonPotentials potentials = JohnsonPotentials.compute(graph);
+        assertFalse(potentials.hasNegativeCycle());
+        CompiledGraph reweighted = potentials.reweighted(graph);
+        assertTrue(reweighted.minWeight() >= 0);
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            assertEquals(graph.edgeWeight(edge) + potentials.potential(graph.edgeSource(edge))
+                    - potentials.potential(graph.edgeTarget(edge)), reweighted.edgeWeight(edge), 1e-9);
+        }
+    }
+
+    @Test
+    public void testDijkstraOnNegativeWeights() {
+        CompiledGraph graph = TestGraphs.random(300, 1500, true, new Random(2), TestGraphs::negative);
+        ShortestPathAlgorithmDijkstra dijkstra = new ShortestPathAlgorithmDijkstra();
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+            double expected = TestGraphs.distances(graph, source)[target];
+            ShortestPath path = dijkstra.find(graph, source, target);
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(path);
+                continue;
+            }
+            assertNotNull(path);
+            assertEquals(expected, path.getDistance(), 1e-9);
+            assertEquals(path.getDistance(), TestGraphs.weight(graph, path), 1e-9);
+        }
+    }
+
+    @Test
+    public void testNegativeCycle() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        int d = builder.addNode("d");
+        builder.addEdge(a, b, 1);
+        builder.addEdge(b, c, 2);
+        builder.addEdge(c, d, -4);
+        builder.addEdge(d, b, 1);
+        CompiledGraph graph = builder.build();
+
+        JohnsonPotentials potentials = JohnsonPotentials.compute(graph);
+        assertTrue(potentials.hasNegativeCycle());
+        int[] cycle = potentials.negativeCycle();
+        assertEquals(cycle[0], cycle[cycle.length - 1]);
+        assertEquals(4, cycle.length);
+        double total = 0;
+        for (int i = 0; i + 1 < cycle.length; i++) {
+            double lightest = Double.POSITIVE_INFINITY;
+            for (int edge = graph.edgesStart(cycle[i]); edge < graph.edgesEnd(cycle[i]); edge++) {
+                if (graph.edgeTarget(edge) == cycle[i + 1]) {
+                    lightest = Math.min(lightest, graph.edgeWeight(edge));
+                }
+            }
+            total += lightest;
+        }
+        assertEquals(-1, total, 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPathAlgorithmDijkstra().find(graph, a, d));
+    }
+
+    @Test
+    public void testBytesRoundTrip() {
+        CompiledGraph graph = TestGraphs.random(100, 400, true, new Random(4), TestGraphs::negative);
+        JohnsonPotentials potentials = JohnsonPotentials.compute(graph);
+        JohnsonPotentials restored = JohnsonPotentials.fromBytes(potentials.toBytes(), graph);
+        assertNotNull(restored);
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(potentials.potential(node), restored.potential(node));
+        }
+
+        // Нулевые потенциалы графа без отрицательных весов не подходят графу с отрицательными
+        CompiledGraph positive = TestGraphs.random(100, 400, true, new Random(4), w -> w + 1);
+        assertNull(JohnsonPotentials.fromBytes(JohnsonPotentials.compute(positive).toBytes(), graph));
+    }
+}
@@ -0,0 +1,142 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaxFlowTest {
+
+    @Test
+    public void testClassicNetwork() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int s = builder.addNode("s");
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int t = builder.addNode("t");
+        builder.addEdge(s, a, 3);
+        builder.addEdge(s, b, 2);
+        builder.addEdge(a, b, 1);
+        builder.addEdge(a, t, 2);
+        builder.addEdge(b, t, 3);
+        CompiledGraph graph = builder.build();
+
+        MaxFlow flow = MaxFlow.compute(graph, s, t);
+        assertEquals(5, flow.getValue(), 1e-9);
+        assertTrue(flow.isSourceSide(s));
+        assertFalse(flow.isSourceSide(t));
+        assertEquals(0, MaxFlow.compute(graph, t, s).getValue());
+    }
+
+    @Test
+    public void testMatchesEdmondsKarp() {
+        Random random = new Random(29);
+        for (int round = 0; round < 30; round++) {
+            int nodeCount = 5 + random.nextInt(40);
+            CompiledGraph.Builder builder = CompiledGraph.builder();
+            for (int node = 0; node < nodeCount; node++) {
+                builder.addNode("n" + node);
+            }
+            for (int i = 0; i < nodeCount * 4; i++) {
+                builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(10));
+            }
+            CompiledGraph graph = builder.build();
+
+            MaxFlow flow = MaxFlow.compute(graph, 0, nodeCount - 1);
+            assertEquals(edmondsKarp(graph, 0, nodeCount - 1), flow.getValue(), 1e-9);
+            assertFlowValid(graph, flow);
+
+            double cut = 0;
+            for (int edge : flow.cutEdges()) {
+                cut += graph.edgeWeight(edge);
+                assertEquals(graph.edgeWeight(edge), flow.flow(edge), 1e-9);
+            }
+            assertEquals(flow.getValue(), cut, 1e-9);
+        }
+    }
+
+    @Test
+    public void testLongChain() {
+        // Путь длиной 10^5 рёбер не должен переполнять стек
+        int nodeCount = 100_000;
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int node = 0; node + 1 < nodeCount; node++) {
+            builder.addEdge(node, node + 1, node == nodeCount / 2 ? 0.5 : 2);
+        }
+        MaxFlow flow = MaxFlow.compute(builder.build(), 0, nodeCount - 1);
+        assertEquals(0.5, flow.getValue(), 1e-12);
+        assertEquals(1, flow.cutEdges().length);
+    }
+
+    @Test
+    public void testRejectsInvalidInput() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        builder.addEdge(a, b, -1);
+        CompiledGraph graph = builder.build();
+        assertThrows(IllegalArgumentException.class, () -> MaxFlow.compute(graph, a, b));
+        assertThrows(IllegalArgumentException.class, () -> MaxFlow.compute(graph, a, a));
+    }
+
+    private static void assertFlowValid(CompiledGraph graph, MaxFlow flow) {
+        double[] balance = new double[graph.nodeCount()];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            double value = flow.flow(edge);
+            assertTrue(value <= graph.edgeWeight(edge) + 1e-9);
+            balance[graph.edgeSource(edge)] -= value;
+            balance[graph.edgeTarget(edge)] += value;
+        }
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (node != flow.getSource() && node != flow.getSink()) {
+                assertEquals(0, balance[node], 1e-9, "node " + node);
+            }
+        }
+        assertEquals(flow.getValue(), balance[flow.getSink()], 1e-9);
+    }
+
+    private static double edmondsKarp(CompiledGraph graph, int source, int sink) {
+        int n = graph.nodeCount();
+        double[][] capacity = new double[n][n];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (graph.edgeSource(edge) != graph.edgeTarget(edge)) {
+                capacity[graph.edgeSource(edge)][graph.edgeTarget(edge)] += graph.edgeWeight(edge);
+            }
+        }
+        double total = 0;
+        while (true) {
+            int[] previous = new int[n];
+            Arrays.fill(previous, -1);
+            previous[source] = source;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(source);
+            while (!queue.isEmpty() && previous[sink] < 0) {
+                int node = queue.poll();
+                for (int next = 0; next < n; next++) {
+                    if (previous[next] < 0 && capacity[node][next] > 0) {
+                        previous[next] = node;
+                        queue.add(next);
+                    }
+                }
+            }
+            if (previous[sink] < 0) {
+                return total;
+            }
+            double bottleneck = Double.POSITIVE_INFINITY;
+            for (int node = sink; node != source; node = previous[node]) {
+                bottleneck = Math.min(bottleneck, capacity[previous[node]][node]);
+            }
+            for (int node = sink; node != source; node = previous[node]) {
+                capacity[previous[node]][node] -= bottleneck;
+                capacity[node][previous[node]] += bottleneck;
+            }
+            total += bottleneck;
+        }
+    }
+}
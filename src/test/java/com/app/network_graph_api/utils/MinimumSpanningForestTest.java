@@ -0,0 +1,92 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinimumSpanningForestTest {
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    @Test
+    public void testSmallGraph() throws Exception {
+        // Направление рёбер не учитывается, петля и тяжёлое ребро в лес не попадают
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        int d = builder.addNode("d");
+        builder.addNode("isolated");
+        builder.addEdge(a, b, 1);
+        builder.addEdge(c, b, 2);
+        builder.addEdge(a, c, 5);
+        builder.addEdge(d, d, 0);
+        builder.addEdge(c, d, 3);
+        CompiledGraph graph = builder.build();
+
+        for (MinimumSpanningForest forest : new MinimumSpanningForest[]{
+                MinimumSpanningForest.kruskal(graph), MinimumSpanningForest.boruvka(graph, pool)}) {
+            assertEquals(6, forest.getTotalWeight(), 1e-9);
+            assertEquals(3, forest.getEdges().length);
+            assertEquals(2, forest.getTreeCount());
+        }
+    }
+
+    @Test
+    public void testBoruvkaMatchesKruskal() throws Exception {
+        Random random = new Random(13);
+        for (int round = 0; round < 20; round++) {
+            int nodeCount = 50 + random.nextInt(500);
+            CompiledGraph.Builder builder = CompiledGraph.builder();
+            for (int node = 0; node < nodeCount; node++) {
+                builder.addNode("n" + node);
+            }
+            int edgeCount = nodeCount * (1 + random.nextInt(4));
+            for (int i = 0; i < edgeCount; i++) {
+                // Небольшой набор весов даёт много равных рёбер
+                builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), random.nextInt(10) - 2);
+            }
+            CompiledGraph graph = builder.build();
+
+            MinimumSpanningForest kruskal = MinimumSpanningForest.kruskal(graph);
+            MinimumSpanningForest boruvka = MinimumSpanningForest.boruvka(graph, pool);
+            assertEquals(kruskal.getTotalWeight(), boruvka.getTotalWeight(), 1e-9);
+            assertEquals(kruskal.getTreeCount(), boruvka.getTreeCount());
+            assertEquals(nodeCount - kruskal.getTreeCount(), boruvka.getEdges().length);
+            assertAcyclic(graph, boruvka.getEdges());
+        }
+    }
+
+    @Test
+    public void testComputeChoosesAlgorithmBySize() throws Exception {
+        CompiledGraph graph = TestGraphs.grid(30, 30, new Random(5));
+        assertEquals(MinimumSpanningForest.Algorithm.KRUSKAL,
+                MinimumSpanningForest.compute(graph, pool, graph.edgeCount() + 1).getAlgorithm());
+        MinimumSpanningForest forest = MinimumSpanningForest.compute(graph, pool, graph.edgeCount());
+        assertEquals(MinimumSpanningForest.Algorithm.BORUVKA, forest.getAlgorithm());
+        assertEquals(1, forest.getTreeCount());
+        assertEquals(MinimumSpanningForest.kruskal(graph).getTotalWeight(), forest.getTotalWeight(), 1e-9);
+    }
+
+    private static void assertAcyclic(CompiledGraph graph, int[] edges) {
+        int[] parents = new int[graph.nodeCount()];
+        Arrays.setAll(parents, node -> node);
+        for (int edge : edges) {
+            int a = find(parents, graph.edgeSource(edge));
+            int b = find(parents, graph.edgeTarget(edge));
+            assertNotEquals(a, b, "cycle through edge " + edge);
+            parents[a] = b;
+        }
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            node = parents[node];
+        }
+        return node;
+    }
+}
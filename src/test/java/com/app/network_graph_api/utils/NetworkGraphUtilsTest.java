@@ -1,5 +1,6 @@
 package com.app.network_graph_api.utils;
 
+import com.app.network_graph_api.model.api.GraphBuildIssue;
 import com.app.network_graph_api.model.api.NetworkGraph;
 import com.app.network_graph_api.model.api.NetworkGraphEdge;
 import com.app.network_graph_api.model.api.NetworkGraphNode;
@@ -7,7 +8,9 @@ import com.app.network_graph_api.model.api.NetworkNode;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -122,4 +125,74 @@ class NetworkGraphUtilsTest {
         assertEquals(1, convertedNodeA.getParameters().size());
         assertEquals(BigDecimal.valueOf(7), convertedNodeA.getParameters().get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBuildReportsIssues() {
+        NetworkNode nodeA = new NetworkNode();
+        nodeA.setName("A");
+        nodeA.setConnectedNodes(Arrays.asList("B", "X", "C"));
+        nodeA.setParameters(Arrays.asList(BigDecimal.valueOf(2), BigDecimal.valueOf(3)));
+
+        NetworkNode nodeB = new NetworkNode();
+        nodeB.setName("B");
+        nodeB.setConnectedNodes(Arrays.asList("A"));
+        nodeB.setParameters(Arrays.asList(BigDecimal.ONE));
+
+        NetworkNode duplicateB = new NetworkNode();
+        duplicateB.setName("B");
+
+        NetworkNode nodeC = new NetworkNode();
+        nodeC.setName("C");
+
+        NetworkGraphUtils.BuildResult result = NetworkGraphUtils.build(
+                Arrays.asList(nodeA, nodeB, duplicateB, nodeC), WeightFormula.DEFAULT_EDGE, WeightFormula.DEFAULT_NODE);
+
+        List<GraphBuildIssue> issues = result.getIssues();
+        assertEquals(3, issues.size());
+        assertEquals(GraphBuildIssue.Type.DUPLICATE_NODE, issues.get(0).getType());
+        assertEquals("B", issues.get(0).getNode());
+        assertEquals(GraphBuildIssue.Type.COUNT_MISMATCH, issues.get(1).getType());
+        assertEquals("A", issues.get(1).getNode());
+        assertEquals(GraphBuildIssue.Type.DANGLING_REFERENCE, issues.get(2).getType());
+        assertEquals(Integer.valueOf(1), issues.get(2).getIndex());
+        assertEquals("X", issues.get(2).getReference());
+
+        // Висячая ссылка не создаёт ребра, недостающий вес равен нулю
+        NetworkGraph graph = result.getGraph();
+        assertEquals(4, graph.getNodes().size());
+        List<NetworkGraphEdge> edgesFromA = graph.getNodes().get(NetworkGraphUtils.findNodeByName(graph, "A"));
+        assertEquals(2, edgesFromA.size());
+        assertEquals("B", edgesFromA.get(0).getTargetNodeName());
+        assertEquals("C", edgesFromA.get(1).getTargetNodeName());
+        assertEquals(BigDecimal.ZERO, edgesFromA.get(1).getWeight());
+    }
+
+    @Test
+    void testBuildLargeGraphInParallel() {
+        int size = NetworkGraphUtils.PARALLEL_MIN_NODES * 2;
+        List<NetworkNode> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            NetworkNode node = new NetworkNode();
+            node.setName("n" + i);
+            node.setConnectedNodes(Arrays.asList("n" + (i + 1) % size, "n" + (i * 7 + 3) % size));
+            node.setParameters(Arrays.asList(BigDecimal.valueOf(i % 10), BigDecimal.valueOf(i % 3)));
+            nodes.add(node);
+        }
+
+        NetworkGraphUtils.BuildResult result = NetworkGraphUtils.build(nodes, WeightFormula.DEFAULT_EDGE,
+                WeightFormula.DEFAULT_NODE);
+        assertTrue(result.getIssues().isEmpty());
+
+        Map<String, NetworkGraphNode> byName = new HashMap<>();
+        result.getGraph().getNodes().keySet().forEach(node -> byName.put(node.getName(), node));
+        assertEquals(size, byName.size());
+        for (int i = 0; i < size; i += 997) {
+            NetworkGraphNode node = byName.get("n" + i);
+            assertEquals(BigDecimal.valueOf(i % 10 + i % 3), node.getValue());
+            List<NetworkGraphEdge> edges = result.getGraph().getNodes().get(node);
+            assertSame(byName.get("n" + (i + 1) % size), edges.get(0).getTo());
+            assertSame(byName.get("n" + (i * 7 + 3) % size), edges.get(1).getTo());
+            assertEquals(BigDecimal.valueOf(i % 3), edges.get(1).getWeight());
+        }
+    }
+}
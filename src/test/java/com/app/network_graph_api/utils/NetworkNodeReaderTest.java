@@ -0,0 +1,73 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkNode;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NetworkNodeReaderTest {
+
+    @Test
+    public void testFormatsReadSameNodes() throws IOException {
+        List<NetworkNode> nodes = TestGraphs.nodes(100, new Random(1));
+        StringBuilder ndjson = new StringBuilder();
+        for (NetworkNode node : nodes) {
+            ndjson.append(GsonUtils.gson().toJson(node)).append('\n');
+        }
+        String array = GsonUtils.gson().toJson(nodes);
+        String object = "{\"name\": \"ignored\", \"edgeWeightFormula\": \"w + 1\", \"networkNodes\": " + array + "}";
+
+        for (String[] input : new String[][]{{"NDJSON", ndjson.toString()}, {"JSON", array}, {"JSON", object}}) {
+            List<NetworkNode> read = new ArrayList<>();
+            int count = NetworkNodeReader.read(new StringReader(input[1]), NetworkNodeReader.Format.valueOf(input[0]),
+                    read::add);
+            assertEquals(nodes.size(), count);
+            for (int i = 0; i < nodes.size(); i++) {
+                assertEquals(nodes.get(i).getName(), read.get(i).getName());
+                assertEquals(nodes.get(i).getConnectedNodes(), read.get(i).getConnectedNodes());
+                assertEquals(nodes.get(i).getParameters(), read.get(i).getParameters());
+            }
+        }
+    }
+
+    @Test
+    public void testHeaderFormulas() throws IOException {
+        String[] formula = new String[1];
+        NetworkNodeReader.read(new StringReader("{\"edgeWeightFormula\": \"w * 2\", \"networkNodes\": [{\"name\": \"a\"}]}"),
+                NetworkNodeReader.Format.JSON, new NetworkNodeReader.Listener() {
+                    @Override
+                    public void begin(NetworkNodeReader.Header header) {
+                        formula[0] = header.getEdgeWeightFormula();
+                    }
+
+                    @Override
+                    public void accept(NetworkNode node) {
+                        assertEquals("w * 2", formula[0]);
+                        assertTrue(node.getConnectedNodes().isEmpty());
+                    }
+                });
+        assertEquals("w * 2", formula[0]);
+    }
+
+    @Test
+    public void testMalformedInput() {
+        NetworkNodeReader.Listener ignore = node -> {
+        };
+        assertThrows(JsonParseException.class, () -> NetworkNodeReader.read(
+                new StringReader("{\"networkNodes\": [], \"edgeWeightFormula\": \"w\"}"), NetworkNodeReader.Format.JSON,
+                ignore));
+        assertThrows(JsonParseException.class, () -> NetworkNodeReader.read(
+                new StringReader("{\"nodes\": []}"), NetworkNodeReader.Format.JSON, ignore));
+        assertThrows(JsonParseException.class, () -> NetworkNodeReader.read(
+                new StringReader("{\"name\": \"a\"}\n{\"name\": "), NetworkNodeReader.Format.NDJSON, ignore));
+        assertThrows(JsonParseException.class, () -> NetworkNodeReader.read(
+                new StringReader("[{\"name\": \"a\", \"connectedNodes\": 5}]"), NetworkNodeReader.Format.JSON, ignore));
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.exception.QueryAbortedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryBudgetTest {
+
+    @Test
+    public void testDeadlineAbortsSearch() throws InterruptedException {
+        CompiledGraph graph = TestGraphs.grid(100, 100, new Random(1));
+        QueryBudget budget = new QueryBudget(1);
+        Thread.sleep(5);
+
+        QueryAbortedException e = assertThrows(QueryAbortedException.class, () -> budget.call(
+                () -> new ShortestPathAlgorithmDijkstra().find(graph, 0, graph.nodeCount() - 1)));
+        assertEquals(503, e.getStatus());
+        assertTrue(e.getSettledNodes() >= QueryBudget.CHECK_INTERVAL);
+        assertTrue(e.getElapsedMillis() >= 1);
+    }
+
+    @Test
+    public void testCancel() {
+        CompiledGraph graph = TestGraphs.grid(100, 100, new Random(2));
+        QueryBudget budget = new QueryBudget(0);
+        budget.cancel();
+
+        assertThrows(QueryAbortedException.class, () -> budget.call(
+                () -> new ShortestPathAlgorithmDijkstra().find(graph, 0, graph.nodeCount() - 1)));
+    }
+
+    @Test
+    public void testUnboundSearchIsUnlimited() {
+        CompiledGraph graph = TestGraphs.grid(100, 100, new Random(3));
+        assertSame(QueryBudget.UNLIMITED, QueryBudget.current());
+
+        assertNotNull(new ShortestPathAlgorithmDijkstra().find(graph, 0, graph.nodeCount() - 1));
+    }
+
+    @Test
+    public void testCallRestoresBinding() {
+        QueryBudget outer = new QueryBudget(0);
+        QueryBudget inner = new QueryBudget(0);
+        outer.call(() -> {
+            assertSame(outer, QueryBudget.current());
+            inner.call(() -> {
+                assertSame(inner, QueryBudget.current());
+                return null;
+            });
+            assertSame(outer, QueryBudget.current());
+            return null;
+        });
+        assertSame(QueryBudget.UNLIMITED, QueryBudget.current());
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachabilityIndexTest {
+
+    @Test
+    public void testMatchesBreadthFirstSearch() {
+        Random random = new Random(31);
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int nodeCount = 150;
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int i = 0; i < nodeCount * 3 / 2; i++) {
+            builder.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), 1);
+        }
+        CompiledGraph graph = builder.build();
+        ReachabilityIndex index = ReachabilityIndex.build(graph);
+        assertTrue(index.isExact());
+
+        for (int source = 0; source < nodeCount; source++) {
+            boolean[] reached = reachable(graph, source);
+            for (int target = 0; target < nodeCount; target++) {
+                assertEquals(reached[target], index.mayReach(source, target), source + " -> " + target);
+                if (reached[target] && reachable(graph, target)[source]) {
+                    assertEquals(index.component(source), index.component(target));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongChainWithoutClosure() {
+        // Цепочка длиннее предела замыкания: рекурсивный Тарьян переполнил бы стек
+        int nodeCount = 200_000;
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int node = 0; node + 1 < nodeCount; node++) {
+            builder.addEdge(node, node + 1, 1);
+        }
+        builder.addEdge(nodeCount - 1, nodeCount - 3, 1);
+        CompiledGraph graph = builder.build();
+        ReachabilityIndex index = ReachabilityIndex.build(graph);
+
+        assertFalse(index.isExact());
+        assertEquals(nodeCount - 2, index.componentCount());
+        assertEquals(3, index.componentSize(index.component(nodeCount - 1)));
+        assertEquals(1, index.weakComponentCount());
+        assertTrue(index.mayReach(0, nodeCount - 1));
+        assertFalse(index.mayReach(nodeCount - 1, 0));
+        assertTrue(index.mayReach(nodeCount - 1, nodeCount - 2));
+    }
+
+    private static boolean[] reachable(CompiledGraph graph, int source) {
+        boolean[] reached = new boolean[graph.nodeCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        reached[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                int next = graph.edgeTarget(edge);
+                if (!reached[next]) {
+                    reached[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+}
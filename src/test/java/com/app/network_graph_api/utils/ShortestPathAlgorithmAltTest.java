@@ -0,0 +1,69 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static com.app.network_graph_api.utils.TestGraphs.weight;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathAlgorithmAltTest {
+
+    private final ShortestPathAlgorithmAlt testTarget = new ShortestPathAlgorithmAlt();
+    private final ShortestPathAlgorithmDijkstra dijkstra = new ShortestPathAlgorithmDijkstra();
+
+    @Test
+    public void testMatchesDijkstraOnGrid() {
+        CompiledGraph graph = grid(30, 30, new Random(7));
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+            ShortestPath expected = dijkstra.find(graph, source, target);
+            ShortestPath actual = testTarget.find(graph, source, target);
+            assertEquals(expected.getDistance(), actual.getDistance(), 1e-9);
+            assertEquals(source, actual.getNodes()[0]);
+            assertEquals(target, actual.getNodes()[actual.getNodes().length - 1]);
+            assertEquals(actual.getDistance(), weight(graph, actual), 1e-9);
+        }
+    }
+
+    @Test
+    public void testSettlesFewerNodesForFarPairs() {
+        CompiledGraph graph = grid(60, 60, new Random(3));
+        int source = graph.id("0:0");
+        int target = graph.id("59:59");
+        ShortestPath expected = dijkstra.find(graph, source, target);
+        ShortestPath actual = testTarget.find(graph, source, target);
+        assertEquals(expected.getDistance(), actual.getDistance(), 1e-9);
+        assertTrue(actual.getSettledNodes() < expected.getSettledNodes());
+    }
+
+    @Test
+    public void testUnreachableTarget() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        builder.addNode("c");
+        builder.addEdge(a, b, 1);
+        CompiledGraph graph = builder.build();
+        assertNull(testTarget.find(graph, a, graph.id("c")));
+        assertNull(testTarget.find(graph, b, a));
+        assertNotNull(testTarget.find(graph, a, b));
+    }
+
+    @Test
+    public void testLandmarksSerialization() {
+        CompiledGraph graph = grid(10, 10, new Random(5));
+        Landmarks landmarks = Landmarks.build(graph, 4);
+        Landmarks restored = Landmarks.fromBytes(landmarks.toBytes(), graph);
+        assertNotNull(restored);
+        assertArrayEquals(landmarks.getLandmarks(), restored.getLandmarks());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(landmarks.lowerBound(node, 0), restored.lowerBound(node, 0));
+            assertTrue(landmarks.lowerBound(node, 0) <= ShortestPathTree.computeReverse(graph, 0).distance(node));
+        }
+        assertNull(Landmarks.fromBytes(landmarks.toBytes(), grid(3, 3, new Random(5))));
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkGraphEdge;
+import com.app.network_graph_api.model.api.NetworkGraphNode;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.connections;
+import static com.app.network_graph_api.utils.TestGraphs.networkNode;
+import static com.app.network_graph_api.utils.TestGraphs.params;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathAlgorithmDijkstraTest {
+
+    private final ShortestPathAlgorithmDijkstra testTarget = new ShortestPathAlgorithmDijkstra();
+    private final ShortestPathAlgorithmTrace trace = new ShortestPathAlgorithmTrace();
+
+    @Test
+    public void testShortestPath_1() {
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("n1", connections("n2", "n3"), params(1, 2)));
+        nodes.add(networkNode("n2", connections("n3"), params(3)));
+        nodes.add(networkNode("n3", connections("n1", "n4", "n2"), params(4)));
+        nodes.add(networkNode("n4", connections("n2", "n3"), params(1, 1)));
+        NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes);
+        List<NetworkGraphNode> path = testTarget.find(graph, "n1", "n4");
+        assertNotNull(path);
+        assertEquals(List.of("n1", "n3", "n4"), names(path));
+        assertEquals(pathWeight(graph, trace.find(graph, "n1", "n4")), pathWeight(graph, path));
+    }
+
+    @Test
+    public void testShortestPath_2() {
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("n1", connections("n2", "n3"), params(1)));
+        nodes.add(networkNode("n2", connections("n4"), params(3)));
+        nodes.add(networkNode("n3", connections("n4"), params(4)));
+        nodes.add(networkNode("n4", connections(), params(4)));
+        NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes);
+        List<NetworkGraphNode> path = testTarget.find(graph, "n1", "n4");
+        assertNotNull(path);
+        assertEquals(pathWeight(graph, trace.find(graph, "n1", "n4")), pathWeight(graph, path));
+    }
+
+    @Test
+    public void testUnreachableAndUnknownNodes() {
+        List<NetworkNode> nodes = new ArrayList<>();
+        nodes.add(networkNode("n1", connections("n2"), params(1)));
+        nodes.add(networkNode("n2", connections(), params()));
+        nodes.add(networkNode("n3", connections("n1"), params(1)));
+        NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes);
+        assertNull(testTarget.find(graph, "n1", "n3"));
+        assertNull(testTarget.find(graph, "n1", "missing"));
+        assertEquals(List.of("n1"), names(testTarget.find(graph, "n1", "n1")));
+    }
+
+    @Test
+    public void testMatchesTraceOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            List<NetworkNode> nodes = randomNodes(random, 7, 3);
+            NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes);
+            for (NetworkNode from : nodes) {
+                for (NetworkNode to : nodes) {
+                    List<NetworkGraphNode> expected = trace.find(graph, from.getName(), to.getName());
+                    List<NetworkGraphNode> actual = testTarget.find(graph, from.getName(), to.getName());
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertNotNull(actual);
+                        assertEquals(pathWeight(graph, expected), pathWeight(graph, actual));
+                    }
+                }
+            }
+        }
+    }
+
+    static List<NetworkNode> randomNodes(Random random, int count, int degree) {
+        List<NetworkNode> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> connections = new ArrayList<>();
+            List<BigDecimal> params = new ArrayList<>();
+            for (int j = 0; j < degree; j++) {
+                int target = random.nextInt(count);
+                if (target != i && !connections.contains("n" + target)) {
+                    connections.add("n" + target);
+                    params.add(new BigDecimal(1 + random.nextInt(9)));
+                }
+            }
+            nodes.add(networkNode("n" + i, connections, params));
+        }
+        return nodes;
+    }
+
+    static BigDecimal pathWeight(NetworkGraph graph, List<NetworkGraphNode> path) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < path.size() - 1; i++) {
+            String targetName = path.get(i + 1).getName();
+            total = total.add(graph.getNodes().get(path.get(i)).stream()
+                    .filter(edge -> targetName.equals(edge.getTargetNodeName()))
+                    .map(NetworkGraphEdge::getWeight)
+                    .min(BigDecimal::compareTo)
+                    .orElseThrow());
+        }
+        return total;
+    }
+
+    private static List<String> names(List<NetworkGraphNode> path) {
+        return path.stream().map(NetworkGraphNode::getName).toList();
+    }
+}
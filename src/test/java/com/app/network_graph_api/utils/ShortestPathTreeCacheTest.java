@@ -0,0 +1,98 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.service.ShortestPathTreeCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathTreeCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        CompiledGraph graph = grid(10, 10, new Random(2));
+        long treeBytes = ShortestPathTree.compute(graph, 0).memoryFootprint();
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(3 * treeBytes);
+
+        for (int source = 0; source < 3; source++) {
+            int root = source;
+            cache.get(1, 0, root, () -> ShortestPathTree.compute(graph, root));
+        }
+        // Обращение к дереву из узла 0 делает его самым свежим, вытесняется дерево из узла 1
+        assertNotNull(cache.getIfPresent(1, 0, 0));
+        cache.get(1, 0, 3, () -> ShortestPathTree.compute(graph, 3));
+
+        assertNotNull(cache.getIfPresent(1, 0, 0));
+        assertNull(cache.getIfPresent(1, 0, 1));
+        assertNotNull(cache.getIfPresent(1, 0, 2));
+        assertNotNull(cache.getIfPresent(1, 0, 3));
+    }
+
+    @Test
+    public void testKeyIncludesVersion() {
+        CompiledGraph graph = grid(6, 6, new Random(4));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(1 << 20);
+        AtomicInteger builds = new AtomicInteger();
+
+        ShortestPathTree first = cache.get(1, 0, 5, () -> {
+            builds.incrementAndGet();
+            return ShortestPathTree.compute(graph, 5);
+        });
+        assertSame(first, cache.get(1, 0, 5, () -> {
+            builds.incrementAndGet();
+            return ShortestPathTree.compute(graph, 5);
+        }));
+        assertEquals(1, builds.get());
+
+        // Та же вершина в другой версии или другом графе - другое дерево
+        assertNull(cache.getIfPresent(1, 1, 5));
+        assertNull(cache.getIfPresent(2, 0, 5));
+        cache.get(1, 1, 5, () -> {
+            builds.incrementAndGet();
+            return ShortestPathTree.compute(graph, 5);
+        });
+        assertEquals(2, builds.get());
+
+        cache.invalidate(1);
+        assertNull(cache.getIfPresent(1, 0, 5));
+        assertNull(cache.getIfPresent(1, 1, 5));
+    }
+
+    @Test
+    public void testMigrateRepairsTreesToNewVersion() {
+        CompiledGraph graph = grid(12, 12, new Random(6));
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(1 << 20);
+        for (int source : new int[]{0, 17, 40}) {
+            cache.get(1, 3, source, () -> ShortestPathTree.compute(graph, source));
+        }
+        // Дерево более старой версии не переносится
+        cache.get(1, 2, 9, () -> ShortestPathTree.compute(graph, 9));
+        cache.get(2, 3, 0, () -> ShortestPathTree.compute(graph, 0));
+
+        double[] weights = graph.weights();
+        int[] changed = {graph.edgesStart(0), graph.edgesStart(17) + 1, graph.edgesStart(70)};
+        for (int edge : changed) {
+            weights[edge] = weights[edge] * 3 + 1;
+        }
+        CompiledGraph updated = graph.withWeights(weights);
+
+        int migrated = cache.migrate(1, 3, 4, tree -> tree.getRoot() == 40 ? null : tree.repair(updated, changed));
+        assertEquals(2, migrated);
+
+        for (int source : new int[]{0, 17}) {
+            assertNull(cache.getIfPresent(1, 3, source));
+            ShortestPathTree repaired = cache.getIfPresent(1, 4, source);
+            ShortestPathTree expected = ShortestPathTree.compute(updated, source);
+            for (int node = 0; node < updated.nodeCount(); node++) {
+                assertEquals(expected.distance(node), repaired.distance(node), 1e-9);
+            }
+        }
+        // Не восстановленное дерево удалено, деревья прочих версий графа тоже, другой граф не затронут
+        assertNull(cache.getIfPresent(1, 4, 40));
+        assertNull(cache.getIfPresent(1, 2, 9));
+        assertNotNull(cache.getIfPresent(2, 3, 0));
+    }
+}
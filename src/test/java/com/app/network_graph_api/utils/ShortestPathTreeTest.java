@@ -0,0 +1,109 @@
+package com.app.network_graph_api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.grid;
+import static com.app.network_graph_api.utils.TestGraphs.weight;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathTreeTest {
+
+    @Test
+    public void testTargetsStopSearchEarly() {
+        CompiledGraph graph = grid(30, 30, new Random(5));
+        int source = graph.id("0:0");
+        int[] targets = {graph.id("3:2"), graph.id("1:5"), graph.id("4:4")};
+
+        ShortestPathTree full = ShortestPathTree.compute(graph, source);
+        ShortestPathTree partial = ShortestPathTree.compute(graph, source, targets);
+
+        assertTrue(partial.getSettledNodes() < full.getSettledNodes());
+        for (int target : targets) {
+            assertEquals(full.distance(target), partial.distance(target), 1e-9);
+            ShortestPath path = partial.path(target);
+            assertEquals(source, path.getNodes()[0]);
+            assertEquals(partial.distance(target), weight(graph, path), 1e-9);
+        }
+    }
+
+    @Test
+    public void testReverseTreeMatchesForwardDistances() {
+        CompiledGraph graph = grid(12, 12, new Random(8));
+        int target = graph.id("7:3");
+        ShortestPathTree reverse = ShortestPathTree.computeReverse(graph, target);
+
+        for (int source = 0; source < graph.nodeCount(); source += 5) {
+            assertEquals(ShortestPathTree.compute(graph, source).distance(target), reverse.distance(source), 1e-9);
+            ShortestPath path = reverse.path(source);
+            assertEquals(source, path.getNodes()[0]);
+            assertEquals(target, path.getNodes()[path.getNodes().length - 1]);
+        }
+    }
+
+    @Test
+    public void testRepairMatchesRecomputation() {
+        Random random = new Random(13);
+        CompiledGraph graph = grid(20, 20, random);
+        int source = graph.id("4:7");
+        ShortestPathTree tree = ShortestPathTree.compute(graph, source);
+
+        for (int step = 0; step < 30; step++) {
+            double[] weights = graph.weights();
+            int[] changed = new int[1 + random.nextInt(5)];
+            for (int i = 0; i < changed.length; i++) {
+                // Чаще меняем рёбра дерева, чтобы проверить пересчёт поддеревьев
+                int node = random.nextInt(graph.nodeCount());
+                ShortestPath path = tree.path(node);
+                changed[i] = path != null && path.getEdges().length > 0 && random.nextBoolean()
+                        ? path.getEdges()[path.getEdges().length - 1]
+                        : random.nextInt(graph.edgeCount());
+                weights[changed[i]] = random.nextInt(30);
+            }
+            graph = graph.withWeights(weights);
+            tree = tree.repair(graph, changed);
+
+            ShortestPathTree expected = ShortestPathTree.compute(graph, source);
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                assertEquals(expected.distance(node), tree.distance(node), 1e-9);
+                assertEquals(tree.distance(node), weight(graph, tree.path(node)), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeWeightsUsePotentials() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        int d = builder.addNode("d");
+        builder.addEdge(a, b, 4).addEdge(a, c, 2).addEdge(b, c, -3).addEdge(c, d, 1).addEdge(d, b, 5);
+        CompiledGraph graph = builder.build();
+
+        ShortestPathTree tree = ShortestPathTree.compute(graph, a, new int[]{c, d});
+        assertEquals(1.0, tree.distance(c), 1e-9);
+        assertEquals(2.0, tree.distance(d), 1e-9);
+        assertEquals(List.of("a", "b", "c", "d"), graph.names(tree.path(d).getNodes()));
+        assertEquals(tree.distance(d), weight(graph, tree.path(d)), 1e-9);
+
+        ShortestPathTree reverse = ShortestPathTree.computeReverse(graph, d);
+        assertEquals(2.0, reverse.distance(a), 1e-9);
+        assertEquals(-2.0, reverse.distance(b), 1e-9);
+    }
+
+    @Test
+    public void testNegativeCycleIsRejected() {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        int a = builder.addNode("a");
+        int b = builder.addNode("b");
+        int c = builder.addNode("c");
+        builder.addEdge(a, b, 1).addEdge(b, c, -3).addEdge(c, b, 1);
+        CompiledGraph graph = builder.build();
+
+        // Без проверки поиск на цикле отрицательного веса не завершился бы
+        assertThrows(IllegalArgumentException.class, () -> ShortestPathTree.compute(graph, a, new int[]{c}));
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphBuildIssue;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.assertSameGraph;
+import static com.app.network_graph_api.utils.TestGraphs.node;
+import static com.app.network_graph_api.utils.TestGraphs.nodes;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingGraphBuilderTest {
+
+    @Test
+    public void testMatchesListBuild() {
+        for (int seed = 0; seed < 10; seed++) {
+            List<NetworkNode> nodes = nodes(200, new Random(seed));
+            WeightFormula formula = seed % 2 == 0 ? WeightFormula.DEFAULT_EDGE : WeightFormula.edge("w * 2 + i");
+
+            StreamingGraphBuilder builder = new StreamingGraphBuilder(formula);
+            nodes.forEach(builder::accept);
+            StreamingGraphBuilder.Result result = builder.build();
+
+            assertSameGraph(CompiledGraph.of(nodes, formula), result.getGraph());
+            List<GraphBuildIssue> expected = NetworkGraphUtils.build(nodes, formula, WeightFormula.DEFAULT_NODE)
+                    .getIssues();
+            List<GraphBuildIssue> actual = result.getIssues();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getType(), actual.get(i).getType());
+                assertEquals(expected.get(i).getNode(), actual.get(i).getNode());
+                assertEquals(expected.get(i).getIndex(), actual.get(i).getIndex());
+                assertEquals(expected.get(i).getReference(), actual.get(i).getReference());
+                assertEquals(expected.get(i).getDetail(), actual.get(i).getDetail());
+            }
+        }
+    }
+
+    @Test
+    public void testForwardReference() {
+        StreamingGraphBuilder builder = new StreamingGraphBuilder(WeightFormula.DEFAULT_EDGE);
+        builder.accept(node("a", "b", 1, "c", 2));
+        builder.accept(node("b", "a", 3));
+        StreamingGraphBuilder.Result result = builder.build();
+
+        CompiledGraph graph = result.getGraph();
+        assertEquals(2, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(0, graph.id("a"));
+        assertEquals(1, graph.id("b"));
+        assertEquals(-1, graph.id("c"));
+        assertEquals(1, graph.edgeTarget(graph.edgesStart(0)));
+        assertEquals(1.0, graph.edgeWeight(graph.edgesStart(0)));
+
+        assertEquals(1, result.getIssues().size());
+        assertEquals(GraphBuildIssue.Type.DANGLING_REFERENCE, result.getIssues().get(0).getType());
+        assertEquals("c", result.getIssues().get(0).getReference());
+        assertEquals(Integer.valueOf(1), result.getIssues().get(0).getIndex());
+    }
+}
@@ -0,0 +1,183 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Общие тестовые графы, эталонные расчёты и проверки
+ */
+public final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    public static CompiledGraph grid(int width, int height, Random random) {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.addNode(x + ":" + y);
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int node = y * width + x;
+                if (x + 1 < width) {
+                    builder.addEdge(node, node + 1, 1 + random.nextInt(10));
+                    builder.addEdge(node + 1, node, 1 + random.nextInt(10));
+                }
+                if (y + 1 < height) {
+                    builder.addEdge(node, node + width, 1 + random.nextInt(10));
+                    builder.addEdge(node + width, node, 1 + random.nextInt(10));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public static double weight(CompiledGraph graph, ShortestPath path) {
+        double total = 0;
+        for (int i = 0; i < path.getEdges().length; i++) {
+            int edge = path.getEdges()[i];
+            assertEquals(path.getNodes()[i + 1], graph.edgeTarget(edge));
+            total += graph.edgeWeight(edge);
+        }
+        return total;
+    }
+
+    /**
+     * Эталон: классический Беллман-Форд, nodeCount - 1 проходов по всем рёбрам
+     */
+    public static double[] distances(CompiledGraph graph, int source) {
+        double[] distances = new double[graph.nodeCount()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0;
+        for (int round = 1; round < graph.nodeCount(); round++) {
+            boolean changed = false;
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                if (distances[node] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+                    double candidate = distances[node] + graph.edgeWeight(edge);
+                    if (candidate < distances[graph.edgeTarget(edge)]) {
+                        distances[graph.edgeTarget(edge)] = candidate;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Отрицательные веса только у рёбер вперёд по номеру узла; ребро назад тяжелее любой цепочки
+     * рёбер вперёд, поэтому циклов отрицательного веса нет
+     */
+    public static double negative(int random) {
+        return random < 10 ? random - 4.5 : random * 1000;
+    }
+
+    public interface Weight {
+        double of(int random);
+    }
+
+    /**
+     * Случайный граф: рёбра вперёд по номеру узла получают вес {@code weight(0..9)}, рёбра назад
+     * (только при {@code backward}) - вес {@code weight(10..19)}
+     */
+    public static CompiledGraph random(int nodes, int edges, boolean backward, Random random, Weight weight) {
+        CompiledGraph.Builder builder = CompiledGraph.builder();
+        for (int node = 0; node < nodes; node++) {
+            builder.addNode("n" + node);
+        }
+        for (int i = 0; i < edges; i++) {
+            int a = random.nextInt(nodes);
+            int b = random.nextInt(nodes);
+            if (a == b) {
+                continue;
+            }
+            if (a < b) {
+                builder.addEdge(a, b, weight.of(random.nextInt(10)));
+            } else if (backward) {
+                builder.addEdge(a, b, weight.of(10 + random.nextInt(10)));
+            }
+        }
+        return builder.build();
+    }
+
+    public static void assertSameGraph(CompiledGraph expected, CompiledGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(expected.name(node), actual.name(node));
+            assertEquals(expected.edgesStart(node), actual.edgesStart(node));
+            assertEquals(expected.edgesEnd(node), actual.edgesEnd(node));
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertEquals(expected.edgeTarget(edge), actual.edgeTarget(edge));
+            assertEquals(expected.edgeWeight(edge), actual.edgeWeight(edge));
+        }
+    }
+
+    /**
+     * Случайные узлы со ссылками вперёд и назад, висячими ссылками, повторными именами
+     * и несовпадением числа параметров
+     */
+    public static List<NetworkNode> nodes(int count, Random random) {
+        List<NetworkNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            NetworkNode node = new NetworkNode();
+            node.setName("n" + (random.nextInt(20) == 0 ? random.nextInt(i + 1) : i));
+            int degree = random.nextInt(5);
+            for (int j = 0; j < degree; j++) {
+                node.getConnectedNodes().add(random.nextInt(10) == 0 ? "missing" + j : "n" + random.nextInt(count));
+                node.getParameters().add(BigDecimal.valueOf(random.nextInt(100)));
+            }
+            if (degree > 0 && random.nextInt(10) == 0) {
+                node.getParameters().remove(0);
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    public static NetworkNode node(String name, Object... connections) {
+        NetworkNode node = new NetworkNode();
+        node.setName(name);
+        for (int i = 0; i < connections.length; i += 2) {
+            node.getConnectedNodes().add((String) connections[i]);
+            node.getParameters().add(BigDecimal.valueOf(((Number) connections[i + 1]).doubleValue()));
+        }
+        return node;
+    }
+
+    public static NetworkNode networkNode(String name, List<String> connections, List<BigDecimal> params) {
+        NetworkNode node = new NetworkNode();
+        node.setName(name);
+        node.setConnectedNodes(connections);
+        node.setParameters(params);
+        return node;
+    }
+
+    public static List<String> connections(String... names) {
+        return new ArrayList<>(Arrays.asList(names));
+    }
+
+    public static List<BigDecimal> params(int... values) {
+        List<BigDecimal> result = new ArrayList<>();
+        for (int v : values) {
+            result.add(new BigDecimal(v));
+        }
+        return result;
+    }
+}
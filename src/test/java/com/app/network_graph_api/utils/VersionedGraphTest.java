@@ -0,0 +1,75 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.GraphMutation;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static com.app.network_graph_api.utils.TestGraphs.assertSameGraph;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionedGraphTest {
+
+    @Test
+    public void testMatchesMutator() {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            CompiledGraph graph = CompiledGraph.of(TestGraphs.nodes(60, random));
+            VersionedGraph versioned = VersionedGraph.of(graph, 0);
+            assertSameGraph(graph, versioned.compile());
+            for (int step = 0; step < 200; step++) {
+                List<GraphMutation> operations = List.of(GraphMutatorTest.randomOperation(graph, random, step));
+                graph = GraphMutator.apply(graph, operations);
+                versioned = versioned.apply(operations, step + 1);
+                assertEquals(step + 1, versioned.version());
+                assertSameGraph(graph, versioned.compile());
+            }
+        }
+    }
+
+    @Test
+    public void testVersionsShareChunks() {
+        CompiledGraph graph = TestGraphs.random(3000, 12000, true, new Random(1), w -> w + 1);
+        VersionedGraph v0 = VersionedGraph.of(graph, 0);
+        assertEquals(3, v0.chunkCount());
+
+        int edge = graph.edgesStart(5);
+        String from = graph.name(5);
+        String to = graph.name(graph.edgeTarget(edge));
+        VersionedGraph v1 = v0.apply(List.of(
+                new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, from, to, BigDecimal.valueOf(100))), 1);
+        assertEquals(2, v1.sharedChunks(v0));
+
+        VersionedGraph v2 = v1.apply(List.of(
+                new GraphMutation(GraphMutation.Type.REMOVE_NODE, graph.name(2500), null, null, null),
+                new GraphMutation(GraphMutation.Type.ADD_NODE, "extra", null, null, null)), 2);
+        // Удаление не перенумеровывает узлы других блоков, новый узел дописывается в тот же последний блок
+        assertEquals(2, v2.sharedChunks(v1));
+        assertEquals(3, v2.chunkCount());
+
+        // Прошлые версии не меняются
+        assertSameGraph(graph, v0.compile());
+        CompiledGraph compiled1 = v1.compile();
+        assertEquals(100.0, compiled1.edgeWeight(compiled1.edgesStart(5)));
+        CompiledGraph compiled2 = v2.compile();
+        assertEquals(graph.nodeCount(), compiled2.nodeCount());
+        assertEquals(-1, compiled2.id(graph.name(2500)));
+        assertEquals(graph.nodeCount() - 1, compiled2.id("extra"));
+    }
+
+    @Test
+    public void testFailedOperationKeepsVersion() {
+        List<NetworkNode> nodes = new ArrayList<>(List.of(TestGraphs.node("a", "b", 1),
+                TestGraphs.node("b")));
+        VersionedGraph versioned = VersionedGraph.of(CompiledGraph.of(nodes), 0);
+        assertThrows(NoSuchElementException.class, () -> versioned.apply(List.of(
+                new GraphMutation(GraphMutation.Type.SET_WEIGHT, null, "a", "b", BigDecimal.ONE),
+                new GraphMutation(GraphMutation.Type.REMOVE_EDGE, null, "b", "a", null)), 1));
+        assertEquals(1.0, versioned.compile().edgeWeight(0));
+    }
+}
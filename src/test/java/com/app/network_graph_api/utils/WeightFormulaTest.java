@@ -0,0 +1,124 @@
+package com.app.network_graph_api.utils;
+
+import com.app.network_graph_api.model.api.NetworkGraph;
+import com.app.network_graph_api.model.api.NetworkGraphEdge;
+import com.app.network_graph_api.model.api.NetworkGraphNode;
+import com.app.network_graph_api.model.api.NetworkNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightFormulaTest {
+
+    private final double[] parameters = {2, 3, 5};
+
+    @Test
+    public void testEvaluate() {
+        assertEquals(3, WeightFormula.compile("w").evaluate(parameters, 1));
+        assertEquals(0, WeightFormula.compile("w").evaluate(parameters, 7));
+        assertEquals(2 + 3 * 1.5, WeightFormula.compile("p0 + p[1] * 1.5").evaluate(parameters, 0));
+        assertEquals(-41, WeightFormula.compile("-(p2 + 2) ^ 2 + 2 * (n - 1) * i").evaluate(parameters, 2));
+        assertEquals(10, WeightFormula.compile("sum").evaluate(parameters, 0));
+        assertEquals(10.0 / 3, WeightFormula.compile("avg").evaluate(parameters, 0), 1e-12);
+        assertEquals(5, WeightFormula.compile("max(w, min(p1, 4)) + abs(-1) - sqrt(4) + pow(2, 0)")
+                .evaluate(parameters, 2));
+        assertEquals(1.5e3, WeightFormula.compile("1.5e3").evaluate(parameters, 0));
+    }
+
+    @Test
+    public void testRejectsInvalidFormulas() {
+        for (String formula : new String[]{"", "w +", "x", "foo(1)", "min(1)", "(w", "w w", "p[1.5]", "2 $ 3"}) {
+            assertThrows(IllegalArgumentException.class, () -> WeightFormula.compile(formula), formula);
+        }
+        assertThrows(IllegalArgumentException.class, () -> WeightFormula.node("w * 2"));
+        assertSame(WeightFormula.DEFAULT_EDGE, WeightFormula.edge(" "));
+        assertSame(WeightFormula.DEFAULT_NODE, WeightFormula.node(null));
+    }
+
+    @Test
+    public void testBuildGraphAndCompiledGraphUseSameFormula() {
+        NetworkNode nodeA = new NetworkNode();
+        nodeA.setName("A");
+        nodeA.setConnectedNodes(Arrays.asList("B", "C", "missing"));
+        nodeA.setParameters(Arrays.asList(BigDecimal.valueOf(2), BigDecimal.valueOf(3)));
+        NetworkNode nodeB = new NetworkNode();
+        nodeB.setName("B");
+        nodeB.setConnectedNodes(List.of("C"));
+        nodeB.setParameters(List.of(BigDecimal.valueOf(5)));
+        NetworkNode nodeC = new NetworkNode();
+        nodeC.setName("C");
+        List<NetworkNode> nodes = Arrays.asList(nodeA, nodeB, nodeC);
+
+        // Задержка плюс стоимость с коэффициентом
+        WeightFormula edgeFormula = WeightFormula.edge("w + sum * 0.5");
+        WeightFormula nodeFormula = WeightFormula.node("n * 10");
+        NetworkGraph graph = NetworkGraphUtils.buildGraph(nodes, edgeFormula, nodeFormula);
+        assertEquals("w + sum * 0.5", graph.getEdgeWeightFormula());
+        assertEquals("n * 10", graph.getNodeValueFormula());
+
+        NetworkGraphNode graphNodeA = NetworkGraphUtils.findNodeByName(graph, "A");
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(graphNodeA.getValue()));
+        List<NetworkGraphEdge> edges = graph.getNodes().get(graphNodeA);
+        assertEquals(2, edges.size());
+        assertEquals(0, BigDecimal.valueOf(4.5).compareTo(edges.get(0).getWeight()));
+        assertEquals(0, BigDecimal.valueOf(5.5).compareTo(edges.get(1).getWeight()));
+
+        // Граф, сохранённый с формулой, компилируется с теми же весами
+        NetworkGraph restored = GsonUtils.gson().fromJson(GsonUtils.gson().toJson(graph), NetworkGraph.class);
+        CompiledGraph compiled = CompiledGraph.of(restored);
+        int a = compiled.id("A");
+        assertEquals(4.5, compiled.edgeWeight(compiled.edgesStart(a)));
+        assertEquals(5.5, compiled.edgeWeight(compiled.edgesStart(a) + 1));
+        int b = compiled.id("B");
+        assertEquals(7.5, compiled.edgeWeight(compiled.edgesStart(b)));
+    }
+
+    @Test
+    public void testRejectsNonFiniteResults() {
+        NetworkNode node = new NetworkNode();
+        node.setName("A");
+        node.setConnectedNodes(Arrays.asList("B", "C"));
+        node.setParameters(Arrays.asList(BigDecimal.valueOf(2), BigDecimal.ZERO));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> WeightFormula.edge("1 / w").edgeWeights(node));
+        assertTrue(e.getMessage().contains("A -> C"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> WeightFormula.node("sqrt(-sum)").nodeValue(node));
+        assertThrows(IllegalArgumentException.class, () -> NetworkGraphUtils.build(List.of(node),
+                WeightFormula.edge("10 ^ 400 * w"), WeightFormula.DEFAULT_NODE));
+    }
+
+    @Test
+    public void testBuildResultCompilesWithoutReevaluation() {
+        NetworkNode first = new NetworkNode();
+        first.setName("A");
+        first.setConnectedNodes(Arrays.asList("B", "missing", "C"));
+        first.setParameters(Arrays.asList(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3)));
+        NetworkNode nodeB = new NetworkNode();
+        nodeB.setName("B");
+        nodeB.setConnectedNodes(List.of("A"));
+        nodeB.setParameters(List.of(new BigDecimal("0.1")));
+        // Второе описание узла с тем же именем дополняет его рёбра
+        NetworkNode second = new NetworkNode();
+        second.setName("A");
+        second.setConnectedNodes(List.of("B"));
+        second.setParameters(List.of(BigDecimal.valueOf(4)));
+        NetworkNode nodeC = new NetworkNode();
+        nodeC.setName("C");
+        List<NetworkNode> nodes = Arrays.asList(first, nodeB, second, nodeC);
+
+        for (WeightFormula formula : new WeightFormula[]{WeightFormula.DEFAULT_EDGE, WeightFormula.edge("w * i + sum")}) {
+            CompiledGraph expected = CompiledGraph.of(nodes, formula);
+            CompiledGraph compiled = NetworkGraphUtils.build(nodes, formula, WeightFormula.DEFAULT_NODE).compile();
+            assertEquals(expected.nodeCount(), compiled.nodeCount());
+            assertArrayEquals(expected.weights(), compiled.weights());
+            for (int edge = 0; edge < expected.edgeCount(); edge++) {
+                assertEquals(expected.edgeTarget(edge), compiled.edgeTarget(edge));
+            }
+        }
+    }
+}